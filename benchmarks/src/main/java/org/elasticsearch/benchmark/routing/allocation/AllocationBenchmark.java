@@ -10,17 +10,31 @@ package org.elasticsearch.benchmark.routing.allocation;
 
 import org.elasticsearch.TransportVersion;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.cluster.ClusterInfo;
 import org.elasticsearch.cluster.ClusterName;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.cluster.metadata.Metadata;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.routing.RoutingChangesObserver;
+import org.elasticsearch.cluster.routing.RoutingNodes;
 import org.elasticsearch.cluster.routing.RoutingTable;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.routing.allocation.AllocationService;
+import org.elasticsearch.cluster.routing.allocation.RoutingAllocation;
+import org.elasticsearch.cluster.routing.allocation.allocator.BalancedShardsAllocator;
+import org.elasticsearch.cluster.routing.allocation.allocator.DesiredBalance;
+import org.elasticsearch.cluster.routing.allocation.allocator.DesiredBalanceComputer;
+import org.elasticsearch.cluster.routing.allocation.allocator.DesiredBalanceInput;
+import org.elasticsearch.cluster.routing.allocation.allocator.ShardAssignment;
+import org.elasticsearch.cluster.routing.allocation.decider.AllocationDeciders;
 import org.elasticsearch.cluster.version.CompatibilityVersions;
+import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.time.TimeProvider;
 import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.snapshots.SnapshotShardSizeInfo;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -35,6 +49,8 @@ import org.openjdk.jmh.annotations.Warmup;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -104,7 +120,12 @@ public class AllocationBenchmark {
             "       10|     10|        2|    50",
             "      100|      1|        2|    50",
             "      100|      3|        2|    50",
-            "      100|     10|        2|    50" }
+            "      100|     10|        2|    50",
+
+            // large clusters, mostly interesting for the desired balance computations
+            "     1000|     10|        1|   100",
+            "     3000|     10|        1|   100",
+            "     5000|      3|        1|   200" }
     )
     public String indicesShardsReplicasNodes = "10|1|0|1";
 
@@ -113,6 +134,12 @@ public class AllocationBenchmark {
     private AllocationService strategy;
     private ClusterState initialClusterState;
 
+    private DesiredBalanceComputer fullDesiredBalanceComputer;
+    private DesiredBalance fullDesiredBalance;
+    private DesiredBalanceComputer incrementalDesiredBalanceComputer;
+    private DesiredBalance incrementalDesiredBalance;
+    private DesiredBalanceInput newIndexInput;
+
     @Setup
     public void setUp() throws Exception {
         final String[] params = indicesShardsReplicasNodes.split("\\|");
@@ -122,9 +149,8 @@ public class AllocationBenchmark {
         int numReplicas = toInt(params[2]);
         int numNodes = toInt(params[3]);
 
-        strategy = Allocators.createAllocationService(
-            Settings.builder().put("cluster.routing.allocation.awareness.attributes", "tag").build()
-        );
+        Settings settings = Settings.builder().put("cluster.routing.allocation.awareness.attributes", "tag").build();
+        strategy = Allocators.createAllocationService(settings);
 
         Metadata.Builder mb = Metadata.builder();
         for (int i = 1; i <= numIndices; i++) {
@@ -155,6 +181,87 @@ public class AllocationBenchmark {
             .nodes(nb)
             .nodeIdsToCompatibilityVersions(compatibilityVersions)
             .build();
+
+        setUpDesiredBalanceComputations(settings, numShards, numReplicas);
+    }
+
+    /**
+     * Start all shards where a first desired balance computation puts them and then create one more index, so the benchmarks
+     * measure the computation that follows an index creation in a balanced cluster.
+     */
+    private void setUpDesiredBalanceComputations(Settings settings, int numShards, int numReplicas) {
+        ClusterSettings clusterSettings = new ClusterSettings(settings, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
+        AllocationDeciders deciders = Allocators.defaultAllocationDeciders(settings, clusterSettings);
+        fullDesiredBalanceComputer = new DesiredBalanceComputer(clusterSettings, TIME_PROVIDER, new BalancedShardsAllocator(settings));
+        DesiredBalance initialDesiredBalance = fullDesiredBalanceComputer.compute(
+            DesiredBalance.BECOME_MASTER_INITIAL,
+            desiredBalanceInput(deciders, initialClusterState),
+            new LinkedList<>(),
+            input -> true
+        );
+        ClusterState balancedClusterState = startShardsOnDesiredNodes(initialClusterState, initialDesiredBalance);
+
+        IndexMetadata newIndex = IndexMetadata.builder("new_index")
+            .settings(Settings.builder().put(IndexMetadata.SETTING_VERSION_CREATED, IndexVersion.current()))
+            .numberOfShards(numShards)
+            .numberOfReplicas(numReplicas)
+            .build();
+        ClusterState newIndexClusterState = ClusterState.builder(balancedClusterState)
+            .metadata(Metadata.builder(balancedClusterState.metadata()).put(newIndex, false))
+            .routingTable(
+                RoutingTable.builder(TestShardRoutingRoleStrategies.DEFAULT_ROLE_ONLY, balancedClusterState.routingTable())
+                    .addAsNew(newIndex)
+            )
+            .build();
+        newIndexInput = desiredBalanceInput(deciders, newIndexClusterState);
+
+        DesiredBalanceInput balancedInput = desiredBalanceInput(deciders, balancedClusterState);
+        fullDesiredBalance = fullDesiredBalanceComputer.compute(initialDesiredBalance, balancedInput, new LinkedList<>(), input -> true);
+
+        Settings incrementalSettings = Settings.builder()
+            .put(settings)
+            .put(DesiredBalanceComputer.INCREMENTAL_COMPUTATION_SETTING.getKey(), true)
+            .build();
+        incrementalDesiredBalanceComputer = new DesiredBalanceComputer(
+            new ClusterSettings(incrementalSettings, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS),
+            TIME_PROVIDER,
+            new BalancedShardsAllocator(settings)
+        );
+        incrementalDesiredBalance = incrementalDesiredBalanceComputer.compute(
+            initialDesiredBalance,
+            balancedInput,
+            new LinkedList<>(),
+            input -> true
+        );
+    }
+
+    private static DesiredBalanceInput desiredBalanceInput(AllocationDeciders deciders, ClusterState clusterState) {
+        return DesiredBalanceInput.create(
+            clusterState.version(),
+            new RoutingAllocation(deciders, clusterState, ClusterInfo.EMPTY, SnapshotShardSizeInfo.EMPTY, 0L)
+        );
+    }
+
+    private static ClusterState startShardsOnDesiredNodes(ClusterState clusterState, DesiredBalance desiredBalance) {
+        RoutingNodes routingNodes = clusterState.mutableRoutingNodes();
+        RoutingChangesObserver changes = new RoutingChangesObserver.DelegatingRoutingChangesObserver();
+        Map<ShardId, Iterator<String>> desiredNodeIds = new HashMap<>();
+        for (boolean primary : new boolean[] { true, false }) {
+            for (RoutingNodes.UnassignedShards.UnassignedIterator it = routingNodes.unassigned().iterator(); it.hasNext();) {
+                ShardRouting shardRouting = it.next();
+                if (shardRouting.primary() != primary) {
+                    continue;
+                }
+                Iterator<String> nodeIds = desiredNodeIds.computeIfAbsent(shardRouting.shardId(), shardId -> {
+                    ShardAssignment assignment = desiredBalance.getAssignment(shardId);
+                    return assignment == null ? Collections.emptyIterator() : assignment.nodeIds().iterator();
+                });
+                if (nodeIds.hasNext()) {
+                    routingNodes.startShard(it.initialize(nodeIds.next(), null, 0L, changes), changes, 0L);
+                }
+            }
+        }
+        return ClusterState.builder(clusterState).routingTable(RoutingTable.of(routingNodes)).build();
     }
 
     private int toInt(String v) {
@@ -180,4 +287,49 @@ public class AllocationBenchmark {
         }
         return clusterState;
     }
+
+    /**
+     * Measures the desired balance computation after an index creation, re-planning every shard in the cluster.
+     */
+    @Benchmark
+    public DesiredBalance measureFullDesiredBalanceComputation() {
+        fullDesiredBalance = fullDesiredBalanceComputer.compute(fullDesiredBalance, newIndexInput, new LinkedList<>(), input -> true);
+        return fullDesiredBalance;
+    }
+
+    /**
+     * Measures the desired balance computation after an index creation, only re-planning the shards of the new index.
+     */
+    @Benchmark
+    public DesiredBalance measureIncrementalDesiredBalanceComputation() {
+        incrementalDesiredBalance = incrementalDesiredBalanceComputer.compute(
+            incrementalDesiredBalance,
+            newIndexInput,
+            new LinkedList<>(),
+            input -> true
+        );
+        return incrementalDesiredBalance;
+    }
+
+    private static final TimeProvider TIME_PROVIDER = new TimeProvider() {
+        @Override
+        public long relativeTimeInMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+        }
+
+        @Override
+        public long relativeTimeInNanos() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public long rawRelativeTimeInMillis() {
+            return relativeTimeInMillis();
+        }
+
+        @Override
+        public long absoluteTimeInMillis() {
+            return System.currentTimeMillis();
+        }
+    };
 }
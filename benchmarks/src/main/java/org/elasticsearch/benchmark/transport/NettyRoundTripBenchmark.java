@@ -0,0 +1,145 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+package org.elasticsearch.benchmark.transport;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.transport.netty4.Netty4Plugin;
+import org.elasticsearch.transport.netty4.SharedGroupFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of sending a message to an echo server over loopback and receiving it back, using the event loop groups, channel
+ * types and allocators that {@link SharedGroupFactory} picks for NIO and for the native epoll transport. The epoll variant only runs on
+ * Linux. Run with {@code -prof perfnorm} to compare CPU cycles and instructions per round trip, or under {@code strace -c -f} to compare
+ * syscall counts.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 7)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1)
+public class NettyRoundTripBenchmark {
+
+    @Param({ "nio", "epoll" })
+    private String transport;
+
+    @Param({ "128", "16384", "1048576" })
+    private int messageSize;
+
+    private SharedGroupFactory.SharedGroup group;
+    private Channel serverChannel;
+    private Channel clientChannel;
+    private ByteBuf message;
+    private volatile CompletableFuture<Void> echoed;
+
+    @Setup
+    public void setUp() throws Exception {
+        final boolean useEpoll = transport.equals("epoll");
+        if (useEpoll && Epoll.isAvailable() == false) {
+            throw new IllegalStateException("epoll is not available", Epoll.unavailabilityCause());
+        }
+        final Settings settings = Settings.builder()
+            .put(Netty4Plugin.WORKER_COUNT.getKey(), 2)
+            .put(Netty4Plugin.NETTY_USE_EPOLL.getKey(), useEpoll)
+            .build();
+        group = new SharedGroupFactory(settings).getTransportGroup();
+
+        serverChannel = new ServerBootstrap().group(group.getLowLevelGroup())
+            .channel(group.getServerChannelType())
+            .option(ChannelOption.ALLOCATOR, group.getAllocator())
+            .childOption(ChannelOption.ALLOCATOR, group.getAllocator())
+            .childOption(ChannelOption.TCP_NODELAY, true)
+            .childHandler(new ChannelInitializer<>() {
+                @Override
+                protected void initChannel(Channel ch) {
+                    ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                        @Override
+                        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                            ctx.writeAndFlush(msg);
+                        }
+                    });
+                }
+            })
+            .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+            .sync()
+            .channel();
+
+        clientChannel = new Bootstrap().group(group.getLowLevelGroup())
+            .channel(group.getChannelType())
+            .option(ChannelOption.ALLOCATOR, group.getAllocator())
+            .option(ChannelOption.TCP_NODELAY, true)
+            .handler(new ChannelInitializer<>() {
+                @Override
+                protected void initChannel(Channel ch) {
+                    ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                        private int received;
+
+                        @Override
+                        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                            final ByteBuf buf = (ByteBuf) msg;
+                            received += buf.readableBytes();
+                            buf.release();
+                            if (received == messageSize) {
+                                received = 0;
+                                echoed.complete(null);
+                            }
+                        }
+                    });
+                }
+            })
+            .connect(serverChannel.localAddress())
+            .sync()
+            .channel();
+
+        message = group.getAllocator().buffer(messageSize).writeZero(messageSize);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        message.release();
+        clientChannel.close().sync();
+        serverChannel.close().sync();
+        group.shutdown();
+    }
+
+    @Benchmark
+    public void roundTrip() throws Exception {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        echoed = future;
+        clientChannel.writeAndFlush(message.retainedDuplicate());
+        future.get(10, TimeUnit.SECONDS);
+    }
+}
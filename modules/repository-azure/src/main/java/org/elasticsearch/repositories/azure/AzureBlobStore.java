@@ -47,6 +47,7 @@ import com.azure.storage.blob.specialized.BlockBlobAsyncClient;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.util.Throwables;
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.cluster.metadata.RepositoryMetadata;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.blobstore.BlobContainer;
@@ -58,6 +59,7 @@ import org.elasticsearch.common.blobstore.OperationPurpose;
 import org.elasticsearch.common.blobstore.OptionalBytesReference;
 import org.elasticsearch.common.blobstore.support.BlobContainerUtils;
 import org.elasticsearch.common.blobstore.support.BlobMetadata;
+import org.elasticsearch.common.blobstore.support.MultipartUploadBudget;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.unit.ByteSizeUnit;
@@ -548,14 +550,37 @@ public class AzureBlobStore implements BlobStore {
             final long lastPartSize = multiParts.v2();
             assert blobSize == (((nbParts - 1) * partSize) + lastPartSize) : "blobSize does not match multipart sizes";
 
-            final List<String> blockIds = new ArrayList<>(nbParts);
-            for (int i = 0; i < nbParts; i++) {
-                final long length = i < nbParts - 1 ? partSize : lastPartSize;
-                Flux<ByteBuffer> byteBufferFlux = convertStreamToByteBuffer(inputStream, length, DEFAULT_UPLOAD_BUFFERS_SIZE);
-
-                final String blockId = makeMultipartBlockId();
-                blockBlobAsyncClient.stageBlock(blockId, byteBufferFlux, length).block();
-                blockIds.add(blockId);
+            final List<String> blockIds;
+            final MultipartUploadBudget multipartUploadBudget = service.getMultipartUploadBudget();
+            if (nbParts > 1 && multipartUploadBudget != null && multipartUploadBudget.canUploadConcurrently(partSize)) {
+                // blocks that are staged but never committed are garbage collected by Azure, no need to clean them up on failure
+                blockIds = multipartUploadBudget.uploadParts(
+                    bigArrays,
+                    inputStream,
+                    nbParts,
+                    partSize,
+                    lastPartSize,
+                    (partIndex, bytes, listener) -> {
+                        final String blockId = makeMultipartBlockId();
+                        final Flux<ByteBuffer> byteBufferFlux = convertBytesToByteBuffer(bytes, DEFAULT_UPLOAD_BUFFERS_SIZE);
+                        blockBlobAsyncClient.stageBlock(blockId, byteBufferFlux, bytes.length())
+                            .subscribe(
+                                ignored -> {},
+                                e -> listener.onFailure(e instanceof Exception exception ? exception : new RuntimeException(e)),
+                                () -> listener.onResponse(blockId)
+                            );
+                    }
+                );
+            } else {
+                blockIds = new ArrayList<>(nbParts);
+                for (int i = 0; i < nbParts; i++) {
+                    final long length = i < nbParts - 1 ? partSize : lastPartSize;
+                    Flux<ByteBuffer> byteBufferFlux = convertStreamToByteBuffer(inputStream, length, DEFAULT_UPLOAD_BUFFERS_SIZE);
+
+                    final String blockId = makeMultipartBlockId();
+                    blockBlobAsyncClient.stageBlock(blockId, byteBufferFlux, length).block();
+                    blockIds.add(blockId);
+                }
             }
 
             blockBlobAsyncClient.commitBlockList(blockIds, failIfAlreadyExists == false).block();
@@ -569,6 +594,21 @@ public class AzureBlobStore implements BlobStore {
         return base64Encoder.encodeToString(base64UrlDecoder.decode(UUIDs.base64UUID()));
     }
 
+    /**
+     * Converts the provided bytes into a Flux of ByteBuffer of {@code chunkSize} size. The ByteBuffers are copies of the bytes since they
+     * may be retained by the HTTP client after the upload completes and the bytes are released (see {@link #convertStreamToByteBuffer}).
+     * @param bytes the bytes to convert
+     * @param chunkSize the chunk size in bytes
+     * @return a Flux of ByteBuffers
+     */
+    private static Flux<ByteBuffer> convertBytesToByteBuffer(BytesReference bytes, int chunkSize) {
+        final int length = bytes.length();
+        return Flux.range(0, (length + chunkSize - 1) / chunkSize).map(i -> {
+            final BytesRef chunk = bytes.slice(i * chunkSize, Math.min(chunkSize, length - i * chunkSize)).toBytesRef();
+            return ByteBuffer.wrap(Arrays.copyOfRange(chunk.bytes, chunk.offset, chunk.offset + chunk.length));
+        });
+    }
+
     /**
      * Converts the provided input stream into a Flux of ByteBuffer. To avoid having large amounts of outstanding
      * memory this Flux reads the InputStream into ByteBuffers of {@code chunkSize} size.
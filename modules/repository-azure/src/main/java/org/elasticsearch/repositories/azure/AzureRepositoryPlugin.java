@@ -101,6 +101,7 @@ public class AzureRepositoryPlugin extends Plugin implements RepositoryPlugin, R
             AzureClientProvider.MAX_OPEN_CONNECTIONS,
             AzureClientProvider.OPEN_CONNECTION_TIMEOUT,
             AzureClientProvider.MAX_IDLE_TIME,
+            AzureStorageService.MULTIPART_UPLOAD_MAX_IN_FLIGHT_BYTES_SETTING,
             AzureStorageSettings.ACCOUNT_SETTING,
             AzureStorageSettings.KEY_SETTING,
             AzureStorageSettings.SAS_TOKEN_SETTING,
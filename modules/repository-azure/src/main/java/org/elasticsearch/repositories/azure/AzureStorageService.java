@@ -16,10 +16,13 @@ import com.azure.storage.common.policy.RetryPolicyType;
 
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.blobstore.OperationPurpose;
+import org.elasticsearch.common.blobstore.support.MultipartUploadBudget;
+import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.settings.SettingsException;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.monitor.jvm.JvmInfo;
 
@@ -69,11 +72,23 @@ public class AzureStorageService {
 
     private static final long DEFAULT_UPLOAD_BLOCK_SIZE = DEFAULT_BLOCK_SIZE.getBytes();
 
+    /**
+     * The maximum number of bytes of the blocks of multi-block uploads that the node buffers on heap to upload them concurrently, across
+     * all Azure repositories. Defaults to zero, which uploads the blocks of each blob one after the other.
+     */
+    static final Setting<ByteSizeValue> MULTIPART_UPLOAD_MAX_IN_FLIGHT_BYTES_SETTING = Setting.byteSizeSetting(
+        "repository.azure.multipart_upload.max_in_flight_bytes",
+        ByteSizeValue.ZERO,
+        Setting.Property.NodeScope
+    );
+
     // 'package' for testing
     volatile Map<String, AzureStorageSettings> storageSettings = emptyMap();
     private final AzureClientProvider azureClientProvider;
     private final ClientLogger clientLogger = new ClientLogger(AzureStorageService.class);
     private final boolean stateless;
+    @Nullable
+    private final MultipartUploadBudget multipartUploadBudget;
 
     public AzureStorageService(Settings settings, AzureClientProvider azureClientProvider) {
         // eagerly load client settings so that secure settings are read
@@ -81,6 +96,8 @@ public class AzureStorageService {
         refreshSettings(clientsSettings);
         this.azureClientProvider = azureClientProvider;
         this.stateless = DiscoveryNode.isStateless(settings);
+        final long maxInFlightBytes = MULTIPART_UPLOAD_MAX_IN_FLIGHT_BYTES_SETTING.get(settings).getBytes();
+        this.multipartUploadBudget = maxInFlightBytes > 0L ? new MultipartUploadBudget(maxInFlightBytes) : null;
     }
 
     public AzureBlobServiceClient client(String clientName, LocationMode locationMode, OperationPurpose purpose) {
@@ -133,6 +150,15 @@ public class AzureStorageService {
         return DEFAULT_UPLOAD_BLOCK_SIZE;
     }
 
+    /**
+     * @return the budget for uploading the blocks of multi-block uploads concurrently, or {@code null} if blocks are uploaded one after
+     * the other
+     */
+    @Nullable
+    MultipartUploadBudget getMultipartUploadBudget() {
+        return multipartUploadBudget;
+    }
+
     int getMaxReadRetries(String clientName) {
         AzureStorageSettings azureStorageSettings = getClientSettings(clientName);
         return azureStorageSettings.getMaxRetries();
@@ -68,12 +68,14 @@ public abstract class AbstractAzureServerTestCase extends ESTestCase {
     protected HttpServer httpServer;
     protected HttpServer secondaryHttpServer;
     protected boolean serverlessMode;
+    protected ByteSizeValue multipartUploadMaxInFlightBytes;
     private ThreadPool threadPool;
     private AzureClientProvider clientProvider;
 
     @Before
     public void setUp() throws Exception {
         serverlessMode = false;
+        multipartUploadMaxInFlightBytes = ByteSizeValue.ZERO;
         threadPool = new TestThreadPool(
             getTestClass().getName(),
             AzureRepositoryPlugin.executorBuilder(),
@@ -130,6 +132,7 @@ public abstract class AbstractAzureServerTestCase extends ESTestCase {
 
         clientSettings.setSecureSettings(secureSettings);
         clientSettings.put(DiscoveryNode.STATELESS_ENABLED_SETTING_NAME, serverlessMode);
+        clientSettings.put(AzureStorageService.MULTIPART_UPLOAD_MAX_IN_FLIGHT_BYTES_SETTING.getKey(), multipartUploadMaxInFlightBytes);
 
         final AzureStorageService service = new AzureStorageService(clientSettings.build(), clientProvider) {
             @Override
@@ -10,6 +10,7 @@ package org.elasticsearch.repositories.azure;
 
 import fixture.azure.AzureHttpHandler;
 
+import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
 import org.elasticsearch.common.Strings;
@@ -20,8 +21,11 @@ import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.lucene.store.ByteArrayIndexInput;
 import org.elasticsearch.common.lucene.store.InputStreamIndexInput;
 import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.CountDown;
 import org.elasticsearch.core.SuppressForbidden;
+import org.elasticsearch.core.Tuple;
 import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.rest.RestUtils;
 
@@ -37,9 +41,12 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -358,6 +365,91 @@ public class AzureBlobContainerRetriesTests extends AbstractAzureServerTestCase
         assertEquals(blobSize, bytesReceived.get());
     }
 
+    public void testWriteLargeBlobConcurrently() throws Exception {
+        final int maxRetries = randomIntBetween(2, 5);
+        multipartUploadMaxInFlightBytes = ByteSizeValue.ofMb(between(2, 4));
+
+        final byte[] data = randomBytes(ByteSizeUnit.MB.toIntBytes(between(2, 6)) + randomIntBetween(0, ByteSizeUnit.MB.toIntBytes(1)));
+
+        final Map<String, BytesReference> blocks = new ConcurrentHashMap<>();
+        final Set<String> failedBlocks = ConcurrentCollections.newConcurrentSet();
+        // the first block is only acknowledged once another block is received, which requires staging blocks concurrently
+        final AtomicReference<Tuple<String, HttpExchange>> heldBlock = new AtomicReference<>();
+        final AtomicBoolean concurrentBlocks = new AtomicBoolean();
+        final CountDown countDownComplete = new CountDown(1);
+        httpServer.createContext("/account/container/write_large_blob_concurrently", exchange -> {
+
+            if ("PUT".equals(exchange.getRequestMethod())) {
+                final Map<String, String> params = new HashMap<>();
+                RestUtils.decodeQueryString(exchange.getRequestURI().getRawQuery(), 0, params);
+
+                final String blockId = params.get("blockid");
+                assert Strings.hasText(blockId) == false || AzureFixtureHelper.assertValidBlockId(blockId);
+
+                if (Strings.hasText(blockId)) {
+                    final BytesReference blockData = Streams.readFully(exchange.getRequestBody());
+                    if (randomBoolean() && failedBlocks.add(blockId)) {
+                        AzureHttpHandler.sendError(exchange, randomFrom(RestStatus.INTERNAL_SERVER_ERROR, RestStatus.SERVICE_UNAVAILABLE));
+                        exchange.close();
+                        return;
+                    }
+                    blocks.put(blockId, blockData);
+                    if (concurrentBlocks.get() == false) {
+                        final Tuple<String, HttpExchange> held = heldBlock.get();
+                        if (held == null || held.v1().equals(blockId)) {
+                            if (held != null) {
+                                held.v2().close(); // the client timed out and retried the held block
+                            }
+                            heldBlock.set(Tuple.tuple(blockId, exchange));
+                            return;
+                        }
+                        concurrentBlocks.set(true);
+                        held.v2().sendResponseHeaders(RestStatus.CREATED.getStatus(), -1);
+                        held.v2().close();
+                    }
+                    exchange.sendResponseHeaders(RestStatus.CREATED.getStatus(), -1);
+                    exchange.close();
+                    return;
+                }
+
+                final String complete = params.get("comp");
+                if ("blocklist".equals(complete) && (countDownComplete.countDown())) {
+                    final String blockList = Streams.copyToString(new InputStreamReader(exchange.getRequestBody(), UTF_8));
+                    final List<String> blockUids = Arrays.stream(blockList.split("<Latest>"))
+                        .filter(line -> line.contains("</Latest>"))
+                        .map(line -> line.substring(0, line.indexOf("</Latest>")))
+                        .collect(Collectors.toList());
+
+                    final ByteArrayOutputStream blob = new ByteArrayOutputStream();
+                    for (String blockUid : blockUids) {
+                        BytesReference block = blocks.remove(blockUid);
+                        assert block != null;
+                        block.writeTo(blob);
+                    }
+                    assertArrayEquals(data, blob.toByteArray());
+                    exchange.getResponseHeaders().add("x-ms-request-server-encrypted", "false");
+                    exchange.sendResponseHeaders(RestStatus.CREATED.getStatus(), -1);
+                    exchange.close();
+                    return;
+                }
+            }
+
+            Streams.readFully(exchange.getRequestBody());
+            AzureHttpHandler.sendError(exchange, RestStatus.BAD_REQUEST);
+            exchange.close();
+        });
+
+        final BlobContainer blobContainer = createBlobContainer(maxRetries);
+
+        try (InputStream stream = new InputStreamIndexInput(new ByteArrayIndexInput("desc", data), data.length)) {
+            blobContainer.writeBlob(randomPurpose(), "write_large_blob_concurrently", stream, data.length, false);
+        }
+
+        assertThat(concurrentBlocks.get(), is(true));
+        assertThat(countDownComplete.isCountedDown(), is(true));
+        assertThat(blocks.isEmpty(), is(true));
+    }
+
     public void testRetryUntilFail() throws Exception {
         final int maxRetries = randomIntBetween(2, 5);
         final AtomicInteger requestsReceived = new AtomicInteger(0);
@@ -52,10 +52,12 @@ import org.elasticsearch.common.blobstore.OptionalBytesReference;
 import org.elasticsearch.common.blobstore.support.AbstractBlobContainer;
 import org.elasticsearch.common.blobstore.support.BlobContainerUtils;
 import org.elasticsearch.common.blobstore.support.BlobMetadata;
+import org.elasticsearch.common.blobstore.support.MultipartUploadBudget;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.collect.Iterators;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.core.CheckedConsumer;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
@@ -75,6 +77,7 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -513,34 +516,50 @@ class S3BlobContainer extends AbstractBlobContainer {
                 throw new IOException("Failed to initialize multipart upload " + blobName);
             }
 
-            final List<PartETag> parts = new ArrayList<>();
-
-            long bytesCount = 0;
-            for (int i = 1; i <= nbParts; i++) {
-                final boolean lastPart = i == nbParts;
-                final UploadPartRequest uploadRequest = createPartUploadRequest(
+            final List<PartETag> parts;
+            final MultipartUploadBudget multipartUploadBudget = s3BlobStore.multipartUploadBudget();
+            if (nbParts > 1 && multipartUploadBudget != null && multipartUploadBudget.canUploadConcurrently(partSize)) {
+                parts = uploadPartsConcurrently(
                     purpose,
-                    input,
-                    uploadId.get(),
-                    i,
+                    s3BlobStore,
+                    multipartUploadBudget,
                     blobName,
-                    lastPart ? lastPartSize : partSize,
-                    lastPart
+                    uploadId.get(),
+                    input,
+                    nbParts,
+                    partSize,
+                    lastPartSize
                 );
-                bytesCount += uploadRequest.getPartSize();
-
-                try (AmazonS3Reference clientReference = s3BlobStore.clientReference()) {
-                    final UploadPartResult uploadResponse = SocketAccess.doPrivileged(
-                        () -> clientReference.client().uploadPart(uploadRequest)
+            } else {
+                parts = new ArrayList<>();
+                long bytesCount = 0;
+                for (int i = 1; i <= nbParts; i++) {
+                    final boolean lastPart = i == nbParts;
+                    final UploadPartRequest uploadRequest = createPartUploadRequest(
+                        purpose,
+                        input,
+                        uploadId.get(),
+                        i,
+                        blobName,
+                        lastPart ? lastPartSize : partSize,
+                        lastPart
                     );
-                    parts.add(uploadResponse.getPartETag());
+                    bytesCount += uploadRequest.getPartSize();
+
+                    try (AmazonS3Reference clientReference = s3BlobStore.clientReference()) {
+                        final UploadPartResult uploadResponse = SocketAccess.doPrivileged(
+                            () -> clientReference.client().uploadPart(uploadRequest)
+                        );
+                        parts.add(uploadResponse.getPartETag());
+                    }
                 }
-            }
 
-            if (bytesCount != blobSize) {
-                throw new IOException(
-                    "Failed to execute multipart upload for [" + blobName + "], expected " + blobSize + "bytes sent but got " + bytesCount
-                );
+                if (bytesCount != blobSize) {
+                    throw new IOException(
+                        "Failed to execute multipart upload for [" + blobName + "], expected " + blobSize + "bytes sent but got "
+                            + bytesCount
+                    );
+                }
             }
 
             final CompleteMultipartUploadRequest complRequest = new CompleteMultipartUploadRequest(
@@ -564,6 +583,45 @@ class S3BlobContainer extends AbstractBlobContainer {
         }
     }
 
+    /**
+     * Uploads the parts of a multipart upload concurrently on the generic thread pool, buffering each part in pages obtained from the
+     * blob store's {@link BigArrays} within the given budget while it is being uploaded.
+     */
+    private List<PartETag> uploadPartsConcurrently(
+        OperationPurpose purpose,
+        S3BlobStore s3BlobStore,
+        MultipartUploadBudget multipartUploadBudget,
+        String blobName,
+        String uploadId,
+        InputStream input,
+        int nbParts,
+        long partSize,
+        long lastPartSize
+    ) throws IOException {
+        final Executor executor = s3BlobStore.getThreadPool().generic();
+        return multipartUploadBudget.uploadParts(
+            s3BlobStore.bigArrays(),
+            input,
+            nbParts,
+            partSize,
+            lastPartSize,
+            (partIndex, bytes, listener) -> executor.execute(ActionRunnable.supply(listener, () -> {
+                final UploadPartRequest uploadRequest = createPartUploadRequest(
+                    purpose,
+                    bytes.streamInput(),
+                    uploadId,
+                    partIndex + 1,
+                    blobName,
+                    bytes.length(),
+                    partIndex == nbParts - 1
+                );
+                try (AmazonS3Reference clientReference = s3BlobStore.clientReference()) {
+                    return SocketAccess.doPrivileged(() -> clientReference.client().uploadPart(uploadRequest)).getPartETag();
+                }
+            }))
+        );
+    }
+
     // non-static, package private for testing
     void ensureMultiPartUploadSize(final long blobSize) {
         if (blobSize > MAX_FILE_SIZE_USING_MULTIPART.getBytes()) {
@@ -34,8 +34,10 @@ import org.elasticsearch.common.blobstore.BlobStore;
 import org.elasticsearch.common.blobstore.BlobStoreActionStats;
 import org.elasticsearch.common.blobstore.BlobStoreException;
 import org.elasticsearch.common.blobstore.OperationPurpose;
+import org.elasticsearch.common.blobstore.support.MultipartUploadBudget;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.repositories.RepositoriesMetrics;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -327,6 +329,15 @@ class S3BlobStore implements BlobStore {
         return bufferSize.getBytes();
     }
 
+    /**
+     * @return the budget for uploading the parts of multipart uploads concurrently, or {@code null} if parts are uploaded one after the
+     * other
+     */
+    @Nullable
+    MultipartUploadBudget multipartUploadBudget() {
+        return service.multipartUploadBudget;
+    }
+
     public RepositoryMetadata getRepositoryMetadata() {
         return repositoryMetadata;
     }
@@ -38,10 +38,13 @@ import org.elasticsearch.cluster.coordination.stateless.StoreHeartbeatService;
 import org.elasticsearch.cluster.metadata.RepositoryMetadata;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.blobstore.support.MultipartUploadBudget;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.watcher.FileChangesListener;
@@ -78,6 +81,17 @@ class S3Service implements Closeable {
         TimeValue.timeValueHours(24),
         Setting.Property.NodeScope
     );
+
+    /**
+     * The maximum number of bytes of the parts of multipart uploads that the node buffers on heap to upload them concurrently, across all
+     * S3 repositories. Defaults to zero, which uploads the parts of each blob one after the other.
+     */
+    static final Setting<ByteSizeValue> REPOSITORY_S3_MULTIPART_UPLOAD_MAX_IN_FLIGHT_BYTES_SETTING = Setting.byteSizeSetting(
+        "repository_s3.multipart_upload.max_in_flight_bytes",
+        ByteSizeValue.ZERO,
+        Setting.Property.NodeScope
+    );
+
     private volatile Map<S3ClientSettings, AmazonS3Reference> clientsCache = emptyMap();
 
     /**
@@ -99,6 +113,8 @@ class S3Service implements Closeable {
     final TimeValue compareAndExchangeTimeToLive;
     final TimeValue compareAndExchangeAntiContentionDelay;
     final boolean isStateless;
+    @Nullable
+    final MultipartUploadBudget multipartUploadBudget;
 
     S3Service(Environment environment, Settings nodeSettings, ResourceWatcherService resourceWatcherService) {
         webIdentityTokenCredentialsProvider = new CustomWebIdentityTokenCredentialsProvider(
@@ -111,6 +127,8 @@ class S3Service implements Closeable {
         compareAndExchangeTimeToLive = REPOSITORY_S3_CAS_TTL_SETTING.get(nodeSettings);
         compareAndExchangeAntiContentionDelay = REPOSITORY_S3_CAS_ANTI_CONTENTION_DELAY_SETTING.get(nodeSettings);
         isStateless = DiscoveryNode.isStateless(nodeSettings);
+        final long maxInFlightBytes = REPOSITORY_S3_MULTIPART_UPLOAD_MAX_IN_FLIGHT_BYTES_SETTING.get(nodeSettings).getBytes();
+        multipartUploadBudget = maxInFlightBytes > 0L ? new MultipartUploadBudget(maxInFlightBytes) : null;
     }
 
     /**
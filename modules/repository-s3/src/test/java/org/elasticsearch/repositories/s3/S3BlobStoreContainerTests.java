@@ -27,16 +27,31 @@ import com.amazonaws.services.s3.model.UploadPartResult;
 
 import org.elasticsearch.common.blobstore.BlobPath;
 import org.elasticsearch.common.blobstore.BlobStoreException;
+import org.elasticsearch.common.blobstore.support.MultipartUploadBudget;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.MockBigArrays;
+import org.elasticsearch.common.util.MockPageCacheRecycler;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.TestThreadPool;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.mockito.ArgumentCaptor;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -260,6 +275,149 @@ public class S3BlobStoreContainerTests extends ESTestCase {
         closeMockClient(blobStore);
     }
 
+    public void testExecuteMultipartUploadConcurrently() throws IOException {
+        final String bucketName = randomAlphaOfLengthBetween(1, 10);
+        final String blobName = randomAlphaOfLengthBetween(1, 10);
+        final byte[] bytes = randomByteArrayOfLength(Math.toIntExact(ByteSizeUnit.MB.toBytes(5)) + between(0, 1 << 20));
+        final long bufferSize = ByteSizeUnit.KB.toBytes(randomIntBetween(256, 1024));
+
+        final S3BlobStore blobStore = mock(S3BlobStore.class);
+        when(blobStore.bucket()).thenReturn(bucketName);
+        when(blobStore.bufferSizeInBytes()).thenReturn(bufferSize);
+        when(blobStore.getStorageClass()).thenReturn(randomFrom(StorageClass.values()));
+        when(blobStore.multipartUploadBudget()).thenReturn(new MultipartUploadBudget(bufferSize * randomIntBetween(1, 8)));
+        final BigArrays bigArrays = new MockBigArrays(new MockPageCacheRecycler(Settings.EMPTY), ByteSizeValue.ofMb(16));
+        when(blobStore.bigArrays()).thenReturn(bigArrays);
+
+        final ThreadPool threadPool = new TestThreadPool(getTestName());
+        when(blobStore.getThreadPool()).thenReturn(threadPool);
+
+        final AmazonS3 client = configureMockClient(blobStore);
+        try {
+            final InitiateMultipartUploadResult initResult = new InitiateMultipartUploadResult();
+            initResult.setUploadId(randomAlphaOfLength(10));
+            when(client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initResult);
+
+            final Map<Integer, byte[]> uploadedParts = ConcurrentCollections.newConcurrentMap();
+            when(client.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocationOnMock -> {
+                final UploadPartRequest request = (UploadPartRequest) invocationOnMock.getArguments()[0];
+                final byte[] part = request.getInputStream().readAllBytes();
+                assertEquals(request.getPartSize(), part.length);
+                assertNull(uploadedParts.put(request.getPartNumber(), part));
+                final UploadPartResult response = new UploadPartResult();
+                response.setPartNumber(request.getPartNumber());
+                response.setETag("etag-" + request.getPartNumber());
+                return response;
+            });
+
+            final ArgumentCaptor<CompleteMultipartUploadRequest> compArgCaptor = ArgumentCaptor.forClass(
+                CompleteMultipartUploadRequest.class
+            );
+            when(client.completeMultipartUpload(compArgCaptor.capture())).thenReturn(new CompleteMultipartUploadResult());
+
+            final S3BlobContainer blobContainer = new S3BlobContainer(BlobPath.EMPTY, blobStore);
+            blobContainer.executeMultipartUpload(randomPurpose(), blobStore, blobName, new ByteArrayInputStream(bytes), bytes.length);
+
+            final int numberOfParts = S3BlobContainer.numberOfMultiparts(bytes.length, bufferSize).v1().intValue();
+            assertEquals(numberOfParts, uploadedParts.size());
+            final ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+            for (int i = 1; i <= numberOfParts; i++) {
+                uploaded.write(uploadedParts.get(i));
+            }
+            assertArrayEquals(bytes, uploaded.toByteArray());
+
+            final List<String> actualETags = compArgCaptor.getValue().getPartETags().stream().map(PartETag::getETag).toList();
+            assertEquals(IntStream.rangeClosed(1, numberOfParts).mapToObj(i -> "etag-" + i).toList(), actualETags);
+            verify(client, times(0)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+            assertThat(bigArrays.breakerService().getBreaker(CircuitBreaker.REQUEST).getUsed(), equalTo(0L));
+        } finally {
+            closeMockClient(blobStore);
+            ThreadPool.terminate(threadPool, 30, TimeUnit.SECONDS);
+        }
+    }
+
+    public void testExecuteMultipartUploadConcurrentlyAbortsAfterInFlightParts() {
+        final String bucketName = randomAlphaOfLengthBetween(1, 10);
+        final String blobName = randomAlphaOfLengthBetween(1, 10);
+        final byte[] bytes = randomByteArrayOfLength(Math.toIntExact(ByteSizeUnit.MB.toBytes(5)) + between(0, 1 << 20));
+        final long bufferSize = ByteSizeUnit.KB.toBytes(randomIntBetween(256, 1024));
+        final int numberOfParts = S3BlobContainer.numberOfMultiparts(bytes.length, bufferSize).v1().intValue();
+        final int concurrentParts = between(2, 8);
+        final int failingPartNumber = between(1, Math.min(concurrentParts, numberOfParts));
+
+        final S3BlobStore blobStore = mock(S3BlobStore.class);
+        when(blobStore.bucket()).thenReturn(bucketName);
+        when(blobStore.bufferSizeInBytes()).thenReturn(bufferSize);
+        when(blobStore.getStorageClass()).thenReturn(randomFrom(StorageClass.values()));
+        when(blobStore.multipartUploadBudget()).thenReturn(new MultipartUploadBudget(bufferSize * concurrentParts));
+        final BigArrays bigArrays = new MockBigArrays(new MockPageCacheRecycler(Settings.EMPTY), ByteSizeValue.ofMb(16));
+        when(blobStore.bigArrays()).thenReturn(bigArrays);
+
+        final ThreadPool threadPool = new TestThreadPool(getTestName());
+        when(blobStore.getThreadPool()).thenReturn(threadPool);
+
+        final AmazonS3 client = configureMockClient(blobStore);
+        try {
+            final String uploadId = randomAlphaOfLength(10);
+            final InitiateMultipartUploadResult initResult = new InitiateMultipartUploadResult();
+            initResult.setUploadId(uploadId);
+            when(client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initResult);
+
+            final AtomicInteger inFlightParts = new AtomicInteger();
+            final CountDownLatch partFailed = new CountDownLatch(1);
+            final AmazonClientException exception = new AmazonClientException("Expected upload part request to fail");
+            when(client.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocationOnMock -> {
+                final UploadPartRequest request = (UploadPartRequest) invocationOnMock.getArguments()[0];
+                inFlightParts.incrementAndGet();
+                try {
+                    if (request.getPartNumber() == failingPartNumber) {
+                        partFailed.countDown();
+                        throw exception;
+                    }
+                    // the parts that were read before the failing one are still in flight when it fails
+                    safeAwait(partFailed);
+                    final UploadPartResult response = new UploadPartResult();
+                    response.setPartNumber(request.getPartNumber());
+                    response.setETag("etag-" + request.getPartNumber());
+                    return response;
+                } finally {
+                    inFlightParts.decrementAndGet();
+                }
+            });
+
+            final AtomicInteger inFlightPartsOnAbort = new AtomicInteger(-1);
+            final ArgumentCaptor<AbortMultipartUploadRequest> abortArgCaptor = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+            doAnswer(invocationOnMock -> {
+                inFlightPartsOnAbort.set(inFlightParts.get());
+                return null;
+            }).when(client).abortMultipartUpload(abortArgCaptor.capture());
+
+            final S3BlobContainer blobContainer = new S3BlobContainer(BlobPath.EMPTY, blobStore);
+            final IOException e = expectThrows(
+                IOException.class,
+                () -> blobContainer.executeMultipartUpload(
+                    randomPurpose(),
+                    blobStore,
+                    blobName,
+                    new ByteArrayInputStream(bytes),
+                    bytes.length
+                )
+            );
+            assertEquals("Unable to upload object [" + blobName + "] using multipart upload", e.getMessage());
+            assertSame(exception, e.getCause());
+
+            verify(client, times(0)).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+            verify(client, times(1)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+            assertEquals(uploadId, abortArgCaptor.getValue().getUploadId());
+            // the upload is aborted only once all the parts that were read have settled
+            assertThat(inFlightPartsOnAbort.get(), equalTo(0));
+            assertThat(bigArrays.breakerService().getBreaker(CircuitBreaker.REQUEST).getUsed(), equalTo(0L));
+        } finally {
+            closeMockClient(blobStore);
+            ThreadPool.terminate(threadPool, 30, TimeUnit.SECONDS);
+        }
+    }
+
     public void testExecuteMultipartUploadAborted() {
         final String bucketName = randomAlphaOfLengthBetween(1, 10);
         final String blobName = randomAlphaOfLengthBetween(1, 10);
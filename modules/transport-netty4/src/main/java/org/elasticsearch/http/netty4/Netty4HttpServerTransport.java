@@ -19,7 +19,6 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.FixedRecvByteBufAllocator;
 import io.netty.channel.RecvByteBufAllocator;
-import io.netty.channel.socket.nio.NioChannelOption;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.http.HttpContentCompressor;
 import io.netty.handler.codec.http.HttpContentDecompressor;
@@ -60,8 +59,8 @@ import org.elasticsearch.rest.ChunkedZipResponse;
 import org.elasticsearch.telemetry.tracing.Tracer;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.netty4.AcceptChannelHandler;
-import org.elasticsearch.transport.netty4.NetUtils;
 import org.elasticsearch.transport.netty4.Netty4Plugin;
+import org.elasticsearch.transport.netty4.Netty4Transport;
 import org.elasticsearch.transport.netty4.Netty4Utils;
 import org.elasticsearch.transport.netty4.Netty4WriteThrottlingHandler;
 import org.elasticsearch.transport.netty4.NettyAllocator;
@@ -175,12 +174,12 @@ public class Netty4HttpServerTransport extends AbstractHttpServerTransport {
 
             serverBootstrap.group(sharedGroup.getLowLevelGroup());
 
-            // NettyAllocator will return the channel type designed to work with the configuredAllocator
-            serverBootstrap.channel(NettyAllocator.getServerChannelType());
+            // NettyAllocator will return the channel type designed to work with the configured allocator and the group's transport
+            serverBootstrap.channel(sharedGroup.getServerChannelType());
 
             // Set the allocators for both the server channel and the child channels created
-            serverBootstrap.option(ChannelOption.ALLOCATOR, NettyAllocator.getAllocator());
-            serverBootstrap.childOption(ChannelOption.ALLOCATOR, NettyAllocator.getAllocator());
+            serverBootstrap.option(ChannelOption.ALLOCATOR, sharedGroup.getAllocator());
+            serverBootstrap.childOption(ChannelOption.ALLOCATOR, sharedGroup.getAllocator());
 
             serverBootstrap.childHandler(configureServerChannelHandler());
             serverBootstrap.handler(ServerChannelExceptionHandler.INSTANCE);
@@ -193,19 +192,19 @@ public class Netty4HttpServerTransport extends AbstractHttpServerTransport {
                 if (IOUtils.LINUX || IOUtils.MAC_OS_X) {
                     if (SETTING_HTTP_TCP_KEEP_IDLE.get(settings) >= 0) {
                         serverBootstrap.childOption(
-                            NioChannelOption.of(NetUtils.getTcpKeepIdleSocketOption()),
+                            Netty4Transport.tcpKeepIdleOption(sharedGroup.usesEpoll()),
                             SETTING_HTTP_TCP_KEEP_IDLE.get(settings)
                         );
                     }
                     if (SETTING_HTTP_TCP_KEEP_INTERVAL.get(settings) >= 0) {
                         serverBootstrap.childOption(
-                            NioChannelOption.of(NetUtils.getTcpKeepIntervalSocketOption()),
+                            Netty4Transport.tcpKeepIntervalOption(sharedGroup.usesEpoll()),
                             SETTING_HTTP_TCP_KEEP_INTERVAL.get(settings)
                         );
                     }
                     if (SETTING_HTTP_TCP_KEEP_COUNT.get(settings) >= 0) {
                         serverBootstrap.childOption(
-                            NioChannelOption.of(NetUtils.getTcpKeepCountSocketOption()),
+                            Netty4Transport.tcpKeepCountOption(sharedGroup.usesEpoll()),
                             SETTING_HTTP_TCP_KEEP_COUNT.get(settings)
                         );
                     }
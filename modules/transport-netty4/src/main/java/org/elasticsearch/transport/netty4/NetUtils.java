@@ -9,6 +9,10 @@
 
 package org.elasticsearch.transport.netty4;
 
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelException;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannelConfig;
 import jdk.net.ExtendedSocketOptions;
 
 import org.elasticsearch.core.SuppressForbidden;
@@ -77,6 +81,32 @@ public class NetUtils {
         }
     }
 
+    /**
+     * Like {@link #tryEnsureReasonableKeepAliveConfig(NetworkChannel)} but for any of the socket channel types returned by
+     * {@link NettyAllocator#getChannelType(boolean)}.
+     */
+    public static void tryEnsureReasonableKeepAliveConfig(Channel channel) {
+        if (channel instanceof Netty4NioSocketChannel nioSocketChannel) {
+            tryEnsureReasonableKeepAliveConfig(nioSocketChannel.javaChannel());
+        } else {
+            assert channel instanceof EpollSocketChannel : channel;
+            final EpollSocketChannelConfig config = ((EpollSocketChannel) channel).config();
+            try {
+                if (config.isKeepAlive()) {
+                    if (config.getTcpKeepIdle() > 300) {
+                        config.setTcpKeepIdle(300);
+                    }
+                    if (config.getTcpKeepIntvl() > 300) {
+                        config.setTcpKeepIntvl(300);
+                    }
+                }
+            } catch (ChannelException e) {
+                // Getting an exception here should be ok when concurrently closing the channel
+                assert e.getCause() instanceof IOException : e;
+            }
+        }
+    }
+
     private static void setMinValueForSocketOption(NetworkChannel socketChannel, SocketOption<Integer> option, int minValue) {
         Objects.requireNonNull(option);
         if (socketChannel.supportedOptions().contains(option)) {
@@ -82,6 +82,24 @@ public class Netty4Plugin extends Plugin implements NetworkPlugin {
         Setting.Property.NodeScope
     );
     public static final Setting<Integer> NETTY_BOSS_COUNT = intSetting("transport.netty.boss_count", 1, 1, Setting.Property.NodeScope);
+    /*
+     * Whether small transport messages may be sent ahead of large messages that are queued on the same channel but not yet being written,
+     * see Netty4WriteThrottlingHandler. Messages are never interleaved so this needs no support from the receiving node.
+     */
+    public static final Setting<Boolean> NETTY_PRIORITIZE_SMALL_MESSAGES = Setting.boolSetting(
+        "transport.netty.prioritize_small_messages",
+        false,
+        Setting.Property.NodeScope
+    );
+    /*
+     * Whether to use Netty's native epoll transport instead of NIO for both the transport and HTTP. Falls back to NIO if epoll isn't
+     * available on this platform, see SharedGroupFactory. Epoll channels always use a direct buffer allocator, see NettyAllocator.
+     */
+    public static final Setting<Boolean> NETTY_USE_EPOLL = Setting.boolSetting(
+        "transport.netty.use_epoll",
+        false,
+        Setting.Property.NodeScope
+    );
     /*
      * Size in bytes of an individual message received by io.netty.handler.codec.MessageAggregator which accumulates the content for an
      * HTTP request. This number is used for estimating the maximum number of allowed buffers before the MessageAggregator's internal
@@ -134,7 +152,9 @@ public class Netty4Plugin extends Plugin implements NetworkPlugin {
             NETTY_RECEIVE_PREDICTOR_SIZE,
             NETTY_RECEIVE_PREDICTOR_MIN,
             NETTY_RECEIVE_PREDICTOR_MAX,
-            NETTY_BOSS_COUNT
+            NETTY_BOSS_COUNT,
+            NETTY_PRIORITIZE_SMALL_MESSAGES,
+            NETTY_USE_EPOLL
         );
     }
 
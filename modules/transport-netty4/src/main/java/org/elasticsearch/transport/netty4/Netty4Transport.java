@@ -20,6 +20,7 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.FixedRecvByteBufAllocator;
 import io.netty.channel.RecvByteBufAllocator;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.socket.nio.NioChannelOption;
 import io.netty.util.AttributeKey;
 
@@ -71,10 +72,23 @@ public class Netty4Transport extends TcpTransport {
     public static final ChannelOption<Integer> OPTION_TCP_KEEP_INTERVAL = NioChannelOption.of(NetUtils.getTcpKeepIntervalSocketOption());
     public static final ChannelOption<Integer> OPTION_TCP_KEEP_COUNT = NioChannelOption.of(NetUtils.getTcpKeepCountSocketOption());
 
+    public static ChannelOption<Integer> tcpKeepIdleOption(boolean epoll) {
+        return epoll ? EpollChannelOption.TCP_KEEPIDLE : OPTION_TCP_KEEP_IDLE;
+    }
+
+    public static ChannelOption<Integer> tcpKeepIntervalOption(boolean epoll) {
+        return epoll ? EpollChannelOption.TCP_KEEPINTVL : OPTION_TCP_KEEP_INTERVAL;
+    }
+
+    public static ChannelOption<Integer> tcpKeepCountOption(boolean epoll) {
+        return epoll ? EpollChannelOption.TCP_KEEPCNT : OPTION_TCP_KEEP_COUNT;
+    }
+
     private final SharedGroupFactory sharedGroupFactory;
     private final RecvByteBufAllocator recvByteBufAllocator;
     private final ByteSizeValue receivePredictorMin;
     private final ByteSizeValue receivePredictorMax;
+    private final boolean prioritizeSmallMessages;
     private final Map<String, ServerBootstrap> serverBootstraps = newConcurrentMap();
     private volatile Bootstrap clientBootstrap;
     private volatile SharedGroupFactory.SharedGroup sharedGroup;
@@ -101,6 +115,7 @@ public class Netty4Transport extends TcpTransport {
         // See AdaptiveReceiveBufferSizePredictor#DEFAULT_XXX for default values in netty..., we can use higher ones for us, even fixed one
         this.receivePredictorMin = Netty4Plugin.NETTY_RECEIVE_PREDICTOR_MIN.get(settings);
         this.receivePredictorMax = Netty4Plugin.NETTY_RECEIVE_PREDICTOR_MAX.get(settings);
+        this.prioritizeSmallMessages = Netty4Plugin.NETTY_PRIORITIZE_SMALL_MESSAGES.get(settings);
         if (receivePredictorMax.getBytes() == receivePredictorMin.getBytes()) {
             recvByteBufAllocator = new FixedRecvByteBufAllocator((int) receivePredictorMax.getBytes());
         } else {
@@ -143,10 +158,9 @@ public class Netty4Transport extends TcpTransport {
         final Bootstrap bootstrap = new Bootstrap();
         bootstrap.group(sharedGroupForBootstrap.getLowLevelGroup());
 
-        // NettyAllocator will return the channel type designed to work with the configured allocator
-        assert Netty4NioSocketChannel.class.isAssignableFrom(NettyAllocator.getChannelType());
-        bootstrap.channel(NettyAllocator.getChannelType());
-        bootstrap.option(ChannelOption.ALLOCATOR, NettyAllocator.getAllocator());
+        // NettyAllocator will return the channel type designed to work with the configured allocator and the group's transport
+        bootstrap.channel(sharedGroupForBootstrap.getChannelType());
+        bootstrap.option(ChannelOption.ALLOCATOR, sharedGroupForBootstrap.getAllocator());
 
         // The TCP options are re-configured for client connections to RCS remote clusters
         // If how options are configured is changed here, please also update RemoteClusterClientBootstrapOptions#configure
@@ -155,14 +169,15 @@ public class Netty4Transport extends TcpTransport {
         bootstrap.option(ChannelOption.SO_KEEPALIVE, TransportSettings.TCP_KEEP_ALIVE.get(settings));
         if (TransportSettings.TCP_KEEP_ALIVE.get(settings)) {
             // Note that Netty logs a warning if it can't set the option
+            final boolean epoll = sharedGroupForBootstrap.usesEpoll();
             if (TransportSettings.TCP_KEEP_IDLE.get(settings) >= 0) {
-                bootstrap.option(OPTION_TCP_KEEP_IDLE, TransportSettings.TCP_KEEP_IDLE.get(settings));
+                bootstrap.option(tcpKeepIdleOption(epoll), TransportSettings.TCP_KEEP_IDLE.get(settings));
             }
             if (TransportSettings.TCP_KEEP_INTERVAL.get(settings) >= 0) {
-                bootstrap.option(OPTION_TCP_KEEP_INTERVAL, TransportSettings.TCP_KEEP_INTERVAL.get(settings));
+                bootstrap.option(tcpKeepIntervalOption(epoll), TransportSettings.TCP_KEEP_INTERVAL.get(settings));
             }
             if (TransportSettings.TCP_KEEP_COUNT.get(settings) >= 0) {
-                bootstrap.option(OPTION_TCP_KEEP_COUNT, TransportSettings.TCP_KEEP_COUNT.get(settings));
+                bootstrap.option(tcpKeepCountOption(epoll), TransportSettings.TCP_KEEP_COUNT.get(settings));
             }
         }
 
@@ -203,12 +218,12 @@ public class Netty4Transport extends TcpTransport {
 
         serverBootstrap.group(sharedGroupForServerBootstrap.getLowLevelGroup());
 
-        // NettyAllocator will return the channel type designed to work with the configuredAllocator
-        serverBootstrap.channel(NettyAllocator.getServerChannelType());
+        // NettyAllocator will return the channel type designed to work with the configured allocator and the group's transport
+        serverBootstrap.channel(sharedGroupForServerBootstrap.getServerChannelType());
 
         // Set the allocators for both the server channel and the child channels created
-        serverBootstrap.option(ChannelOption.ALLOCATOR, NettyAllocator.getAllocator());
-        serverBootstrap.childOption(ChannelOption.ALLOCATOR, NettyAllocator.getAllocator());
+        serverBootstrap.option(ChannelOption.ALLOCATOR, sharedGroupForServerBootstrap.getAllocator());
+        serverBootstrap.childOption(ChannelOption.ALLOCATOR, sharedGroupForServerBootstrap.getAllocator());
 
         serverBootstrap.childHandler(getServerChannelInitializer(name));
         serverBootstrap.handler(new ServerChannelExceptionHandler());
@@ -217,17 +232,15 @@ public class Netty4Transport extends TcpTransport {
         serverBootstrap.childOption(ChannelOption.SO_KEEPALIVE, profileSettings.tcpKeepAlive);
         if (profileSettings.tcpKeepAlive) {
             // Note that Netty logs a warning if it can't set the option
+            final boolean epoll = sharedGroupForServerBootstrap.usesEpoll();
             if (profileSettings.tcpKeepIdle >= 0) {
-                serverBootstrap.childOption(NioChannelOption.of(NetUtils.getTcpKeepIdleSocketOption()), profileSettings.tcpKeepIdle);
+                serverBootstrap.childOption(tcpKeepIdleOption(epoll), profileSettings.tcpKeepIdle);
             }
             if (profileSettings.tcpKeepInterval >= 0) {
-                serverBootstrap.childOption(
-                    NioChannelOption.of(NetUtils.getTcpKeepIntervalSocketOption()),
-                    profileSettings.tcpKeepInterval
-                );
+                serverBootstrap.childOption(tcpKeepIntervalOption(epoll), profileSettings.tcpKeepInterval);
             }
             if (profileSettings.tcpKeepCount >= 0) {
-                serverBootstrap.childOption(NioChannelOption.of(NetUtils.getTcpKeepCountSocketOption()), profileSettings.tcpKeepCount);
+                serverBootstrap.childOption(tcpKeepCountOption(epoll), profileSettings.tcpKeepCount);
             }
         }
 
@@ -313,8 +326,7 @@ public class Netty4Transport extends TcpTransport {
         @Override
         protected void initChannel(Channel ch) throws Exception {
             addClosedExceptionLogger(ch);
-            assert ch instanceof Netty4NioSocketChannel;
-            NetUtils.tryEnsureReasonableKeepAliveConfig(((Netty4NioSocketChannel) ch).javaChannel());
+            NetUtils.tryEnsureReasonableKeepAliveConfig(ch);
             setupPipeline(ch, false);
         }
 
@@ -338,8 +350,7 @@ public class Netty4Transport extends TcpTransport {
         @Override
         protected void initChannel(Channel ch) throws Exception {
             addClosedExceptionLogger(ch);
-            assert ch instanceof Netty4NioSocketChannel;
-            NetUtils.tryEnsureReasonableKeepAliveConfig(((Netty4NioSocketChannel) ch).javaChannel());
+            NetUtils.tryEnsureReasonableKeepAliveConfig(ch);
             Netty4TcpChannel nettyTcpChannel = new Netty4TcpChannel(ch, true, name, rstOnClose, ch.newSucceededFuture());
             ch.attr(CHANNEL_KEY).set(nettyTcpChannel);
             setupPipeline(ch, isRemoteClusterServerChannel);
@@ -361,7 +372,11 @@ public class Netty4Transport extends TcpTransport {
         }
         pipeline.addLast(
             "chunked_writer",
-            new Netty4WriteThrottlingHandler(getThreadPool().getThreadContext(), threadWatchdog.getActivityTrackerForCurrentThread())
+            new Netty4WriteThrottlingHandler(
+                getThreadPool().getThreadContext(),
+                threadWatchdog.getActivityTrackerForCurrentThread(),
+                prioritizeSmallMessages
+            )
         );
         pipeline.addLast(
             "dispatcher",
@@ -30,32 +30,56 @@ import org.elasticsearch.transport.Transports;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.util.LinkedList;
-import java.util.Queue;
+import java.util.ListIterator;
 
 /**
  * Channel handler that queues up writes it receives and tries to only flush bytes as they can be written by the backing channel.
  * This is helpful in reducing heap usage with handlers like {@link io.netty.handler.ssl.SslHandler} that might otherwise themselves
  * buffer a large amount of data when the channel is not able to physically execute writes immediately.
+ * <p>
+ * If {@code prioritizeSmallMessages} is set then a message that fits into a single write is queued ahead of any queued messages that
+ * need several writes and haven't started yet, so that small messages such as pings aren't stuck behind a large message on the same
+ * channel. Messages are never interleaved, a message that has started to be written is always completed before the next one.
  */
 public final class Netty4WriteThrottlingHandler extends ChannelDuplexHandler {
 
     public static final int MAX_BYTES_PER_WRITE = 1 << 18;
-    private final Queue<WriteOperation> queuedWrites = new LinkedList<>();
+    private final LinkedList<WriteOperation> queuedWrites = new LinkedList<>();
 
     private final ThreadContext threadContext;
     private final ThreadWatchdog.ActivityTracker threadWatchdogActivityTracker;
+    private final boolean prioritizeSmallMessages;
     private WriteOperation currentWrite;
 
+    // whether the message passed to the current call to #write needs more than one write, and whether any of it was written or queued
+    private boolean writingLargeMessage;
+    private boolean messageStarted;
+
     public Netty4WriteThrottlingHandler(ThreadContext threadContext, ThreadWatchdog.ActivityTracker threadWatchdogActivityTracker) {
+        this(threadContext, threadWatchdogActivityTracker, false);
+    }
+
+    public Netty4WriteThrottlingHandler(
+        ThreadContext threadContext,
+        ThreadWatchdog.ActivityTracker threadWatchdogActivityTracker,
+        boolean prioritizeSmallMessages
+    ) {
         this.threadContext = threadContext;
         this.threadWatchdogActivityTracker = threadWatchdogActivityTracker;
+        this.prioritizeSmallMessages = prioritizeSmallMessages;
     }
 
     @Override
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws IOException {
         final boolean startedActivity = threadWatchdogActivityTracker.maybeStartActivity();
         try {
-            if (msg instanceof BytesReference reference) {
+            final int length = msg instanceof BytesReference bytes ? bytes.length() : ((ByteBuf) msg).readableBytes();
+            writingLargeMessage = length > MAX_BYTES_PER_WRITE;
+            messageStarted = false;
+            if (prioritizeSmallMessages && writingLargeMessage == false && mustQueue(ctx)) {
+                // queue the whole message as a single operation so that it can be moved ahead of large messages without being split up
+                queueSmallMessage(msg instanceof BytesReference bytes ? Netty4Utils.toByteBuf(bytes) : (ByteBuf) msg, promise);
+            } else if (msg instanceof BytesReference reference) {
                 if (reference.hasArray()) {
                     writeSingleByteBuf(
                         ctx,
@@ -87,8 +111,9 @@ public final class Netty4WriteThrottlingHandler extends ChannelDuplexHandler {
     private void writeSingleByteBuf(ChannelHandlerContext ctx, ByteBuf buf, ChannelPromise promise) {
         assert Transports.assertDefaultThreadContext(threadContext);
         assert Transports.assertTransportThread();
-        if (ctx.channel().isWritable() && currentWrite == null && queuedWrites.isEmpty()) {
+        if (mustQueue(ctx) == false) {
             // nothing is queued for writing and the channel is writable, just pass the write down the pipeline directly
+            messageStarted = true;
             if (buf.readableBytes() > MAX_BYTES_PER_WRITE) {
                 writeInSlices(ctx, promise, buf);
             } else {
@@ -123,11 +148,34 @@ public final class Netty4WriteThrottlingHandler extends ChannelDuplexHandler {
         }
     }
 
+    private boolean mustQueue(ChannelHandlerContext ctx) {
+        return ctx.channel().isWritable() == false || currentWrite != null || queuedWrites.isEmpty() == false;
+    }
+
     private void queueWrite(ByteBuf buf, ChannelPromise promise) {
-        final boolean queued = queuedWrites.offer(new WriteOperation(buf, promise));
+        final boolean startsLargeMessage = writingLargeMessage && messageStarted == false;
+        messageStarted = true;
+        final boolean queued = queuedWrites.offer(new WriteOperation(buf, promise, startsLargeMessage));
         assert queued;
     }
 
+    /**
+     * Queues a message that fits into a single write ahead of the first queued large message that hasn't started yet.
+     */
+    private void queueSmallMessage(ByteBuf buf, ChannelPromise promise) {
+        assert Transports.assertDefaultThreadContext(threadContext);
+        assert Transports.assertTransportThread();
+        assert buf.readableBytes() <= MAX_BYTES_PER_WRITE;
+        final ListIterator<WriteOperation> iterator = queuedWrites.listIterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().startsLargeMessage()) {
+                iterator.previous();
+                break;
+            }
+        }
+        iterator.add(new WriteOperation(buf, promise, false));
+    }
+
     @Override
     public void channelWritabilityChanged(ChannelHandlerContext ctx) {
         final boolean startedActivity = threadWatchdogActivityTracker.maybeStartActivity();
@@ -245,7 +293,7 @@ public final class Netty4WriteThrottlingHandler extends ChannelDuplexHandler {
         }
     }
 
-    private record WriteOperation(ByteBuf buf, ChannelPromise promise) {
+    private record WriteOperation(ByteBuf buf, ChannelPromise promise, boolean startsLargeMessage) {
 
         void failAsClosedChannel() {
             promise.tryFailure(new ClosedChannelException());
@@ -16,6 +16,8 @@ import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 
 import org.apache.logging.log4j.LogManager;
@@ -207,6 +209,45 @@ public class NettyAllocator {
         }
     }
 
+    /**
+     * @return the allocator for channels of the type returned by {@link #getChannelType(boolean)} and
+     * {@link #getServerChannelType(boolean)}
+     */
+    public static ByteBufAllocator getAllocator(boolean useEpoll) {
+        if (useEpoll) {
+            return EpollAllocatorHolder.EPOLL_ALLOCATOR;
+        } else {
+            return ALLOCATOR;
+        }
+    }
+
+    public static Class<? extends Channel> getChannelType(boolean useEpoll) {
+        if (useEpoll) {
+            return EpollSocketChannel.class;
+        } else {
+            return getChannelType();
+        }
+    }
+
+    public static Class<? extends ServerChannel> getServerChannelType(boolean useEpoll) {
+        if (useEpoll) {
+            return EpollServerSocketChannel.class;
+        } else {
+            return getServerChannelType();
+        }
+    }
+
+    /**
+     * The native epoll transport reads into and writes from direct buffers, so there is no equivalent of the copying channels that
+     * let us use {@link NoDirectBuffers} with NIO. Epoll channels use a pooled direct allocator instead, which is only created if
+     * epoll is actually used.
+     */
+    private static final class EpollAllocatorHolder {
+        private static final ByteBufAllocator EPOLL_ALLOCATOR = ALLOCATOR instanceof NoDirectBuffers
+            ? new PooledByteBufAllocator(true)
+            : ALLOCATOR;
+    }
+
     private static boolean useUnpooled(long heapSizeInBytes, boolean g1gcEnabled, boolean g1gcRegionSizeIsKnown, long g1RegionSize) {
         if (userForcedUnpooled()) {
             return true;
@@ -9,7 +9,12 @@
 
 package org.elasticsearch.transport.netty4;
 
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.util.concurrent.Future;
 
@@ -21,6 +26,7 @@ import org.elasticsearch.core.AbstractRefCounted;
 import org.elasticsearch.http.HttpServerTransport;
 import org.elasticsearch.transport.TcpTransport;
 
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -31,6 +37,10 @@ import static org.elasticsearch.common.util.concurrent.EsExecutors.daemonThreadF
  * both {@link #getHttpGroup()} and {@link #getTransportGroup()} if
  * {@link Netty4Plugin#SETTING_HTTP_WORKER_COUNT} is configured to be 0.
  * If that setting is not 0, then it will return a different group in the {@link #getHttpGroup()} call.
+ * <p>
+ * The groups use Netty's native epoll transport if {@link Netty4Plugin#NETTY_USE_EPOLL} is set and epoll is available, and NIO otherwise.
+ * Bootstraps must use the channel types and allocator of the group they're given, see {@link SharedGroup#getChannelType()} and
+ * {@link SharedGroup#getAllocator()}.
  */
 public final class SharedGroupFactory {
 
@@ -39,6 +49,7 @@ public final class SharedGroupFactory {
     private final Settings settings;
     private final int workerCount;
     private final int httpWorkerCount;
+    private final boolean useEpoll;
 
     private RefCountedGroup genericGroup;
     private SharedGroup dedicatedHttpGroup;
@@ -47,6 +58,18 @@ public final class SharedGroupFactory {
         this.settings = settings;
         this.workerCount = Netty4Plugin.WORKER_COUNT.get(settings);
         this.httpWorkerCount = Netty4Plugin.SETTING_HTTP_WORKER_COUNT.get(settings);
+        this.useEpoll = Netty4Plugin.NETTY_USE_EPOLL.get(settings) && isEpollUsable();
+    }
+
+    private static boolean isEpollUsable() {
+        if (Epoll.isAvailable() == false) {
+            logger.warn(
+                () -> "[" + Netty4Plugin.NETTY_USE_EPOLL.getKey() + "] is enabled but epoll is not available, falling back to NIO",
+                Epoll.unavailabilityCause()
+            );
+            return false;
+        }
+        return true;
     }
 
     public Settings getSettings() {
@@ -57,6 +80,20 @@ public final class SharedGroupFactory {
         return workerCount;
     }
 
+    /**
+     * @return whether the groups created by this factory use the native epoll transport
+     */
+    public boolean usesEpoll() {
+        return useEpoll;
+    }
+
+    /**
+     * @return whether the given group is one that uses the native epoll transport, e.g. for re-configuring a bootstrap
+     */
+    public static boolean usesEpoll(EventLoopGroup eventLoopGroup) {
+        return eventLoopGroup instanceof EpollEventLoopGroup;
+    }
+
     public synchronized SharedGroup getTransportGroup() {
         return getGenericGroup();
     }
@@ -66,11 +103,11 @@ public final class SharedGroupFactory {
             return getGenericGroup();
         } else {
             if (dedicatedHttpGroup == null) {
-                NioEventLoopGroup eventLoopGroup = new NioEventLoopGroup(
+                EventLoopGroup eventLoopGroup = newEventLoopGroup(
                     httpWorkerCount,
                     daemonThreadFactory(settings, HttpServerTransport.HTTP_SERVER_WORKER_THREAD_NAME_PREFIX)
                 );
-                dedicatedHttpGroup = new SharedGroup(new RefCountedGroup(eventLoopGroup));
+                dedicatedHttpGroup = new SharedGroup(new RefCountedGroup(eventLoopGroup), useEpoll);
             }
             return dedicatedHttpGroup;
         }
@@ -78,7 +115,7 @@ public final class SharedGroupFactory {
 
     private SharedGroup getGenericGroup() {
         if (genericGroup == null) {
-            EventLoopGroup eventLoopGroup = new NioEventLoopGroup(
+            EventLoopGroup eventLoopGroup = newEventLoopGroup(
                 workerCount,
                 EsExecutors.daemonThreadFactory(settings, TcpTransport.TRANSPORT_WORKER_THREAD_NAME_PREFIX)
             );
@@ -86,7 +123,15 @@ public final class SharedGroupFactory {
         } else {
             genericGroup.incRef();
         }
-        return new SharedGroup(genericGroup);
+        return new SharedGroup(genericGroup, useEpoll);
+    }
+
+    private EventLoopGroup newEventLoopGroup(int threads, ThreadFactory threadFactory) {
+        if (useEpoll) {
+            return new EpollEventLoopGroup(threads, threadFactory);
+        } else {
+            return new NioEventLoopGroup(threads, threadFactory);
+        }
     }
 
     private static class RefCountedGroup extends AbstractRefCounted {
@@ -115,16 +160,44 @@ public final class SharedGroupFactory {
 
         private final RefCountedGroup refCountedGroup;
 
+        private final boolean useEpoll;
+
         private final AtomicBoolean isOpen = new AtomicBoolean(true);
 
-        private SharedGroup(RefCountedGroup refCountedGroup) {
+        private SharedGroup(RefCountedGroup refCountedGroup, boolean useEpoll) {
             this.refCountedGroup = refCountedGroup;
+            this.useEpoll = useEpoll;
         }
 
         public EventLoopGroup getLowLevelGroup() {
             return refCountedGroup.eventLoopGroup;
         }
 
+        public boolean usesEpoll() {
+            return useEpoll;
+        }
+
+        /**
+         * @return the allocator for the channels of this group
+         */
+        public ByteBufAllocator getAllocator() {
+            return NettyAllocator.getAllocator(useEpoll);
+        }
+
+        /**
+         * @return the type of the client channels that work with this group and the configured allocator
+         */
+        public Class<? extends Channel> getChannelType() {
+            return NettyAllocator.getChannelType(useEpoll);
+        }
+
+        /**
+         * @return the type of the server channels that work with this group and the configured allocator
+         */
+        public Class<? extends ServerChannel> getServerChannelType() {
+            return NettyAllocator.getServerChannelType(useEpoll);
+        }
+
         public void shutdown() {
             if (isOpen.compareAndSet(true, false)) {
                 refCountedGroup.decRef();
@@ -175,6 +175,56 @@ public class Netty4WriteThrottlingHandlerTests extends ESTestCase {
         assertTrue(promiseForQueued.isDone());
     }
 
+    public void testPrioritizesSmallMessages() {
+        final List<ByteBuf> seen = new CopyOnWriteArrayList<>();
+        final EmbeddedChannel embeddedChannel = new EmbeddedChannel(
+            new CapturingHandler(seen),
+            new Netty4WriteThrottlingHandler(new ThreadContext(Settings.EMPTY), threadWatchdog.getActivityTrackerForCurrentThread(), true)
+        );
+        final int writeableBytes = Math.toIntExact(embeddedChannel.bytesBeforeUnwritable());
+        assertThat(writeableBytes, lessThan(Netty4WriteThrottlingHandler.MAX_BYTES_PER_WRITE));
+        final List<String> completed = new CopyOnWriteArrayList<>();
+
+        // a large message whose first slice makes the channel unwritable, so that the rest of it is queued
+        final byte[] startedBytes = randomByteArrayOfLength(Netty4WriteThrottlingHandler.MAX_BYTES_PER_WRITE * randomIntBetween(2, 4));
+        final ChannelPromise startedPromise = embeddedChannel.newPromise();
+        startedPromise.addListener(f -> completed.add("started"));
+        embeddedChannel.write(wrapAsNettyOrEsBuffer(startedBytes), startedPromise);
+        assertThat(seen, hasSize(1));
+
+        // a large message that is queued in full
+        final byte[] queuedBytes = randomByteArrayOfLength(Netty4WriteThrottlingHandler.MAX_BYTES_PER_WRITE * randomIntBetween(2, 4));
+        final ChannelPromise queuedPromise = embeddedChannel.newPromise();
+        queuedPromise.addListener(f -> completed.add("queued"));
+        embeddedChannel.write(wrapAsNettyOrEsBuffer(queuedBytes), queuedPromise);
+
+        // a small message, which must not interrupt the started message but goes ahead of the queued one
+        final byte[] smallBytes = randomByteArrayOfLength(randomIntBetween(1, Netty4WriteThrottlingHandler.MAX_BYTES_PER_WRITE));
+        final ChannelPromise smallPromise = embeddedChannel.newPromise();
+        smallPromise.addListener(f -> completed.add("small"));
+        embeddedChannel.write(
+            randomBoolean()
+                ? new BytesArray(smallBytes)
+                : CompositeBytesReference.of(
+                    new BytesArray(smallBytes, 0, smallBytes.length / 2),
+                    new BytesArray(smallBytes, smallBytes.length / 2, smallBytes.length - smallBytes.length / 2)
+                ),
+            smallPromise
+        );
+        assertThat(seen, hasSize(1));
+        assertThat(completed, emptyIterable());
+
+        embeddedChannel.flush();
+        assertTrue(startedPromise.isSuccess());
+        assertTrue(queuedPromise.isSuccess());
+        assertTrue(smallPromise.isSuccess());
+        assertEquals(List.of("started", "small", "queued"), completed);
+        assertEquals(
+            Unpooled.wrappedBuffer(startedBytes, smallBytes, queuedBytes),
+            Unpooled.compositeBuffer(seen.size()).addComponents(true, seen)
+        );
+    }
+
     private static void assertBufferEquals(ByteBuf expected, Object message) {
         if (message instanceof ByteBuf buf) {
             assertSame(expected, buf);
@@ -9,9 +9,18 @@
 
 package org.elasticsearch.transport.netty4;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.test.ESTestCase;
 
+import static org.hamcrest.Matchers.instanceOf;
+
 public final class SharedGroupFactoryTests extends ESTestCase {
 
     public void testSharedEventLoops() throws Exception {
@@ -58,4 +67,48 @@ public final class SharedGroupFactoryTests extends ESTestCase {
             assertTrue(transportGroup.getLowLevelGroup().terminationFuture().isDone());
         }
     }
+
+    public void testEpollGroups() throws Exception {
+        Settings settings = Settings.builder().put(Netty4Plugin.NETTY_USE_EPOLL.getKey(), true).build();
+        SharedGroupFactory sharedGroupFactory = new SharedGroupFactory(settings);
+        SharedGroupFactory.SharedGroup transportGroup = sharedGroupFactory.getTransportGroup();
+        try {
+            final boolean expectEpoll = Epoll.isAvailable();
+            assertEquals(expectEpoll, sharedGroupFactory.usesEpoll());
+            assertEquals(expectEpoll, transportGroup.usesEpoll());
+            assertEquals(expectEpoll, SharedGroupFactory.usesEpoll(transportGroup.getLowLevelGroup()));
+            if (expectEpoll) {
+                assertThat(transportGroup.getLowLevelGroup(), instanceOf(EpollEventLoopGroup.class));
+                assertEquals(EpollSocketChannel.class, transportGroup.getChannelType());
+                assertEquals(EpollServerSocketChannel.class, transportGroup.getServerChannelType());
+                // the native transport needs direct buffers whatever the configured allocator
+                final ByteBuf ioBuffer = transportGroup.getAllocator().ioBuffer();
+                try {
+                    assertTrue(ioBuffer.isDirect());
+                } finally {
+                    ioBuffer.release();
+                }
+            } else {
+                assertThat(transportGroup.getLowLevelGroup(), instanceOf(NioEventLoopGroup.class));
+                assertEquals(NettyAllocator.getChannelType(), transportGroup.getChannelType());
+                assertEquals(NettyAllocator.getServerChannelType(), transportGroup.getServerChannelType());
+                assertSame(NettyAllocator.getAllocator(), transportGroup.getAllocator());
+            }
+        } finally {
+            transportGroup.shutdown();
+        }
+    }
+
+    public void testNioByDefault() throws Exception {
+        SharedGroupFactory sharedGroupFactory = new SharedGroupFactory(Settings.EMPTY);
+        SharedGroupFactory.SharedGroup transportGroup = sharedGroupFactory.getTransportGroup();
+        try {
+            assertFalse(sharedGroupFactory.usesEpoll());
+            assertThat(transportGroup.getLowLevelGroup(), instanceOf(NioEventLoopGroup.class));
+            assertEquals(NettyAllocator.getChannelType(), transportGroup.getChannelType());
+            assertSame(NettyAllocator.getAllocator(), transportGroup.getAllocator());
+        } finally {
+            transportGroup.shutdown();
+        }
+    }
 }
@@ -9,6 +9,12 @@
 
 package org.elasticsearch.transport.netty4;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannelConfig;
+
 import org.apache.lucene.util.Constants;
 import org.elasticsearch.TransportVersion;
 import org.elasticsearch.TransportVersions;
@@ -74,13 +80,13 @@ public class SimpleNetty4TransportTests extends AbstractSimpleTransportTestCase
                 DiscoveryNode node,
                 TcpChannel channel,
                 ConnectionProfile profile,
-                ActionListener<TransportVersion> listener
+                ActionListener<TcpTransport.HandshakeResult> listener
             ) {
                 if (doHandshake) {
                     super.executeHandshake(node, channel, profile, listener);
                 } else {
                     assert version.equals(TransportVersion.current());
-                    listener.onResponse(TransportVersions.MINIMUM_COMPATIBLE);
+                    listener.onResponse(new TcpTransport.HandshakeResult(TransportVersions.MINIMUM_COMPATIBLE, false));
                 }
             }
         };
@@ -166,6 +172,44 @@ public class SimpleNetty4TransportTests extends AbstractSimpleTransportTestCase
         }
     }
 
+    public void testEpollTransport() throws IOException {
+        assumeTrue("epoll is not available on this platform", Epoll.isAvailable());
+        final Settings settings = Settings.builder().put(Netty4Plugin.NETTY_USE_EPOLL.getKey(), true).build();
+        try (
+            MockTransportService serviceC = buildService("TS_C", VersionInformation.CURRENT, TransportVersion.current(), settings);
+            MockTransportService serviceD = buildService("TS_D", VersionInformation.CURRENT, TransportVersion.current(), settings)
+        ) {
+            // opening the connection completes a handshake, so messages were sent and received over epoll channels in both directions
+            try (Transport.Connection connection = openConnection(serviceC, serviceD.getLocalNode(), TestProfiles.LIGHT_PROFILE)) {
+                assertThat(connection, instanceOf(StubbableTransport.WrappedConnection.class));
+                Transport.Connection conn = ((StubbableTransport.WrappedConnection) connection).getConnection();
+                assertThat(conn, instanceOf(TcpTransport.NodeChannels.class));
+                for (TcpChannel channel : ((TcpTransport.NodeChannels) conn).getChannels()) {
+                    checkEpollChannel(channel);
+                }
+                for (TcpChannel channel : getAcceptedChannels((TcpTransport) serviceD.getOriginalTransport())) {
+                    checkEpollChannel(channel);
+                }
+            }
+        }
+    }
+
+    private static void checkEpollChannel(TcpChannel channel) {
+        assertThat(channel, instanceOf(Netty4TcpChannel.class));
+        final Channel nettyChannel = ((Netty4TcpChannel) channel).getNettyChannel();
+        assertThat(nettyChannel, instanceOf(EpollSocketChannel.class));
+        final ByteBuf ioBuffer = nettyChannel.alloc().ioBuffer();
+        try {
+            assertTrue(ioBuffer.isDirect());
+        } finally {
+            ioBuffer.release();
+        }
+        final EpollSocketChannelConfig config = ((EpollSocketChannel) nettyChannel).config();
+        assertTrue(config.isKeepAlive());
+        assertThat(config.getTcpKeepIdle(), lessThanOrEqualTo(300));
+        assertThat(config.getTcpKeepIntvl(), lessThanOrEqualTo(300));
+    }
+
     private void checkDefaultKeepAliveOptions(TcpChannel channel) throws IOException {
         assertThat(channel, instanceOf(Netty4TcpChannel.class));
         Netty4TcpChannel nettyChannel = (Netty4TcpChannel) channel;
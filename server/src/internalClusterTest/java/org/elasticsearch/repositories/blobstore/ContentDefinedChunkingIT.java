@@ -0,0 +1,304 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.repositories.blobstore;
+
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.elasticsearch.action.ActionRunnable;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.cluster.metadata.RepositoryMetadata;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.blobstore.BlobContainer;
+import org.elasticsearch.common.blobstore.BlobPath;
+import org.elasticsearch.common.blobstore.BlobStore;
+import org.elasticsearch.common.blobstore.OperationPurpose;
+import org.elasticsearch.common.blobstore.support.FilterBlobContainer;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.CollectionUtils;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.env.Environment;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
+import org.elasticsearch.index.store.Store;
+import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.indices.recovery.RecoverySettings;
+import org.elasticsearch.plugins.Plugin;
+import org.elasticsearch.plugins.RepositoryPlugin;
+import org.elasticsearch.repositories.IndexId;
+import org.elasticsearch.repositories.RepositoriesMetrics;
+import org.elasticsearch.repositories.Repository;
+import org.elasticsearch.repositories.fs.FsRepository;
+import org.elasticsearch.snapshots.AbstractSnapshotIntegTestCase;
+import org.elasticsearch.snapshots.SnapshotId;
+import org.elasticsearch.snapshots.SnapshotInfo;
+import org.elasticsearch.test.ESIntegTestCase;
+import org.elasticsearch.xcontent.NamedXContentRegistry;
+import org.junit.Before;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo.CHUNK_BLOB_PREFIX;
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertNoFailures;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+
+@ESIntegTestCase.ClusterScope(scope = ESIntegTestCase.Scope.TEST, numDataNodes = 0)
+public class ContentDefinedChunkingIT extends AbstractSnapshotIntegTestCase {
+
+    private static final String REPO_NAME = "test-repo";
+    private static final String INDEX_NAME = "test-idx";
+
+    private String dataNode;
+
+    @Override
+    protected Collection<Class<? extends Plugin>> nodePlugins() {
+        return CollectionUtils.appendToCopy(super.nodePlugins(), TestPlugin.class);
+    }
+
+    @Before
+    public void setUpClusterAndRepository() {
+        TestPlugin.WRITTEN_CHUNKS.clear();
+        TestPlugin.CHUNK_WRITES_BEFORE_FAILURE.set(Integer.MAX_VALUE);
+        internalCluster().startMasterOnlyNode();
+        dataNode = internalCluster().startDataOnlyNode();
+        createRepository(
+            REPO_NAME,
+            TestPlugin.RECORDING_REPO_TYPE,
+            Settings.builder()
+                .put("location", randomRepoPath())
+                .put(BlobStoreRepository.CONTENT_DEFINED_CHUNKING_ENABLED_SETTING.getKey(), true)
+                .put(BlobStoreRepository.CONTENT_DEFINED_CHUNKING_MIN_FILE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(1))
+                .put(BlobStoreRepository.CONTENT_DEFINED_CHUNKING_AVERAGE_CHUNK_SIZE_SETTING.getKey(), ByteSizeValue.ofKb(64))
+        );
+        createIndex(INDEX_NAME, indexSettingsNoReplicas(1).build());
+        ensureGreen(INDEX_NAME);
+        for (int i = between(2, 4); i > 0; i--) {
+            indexBatch();
+        }
+    }
+
+    public void testRestoredFilesAreIdentical() throws IOException {
+        final SnapshotInfo snapshotInfo = createFullSnapshot(REPO_NAME, "snap");
+        final Set<String> referencedChunks = referencedChunks(snapshotInfo.snapshotId());
+        assertThat(referencedChunks, not(empty()));
+        assertThat(TestPlugin.WRITTEN_CHUNKS, equalTo(referencedChunks));
+        assertThat(chunkBlobs(), equalTo(referencedChunks));
+
+        final String restoredIndexName = "restored-" + INDEX_NAME;
+        clusterAdmin().prepareRestoreSnapshot(TEST_REQUEST_TIMEOUT, REPO_NAME, "snap")
+            .setRenamePattern(INDEX_NAME)
+            .setRenameReplacement(restoredIndexName)
+            .setWaitForCompletion(true)
+            .get();
+        ensureGreen(restoredIndexName);
+
+        final Store store = getStore(INDEX_NAME);
+        final Store restoredStore = getStore(restoredIndexName);
+        for (String fileName : store.getMetadata(null).fileMetadataMap().keySet()) {
+            if (fileName.startsWith(IndexFileNames.SEGMENTS)) {
+                // the restored shard is committed again with a new history
+                continue;
+            }
+            assertArrayEquals(fileName, readFile(store, fileName), readFile(restoredStore, fileName));
+        }
+    }
+
+    public void testSnapshotsShareChunks() {
+        final SnapshotId firstSnapshot = createFullSnapshot(REPO_NAME, "snap-1").snapshotId();
+        final Set<String> firstChunks = referencedChunks(firstSnapshot);
+
+        indexBatch();
+        assertNoFailures(indicesAdmin().prepareForceMerge(INDEX_NAME).setMaxNumSegments(1).get());
+        TestPlugin.WRITTEN_CHUNKS.clear();
+        final SnapshotId secondSnapshot = createFullSnapshot(REPO_NAME, "snap-2").snapshotId();
+        final Set<String> secondChunks = referencedChunks(secondSnapshot);
+
+        // only the chunks that the first snapshot does not reference are uploaded
+        final Set<String> newChunks = new HashSet<>(secondChunks);
+        newChunks.removeAll(firstChunks);
+        assertThat(TestPlugin.WRITTEN_CHUNKS, equalTo(newChunks));
+        final Set<String> allChunks = new HashSet<>(firstChunks);
+        allChunks.addAll(secondChunks);
+        assertThat(chunkBlobs(), equalTo(allChunks));
+
+        // the chunks shared with the second snapshot survive the deletion of the first one, the others are removed
+        assertAcked(startDeleteSnapshot(REPO_NAME, "snap-1").actionGet());
+        assertThat(chunkBlobs(), equalTo(secondChunks));
+    }
+
+    public void testFailedSnapshotRemovesOnlyItsOwnChunks() {
+        final SnapshotId firstSnapshot = createFullSnapshot(REPO_NAME, "snap-1").snapshotId();
+        final Set<String> firstChunks = referencedChunks(firstSnapshot);
+
+        indexBatch();
+        TestPlugin.CHUNK_WRITES_BEFORE_FAILURE.set(between(0, 2));
+        final SnapshotInfo failedSnapshot = startFullSnapshot(REPO_NAME, "snap-2").actionGet().getSnapshotInfo();
+        assertThat(failedSnapshot.failedShards(), greaterThan(0));
+        TestPlugin.CHUNK_WRITES_BEFORE_FAILURE.set(Integer.MAX_VALUE);
+
+        // the chunks written by the failed snapshot are removed, the ones referenced by the first snapshot are not
+        assertThat(chunkBlobs(), equalTo(firstChunks));
+    }
+
+    private void indexBatch() {
+        final BulkRequestBuilder bulkRequest = client().prepareBulk(INDEX_NAME);
+        for (int i = between(1000, 2000); i > 0; i--) {
+            bulkRequest.add(prepareIndex(INDEX_NAME).setSource("field", randomAlphaOfLength(between(100, 300)), "num", randomLong()));
+        }
+        assertNoFailures(bulkRequest.get());
+        flush(INDEX_NAME);
+    }
+
+    private Store getStore(String indexName) {
+        final IndicesService indicesService = internalCluster().getInstance(IndicesService.class, dataNode);
+        return indicesService.getShardOrNull(new ShardId(resolveIndex(indexName), 0)).store();
+    }
+
+    private static byte[] readFile(Store store, String fileName) throws IOException {
+        try (IndexInput indexInput = store.directory().openInput(fileName, IOContext.READONCE)) {
+            final byte[] bytes = new byte[Math.toIntExact(indexInput.length())];
+            indexInput.readBytes(bytes, 0, bytes.length);
+            return bytes;
+        }
+    }
+
+    private Set<String> referencedChunks(SnapshotId snapshotId) {
+        final BlobStoreRepository repository = getRepositoryOnMaster(REPO_NAME);
+        final IndexId indexId = getRepositoryData(REPO_NAME).resolveIndexId(INDEX_NAME);
+        final PlainActionFuture<Set<String>> future = new PlainActionFuture<>();
+        repository.threadPool().generic().execute(ActionRunnable.supply(future, () -> {
+            final Set<String> chunks = new HashSet<>();
+            for (BlobStoreIndexShardSnapshot.FileInfo fileInfo : repository.loadShardSnapshot(
+                repository.shardContainer(indexId, 0),
+                snapshotId
+            ).indexFiles()) {
+                if (fileInfo.chunks() != null) {
+                    for (BlobStoreIndexShardSnapshot.FileInfo.Chunk chunk : fileInfo.chunks()) {
+                        chunks.add(chunk.blobName());
+                    }
+                }
+            }
+            return chunks;
+        }));
+        return future.actionGet();
+    }
+
+    private Set<String> chunkBlobs() {
+        final BlobStoreRepository repository = getRepositoryOnMaster(REPO_NAME);
+        final IndexId indexId = getRepositoryData(REPO_NAME).resolveIndexId(INDEX_NAME);
+        final PlainActionFuture<Set<String>> future = new PlainActionFuture<>();
+        repository.threadPool()
+            .generic()
+            .execute(
+                ActionRunnable.supply(
+                    future,
+                    () -> Set.copyOf(
+                        repository.shardContainer(indexId, 0).listBlobsByPrefix(OperationPurpose.SNAPSHOT_DATA, CHUNK_BLOB_PREFIX).keySet()
+                    )
+                )
+            );
+        return future.actionGet();
+    }
+
+    public static class TestPlugin extends Plugin implements RepositoryPlugin {
+        static final String RECORDING_REPO_TYPE = "recording";
+
+        // names of the chunk blobs written to the repository
+        static final Set<String> WRITTEN_CHUNKS = ConcurrentCollections.newConcurrentSet();
+        // number of chunk blob writes to let through before failing the others
+        static final AtomicInteger CHUNK_WRITES_BEFORE_FAILURE = new AtomicInteger(Integer.MAX_VALUE);
+
+        @Override
+        public Map<String, Repository.Factory> getRepositories(
+            Environment env,
+            NamedXContentRegistry namedXContentRegistry,
+            ClusterService clusterService,
+            BigArrays bigArrays,
+            RecoverySettings recoverySettings,
+            RepositoriesMetrics repositoriesMetrics
+        ) {
+            return Map.of(
+                RECORDING_REPO_TYPE,
+                metadata -> new RecordingRepository(metadata, env, namedXContentRegistry, clusterService, bigArrays, recoverySettings)
+            );
+        }
+    }
+
+    private static class RecordingRepository extends FsRepository {
+        RecordingRepository(
+            RepositoryMetadata metadata,
+            Environment environment,
+            NamedXContentRegistry namedXContentRegistry,
+            ClusterService clusterService,
+            BigArrays bigArrays,
+            RecoverySettings recoverySettings
+        ) {
+            super(metadata, environment, namedXContentRegistry, clusterService, bigArrays, recoverySettings);
+        }
+
+        @Override
+        protected BlobStore createBlobStore() throws Exception {
+            final BlobStore delegate = super.createBlobStore();
+            return new BlobStore() {
+                @Override
+                public BlobContainer blobContainer(BlobPath path) {
+                    return new RecordingBlobContainer(delegate.blobContainer(path));
+                }
+
+                @Override
+                public void close() throws IOException {
+                    delegate.close();
+                }
+            };
+        }
+    }
+
+    private static class RecordingBlobContainer extends FilterBlobContainer {
+
+        RecordingBlobContainer(BlobContainer delegate) {
+            super(delegate);
+        }
+
+        @Override
+        protected BlobContainer wrapChild(BlobContainer child) {
+            return new RecordingBlobContainer(child);
+        }
+
+        @Override
+        public void writeBlob(
+            OperationPurpose purpose,
+            String blobName,
+            InputStream inputStream,
+            long blobSize,
+            boolean failIfAlreadyExists
+        ) throws IOException {
+            if (blobName.startsWith(CHUNK_BLOB_PREFIX)) {
+                if (TestPlugin.CHUNK_WRITES_BEFORE_FAILURE.getAndDecrement() <= 0) {
+                    throw new IOException("simulated failure writing [" + blobName + "]");
+                }
+                TestPlugin.WRITTEN_CHUNKS.add(blobName);
+            }
+            super.writeBlob(purpose, blobName, inputStream, blobSize, failIfAlreadyExists);
+        }
+    }
+}
@@ -167,6 +167,14 @@ public class TransportVersions {
     public static final TransportVersion RANK_DOC_OPTIONAL_METADATA_FOR_EXPLAIN = def(8_833_00_0);
     public static final TransportVersion ILM_ADD_SEARCHABLE_SNAPSHOT_ADD_REPLICATE_FOR = def(8_834_00_0);
     public static final TransportVersion INGEST_REQUEST_INCLUDE_SOURCE_ON_ERROR = def(8_835_00_0);
+    public static final TransportVersion ESQL_STOLEN_SLICES = def(8_836_00_0);
+    public static final TransportVersion ESQL_COMPACT_EXCHANGE = def(8_837_00_0);
+    public static final TransportVersion DESIRED_BALANCE_PHASE_TIMES = def(8_838_00_0);
+    public static final TransportVersion TRANSPORT_STATS_RETAINED_BYTES = def(8_839_00_0);
+    public static final TransportVersion TRANSPORT_ZSTD_COMPRESSION = def(8_840_00_0);
+    public static final TransportVersion TRANSPORT_HANDSHAKE_ZSTD_SUPPORT = def(8_841_00_0);
+    public static final TransportVersion TRANSPORT_ACTION_LATENCY_STATS = def(8_842_00_0);
+    public static final TransportVersion SNAPSHOT_CONTENT_DEFINED_CHUNKS = def(8_843_00_0);
 
     /*
      * STOP! READ THIS FIRST! No, really,
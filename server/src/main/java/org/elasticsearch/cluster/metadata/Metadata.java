@@ -1560,7 +1560,7 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, Ch
         private final Settings transientSettings;
         private final Settings persistentSettings;
         private final Diff<DiffableStringMap> hashesOfConsistentSettings;
-        private final Diff<ImmutableOpenMap<String, IndexMetadata>> indices;
+        private final DiffableUtils.MapDiff<String, IndexMetadata, ImmutableOpenMap<String, IndexMetadata>> indices;
         private final Diff<ImmutableOpenMap<String, IndexTemplateMetadata>> templates;
         private final Diff<ImmutableOpenMap<String, Custom>> customs;
         private final Diff<Map<String, ReservedStateMetadata>> reservedStateMetadata;
@@ -1664,10 +1664,7 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, Ch
             builder.templates(templates.apply(part.templates));
             builder.customs(customs.apply(part.customs));
             builder.put(reservedStateMetadata.apply(part.reservedStateMetadata));
-            if (part.indices == updatedIndices
-                && builder.dataStreamMetadata() == part.custom(DataStreamMetadata.TYPE, DataStreamMetadata.EMPTY)) {
-                builder.previousIndicesLookup = part.indicesLookup;
-            }
+            builder.reuseDerivedIndicesState(part, updatedIndices, indices);
             return builder.build(true);
         }
     }
@@ -1859,6 +1856,39 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, Ch
             }
         }
 
+        /**
+         * Called after applying {@code indicesDiff} to the indices of {@code previous} to reuse the structures that {@link #build} would
+         * otherwise derive from all the indices again. Only the indices that the diff touches need to be compared, so this is cheap even
+         * if there are many indices.
+         */
+        private void reuseDerivedIndicesState(
+            Metadata previous,
+            Map<String, IndexMetadata> updatedIndices,
+            DiffableUtils.MapDiff<String, IndexMetadata, ?> indicesDiff
+        ) {
+            if (indicesDiff.getDeletes().isEmpty() == false) {
+                // the lookup must be rebuilt and mappings may no longer be in use
+                return;
+            }
+            boolean reuseIndicesLookup = dataStreamMetadata() == previous.custom(DataStreamMetadata.TYPE, DataStreamMetadata.EMPTY);
+            // the mappings of the previous metadata are all in use, so only the indices in the diff can leave one unused
+            checkForUnusedMappings = false;
+            for (var diff : indicesDiff.getDiffs()) {
+                reuseIndicesLookup &= reuseDerivedIndexState(previous.indices.get(diff.getKey()), updatedIndices.get(diff.getKey()));
+            }
+            for (var upsert : indicesDiff.getUpserts()) {
+                reuseIndicesLookup &= reuseDerivedIndexState(previous.indices.get(upsert.getKey()), updatedIndices.get(upsert.getKey()));
+            }
+            if (reuseIndicesLookup) {
+                previousIndicesLookup = previous.indicesLookup;
+            }
+        }
+
+        private boolean reuseDerivedIndexState(@Nullable IndexMetadata previous, IndexMetadata updated) {
+            maybeSetMappingPurgeFlag(previous, updated);
+            return unsetPreviousIndicesLookup(previous, updated) == false;
+        }
+
         private static boolean unsetPreviousIndicesLookup(IndexMetadata previous, IndexMetadata current) {
             if (previous == null) {
                 return true;
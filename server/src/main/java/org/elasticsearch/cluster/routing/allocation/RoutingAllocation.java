@@ -14,6 +14,7 @@ import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.DiskUsage;
 import org.elasticsearch.cluster.RestoreInProgress;
 import org.elasticsearch.cluster.metadata.DesiredNodes;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.cluster.metadata.Metadata;
 import org.elasticsearch.cluster.metadata.SingleNodeShutdownMetadata;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
@@ -33,6 +34,7 @@ import org.elasticsearch.snapshots.SnapshotShardSizeInfo;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -67,6 +69,10 @@ public class RoutingAllocation {
     private final long currentNanoTime;
     private final boolean isSimulating;
     private boolean isReconciling;
+    @Nullable // if all indices may be moved and rebalanced
+    private Set<String> balancingScope = null;
+    @Nullable // unless simulating
+    private final Map<String, Map<IndexMetadata, Decision>> indexAllocationDecisions;
 
     private final IndexMetadataUpdater indexMetadataUpdater = new IndexMetadataUpdater();
     private final RoutingNodesChangedObserver nodesChangedObserver = new RoutingNodesChangedObserver();
@@ -137,6 +143,7 @@ public class RoutingAllocation {
         this.shardSizeInfo = shardSizeInfo;
         this.currentNanoTime = currentNanoTime;
         this.isSimulating = isSimulating;
+        this.indexAllocationDecisions = isSimulating ? new HashMap<>() : null;
         this.nodeReplacementTargets = nodeReplacementTargets(clusterState);
         this.desiredNodes = DesiredNodes.latestFromClusterState(clusterState);
         this.unaccountedSearchableSnapshotSizes = unaccountedSearchableSnapshotSizes(clusterState, clusterInfo);
@@ -422,6 +429,40 @@ public class RoutingAllocation {
         return () -> isReconciling = false;
     }
 
+    /**
+     * Restrict moving and rebalancing started shards to the given indices while simulating. Unassigned shards are still allocated
+     * regardless of their index.
+     *
+     * @param indices the names of the indices whose shards may be moved or rebalanced, or {@code null} to consider all indices.
+     */
+    public void setBalancingScope(@Nullable Set<String> indices) {
+        assert isSimulating || indices == null : "Should be called only while simulating";
+        this.balancingScope = indices;
+    }
+
+    /**
+     * @return {@code true} if the started shards of the given index may be moved or rebalanced, see {@link #setBalancingScope}.
+     */
+    public boolean isInBalancingScope(String index) {
+        return balancingScope == null || balancingScope.contains(index);
+    }
+
+    /**
+     * Returns the cache for the decisions of {@link AllocationDeciders#canAllocate(IndexMetadata, RoutingNode, RoutingAllocation)}
+     * about the given node, keyed on the identity of the {@link IndexMetadata}. The cache is only kept while simulating, where the same
+     * decisions are taken over and over again as the simulation iterates towards the desired balance. It lives no longer than this
+     * allocation: the deciders also read cluster settings, node attributes and shutdown metadata, none of which are part of the key.
+     *
+     * @return the cache, or {@code null} if the decisions must not be cached
+     */
+    @Nullable
+    public Map<IndexMetadata, Decision> indexAllocationDecisionCache(String nodeId) {
+        if (indexAllocationDecisions == null || debugDecision()) {
+            return null;
+        }
+        return indexAllocationDecisions.computeIfAbsent(nodeId, ignored -> new IdentityHashMap<>());
+    }
+
     public void setSimulatedClusterInfo(ClusterInfo clusterInfo) {
         assert isSimulating : "Should be called only while simulating";
         this.clusterInfo = clusterInfo;
@@ -33,12 +33,15 @@ import org.elasticsearch.cluster.routing.allocation.WriteLoadForecaster;
 import org.elasticsearch.cluster.routing.allocation.decider.AllocationDeciders;
 import org.elasticsearch.cluster.routing.allocation.decider.Decision;
 import org.elasticsearch.cluster.routing.allocation.decider.Decision.Type;
+import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.Maps;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.common.util.set.Sets;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.gateway.PriorityComparator;
 import org.elasticsearch.index.shard.ShardId;
@@ -52,7 +55,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
 import java.util.stream.StreamSupport;
 
 import static org.elasticsearch.cluster.metadata.SingleNodeShutdownMetadata.Type.REPLACE;
@@ -112,6 +121,18 @@ public class BalancedShardsAllocator implements ShardsAllocator {
         Property.NodeScope
     );
 
+    public static final Setting<Integer> WEIGHT_COMPUTATION_PARALLELISM_SETTING = Setting.intSetting(
+        "cluster.routing.allocation.balance.weight_computation_parallelism",
+        1,
+        1,
+        Property.NodeScope
+    );
+
+    /**
+     * The number of indices whose node weights are computed in one go when the computation runs in parallel.
+     */
+    static final int INDICES_PER_WEIGHT_COMPUTATION_TASK = 64;
+
     // TODO: deduplicate these fields, use the fields in NodeAllocationStatsAndWeightsCalculator instead.
     private volatile float indexBalanceFactor;
     private volatile float shardBalanceFactor;
@@ -121,6 +142,15 @@ public class BalancedShardsAllocator implements ShardsAllocator {
 
     private final WriteLoadForecaster writeLoadForecaster;
 
+    @Nullable // if the weights are computed on the calling thread
+    private final Executor weightComputationExecutor;
+    private final int weightComputationParallelism;
+    private final LongSupplier relativeTimeNanosSupplier;
+
+    private final CounterMetric allocateUnassignedNanos = new CounterMetric();
+    private final CounterMetric moveShardsNanos = new CounterMetric();
+    private final CounterMetric balanceNanos = new CounterMetric();
+
     public BalancedShardsAllocator() {
         this(Settings.EMPTY);
     }
@@ -135,12 +165,38 @@ public class BalancedShardsAllocator implements ShardsAllocator {
 
     @Inject
     public BalancedShardsAllocator(ClusterSettings clusterSettings, WriteLoadForecaster writeLoadForecaster) {
+        this(clusterSettings, writeLoadForecaster, null);
+    }
+
+    /**
+     * @param weightComputationExecutor the executor on which to compute the index weights when
+     *                                  {@link #WEIGHT_COMPUTATION_PARALLELISM_SETTING} is above 1, or {@code null} to always compute
+     *                                  them on the calling thread.
+     */
+    public BalancedShardsAllocator(
+        ClusterSettings clusterSettings,
+        WriteLoadForecaster writeLoadForecaster,
+        @Nullable Executor weightComputationExecutor
+    ) {
+        this(clusterSettings, writeLoadForecaster, weightComputationExecutor, System::nanoTime);
+    }
+
+    // visible for testing
+    BalancedShardsAllocator(
+        ClusterSettings clusterSettings,
+        WriteLoadForecaster writeLoadForecaster,
+        @Nullable Executor weightComputationExecutor,
+        LongSupplier relativeTimeNanosSupplier
+    ) {
         clusterSettings.initializeAndWatch(SHARD_BALANCE_FACTOR_SETTING, value -> this.shardBalanceFactor = value);
         clusterSettings.initializeAndWatch(INDEX_BALANCE_FACTOR_SETTING, value -> this.indexBalanceFactor = value);
         clusterSettings.initializeAndWatch(WRITE_LOAD_BALANCE_FACTOR_SETTING, value -> this.writeLoadBalanceFactor = value);
         clusterSettings.initializeAndWatch(DISK_USAGE_BALANCE_FACTOR_SETTING, value -> this.diskUsageBalanceFactor = value);
         clusterSettings.initializeAndWatch(THRESHOLD_SETTING, value -> this.threshold = value);
         this.writeLoadForecaster = writeLoadForecaster;
+        this.weightComputationParallelism = clusterSettings.get(WEIGHT_COMPUTATION_PARALLELISM_SETTING);
+        this.weightComputationExecutor = weightComputationParallelism > 1 ? weightComputationExecutor : null;
+        this.relativeTimeNanosSupplier = relativeTimeNanosSupplier;
     }
 
     @Override
@@ -157,14 +213,31 @@ public class BalancedShardsAllocator implements ShardsAllocator {
             writeLoadBalanceFactor,
             diskUsageBalanceFactor
         );
-        final Balancer balancer = new Balancer(writeLoadForecaster, allocation, weightFunction, threshold);
+        final Balancer balancer = newBalancer(allocation, weightFunction);
+        final long startNanos = relativeTimeNanosSupplier.getAsLong();
         balancer.allocateUnassigned();
+        final long allocatedUnassignedNanos = relativeTimeNanosSupplier.getAsLong();
+        allocateUnassignedNanos.inc(allocatedUnassignedNanos - startNanos);
         balancer.moveShards();
+        final long movedShardsNanos = relativeTimeNanosSupplier.getAsLong();
+        moveShardsNanos.inc(movedShardsNanos - allocatedUnassignedNanos);
         balancer.balance();
+        balanceNanos.inc(relativeTimeNanosSupplier.getAsLong() - movedShardsNanos);
 
         collectAndRecordNodeWeightStats(balancer, weightFunction, allocation);
     }
 
+    private Balancer newBalancer(RoutingAllocation allocation, WeightFunction weightFunction) {
+        return new Balancer(
+            writeLoadForecaster,
+            allocation,
+            weightFunction,
+            threshold,
+            weightComputationExecutor,
+            weightComputationParallelism
+        );
+    }
+
     private void collectAndRecordNodeWeightStats(Balancer balancer, WeightFunction weightFunction, RoutingAllocation allocation) {
         Map<DiscoveryNode, DesiredBalanceMetrics.NodeWeightStats> nodeLevelWeights = new HashMap<>();
         for (var entry : balancer.nodes.entrySet()) {
@@ -193,7 +266,7 @@ public class BalancedShardsAllocator implements ShardsAllocator {
             writeLoadBalanceFactor,
             diskUsageBalanceFactor
         );
-        Balancer balancer = new Balancer(writeLoadForecaster, allocation, weightFunction, threshold);
+        Balancer balancer = newBalancer(allocation, weightFunction);
         AllocateUnassignedDecision allocateUnassignedDecision = AllocateUnassignedDecision.NOT_TAKEN;
         MoveDecision moveDecision = MoveDecision.NOT_TAKEN;
         if (shard.unassigned()) {
@@ -256,6 +329,27 @@ public class BalancedShardsAllocator implements ShardsAllocator {
         return shardBalanceFactor;
     }
 
+    /**
+     * Returns the total time in milliseconds spent allocating unassigned shards.
+     */
+    public long getAllocateUnassignedTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(allocateUnassignedNanos.count());
+    }
+
+    /**
+     * Returns the total time in milliseconds spent moving shards that can't remain on their node.
+     */
+    public long getMoveShardsTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(moveShardsNanos.count());
+    }
+
+    /**
+     * Returns the total time in milliseconds spent rebalancing shards.
+     */
+    public long getBalanceTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(balanceNanos.count());
+    }
+
     /**
      * A {@link Balancer}
      */
@@ -272,12 +366,17 @@ public class BalancedShardsAllocator implements ShardsAllocator {
         private final double avgDiskUsageInBytesPerNode;
         private final Map<String, ModelNode> nodes;
         private final NodeSorter sorter;
+        @Nullable
+        private final Executor weightComputationExecutor;
+        private final int weightComputationParallelism;
 
         private Balancer(
             WriteLoadForecaster writeLoadForecaster,
             RoutingAllocation allocation,
             WeightFunction weightFunction,
-            float threshold
+            float threshold,
+            @Nullable Executor weightComputationExecutor,
+            int weightComputationParallelism
         ) {
             this.writeLoadForecaster = writeLoadForecaster;
             this.allocation = allocation;
@@ -285,6 +384,8 @@ public class BalancedShardsAllocator implements ShardsAllocator {
             this.metadata = allocation.metadata();
             this.weightFunction = weightFunction;
             this.threshold = threshold;
+            this.weightComputationExecutor = weightComputationExecutor;
+            this.weightComputationParallelism = weightComputationParallelism;
             avgShardsPerNode = WeightFunction.avgShardPerNode(metadata, routingNodes);
             avgWriteLoadPerNode = WeightFunction.avgWriteLoadPerNode(writeLoadForecaster, metadata, routingNodes);
             avgDiskUsageInBytesPerNode = WeightFunction.avgDiskUsageInBytesPerNode(allocation.clusterInfo(), metadata, routingNodes);
@@ -689,13 +790,23 @@ public class BalancedShardsAllocator implements ShardsAllocator {
          * has no shards yet and global balance for the node is way below
          * average. To re-balance we need to move shards back eventually likely
          * to the nodes we relocated them from.
+         * Indices outside of the {@link RoutingAllocation#isInBalancingScope balancing scope} are left out.
          */
         private String[] buildWeightOrderedIndices() {
-            final String[] indices = allocation.routingTable().indicesRouting().keySet().toArray(String[]::new);
+            final String[] indices = allocation.routingTable()
+                .indicesRouting()
+                .keySet()
+                .stream()
+                .filter(allocation::isInBalancingScope)
+                .toArray(String[]::new);
             final float[] deltas = new float[indices.length];
-            for (int i = 0; i < deltas.length; i++) {
-                sorter.reset(indices[i]);
-                deltas[i] = sorter.delta();
+            if (weightComputationExecutor != null && indices.length > INDICES_PER_WEIGHT_COMPUTATION_TASK) {
+                computeIndexDeltasInParallel(indices, deltas);
+            } else {
+                for (int i = 0; i < deltas.length; i++) {
+                    sorter.reset(indices[i]);
+                    deltas[i] = sorter.delta();
+                }
             }
             new IntroSorter() {
 
@@ -730,6 +841,61 @@ public class BalancedShardsAllocator implements ShardsAllocator {
             return indices;
         }
 
+        /**
+         * Computes the weight delta of each index for {@link #buildWeightOrderedIndices} using up to
+         * {@code weightComputationParallelism} threads. The indices are split into chunks which the calling thread and the tasks
+         * forked to the {@code weightComputationExecutor} claim one at a time, so the calling thread only ever waits for chunks that
+         * another thread is already computing and never for a task that hasn't started, even if the executor is busy.
+         * <p>
+         * The model isn't modified while the deltas are computed so they, and with them the order of the indices, are the same as when
+         * computed on a single thread. Each chunk uses its own {@link NodeSorter} and {@link #sorter} is left untouched. Unlike on a single
+         * thread, where {@link #sorter} is left ordered by the weights of the last index, nodes of equal weight may therefore be visited
+         * in a different order by {@link #balanceByWeights}. That order doesn't depend on how the chunks were split between threads, so
+         * the balancing decisions are still deterministic.
+         */
+        private void computeIndexDeltasInParallel(String[] indices, float[] deltas) {
+            final int chunks = (indices.length + INDICES_PER_WEIGHT_COMPUTATION_TASK - 1) / INDICES_PER_WEIGHT_COMPUTATION_TASK;
+            final AtomicInteger nextChunk = new AtomicInteger();
+            final CountDownLatch computedChunks = new CountDownLatch(chunks);
+            final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+            final Runnable computeChunks = () -> {
+                int chunk;
+                while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                    try {
+                        final int from = chunk * INDICES_PER_WEIGHT_COMPUTATION_TASK;
+                        final int to = Math.min(from + INDICES_PER_WEIGHT_COMPUTATION_TASK, indices.length);
+                        final NodeSorter chunkSorter = newNodeSorter();
+                        for (int i = from; i < to; i++) {
+                            chunkSorter.reset(indices[i]);
+                            deltas[i] = chunkSorter.delta();
+                        }
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        computedChunks.countDown();
+                    }
+                }
+            };
+            for (int i = 1; i < Math.min(weightComputationParallelism, chunks); i++) {
+                try {
+                    weightComputationExecutor.execute(computeChunks);
+                } catch (EsRejectedExecutionException e) {
+                    // the executor is shutting down, the remaining chunks are computed on this thread
+                    break;
+                }
+            }
+            computeChunks.run();
+            try {
+                computedChunks.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while computing index weights", e);
+            }
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+        }
+
         /**
          * Move started shards that can not be allocated to a node anymore
          *
@@ -739,6 +905,8 @@ public class BalancedShardsAllocator implements ShardsAllocator {
          * {@link ShardRoutingState#RELOCATING} and a shadow instance of this
          * shard is created with an incremented version in the state
          * {@link ShardRoutingState#INITIALIZING}.
+         *
+         * Shards of indices outside of the {@link RoutingAllocation#isInBalancingScope balancing scope} are not checked.
          */
         public void moveShards() {
             // Iterate over the started shards interleaving between nodes, and check if they can remain. In the presence of throttling
@@ -746,6 +914,9 @@ public class BalancedShardsAllocator implements ShardsAllocator {
             // offloading the shards.
             for (Iterator<ShardRouting> it = allocation.routingNodes().nodeInterleavedShardIterator(); it.hasNext();) {
                 ShardRouting shardRouting = it.next();
+                if (allocation.isInBalancingScope(shardRouting.getIndexName()) == false) {
+                    continue;
+                }
                 final MoveDecision moveDecision = decideMove(shardRouting);
                 if (moveDecision.isDecisionTaken() && moveDecision.forceMove()) {
                     final ModelNode sourceNode = nodes.get(shardRouting.currentNodeId());
@@ -13,6 +13,8 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.cluster.ClusterInfoSimulator;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.cluster.metadata.NodesShutdownMetadata;
 import org.elasticsearch.cluster.routing.RoutingNodes;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.routing.UnassignedInfo;
@@ -22,10 +24,13 @@ import org.elasticsearch.cluster.routing.allocation.decider.Decision;
 import org.elasticsearch.common.metrics.MeanMetric;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.time.TimeProvider;
 import org.elasticsearch.common.util.Maps;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Strings;
 import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.index.Index;
 import org.elasticsearch.index.shard.ShardId;
 
 import java.util.ArrayList;
@@ -70,8 +75,36 @@ public class DesiredBalanceComputer {
         Setting.Property.NodeScope
     );
 
+    public static final Setting<Boolean> INCREMENTAL_COMPUTATION_SETTING = Setting.boolSetting(
+        "cluster.routing.allocation.desired_balance.incremental_computation.enabled",
+        false,
+        Setting.Property.Dynamic,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * An incremental computation re-plans the shards on nodes whose disk usage moved by more than this many percentage points since
+     * the last computation that re-planned them.
+     */
+    static final double INCREMENTAL_DISK_USAGE_CHANGE_THRESHOLD_PERCENT = 1.0;
+
+    /**
+     * After this many incremental computations in a row the next computation re-plans every shard, to fix any imbalance that arose
+     * outside of the indices that the incremental computations looked at.
+     */
+    static final int MAX_CONSECUTIVE_INCREMENTAL_COMPUTATIONS = 10;
+
     private TimeValue progressLogInterval;
     private long maxBalanceComputationTimeDuringIndexCreationMillis;
+    private volatile boolean incrementalComputation;
+
+    /**
+     * The inputs and result of the last computation that converged, used to work out which indices an incremental computation must
+     * re-plan. Only accessed by the thread running the computation.
+     */
+    @Nullable
+    private LastComputation lastComputation;
+    private int consecutiveIncrementalComputations;
 
     public DesiredBalanceComputer(ClusterSettings clusterSettings, TimeProvider timeProvider, ShardsAllocator delegateAllocator) {
         this.delegateAllocator = delegateAllocator;
@@ -81,6 +114,7 @@ public class DesiredBalanceComputer {
             MAX_BALANCE_COMPUTATION_TIME_DURING_INDEX_CREATION_SETTING,
             value -> this.maxBalanceComputationTimeDuringIndexCreationMillis = value.millis()
         );
+        clusterSettings.initializeAndWatch(INCREMENTAL_COMPUTATION_SETTING, value -> this.incrementalComputation = value);
     }
 
     public DesiredBalance compute(
@@ -111,9 +145,13 @@ public class DesiredBalanceComputer {
         DesiredBalance.ComputationFinishReason finishReason = DesiredBalance.ComputationFinishReason.CONVERGED;
 
         if (routingNodes.size() == 0) {
+            lastComputation = null;
             return new DesiredBalance(desiredBalanceInput.index(), Map.of(), Map.of(), finishReason);
         }
 
+        final var balancingScope = balancingScope(previousDesiredBalance, routingAllocation, pendingDesiredBalanceMoves);
+        routingAllocation.setBalancingScope(balancingScope.indices());
+
         // we assume that all ongoing recoveries will complete
         for (final var routingNode : routingNodes) {
             for (final var shardRouting : routingNode) {
@@ -406,7 +444,119 @@ public class DesiredBalanceComputer {
         }
 
         long lastConvergedIndex = hasChanges ? previousDesiredBalance.lastConvergedIndex() : desiredBalanceInput.index();
-        return new DesiredBalance(lastConvergedIndex, assignments, routingNodes.getBalanceWeightStatsPerNode(), finishReason);
+        final var desiredBalance = new DesiredBalance(
+            lastConvergedIndex,
+            assignments,
+            routingNodes.getBalanceWeightStatsPerNode(),
+            finishReason
+        );
+        lastComputation = hasChanges == false && finishReason == DesiredBalance.ComputationFinishReason.CONVERGED
+            ? new LastComputation(
+                desiredBalance,
+                Set.copyOf(knownNodeIds),
+                routingAllocation.metadata().settings(),
+                routingAllocation.metadata().nodeShutdowns(),
+                indexMetadataVersions(routingAllocation.metadata()),
+                balancingScope.diskUsagePercentPerNode()
+            )
+            : null;
+        return desiredBalance;
+    }
+
+    private record LastComputation(
+        DesiredBalance desiredBalance,
+        Set<String> nodeIds,
+        Settings clusterSettings,
+        NodesShutdownMetadata nodeShutdowns,
+        Map<Index, Long> indexMetadataVersions,
+        Map<String, Double> diskUsagePercentPerNode
+    ) {}
+
+    /**
+     * @param indices the indices whose started shards the allocator may move, or {@code null} if it may move any shard
+     * @param diskUsagePercentPerNode the disk usage of each node when its shards were last re-planned
+     */
+    private record BalancingScope(@Nullable Set<String> indices, Map<String, Double> diskUsagePercentPerNode) {}
+
+    /**
+     * Work out which indices need re-planning. An incremental computation starts from a previous desired balance that converged and
+     * only moves the shards of indices that are new, that have changed metadata, that have unassigned or moved shards, or that have
+     * shards on a node whose disk usage changed. Anything that may affect all shards, like a node joining the cluster, an index
+     * being deleted, or a change to the cluster settings or to the node shutdowns, makes it re-plan every shard instead, and so does
+     * every computation following {@link #MAX_CONSECUTIVE_INCREMENTAL_COMPUTATIONS} incremental ones.
+     */
+    private BalancingScope balancingScope(
+        DesiredBalance previousDesiredBalance,
+        RoutingAllocation routingAllocation,
+        Queue<List<MoveAllocationCommand>> pendingDesiredBalanceMoves
+    ) {
+        final var diskUsages = routingAllocation.clusterInfo().getNodeLeastAvailableDiskUsages();
+        final var diskUsagePercentPerNode = new HashMap<String, Double>();
+        for (final var routingNode : routingAllocation.routingNodes()) {
+            final var diskUsage = diskUsages.get(routingNode.nodeId());
+            if (diskUsage != null) {
+                diskUsagePercentPerNode.put(routingNode.nodeId(), diskUsage.getUsedDiskAsPercentage());
+            }
+        }
+
+        final var last = lastComputation;
+        final var metadata = routingAllocation.metadata();
+        if (incrementalComputation == false
+            || last == null
+            || last.desiredBalance() != previousDesiredBalance
+            || last.nodeIds().containsAll(routingAllocation.routingNodes().getAllNodeIds()) == false
+            || last.clusterSettings().equals(metadata.settings()) == false
+            || last.nodeShutdowns().equals(metadata.nodeShutdowns()) == false
+            || last.indexMetadataVersions().keySet().stream().anyMatch(index -> metadata.index(index) == null)
+            || consecutiveIncrementalComputations >= MAX_CONSECUTIVE_INCREMENTAL_COMPUTATIONS) {
+            consecutiveIncrementalComputations = 0;
+            return new BalancingScope(null, diskUsagePercentPerNode);
+        }
+        consecutiveIncrementalComputations++;
+
+        final var indices = new HashSet<String>();
+        for (final var indexMetadata : metadata) {
+            final var lastVersion = last.indexMetadataVersions().get(indexMetadata.getIndex());
+            if (lastVersion == null || lastVersion != indexMetadata.getVersion()) {
+                indices.add(indexMetadata.getIndex().getName());
+            }
+        }
+        // shards of departed nodes are unassigned by now, so this also covers changes to the node set
+        for (final var shardRouting : routingAllocation.routingNodes().unassigned()) {
+            indices.add(shardRouting.getIndexName());
+        }
+        for (final var shardRouting : routingAllocation.routingNodes().unassigned().ignored()) {
+            indices.add(shardRouting.getIndexName());
+        }
+        for (final var commands : pendingDesiredBalanceMoves) {
+            for (final var command : commands) {
+                indices.add(command.index());
+            }
+        }
+        for (final var routingNode : routingAllocation.routingNodes()) {
+            final var lastPercent = last.diskUsagePercentPerNode().get(routingNode.nodeId());
+            final var percent = diskUsagePercentPerNode.get(routingNode.nodeId());
+            if (lastPercent != null
+                && (percent == null || Math.abs(percent - lastPercent) <= INCREMENTAL_DISK_USAGE_CHANGE_THRESHOLD_PERCENT)) {
+                // keep measuring from the last re-plan so that slow drift eventually triggers one too
+                diskUsagePercentPerNode.put(routingNode.nodeId(), lastPercent);
+            } else if (lastPercent != null || percent != null) {
+                for (final var shardRouting : routingNode) {
+                    indices.add(shardRouting.getIndexName());
+                }
+            }
+        }
+
+        logger.debug("Recomputing desired balance incrementally for [{}] of [{}] indices", indices.size(), metadata.indices().size());
+        return new BalancingScope(indices, diskUsagePercentPerNode);
+    }
+
+    private static Map<Index, Long> indexMetadataVersions(Metadata metadata) {
+        final Map<Index, Long> versions = Maps.newHashMapWithExpectedSize(metadata.indices().size());
+        for (final var indexMetadata : metadata) {
+            versions.put(indexMetadata.getIndex(), indexMetadata.getVersion());
+        }
+        return versions;
     }
 
     // visible for testing
@@ -391,7 +391,10 @@ public class DesiredBalanceShardsAllocator implements ShardsAllocator {
             cumulativeReconciliationTime.count(),
             desiredBalanceMetrics.unassignedShards(),
             desiredBalanceMetrics.totalAllocations(),
-            desiredBalanceMetrics.undesiredAllocations()
+            desiredBalanceMetrics.undesiredAllocations(),
+            delegateAllocator instanceof BalancedShardsAllocator balanced ? balanced.getAllocateUnassignedTimeMillis() : -1,
+            delegateAllocator instanceof BalancedShardsAllocator balanced ? balanced.getMoveShardsTimeMillis() : -1,
+            delegateAllocator instanceof BalancedShardsAllocator balanced ? balanced.getBalanceTimeMillis() : -1
         );
     }
 
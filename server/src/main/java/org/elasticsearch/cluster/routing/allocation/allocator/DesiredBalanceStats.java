@@ -34,10 +34,14 @@ public record DesiredBalanceStats(
     long cumulativeReconciliationTime,
     long unassignedShards,
     long totalAllocations,
-    long undesiredAllocations
+    long undesiredAllocations,
+    long cumulativeAllocateUnassignedTime,
+    long cumulativeMoveShardsTime,
+    long cumulativeBalanceTime
 ) implements Writeable, ToXContentObject {
 
     private static final TransportVersion COMPUTED_SHARD_MOVEMENTS_VERSION = TransportVersions.V_8_8_0;
+    private static final TransportVersion PHASE_TIMES_VERSION = TransportVersions.DESIRED_BALANCE_PHASE_TIMES;
 
     public DesiredBalanceStats {
         if (lastConvergedIndex < 0) {
@@ -59,7 +63,10 @@ public record DesiredBalanceStats(
             in.readVLong(),
             in.getTransportVersion().onOrAfter(V_8_12_0) ? in.readVLong() : -1,
             in.getTransportVersion().onOrAfter(V_8_12_0) ? in.readVLong() : -1,
-            in.getTransportVersion().onOrAfter(V_8_12_0) ? in.readVLong() : -1
+            in.getTransportVersion().onOrAfter(V_8_12_0) ? in.readVLong() : -1,
+            in.getTransportVersion().onOrAfter(PHASE_TIMES_VERSION) ? in.readZLong() : -1,
+            in.getTransportVersion().onOrAfter(PHASE_TIMES_VERSION) ? in.readZLong() : -1,
+            in.getTransportVersion().onOrAfter(PHASE_TIMES_VERSION) ? in.readZLong() : -1
         );
     }
 
@@ -81,6 +88,11 @@ public record DesiredBalanceStats(
             out.writeVLong(totalAllocations);
             out.writeVLong(undesiredAllocations);
         }
+        if (out.getTransportVersion().onOrAfter(PHASE_TIMES_VERSION)) {
+            out.writeZLong(cumulativeAllocateUnassignedTime);
+            out.writeZLong(cumulativeMoveShardsTime);
+            out.writeZLong(cumulativeBalanceTime);
+        }
     }
 
     @Override
@@ -99,6 +111,13 @@ public record DesiredBalanceStats(
         builder.field("total_allocations", totalAllocations);
         builder.field("undesired_allocations", undesiredAllocations);
         builder.field("undesired_allocations_ratio", undesiredAllocationsRatio());
+        builder.humanReadableField(
+            "allocate_unassigned_time_in_millis",
+            "allocate_unassigned_time",
+            new TimeValue(cumulativeAllocateUnassignedTime)
+        );
+        builder.humanReadableField("move_shards_time_in_millis", "move_shards_time", new TimeValue(cumulativeMoveShardsTime));
+        builder.humanReadableField("balance_time_in_millis", "balance_time", new TimeValue(cumulativeBalanceTime));
         builder.endObject();
         return builder;
     }
@@ -59,8 +59,9 @@ public abstract class AllocationDecider {
     }
 
     /**
-     * Returns a {@link Decision} whether the given shard routing can be allocated at all at this state of the
-     * {@link RoutingAllocation}. The default is {@link Decision#ALWAYS}.
+     * Returns a {@link Decision} whether shards of the given index can be allocated to the given node at all. The decision must not
+     * depend on the shards that are assigned to the node or elsewhere in the {@link RoutingAllocation}, because
+     * {@link AllocationDeciders} caches it while simulating. The default is {@link Decision#ALWAYS}.
      */
     public Decision canAllocate(IndexMetadata indexMetadata, RoutingNode node, RoutingAllocation allocation) {
         return Decision.ALWAYS;
@@ -53,6 +53,20 @@ public class AllocationDeciders {
     }
 
     public Decision canAllocate(IndexMetadata indexMetadata, RoutingNode node, RoutingAllocation allocation) {
+        final var cache = allocation.indexAllocationDecisionCache(node.nodeId());
+        if (cache != null) {
+            final var cached = cache.get(indexMetadata);
+            if (cached != null) {
+                return cached;
+            }
+            final var decision = canAllocateUncached(indexMetadata, node, allocation);
+            cache.put(indexMetadata, decision);
+            return decision;
+        }
+        return canAllocateUncached(indexMetadata, node, allocation);
+    }
+
+    private Decision canAllocateUncached(IndexMetadata indexMetadata, RoutingNode node, RoutingAllocation allocation) {
         return withDeciders(
             allocation,
             decider -> decider.canAllocate(indexMetadata, node, allocation),
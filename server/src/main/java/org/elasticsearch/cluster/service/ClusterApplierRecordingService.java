@@ -25,6 +25,8 @@ import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.monitor.jvm.HotThreads;
+import org.elasticsearch.telemetry.metric.LongHistogram;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.xcontent.ToXContentFragment;
 import org.elasticsearch.xcontent.XContentBuilder;
@@ -43,7 +45,29 @@ public final class ClusterApplierRecordingService {
 
     private static final Logger logger = LogManager.getLogger(ClusterApplierRecordingService.class);
 
+    public static final String ACTION_DURATION_HISTOGRAM = "es.cluster.applier.action.duration.histogram";
+    public static final String ACTION_ATTRIBUTE_NAME = "action";
+
+    /**
+     * The action recorded for running the update task, which is followed by the task source. The source is left out of the metrics
+     * so they don't get an attribute value for every task.
+     */
+    static final String RUNNING_TASK_ACTION = "running task";
+
     private final Map<String, MeanMetric> recordedActions = new HashMap<>();
+    private final LongHistogram actionDurationHistogram;
+
+    public ClusterApplierRecordingService() {
+        this(MeterRegistry.NOOP);
+    }
+
+    public ClusterApplierRecordingService(MeterRegistry meterRegistry) {
+        this.actionDurationHistogram = meterRegistry.registerLongHistogram(
+            ACTION_DURATION_HISTOGRAM,
+            "time spent on each action while applying a cluster state",
+            "ms"
+        );
+    }
 
     synchronized Stats getStats() {
         return new Stats(
@@ -63,6 +87,10 @@ public final class ClusterApplierRecordingService {
             MeanMetric metric = recordedActions.computeIfAbsent(action, key -> new MeanMetric());
             metric.inc(timeSpentMS);
             seenActions.add(action);
+            actionDurationHistogram.record(
+                timeSpentMS,
+                Map.of(ACTION_ATTRIBUTE_NAME, action.startsWith(RUNNING_TASK_ACTION) ? RUNNING_TASK_ACTION : action)
+            );
         }
         recordedActions.entrySet().removeIf(entry -> seenActions.contains(entry.getKey()) == false);
     }
@@ -114,6 +142,16 @@ public final class ClusterApplierRecordingService {
             return this::stop;
         }
 
+        /**
+         * Add the time spent on an action that ran concurrently with others, so it couldn't be recorded with {@link #record}.
+         */
+        void addRecording(String action, long elapsedMillis) {
+            if (recording) {
+                throw new IllegalStateException("already recording");
+            }
+            recordings.add(new Tuple<>(action, elapsedMillis));
+        }
+
         void stop() {
             recording = false;
             long elapsedMillis = threadPool.rawRelativeTimeInMillis() - this.startMillis;
@@ -52,6 +52,8 @@ import org.elasticsearch.tasks.Task;
 import org.elasticsearch.tasks.TaskAwareRequest;
 import org.elasticsearch.tasks.TaskId;
 import org.elasticsearch.tasks.TaskManager;
+import org.elasticsearch.telemetry.metric.LongHistogram;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
 import org.elasticsearch.threadpool.Scheduler;
 import org.elasticsearch.threadpool.ThreadPool;
 
@@ -62,6 +64,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -69,6 +72,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -92,6 +96,31 @@ public class MasterService extends AbstractLifecycleComponent {
         Setting.Property.NodeScope
     );
 
+    /**
+     * The maximum number of tasks from the named {@link MasterServiceTaskQueue} to execute in a single batch. Any remaining tasks wait
+     * behind the batches of the other queues with the same priority.
+     */
+    public static final Setting.AffixSetting<Integer> MASTER_SERVICE_QUEUE_MAX_BATCH_SIZE_SETTING = Setting.affixKeySetting(
+        "cluster.service.master_task_queue.",
+        "max_batch_size",
+        key -> Setting.intSetting(key, Integer.MAX_VALUE, 1, Setting.Property.Dynamic, Setting.Property.NodeScope)
+    );
+
+    /**
+     * How long the tasks of the named {@link MasterServiceTaskQueue} should wait at most. Once the oldest task of the queue has waited
+     * for longer, its batch runs before the batches of higher priority queues. The default of {@code -1} means the queue only runs in
+     * priority order.
+     */
+    public static final Setting.AffixSetting<TimeValue> MASTER_SERVICE_QUEUE_LATENCY_TARGET_SETTING = Setting.affixKeySetting(
+        "cluster.service.master_task_queue.",
+        "latency_target",
+        key -> Setting.timeSetting(key, TimeValue.MINUS_ONE, TimeValue.MINUS_ONE, Setting.Property.Dynamic, Setting.Property.NodeScope)
+    );
+
+    public static final String QUEUE_LATENCY_HISTOGRAM = "es.cluster.master_service.queue.latency.histogram";
+    public static final String QUEUE_ATTRIBUTE_NAME = "queue";
+    public static final String PRIORITY_ATTRIBUTE_NAME = "priority";
+
     public static final String MASTER_UPDATE_THREAD_NAME = "masterService#updateTask";
 
     public static final String STATE_UPDATE_ACTION_NAME = "publish_cluster_state_update";
@@ -119,7 +148,21 @@ public class MasterService extends AbstractLifecycleComponent {
     private final ClusterStateUpdateStatsTracker clusterStateUpdateStatsTracker = new ClusterStateUpdateStatsTracker();
     private final StarvationWatcher starvationWatcher = new StarvationWatcher();
 
+    private final Map<String, Integer> maxBatchSizes = new ConcurrentHashMap<>();
+    private final Map<String, Long> latencyTargetsMillis = new ConcurrentHashMap<>();
+    private final LongHistogram queueLatencyHistogram;
+
     public MasterService(Settings settings, ClusterSettings clusterSettings, ThreadPool threadPool, TaskManager taskManager) {
+        this(settings, clusterSettings, threadPool, taskManager, MeterRegistry.NOOP);
+    }
+
+    public MasterService(
+        Settings settings,
+        ClusterSettings clusterSettings,
+        ThreadPool threadPool,
+        TaskManager taskManager,
+        MeterRegistry meterRegistry
+    ) {
         this.nodeName = Objects.requireNonNull(Node.NODE_NAME_SETTING.get(settings));
 
         this.slowTaskLoggingThreshold = MASTER_SERVICE_SLOW_TASK_LOGGING_THRESHOLD_SETTING.get(settings);
@@ -127,6 +170,16 @@ public class MasterService extends AbstractLifecycleComponent {
 
         this.starvationLoggingThreshold = MASTER_SERVICE_STARVATION_LOGGING_THRESHOLD_SETTING.get(settings);
 
+        MASTER_SERVICE_QUEUE_MAX_BATCH_SIZE_SETTING.getAsMap(settings).forEach(this::setMaxBatchSize);
+        clusterSettings.addAffixUpdateConsumer(MASTER_SERVICE_QUEUE_MAX_BATCH_SIZE_SETTING, this::setMaxBatchSize, (q, v) -> {});
+        MASTER_SERVICE_QUEUE_LATENCY_TARGET_SETTING.getAsMap(settings).forEach(this::setLatencyTarget);
+        clusterSettings.addAffixUpdateConsumer(MASTER_SERVICE_QUEUE_LATENCY_TARGET_SETTING, this::setLatencyTarget, (q, v) -> {});
+        this.queueLatencyHistogram = meterRegistry.registerLongHistogram(
+            QUEUE_LATENCY_HISTOGRAM,
+            "time that master service tasks spend waiting in their queue",
+            "ms"
+        );
+
         this.threadPool = threadPool;
         this.taskManager = taskManager;
         this.clusterStateUpdateContext = getClusterStateUpdateContext(threadPool.getThreadContext());
@@ -148,6 +201,22 @@ public class MasterService extends AbstractLifecycleComponent {
         }
     }
 
+    private void setMaxBatchSize(String queueName, int maxBatchSize) {
+        if (maxBatchSize == Integer.MAX_VALUE) {
+            maxBatchSizes.remove(queueName);
+        } else {
+            maxBatchSizes.put(queueName, maxBatchSize);
+        }
+    }
+
+    private void setLatencyTarget(String queueName, TimeValue latencyTarget) {
+        if (latencyTarget.millis() < 0) {
+            latencyTargetsMillis.remove(queueName);
+        } else {
+            latencyTargetsMillis.put(queueName, latencyTarget.millis());
+        }
+    }
+
     private void setSlowTaskLoggingThreshold(TimeValue slowTaskLoggingThreshold) {
         this.slowTaskLoggingThreshold = slowTaskLoggingThreshold;
     }
@@ -1314,6 +1383,13 @@ public class MasterService extends AbstractLifecycleComponent {
     private Batch takeNextBatch() {
         assert totalQueueSize.get() > 0;
         assert currentlyExecutingBatch == null;
+        if (latencyTargetsMillis.isEmpty() == false) {
+            final var overdueBatch = takeMostOverdueBatch();
+            if (overdueBatch != null) {
+                currentlyExecutingBatch = overdueBatch;
+                return overdueBatch;
+            }
+        }
         for (final var queue : queuesByPriority.values()) {
             var batch = queue.queue.poll();
             if (batch != null) {
@@ -1326,6 +1402,38 @@ public class MasterService extends AbstractLifecycleComponent {
         throw new IllegalStateException("queue processor found no items");
     }
 
+    /**
+     * Takes the batch whose oldest task exceeds the latency target of its queue by the most, if any, regardless of its priority. Only the
+     * queue processor removes batches from the queues, so the batch found is still there to be taken.
+     */
+    @Nullable
+    private Batch takeMostOverdueBatch() {
+        final var currentTimeMillis = threadPool.relativeTimeInMillis();
+        PerPriorityQueue overdueQueue = null;
+        Batch overdueBatch = null;
+        long maxOverdueMillis = 0L;
+        for (final var queue : queuesByPriority.values()) {
+            for (final var batch : queue.queue) {
+                final var latencyTargetMillis = latencyTargetsMillis.get(batch.getQueueName());
+                final var oldestInsertionTimeMillis = batch.getOldestInsertionTimeMillis();
+                if (latencyTargetMillis != null && oldestInsertionTimeMillis != Long.MAX_VALUE) {
+                    final var overdueMillis = currentTimeMillis - oldestInsertionTimeMillis - latencyTargetMillis;
+                    if (overdueMillis > maxOverdueMillis) {
+                        overdueQueue = queue;
+                        overdueBatch = batch;
+                        maxOverdueMillis = overdueMillis;
+                    }
+                }
+            }
+        }
+        if (overdueBatch != null) {
+            logger.debug("running [{}] ahead of its priority, its tasks are [{}ms] overdue", overdueBatch, maxOverdueMillis);
+            final var removed = overdueQueue.queue.remove(overdueBatch);
+            assert removed : overdueBatch;
+        }
+        return overdueBatch;
+    }
+
     private void forkQueueProcessor() {
         // single-threaded: started when totalQueueSize transitions from 0 to 1 and keeps calling itself until the queue is drained.
         if (lifecycle.started() == false) {
@@ -1421,6 +1529,17 @@ public class MasterService extends AbstractLifecycleComponent {
          * @return the earliest insertion time of the tasks in this batch if the batch is pending, or {@link Long#MAX_VALUE} otherwise.
          */
         long getCreationTimeMillis();
+
+        /**
+         * @return the insertion time of the first task waiting in this batch, which may have timed out already, or
+         *         {@link Long#MAX_VALUE} if there are no tasks waiting. Cheaper than {@link #getCreationTimeMillis()}.
+         */
+        long getOldestInsertionTimeMillis();
+
+        /**
+         * @return the name of the {@link MasterServiceTaskQueue} of this batch.
+         */
+        String getQueueName();
     }
 
     /**
@@ -1428,7 +1547,9 @@ public class MasterService extends AbstractLifecycleComponent {
      * (while the master service is otherwise busy) will be batched together into a single cluster state update. You should therefore re-use
      * each queue as much as possible.
      *
-     * @param name The name of the queue, which is mostly useful for debugging.
+     * @param name The name of the queue, which is mostly useful for debugging. It is also the namespace of the settings
+     *             {@link #MASTER_SERVICE_QUEUE_MAX_BATCH_SIZE_SETTING} and {@link #MASTER_SERVICE_QUEUE_LATENCY_TARGET_SETTING} for the
+     *             queue, and the {@link #QUEUE_ATTRIBUTE_NAME} of its metrics.
      *
      * @param priority The priority at which tasks submitted to the queue are executed. Avoid priorites other than {@link Priority#NORMAL}
      *                 where possible. A stream of higher-priority tasks can starve lower-priority ones from running. Higher-priority tasks
@@ -1451,7 +1572,9 @@ public class MasterService extends AbstractLifecycleComponent {
             insertionIndexSupplier,
             queuesByPriority.get(priority),
             executor,
-            threadPool
+            threadPool,
+            () -> maxBatchSizes.getOrDefault(name, Integer.MAX_VALUE),
+            queueLatencyHistogram
         );
     }
 
@@ -1544,6 +1667,9 @@ public class MasterService extends AbstractLifecycleComponent {
         private final PerPriorityQueue perPriorityQueue;
         private final ClusterStateTaskExecutor<T> executor;
         private final ThreadPool threadPool;
+        private final IntSupplier maxBatchSizeSupplier;
+        private final LongHistogram queueLatencyHistogram;
+        private final Map<String, Object> metricAttributes;
         private final Batch processor = new Processor();
 
         BatchingTaskQueue(
@@ -1552,7 +1678,9 @@ public class MasterService extends AbstractLifecycleComponent {
             LongSupplier insertionIndexSupplier,
             PerPriorityQueue perPriorityQueue,
             ClusterStateTaskExecutor<T> executor,
-            ThreadPool threadPool
+            ThreadPool threadPool,
+            IntSupplier maxBatchSizeSupplier,
+            LongHistogram queueLatencyHistogram
         ) {
             this.name = name;
             this.batchConsumer = batchConsumer;
@@ -1560,6 +1688,14 @@ public class MasterService extends AbstractLifecycleComponent {
             this.perPriorityQueue = perPriorityQueue;
             this.executor = executor;
             this.threadPool = threadPool;
+            this.maxBatchSizeSupplier = maxBatchSizeSupplier;
+            this.queueLatencyHistogram = queueLatencyHistogram;
+            this.metricAttributes = Map.of(
+                QUEUE_ATTRIBUTE_NAME,
+                name,
+                PRIORITY_ATTRIBUTE_NAME,
+                perPriorityQueue.priority().toString()
+            );
         }
 
         @Override
@@ -1659,7 +1795,14 @@ public class MasterService extends AbstractLifecycleComponent {
             @Override
             public void run(ActionListener<Void> listener) {
                 assert executing.isEmpty() : executing;
-                final var entryCount = queueSize.getAndSet(0);
+                final var maxBatchSize = maxBatchSizeSupplier.getAsInt();
+                final var queuedCount = queueSize.getAndUpdate(size -> Math.max(0, size - maxBatchSize));
+                final var entryCount = Math.min(queuedCount, maxBatchSize);
+                if (queuedCount > entryCount) {
+                    // the queue size stays positive so nobody else will enqueue the rest, which waits behind the other queues' batches
+                    perPriorityQueue.execute(this);
+                }
+                final var currentTimeMillis = threadPool.relativeTimeInMillis();
                 var taskCount = 0;
                 final var tasks = new ArrayList<ExecutionResult<T>>(entryCount);
                 for (int i = 0; i < entryCount; i++) {
@@ -1668,6 +1811,7 @@ public class MasterService extends AbstractLifecycleComponent {
                     final var task = entry.acquireForExecution();
                     if (task != null) {
                         taskCount += 1;
+                        queueLatencyHistogram.record(Math.max(0L, currentTimeMillis - entry.insertionTimeMillis()), metricAttributes);
                         executing.add(entry);
                         tasks.add(
                             new ExecutionResult<>(entry.source(), task, threadPool.getThreadContext(), entry.storedContextSupplier())
@@ -1740,6 +1884,17 @@ public class MasterService extends AbstractLifecycleComponent {
                     .orElse(Long.MAX_VALUE);
             }
 
+            @Override
+            public long getOldestInsertionTimeMillis() {
+                final var entry = queue.peek();
+                return entry == null ? Long.MAX_VALUE : entry.insertionTimeMillis();
+            }
+
+            @Override
+            public String getQueueName() {
+                return name;
+            }
+
             @Override
             public String toString() {
                 return "process queue for [" + name + "]";
@@ -0,0 +1,166 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.common.blobstore.support;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.action.support.RefCountingListener;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.ReleasableBytesStreamOutput;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.core.Streams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Uploads the parts of multipart uploads concurrently rather than one after the other, which is what limits the throughput of the upload
+ * of a single large blob. The parts are read from the blob's stream one at a time, but each part is buffered while it is being uploaded
+ * so that the next ones can be read and uploaded meanwhile. The buffers are made of recycled pages obtained from {@link BigArrays} and
+ * are accounted for in the request circuit breaker. The total size of the parts that are buffered is limited per node by sharing a
+ * single instance of this class across all the uploads of a repository type: an upload waits before reading its next part until enough
+ * of the parts of all the uploads have completed.
+ */
+public final class MultipartUploadBudget {
+
+    /**
+     * Uploads a single part of a multipart upload.
+     */
+    @FunctionalInterface
+    public interface PartUploader<T> {
+        /**
+         * Uploads the given part, possibly asynchronously, and completes the listener with whatever identifies the uploaded part.
+         *
+         * @param partIndex the index of the part, starting at zero
+         * @param bytes     the content of the part, which is released when the listener is completed and must not be retained
+         */
+        void uploadPart(int partIndex, BytesReference bytes, ActionListener<T> listener) throws IOException;
+    }
+
+    private final long maxInFlightBytes;
+
+    // guarded by this
+    private long inFlightBytes;
+
+    public MultipartUploadBudget(long maxInFlightBytes) {
+        if (maxInFlightBytes <= 0L) {
+            throw new IllegalArgumentException("the maximum number of in-flight bytes must be positive but was [" + maxInFlightBytes + "]");
+        }
+        this.maxInFlightBytes = maxInFlightBytes;
+    }
+
+    /**
+     * @return whether parts of the given size can be uploaded with {@link #uploadParts}, i.e. whether they fit in a single
+     * {@link BytesReference} and within this budget. Larger parts must be streamed one after the other instead.
+     */
+    public boolean canUploadConcurrently(long partSize) {
+        return partSize <= maxInFlightBytes && partSize <= ArrayUtil.MAX_ARRAY_LENGTH;
+    }
+
+    /**
+     * Reads the parts of a blob from the given stream and uploads them concurrently, within this budget. Stops reading parts as soon as
+     * one of them fails, but always waits for the parts that are being uploaded to complete before returning, so that the caller can
+     * safely abort the multipart upload on failure. Fails with a {@link org.elasticsearch.common.breaker.CircuitBreakingException} if
+     * a part cannot be buffered without tripping the request circuit breaker.
+     *
+     * @param bigArrays     used to allocate the buffers of the parts
+     * @param input         the content of the blob
+     * @param numberOfParts the number of parts of the blob
+     * @param partSize      the size of all the parts but the last one
+     * @param lastPartSize  the size of the last part
+     * @param partUploader  uploads a single part
+     * @return the results of the uploads of all the parts, in order
+     */
+    public <T> List<T> uploadParts(
+        BigArrays bigArrays,
+        InputStream input,
+        int numberOfParts,
+        long partSize,
+        long lastPartSize,
+        PartUploader<T> partUploader
+    ) throws IOException {
+        assert canUploadConcurrently(partSize) : partSize;
+        assert lastPartSize <= partSize : lastPartSize + " > " + partSize;
+        final BigArrays breakingBigArrays = bigArrays.withCircuitBreaking();
+        final AtomicReferenceArray<T> results = new AtomicReferenceArray<>(numberOfParts);
+        final PlainActionFuture<Void> future = new PlainActionFuture<>();
+        try (RefCountingListener listeners = new RefCountingListener(future)) {
+            for (int i = 0; i < numberOfParts && listeners.isFailing() == false; i++) {
+                final int partIndex = i;
+                final int size = Math.toIntExact(i < numberOfParts - 1 ? partSize : lastPartSize);
+                final ActionListener<T> partListener = listeners.acquire(result -> results.set(partIndex, result));
+                try {
+                    acquire(size);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    partListener.onFailure(e);
+                    break;
+                }
+                // release the buffer and the budget before completing the part, so that they are released once this method returns
+                ActionListener.run(ActionListener.runBefore(partListener, () -> release(size)), l -> {
+                    final ReleasableBytesStreamOutput buffer = new ReleasableBytesStreamOutput(size, breakingBigArrays);
+                    ActionListener.run(ActionListener.runBefore(l, buffer::close), bufferListener -> {
+                        final long read = Streams.copy(org.elasticsearch.common.io.Streams.limitStream(input, size), buffer, false);
+                        if (read != size) {
+                            throw new IOException(
+                                "expected [" + size + "] bytes for part [" + partIndex + "] but only read [" + read + "]"
+                            );
+                        }
+                        partUploader.uploadPart(partIndex, buffer.bytes(), bufferListener);
+                    });
+                });
+            }
+        }
+
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for the upload of parts", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            } else if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("failed to upload parts", e.getCause());
+        }
+
+        final List<T> partResults = new ArrayList<>(numberOfParts);
+        for (int i = 0; i < numberOfParts; i++) {
+            partResults.add(results.get(i));
+        }
+        return partResults;
+    }
+
+    private synchronized void acquire(long bytes) throws InterruptedException {
+        // always admit a part when nothing else is in flight so that a single upload cannot wait forever
+        while (inFlightBytes > 0L && inFlightBytes + bytes > maxInFlightBytes) {
+            wait();
+        }
+        inFlightBytes += bytes;
+    }
+
+    private synchronized void release(long bytes) {
+        inFlightBytes -= bytes;
+        assert inFlightBytes >= 0L : inFlightBytes;
+        notifyAll();
+    }
+
+    // used in tests
+    synchronized long inFlightBytes() {
+        return inFlightBytes;
+    }
+}
@@ -53,7 +53,11 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.CompositeBytesReference;
 import org.elasticsearch.common.compress.CompressedXContent;
 import org.elasticsearch.common.compress.CompressorFactory;
+import org.elasticsearch.common.io.Channels;
+import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.settings.ClusterSettings;
@@ -89,9 +93,13 @@ import java.io.IOError;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -105,6 +113,7 @@ import java.util.function.Function;
 import java.util.function.IntPredicate;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
+import java.util.zip.CRC32;
 
 import static org.elasticsearch.core.Strings.format;
 
@@ -135,6 +144,11 @@ import static org.elasticsearch.core.Strings.format;
  * +---------------------------+-------------------------+-------------------------------------------------------------------------------+
  *
  * (the last-accepted term is recorded in Metadata → CoordinationMetadata so does not need repeating here)
+ *
+ * If {@link #JOURNAL_MAX_SIZE} is set then updates which only change index metadata and mappings are not committed to the index but are
+ * appended to the file {@link #JOURNAL_FILE_NAME} next to it instead. The journal starts with a header recording the current term and
+ * last-accepted version of the commit on which it was started, followed by one checksummed record per update. It is replayed when loading
+ * the state only if the header matches the commit, and is deleted after the next commit, which contains all the journaled updates.
  */
 public class PersistedClusterStateService {
     private static final Logger logger = LogManager.getLogger(PersistedClusterStateService.class);
@@ -164,6 +178,9 @@ public class PersistedClusterStateService {
 
     public static final String METADATA_DIRECTORY_NAME = MetadataStateFormat.STATE_DIR_NAME;
 
+    static final String JOURNAL_FILE_NAME = "metadata.journal";
+    private static final int JOURNAL_FORMAT_VERSION = 1;
+
     public static final Setting<TimeValue> SLOW_WRITE_LOGGING_THRESHOLD = Setting.timeSetting(
         "gateway.slow_write_logging_threshold",
         TimeValue.timeValueSeconds(10),
@@ -180,11 +197,24 @@ public class PersistedClusterStateService {
         Setting.Property.NodeScope
     );
 
+    /**
+     * Updates that only touch index metadata are appended to a journal next to the Lucene index, costing a single fsync rather than a
+     * commit, until the journal reaches this size and its contents are written to the index. Zero disables the journal.
+     */
+    public static final Setting<ByteSizeValue> JOURNAL_MAX_SIZE = Setting.byteSizeSetting(
+        "cluster_state.journal.max_size",
+        ByteSizeValue.ZERO,
+        ByteSizeValue.ZERO,
+        ByteSizeValue.ofGb(1),
+        Setting.Property.NodeScope
+    );
+
     private final Path[] dataPaths;
     private final String nodeId;
     private final XContentParserConfiguration parserConfig;
     private final LongSupplier relativeTimeMillisSupplier;
     private final ByteSizeValue documentPageSize;
+    private final ByteSizeValue journalMaxSize;
 
     private volatile TimeValue slowWriteLoggingThreshold;
 
@@ -212,6 +242,7 @@ public class PersistedClusterStateService {
         this.slowWriteLoggingThreshold = clusterSettings.get(SLOW_WRITE_LOGGING_THRESHOLD);
         clusterSettings.addSettingsUpdateConsumer(SLOW_WRITE_LOGGING_THRESHOLD, this::setSlowWriteLoggingThreshold);
         this.documentPageSize = clusterSettings.get(DOCUMENT_PAGE_SIZE);
+        this.journalMaxSize = clusterSettings.get(JOURNAL_MAX_SIZE);
     }
 
     private void setSlowWriteLoggingThreshold(TimeValue slowWriteLoggingThreshold) {
@@ -248,6 +279,7 @@ public class PersistedClusterStateService {
             metadataIndexWriters,
             nodeId,
             documentPageSize,
+            journalMaxSize,
             relativeTimeMillisSupplier,
             () -> slowWriteLoggingThreshold,
             getAssertOnCommit()
@@ -283,6 +315,7 @@ public class PersistedClusterStateService {
     public static void deleteAll(Path[] dataPaths) throws IOException {
         for (Path dataPath : dataPaths) {
             Lucene.cleanLuceneIndex(new NIOFSDirectory(dataPath.resolve(METADATA_DIRECTORY_NAME)));
+            Files.deleteIfExists(dataPath.resolve(METADATA_DIRECTORY_NAME).resolve(JOURNAL_FILE_NAME));
         }
     }
 
@@ -644,17 +677,122 @@ public class PersistedClusterStateService {
         final Map<String, String> userData = reader.getIndexCommit().getUserData();
         logger.trace("loaded metadata [{}] from [{}]", userData, reader.directory());
         OnDiskStateMetadata onDiskStateMetadata = loadOnDiskStateMetadataFromUserData(userData);
+        final long lastAcceptedVersion = replayJournal(dataPath, onDiskStateMetadata, builder, mappingsByHash);
         return new OnDiskState(
             onDiskStateMetadata.nodeId(),
             dataPath,
             onDiskStateMetadata.currentTerm(),
-            onDiskStateMetadata.lastAcceptedVersion(),
+            lastAcceptedVersion,
             onDiskStateMetadata.clusterUUID(),
             onDiskStateMetadata.clusterUUIDCommitted(),
             builder.build()
         );
     }
 
+    /**
+     * Applies the updates in the journal of the given data path to {@code builder}, if the journal was started on top of the commit that
+     * was just loaded, and returns the last accepted version of the resulting state.
+     */
+    private long replayJournal(
+        Path dataPath,
+        OnDiskStateMetadata committed,
+        Metadata.Builder builder,
+        Map<String, MappingMetadata> mappingsByHash
+    ) throws IOException {
+        final Path journalPath = dataPath.resolve(METADATA_DIRECTORY_NAME).resolve(JOURNAL_FILE_NAME);
+        final ByteBuffer journal;
+        try {
+            journal = ByteBuffer.wrap(Files.readAllBytes(journalPath));
+        } catch (NoSuchFileException e) {
+            return committed.lastAcceptedVersion();
+        }
+
+        final BytesReference header = readJournalRecord(journal, journalPath);
+        if (header == null) {
+            logger.trace("ignoring empty journal [{}]", journalPath);
+            return committed.lastAcceptedVersion();
+        }
+        final StreamInput headerInput = header.streamInput();
+        final int formatVersion = headerInput.readVInt();
+        if (formatVersion != JOURNAL_FORMAT_VERSION) {
+            throw new CorruptStateException("unknown format [" + formatVersion + "] of cluster state journal [" + journalPath + "]");
+        }
+        final long baseCurrentTerm = headerInput.readLong();
+        final long baseLastAcceptedVersion = headerInput.readLong();
+        if (baseCurrentTerm != committed.currentTerm() || baseLastAcceptedVersion != committed.lastAcceptedVersion()) {
+            // the commit happened after the journal was started, so it already contains everything in the journal
+            logger.debug(
+                "ignoring stale journal [{}] started in term [{}] at version [{}]",
+                journalPath,
+                baseCurrentTerm,
+                baseLastAcceptedVersion
+            );
+            return committed.lastAcceptedVersion();
+        }
+
+        long lastAcceptedVersion = committed.lastAcceptedVersion();
+        int records = 0;
+        BytesReference record;
+        while ((record = readJournalRecord(journal, journalPath)) != null) {
+            final StreamInput in = record.streamInput();
+            lastAcceptedVersion = in.readLong();
+            final int mappingCount = in.readVInt();
+            for (int i = 0; i < mappingCount; i++) {
+                final var mappingMetadata = new MappingMetadata(new CompressedXContent(BytesReference.toBytes(in.readBytesReference())));
+                mappingsByHash.put(mappingMetadata.source().getSha256(), mappingMetadata);
+            }
+            final int removedIndexCount = in.readVInt();
+            for (int i = 0; i < removedIndexCount; i++) {
+                builder.remove(in.readString());
+            }
+            final int indexCount = in.readVInt();
+            for (int i = 0; i < indexCount; i++) {
+                builder.put(readXContent(uncompress(in.readBytesReference()), p -> IndexMetadata.fromXContent(p, mappingsByHash)), false);
+            }
+            records++;
+        }
+        logger.trace("replayed [{}] records from journal [{}] up to version [{}]", records, journalPath, lastAcceptedVersion);
+        return lastAcceptedVersion;
+    }
+
+    /**
+     * Reads the next record from the journal, or returns {@code null} at the end of the journal. Records are written with a single
+     * fsync, so a torn write can only affect the last record. Such a record was never acknowledged and is ignored.
+     */
+    @Nullable
+    private static BytesReference readJournalRecord(ByteBuffer journal, Path journalPath) throws CorruptStateException {
+        if (journal.remaining() < Integer.BYTES) {
+            return null;
+        }
+        final int length = journal.getInt();
+        if (length < 0 || journal.remaining() < (long) length + Integer.BYTES) {
+            return null;
+        }
+        final int offset = journal.position();
+        journal.position(offset + length);
+        final int checksum = journal.getInt();
+        if (journalChecksum(journal.array(), offset, length) != checksum) {
+            if (journal.hasRemaining() == false) {
+                return null;
+            }
+            throw new CorruptStateException("checksum mismatch at offset [" + offset + "] of cluster state journal [" + journalPath + "]");
+        }
+        return new BytesArray(journal.array(), offset, length);
+    }
+
+    private static void writeJournalRecord(StreamOutput out, BytesReference record) throws IOException {
+        final BytesRef bytes = record.toBytesRef();
+        out.writeInt(bytes.length);
+        out.writeBytes(bytes.bytes, bytes.offset, bytes.length);
+        out.writeInt(journalChecksum(bytes.bytes, bytes.offset, bytes.length));
+    }
+
+    private static int journalChecksum(byte[] bytes, int offset, int length) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(bytes, offset, length);
+        return (int) crc32.getValue();
+    }
+
     public OnDiskStateMetadata loadOnDiskStateMetadataFromUserData(Map<String, String> userData) {
         assert userData.get(CURRENT_TERM_KEY) != null;
         assert userData.get(LAST_ACCEPTED_VERSION_KEY) != null;
@@ -801,6 +939,9 @@ public class PersistedClusterStateService {
         private final Directory directory;
         private final IndexWriter indexWriter;
 
+        @Nullable // if nothing was journaled since the last commit
+        private FileChannel journal;
+
         MetadataIndexWriter(Path path, Directory directory, IndexWriter indexWriter) {
             this.path = path;
             this.directory = directory;
@@ -865,9 +1006,43 @@ public class PersistedClusterStateService {
             indexWriter.commit();
         }
 
+        private Path journalPath() {
+            return path.resolve(METADATA_DIRECTORY_NAME).resolve(JOURNAL_FILE_NAME);
+        }
+
+        void appendToJournal(BytesReference records) throws IOException {
+            final boolean created = journal == null;
+            if (created) {
+                this.logger.trace("starting journal");
+                // truncate any journal that we failed to delete after the last commit, it is stale anyway
+                journal = FileChannel.open(
+                    journalPath(),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE
+                );
+            }
+            Channels.writeToChannel(BytesReference.toBytes(records), journal);
+            journal.force(false);
+            if (created) {
+                IOUtils.fsync(journalPath().getParent(), true);
+            }
+        }
+
+        void deleteJournal() throws IOException {
+            this.logger.trace("deleting journal");
+            final FileChannel journal = this.journal;
+            this.journal = null;
+            try {
+                IOUtils.close(journal);
+            } finally {
+                Files.deleteIfExists(journalPath());
+            }
+        }
+
         @Override
         public void close() throws IOException {
-            IOUtils.close(indexWriter, directory);
+            IOUtils.close(journal, indexWriter, directory);
         }
     }
 
@@ -881,13 +1056,23 @@ public class PersistedClusterStateService {
         boolean fullStateWritten = false;
         private final AtomicBoolean closed = new AtomicBoolean();
         private final byte[] documentBuffer;
+        private final long journalMaxSizeInBytes;
         @Nullable // if assertions disabled or we explicitly don't want to assert on commit in a test
         private final CheckedBiConsumer<Path, DirectoryReader, IOException> assertOnCommit;
 
+        private long committedCurrentTerm;
+        private long committedLastAcceptedVersion;
+        @Nullable // if nothing was journaled since the last commit
+        private Metadata committedMetadata;
+        @Nullable // if nothing was journaled since the last commit
+        private Metadata journaledMetadata;
+        private long journalSizeInBytes;
+
         private Writer(
             List<MetadataIndexWriter> metadataIndexWriters,
             String nodeId,
             ByteSizeValue documentPageSize,
+            ByteSizeValue journalMaxSize,
             LongSupplier relativeTimeMillisSupplier,
             Supplier<TimeValue> slowWriteLoggingThresholdSupplier,
             @Nullable // if assertions disabled or we explicitly don't want to assert on commit in a test
@@ -898,6 +1083,7 @@ public class PersistedClusterStateService {
             this.relativeTimeMillisSupplier = relativeTimeMillisSupplier;
             this.slowWriteLoggingThresholdSupplier = slowWriteLoggingThresholdSupplier;
             this.documentBuffer = new byte[ByteSizeUnit.BYTES.toIntBytes(documentPageSize.getBytes())];
+            this.journalMaxSizeInBytes = journalMaxSize.getBytes();
             this.assertOnCommit = assertOnCommit;
         }
 
@@ -973,19 +1159,25 @@ public class PersistedClusterStateService {
             try {
                 final long startTimeMillis = relativeTimeMillisSupplier.getAsLong();
 
-                for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
-                    metadataIndexWriter.startWrite();
-                }
+                final Metadata previousMetadata = previousClusterState.metadata();
+                final Metadata metadata = clusterState.metadata();
+                final WriterStats stats;
+                if (canJournal(currentTerm, previousMetadata, metadata)) {
+                    stats = appendToJournal(previousMetadata, metadata, clusterState.version());
+                } else {
+                    for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
+                        metadataIndexWriter.startWrite();
+                    }
 
-                Metadata metadata = clusterState.metadata();
-                final WriterStats stats = updateMetadata(previousClusterState.metadata(), metadata);
-                commit(
-                    currentTerm,
-                    clusterState.version(),
-                    metadata.oldestIndexVersion(),
-                    metadata.clusterUUID(),
-                    metadata.clusterUUIDCommitted()
-                );
+                    stats = updateMetadata(committedMetadata == null ? previousMetadata : committedMetadata, metadata);
+                    commit(
+                        currentTerm,
+                        clusterState.version(),
+                        metadata.oldestIndexVersion(),
+                        metadata.clusterUUID(),
+                        metadata.clusterUUIDCommitted()
+                    );
+                }
                 final long durationMillis = relativeTimeMillisSupplier.getAsLong() - startTimeMillis;
                 final TimeValue finalSlowWriteLoggingThreshold = slowWriteLoggingThresholdSupplier.get();
                 if (durationMillis >= finalSlowWriteLoggingThreshold.getMillis()) {
@@ -1003,6 +1195,121 @@ public class PersistedClusterStateService {
             }
         }
 
+        /**
+         * Whether the update can be appended to the journal instead of being committed. The journal only holds index metadata and
+         * mappings, everything else in the commit must remain unchanged.
+         */
+        private boolean canJournal(long currentTerm, Metadata previousMetadata, Metadata metadata) {
+            return journalSizeInBytes < journalMaxSizeInBytes
+                && currentTerm == committedCurrentTerm
+                && previousMetadata.oldestIndexVersion().equals(metadata.oldestIndexVersion())
+                && Metadata.isGlobalStateEquals(previousMetadata, metadata);
+        }
+
+        /**
+         * Appends a record of the changes to the index metadata and mappings to the journal in every data path. The record is
+         * replayed on top of the last commit when loading the state, until the next commit includes these changes.
+         */
+        private WriterStats appendToJournal(Metadata previousMetadata, Metadata metadata, long lastAcceptedVersion) throws IOException {
+            int numMappingsAdded = 0;
+            int numIndicesAdded = 0;
+            int numIndicesUpdated = 0;
+            int numIndicesUnchanged = 0;
+            final BytesReference records;
+            try (BytesStreamOutput out = new BytesStreamOutput(); BytesStreamOutput record = new BytesStreamOutput()) {
+                if (committedMetadata == null) {
+                    record.writeVInt(JOURNAL_FORMAT_VERSION);
+                    record.writeLong(committedCurrentTerm);
+                    record.writeLong(committedLastAcceptedVersion);
+                    writeJournalRecord(out, record.bytes());
+                    record.reset();
+                }
+
+                record.writeLong(lastAcceptedVersion);
+
+                final List<BytesReference> addedMappings = new ArrayList<>();
+                for (final var entry : metadata.getMappingsByHash().entrySet()) {
+                    if (previousMetadata.getMappingsByHash().containsKey(entry.getKey()) == false) {
+                        addedMappings.add(new BytesArray(entry.getValue().source().compressed()));
+                        numMappingsAdded++;
+                    }
+                }
+                record.writeCollection(addedMappings, StreamOutput::writeBytesReference);
+
+                final Map<String, IndexMetadata> removedIndicesByUUID = Maps.newMapWithExpectedSize(previousMetadata.indices().size());
+                for (IndexMetadata indexMetadata : previousMetadata.indices().values()) {
+                    removedIndicesByUUID.put(indexMetadata.getIndexUUID(), indexMetadata);
+                }
+                final List<BytesReference> updatedIndices = new ArrayList<>();
+                for (IndexMetadata indexMetadata : metadata.indices().values()) {
+                    final IndexMetadata previousIndexMetadata = removedIndicesByUUID.remove(indexMetadata.getIndexUUID());
+                    if (previousIndexMetadata == null || previousIndexMetadata.getVersion() != indexMetadata.getVersion()) {
+                        if (previousIndexMetadata == null) {
+                            numIndicesAdded++;
+                        } else {
+                            numIndicesUpdated++;
+                        }
+                        updatedIndices.add(compress(indexMetadata));
+                    } else {
+                        numIndicesUnchanged++;
+                    }
+                }
+                // removals are replayed first, in case an index with the same name was added
+                record.writeCollection(removedIndicesByUUID.values(), (o, removed) -> o.writeString(removed.getIndex().getName()));
+                record.writeCollection(updatedIndices, StreamOutput::writeBytesReference);
+
+                writeJournalRecord(out, record.bytes());
+                records = out.bytes();
+
+                try {
+                    for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
+                        metadataIndexWriter.appendToJournal(records);
+                    }
+                } catch (IOException e) {
+                    // Like a failed commit, we've no idea what made it to disk, so it's safest to fail the whole node.
+                    try {
+                        close();
+                    } catch (Exception e2) {
+                        e.addSuppressed(e2);
+                    }
+                    throw new IOError(e);
+                }
+
+                if (committedMetadata == null) {
+                    committedMetadata = previousMetadata;
+                }
+                journaledMetadata = metadata;
+                journalSizeInBytes += records.length();
+
+                return new WriterStats(
+                    false,
+                    true,
+                    false,
+                    metadata.getMappingsByHash().size() - numMappingsAdded,
+                    numMappingsAdded,
+                    previousMetadata.getMappingsByHash().size() - (metadata.getMappingsByHash().size() - numMappingsAdded),
+                    numIndicesUnchanged,
+                    numIndicesAdded,
+                    numIndicesUpdated,
+                    removedIndicesByUUID.size()
+                );
+            }
+        }
+
+        private static BytesReference compress(ToXContent metadata) throws IOException {
+            try (BytesStreamOutput out = new BytesStreamOutput()) {
+                try (
+                    OutputStream compressedStream = CompressorFactory.COMPRESSOR.threadLocalOutputStream(Streams.flushOnCloseStream(out));
+                    XContentBuilder xContentBuilder = XContentFactory.contentBuilder(XContentType.SMILE, compressedStream)
+                ) {
+                    xContentBuilder.startObject();
+                    metadata.toXContent(xContentBuilder, FORMAT_PARAMS);
+                    xContentBuilder.endObject();
+                }
+                return out.bytes();
+            }
+        }
+
         private void ensureFullStateWritten() {
             assert fullStateWritten : "Need to write full state first before doing incremental writes";
             // noinspection ConstantConditions to catch this even if assertions are disabled
@@ -1022,7 +1329,7 @@ public class PersistedClusterStateService {
 
             if (previouslyWrittenMetadata == metadata) {
                 // breakout early if nothing changed
-                return new WriterStats(false, false, metadata.getMappingsByHash().size(), 0, 0, metadata.size(), 0, 0, 0);
+                return new WriterStats(false, false, false, metadata.getMappingsByHash().size(), 0, 0, metadata.size(), 0, 0, 0);
             }
             final boolean updateGlobalMeta = Metadata.isGlobalStateEquals(previouslyWrittenMetadata, metadata) == false;
             if (updateGlobalMeta) {
@@ -1105,6 +1412,7 @@ public class PersistedClusterStateService {
             }
 
             return new WriterStats(
+                false,
                 false,
                 updateGlobalMeta,
                 numMappingsUnchanged,
@@ -1212,7 +1520,7 @@ public class PersistedClusterStateService {
                 metadataIndexWriter.flush();
             }
 
-            return new WriterStats(true, true, 0, metadata.getMappingsByHash().size(), 0, 0, metadata.indices().size(), 0, 0);
+            return new WriterStats(true, false, true, 0, metadata.getMappingsByHash().size(), 0, 0, metadata.indices().size(), 0, 0);
         }
 
         public void writeIncrementalTermUpdateAndCommit(
@@ -1224,6 +1532,13 @@ public class PersistedClusterStateService {
         ) throws IOException {
             ensureOpen();
             ensureFullStateWritten();
+            if (committedMetadata != null) {
+                // the journal doesn't record terms, so we must commit everything it holds along with the new term
+                for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
+                    metadataIndexWriter.startWrite();
+                }
+                updateMetadata(committedMetadata, journaledMetadata);
+            }
             commit(currentTerm, lastAcceptedVersion, oldestIndexVersion, clusterUUID, clusterUUIDCommitted);
         }
 
@@ -1237,9 +1552,26 @@ public class PersistedClusterStateService {
             ensureOpen();
             prepareCommit(currentTerm, lastAcceptedVersion, oldestIndexVersion, clusterUUID, clusterUUIDCommitted);
             completeCommit();
+            committedCurrentTerm = currentTerm;
+            committedLastAcceptedVersion = lastAcceptedVersion;
+            deleteJournals();
             assert assertOnCommit();
         }
 
+        private void deleteJournals() {
+            committedMetadata = null;
+            journaledMetadata = null;
+            journalSizeInBytes = 0;
+            for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
+                try {
+                    metadataIndexWriter.deleteJournal();
+                } catch (IOException e) {
+                    // a journal is only replayed on top of the commit on which it was started, so a leftover one is harmless
+                    logger.warn(() -> "failed to delete cluster state journal in [" + metadataIndexWriter.path + "]", e);
+                }
+            }
+        }
+
         private boolean assertOnCommit() {
             if (assertOnCommit != null && Randomness.get().nextInt(100) == 0) {
                 // only rarely run this assertion since reloading the whole state can be quite expensive
@@ -1333,6 +1665,7 @@ public class PersistedClusterStateService {
 
         private record WriterStats(
             boolean isFullWrite,
+            boolean isJournalWrite,
             boolean globalMetaUpdated,
             int numMappingsUnchanged,
             int numMappingsAdded,
@@ -1355,10 +1688,11 @@ public class PersistedClusterStateService {
                     return String.format(
                         Locale.ROOT,
                         """
-                            [%s] global metadata, \
+                            %s[%s] global metadata, \
                             wrote [%d] new mappings, removed [%d] mappings and skipped [%d] unchanged mappings, \
                             wrote metadata for [%d] new indices and [%d] existing indices, \
                             removed metadata for [%d] indices and skipped [%d] unchanged indices""",
+                        isJournalWrite ? "journaled changes: " : "",
                         globalMetaUpdated ? "wrote" : "skipped writing",
                         numMappingsAdded,
                         numMappingsRemoved,
@@ -11,6 +11,7 @@ package org.elasticsearch.index.snapshots.blobstore;
 
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.ElasticsearchParseException;
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
@@ -26,6 +27,8 @@ import org.elasticsearch.xcontent.XContentBuilder;
 import org.elasticsearch.xcontent.XContentParser;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.IntStream;
@@ -43,12 +46,45 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
     public static final class FileInfo implements Writeable {
         public static final String SERIALIZE_WRITER_UUID = "serialize_writer_uuid";
 
+        /**
+         * Prefix of the names of the blobs holding content-defined chunks, which are named after the hash of their contents so that they
+         * can be shared by all the files of a shard that contain them.
+         */
+        public static final String CHUNK_BLOB_PREFIX = "__chunk-";
+
+        /**
+         * A content-defined chunk of a file, stored in the blob named {@link #CHUNK_BLOB_PREFIX} followed by its hash.
+         *
+         * @param hash   the hex-encoded SHA-256 hash of the contents of the chunk
+         * @param length the length of the chunk
+         */
+        public record Chunk(String hash, long length) implements Writeable {
+
+            public Chunk(StreamInput in) throws IOException {
+                this(in.readString(), in.readVLong());
+            }
+
+            @Override
+            public void writeTo(StreamOutput out) throws IOException {
+                out.writeString(hash);
+                out.writeVLong(length);
+            }
+
+            public String blobName() {
+                return CHUNK_BLOB_PREFIX + hash;
+            }
+        }
+
         private final String name;
         @Nullable
         private final ByteSizeValue partSize;
         private final long partBytes;
         private final int numberOfParts;
         private final StoreFileMetadata metadata;
+        @Nullable
+        private final List<Chunk> chunks;
+        @Nullable
+        private final long[] chunkStarts;
 
         /**
          * Constructs a new instance of file info
@@ -58,6 +94,19 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
          * @param partSize     size of the single chunk
          */
         public FileInfo(String name, StoreFileMetadata metadata, @Nullable ByteSizeValue partSize) {
+            this(name, metadata, partSize, null);
+        }
+
+        /**
+         * Constructs a new instance of file info
+         *
+         * @param name         file name as stored in the blob store
+         * @param metadata     the files meta data
+         * @param partSize     size of the single chunk, must be {@code null} if the file is stored in content-defined chunks
+         * @param chunks       the content-defined chunks the file is stored in, or {@code null} if it is stored in parts of size
+         *                     {@code partSize}
+         */
+        public FileInfo(String name, StoreFileMetadata metadata, @Nullable ByteSizeValue partSize, @Nullable List<Chunk> chunks) {
             this.name = Objects.requireNonNull(name);
             this.metadata = metadata;
 
@@ -66,7 +115,27 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
                 partBytes = partSize.getBytes();
             }
 
-            if (metadata.length() == 0) {
+            long[] chunkStarts = null;
+            if (chunks != null) {
+                if (partSize != null) {
+                    throw new IllegalArgumentException("file [" + metadata + "] cannot have both a part size and content-defined chunks");
+                }
+                if (chunks.isEmpty()) {
+                    throw new IllegalArgumentException("file [" + metadata + "] must have at least one content-defined chunk");
+                }
+                numberOfParts = chunks.size();
+                chunkStarts = new long[numberOfParts];
+                long chunkStart = 0L;
+                for (int i = 0; i < numberOfParts; i++) {
+                    chunkStarts[i] = chunkStart;
+                    chunkStart += chunks.get(i).length();
+                }
+                if (chunkStart != metadata.length()) {
+                    throw new IllegalArgumentException(
+                        "content-defined chunks of total length [" + chunkStart + "] do not match file [" + metadata + "]"
+                    );
+                }
+            } else if (metadata.length() == 0) {
                 numberOfParts = 1;
             } else {
                 long longNumberOfParts = 1L + (metadata.length() - 1L) / partBytes; // ceil(len/partBytes), but beware of long overflow
@@ -75,6 +144,8 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
                     throw new IllegalArgumentException("part size [" + partSize + "] too small for file [" + metadata + "]");
                 }
             }
+            this.chunks = chunks == null ? null : List.copyOf(chunks);
+            this.chunkStarts = chunkStarts;
 
             this.partSize = partSize;
             this.partBytes = partBytes;
@@ -82,7 +153,14 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
         }
 
         public FileInfo(StreamInput in) throws IOException {
-            this(in.readString(), new StoreFileMetadata(in), in.readOptionalWriteable(ByteSizeValue::readFrom));
+            this(
+                in.readString(),
+                new StoreFileMetadata(in),
+                in.readOptionalWriteable(ByteSizeValue::readFrom),
+                in.getTransportVersion().onOrAfter(TransportVersions.SNAPSHOT_CONTENT_DEFINED_CHUNKS)
+                    ? in.readOptionalCollectionAsList(Chunk::new)
+                    : null
+            );
         }
 
         @Override
@@ -90,6 +168,13 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             out.writeString(name);
             metadata.writeTo(out);
             out.writeOptionalWriteable(partSize);
+            if (out.getTransportVersion().onOrAfter(TransportVersions.SNAPSHOT_CONTENT_DEFINED_CHUNKS)) {
+                out.writeOptionalCollection(chunks);
+            } else if (chunks != null) {
+                throw new IllegalArgumentException(
+                    "file [" + name + "] is stored in content-defined chunks which version [" + out.getTransportVersion() + "] cannot read"
+                );
+            }
         }
 
         /**
@@ -108,7 +193,9 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
          * @return part name
          */
         public String partName(int part) {
-            if (numberOfParts > 1) {
+            if (chunks != null) {
+                return chunks.get(part).blobName();
+            } else if (numberOfParts > 1) {
                 return name + ".part" + part;
             } else {
                 return name;
@@ -162,6 +249,9 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
          */
         public long partBytes(int part) {
             assert 0 <= part && part < numberOfParts : part + " vs " + numberOfParts;
+            if (chunks != null) {
+                return chunks.get(part).length();
+            }
             if (numberOfParts == 1) {
                 return length();
             }
@@ -175,6 +265,33 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             return lastPartBytes;
         }
 
+        /**
+         * Returns the position in the file of the first byte of a given part
+         *
+         * @return the position in the file of the first byte of a given part
+         */
+        public long partStart(int part) {
+            assert 0 <= part && part < numberOfParts : part + " vs " + numberOfParts;
+            if (chunkStarts != null) {
+                return chunkStarts[part];
+            }
+            return part * partBytes;
+        }
+
+        /**
+         * Returns the part holding the byte at a given position in the file
+         *
+         * @return the part holding the byte at a given position in the file
+         */
+        public int partForPosition(long position) {
+            assert 0 <= position && position < length() : position + " vs " + length();
+            if (chunkStarts != null) {
+                final int index = Arrays.binarySearch(chunkStarts, position);
+                return index >= 0 ? index : -index - 2;
+            }
+            return numberOfParts == 1 ? 0 : Math.toIntExact(position / partBytes);
+        }
+
         /**
          * Returns number of parts
          *
@@ -184,6 +301,16 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             return numberOfParts;
         }
 
+        /**
+         * Returns the content-defined chunks the file is stored in
+         *
+         * @return the chunks, or {@code null} if the file is stored in parts of fixed size
+         */
+        @Nullable
+        public List<Chunk> chunks() {
+            return chunks;
+        }
+
         /**
          * Returns file md5 checksum provided by {@link org.elasticsearch.index.store.Store}
          *
@@ -223,6 +350,9 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             if (partBytes != fileInfo.partBytes) {
                 return false;
             }
+            if (Objects.equals(chunks, fileInfo.chunks) == false) {
+                return false;
+            }
             if (name.equals(fileInfo.name) == false) {
                 return false;
             }
@@ -246,6 +376,8 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
         static final String WRITTEN_BY = "written_by";
         static final String META_HASH = "meta_hash";
         static final String WRITER_UUID = "writer_uuid";
+        static final String CHUNKS = "chunks";
+        static final String CHUNK_HASH = "hash";
 
         /**
          * Serializes file info into JSON
@@ -280,6 +412,14 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
                 builder.field(WRITER_UUID, writerUuid.bytes, writerUuid.offset, writerUuid.length);
             }
 
+            if (file.chunks != null) {
+                builder.startArray(CHUNKS);
+                for (Chunk chunk : file.chunks) {
+                    builder.startObject().field(CHUNK_HASH, chunk.hash()).field(LENGTH, chunk.length()).endObject();
+                }
+                builder.endArray();
+            }
+
             builder.endObject();
         }
 
@@ -299,10 +439,15 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             String writtenBy = null;
             BytesRef metaHash = new BytesRef();
             BytesRef writerUuid = UNAVAILABLE_WRITER_UUID;
+            List<Chunk> chunks = null;
             XContentParserUtils.ensureExpectedToken(token, XContentParser.Token.START_OBJECT, parser);
             String currentFieldName;
             while ((currentFieldName = parser.nextFieldName()) != null) {
                 token = parser.nextToken();
+                if (CHUNKS.equals(currentFieldName) && token == XContentParser.Token.START_ARRAY) {
+                    chunks = parseChunks(parser);
+                    continue;
+                }
                 if (token.isValue() == false) {
                     XContentParserUtils.throwUnknownToken(token, parser);
                 }
@@ -341,6 +486,8 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
                 throw new ElasticsearchParseException("missing or invalid written_by [" + writtenBy + "]");
             } else if (checksum == null) {
                 throw new ElasticsearchParseException("missing checksum for name [" + name + "]");
+            } else if (chunks != null && isValidChunkList(chunks, partSize, length) == false) {
+                throw new ElasticsearchParseException("invalid chunks for name [" + name + "]");
             }
             try {
                 // check for corruption before asserting writtenBy is parseable in the StoreFileMetadata constructor
@@ -348,7 +495,46 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
             } catch (Exception e) {
                 throw new ElasticsearchParseException("invalid written_by [" + writtenBy + "]");
             }
-            return new FileInfo(name, new StoreFileMetadata(physicalName, length, checksum, writtenBy, metaHash, writerUuid), partSize);
+            return new FileInfo(
+                name,
+                new StoreFileMetadata(physicalName, length, checksum, writtenBy, metaHash, writerUuid),
+                partSize,
+                chunks
+            );
+        }
+
+        /**
+         * @return whether the given chunks can be the chunks of a file of the given length: a file is stored either in fixed-size parts or
+         *         in chunks, which must cover the whole file
+         */
+        private static boolean isValidChunkList(List<Chunk> chunks, @Nullable ByteSizeValue partSize, long length) {
+            return partSize == null && chunks.isEmpty() == false && chunks.stream().mapToLong(Chunk::length).sum() == length;
+        }
+
+        private static List<Chunk> parseChunks(XContentParser parser) throws IOException {
+            final List<Chunk> chunks = new ArrayList<>();
+            while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+                XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.currentToken(), parser);
+                String hash = null;
+                long length = -1;
+                String currentFieldName;
+                while ((currentFieldName = parser.nextFieldName()) != null) {
+                    final XContentParser.Token token = parser.nextToken();
+                    if (token.isValue() == false) {
+                        XContentParserUtils.throwUnknownToken(token, parser);
+                    }
+                    switch (currentFieldName) {
+                        case CHUNK_HASH -> hash = parser.text();
+                        case LENGTH -> length = parser.longValue();
+                        default -> XContentParserUtils.throwUnknownField(currentFieldName, parser);
+                    }
+                }
+                if (hash == null || Strings.validFileName(hash) == false || length <= 0) {
+                    throw new ElasticsearchParseException("missing or invalid chunk [" + hash + "] of length [" + length + "]");
+                }
+                chunks.add(new Chunk(hash, length));
+            }
+            return chunks;
         }
 
         @Override
@@ -361,6 +547,7 @@ public class BlobStoreIndexShardSnapshot implements ToXContentFragment {
                 + partSize
                 + ", partBytes: "
                 + partBytes
+                + (chunks == null ? "" : ", chunks: " + chunks.size())
                 + ", metadata: "
                 + metadata
                 + "]";
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -176,6 +177,32 @@ public class BlobStoreIndexShardSnapshots implements Iterable<SnapshotFiles>, To
         return files.get(name);
     }
 
+    // names of the content-defined chunk blobs referenced by any of the files
+    // lazy computed like physicalFiles because it is only needed for snapshot create and delete operations
+    private Set<String> chunkBlobNames;
+
+    /**
+     * Checks whether a blob holding a content-defined chunk is referenced by any of the files in the snapshots
+     *
+     * @param blobName the name of the blob, starting with {@link FileInfo#CHUNK_BLOB_PREFIX}
+     * @return true if the blob holds a chunk of any of the files in the snapshots
+     */
+    public boolean isChunkBlobReferenced(String blobName) {
+        var c = this.chunkBlobNames;
+        if (c == null) {
+            c = new HashSet<>();
+            for (FileInfo fileInfo : files.values()) {
+                if (fileInfo.chunks() != null) {
+                    for (FileInfo.Chunk chunk : fileInfo.chunks()) {
+                        c.add(chunk.blobName());
+                    }
+                }
+            }
+            chunkBlobNames = c;
+        }
+        return c.contains(blobName);
+    }
+
     @Override
     public Iterator<SnapshotFiles> iterator() {
         return shardSnapshots.iterator();
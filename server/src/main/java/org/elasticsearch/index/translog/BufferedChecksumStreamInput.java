@@ -10,8 +10,11 @@
 package org.elasticsearch.index.translog;
 
 import org.apache.lucene.store.BufferedChecksum;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
 import org.elasticsearch.common.Numbers;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.FilterStreamInput;
 import org.elasticsearch.common.io.stream.StreamInput;
 
@@ -125,10 +128,44 @@ public final class BufferedChecksumStreamInput extends FilterStreamInput {
         return b;
     }
 
+    @Override
+    public ReleasableBytesReference readReleasableBytesReference() throws IOException {
+        final ReleasableBytesReference bytes = delegate.readReleasableBytesReference();
+        boolean success = false;
+        try {
+            updateDigest(bytes);
+            success = true;
+        } finally {
+            if (success == false) {
+                bytes.close();
+            }
+        }
+        return bytes;
+    }
+
     @Override
     public BytesReference readSlicedBytesReference() throws IOException {
-        // TODO: support slicing here as well
-        return readBytesReference();
+        final BytesReference bytes = delegate.readSlicedBytesReference();
+        updateDigest(bytes);
+        return bytes;
+    }
+
+    /**
+     * Update the digest with a length-prefixed bytes reference that was read from the delegate without going through this stream.
+     */
+    private void updateDigest(BytesReference bytes) throws IOException {
+        // the length prefix is a vInt which is always written in its shortest form, so we can re-encode it rather than read it twice
+        int length = bytes.length();
+        while ((length & ~0x7F) != 0) {
+            digest.update((byte) ((length & 0x7F) | 0x80));
+            length >>>= 7;
+        }
+        digest.update((byte) length);
+        final BytesRefIterator iterator = bytes.iterator();
+        BytesRef ref;
+        while ((ref = iterator.next()) != null) {
+            digest.update(ref.bytes, ref.offset, ref.length);
+        }
     }
 
     @Override
@@ -14,6 +14,7 @@ import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.DiskIoBufferPool;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.ReleasableBytesStreamOutput;
@@ -1138,10 +1139,18 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
          * Reads the type and the operation from the given stream.
          */
         public static Operation readOperation(final StreamInput input) throws IOException {
+            return readOperation(input, false);
+        }
+
+        /**
+         * Reads the type and the operation from the given stream, retaining the source of an index operation rather than copying it if
+         * {@code retainSource} is set. See {@link #readOperations(StreamInput, String, boolean)}.
+         */
+        public static Operation readOperation(final StreamInput input, boolean retainSource) throws IOException {
             final Translog.Operation.Type type = Translog.Operation.Type.fromId(input.readByte());
             return switch (type) {
                 // the de-serialization logic in Index was identical to that of Create when create was deprecated
-                case CREATE, INDEX -> Index.readFrom(input);
+                case CREATE, INDEX -> Index.readFrom(input, retainSource);
                 case DELETE -> Delete.readFrom(input);
                 case NO_OP -> new NoOp(input);
             };
@@ -1169,7 +1178,7 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
         private final BytesReference source;
         private final String routing;
 
-        private static Index readFrom(StreamInput in) throws IOException {
+        private static Index readFrom(StreamInput in, boolean retainSource) throws IOException {
             final int format = in.readVInt(); // SERIALIZATION_FORMAT
             assert format >= FORMAT_NO_PARENT : "format was: " + format;
             String id = in.readString();
@@ -1177,16 +1186,25 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
                 in.readString();
                 // can't assert that this is _doc because pre-8.0 indexes can have any name for a type
             }
-            BytesReference source = in.readBytesReference();
-            String routing = in.readOptionalString();
-            long version = in.readLong();
-            if (format < FORMAT_NO_VERSION_TYPE) {
-                in.readByte(); // _version_type
+            BytesReference source = retainSource ? in.readReleasableBytesReference() : in.readBytesReference();
+            boolean success = false;
+            try {
+                String routing = in.readOptionalString();
+                long version = in.readLong();
+                if (format < FORMAT_NO_VERSION_TYPE) {
+                    in.readByte(); // _version_type
+                }
+                long autoGeneratedIdTimestamp = in.readLong();
+                long seqNo = in.readLong();
+                long primaryTerm = in.readLong();
+                final Index index = new Index(id, seqNo, primaryTerm, version, source, routing, autoGeneratedIdTimestamp);
+                success = true;
+                return index;
+            } finally {
+                if (success == false && source instanceof ReleasableBytesReference releasable) {
+                    releasable.close();
+                }
             }
-            long autoGeneratedIdTimestamp = in.readLong();
-            long seqNo = in.readLong();
-            long primaryTerm = in.readLong();
-            return new Index(id, seqNo, primaryTerm, version, source, routing, autoGeneratedIdTimestamp);
         }
 
         public Index(Engine.Index index, Engine.IndexResult indexResult) {
@@ -1527,23 +1545,52 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
      * Reads a list of operations written with {@link #writeOperations(StreamOutput, List)}
      */
     public static List<Operation> readOperations(StreamInput input, String source) throws IOException {
+        return readOperations(input, source, false);
+    }
+
+    /**
+     * Reads a list of operations written with {@link #writeOperations(StreamOutput, List)}. If {@code retainSources} is set then the
+     * sources of the index operations are read with {@link StreamInput#readReleasableBytesReference()} rather than copied out of the
+     * stream, and the caller must release them once the operations are no longer used.
+     */
+    public static List<Operation> readOperations(StreamInput input, String source, boolean retainSources) throws IOException {
         ArrayList<Operation> operations = new ArrayList<>();
         int numOps = input.readInt();
         final BufferedChecksumStreamInput checksumStreamInput = new BufferedChecksumStreamInput(input, source);
         if (input.getTransportVersion().before(TransportVersions.V_8_8_0)) {
+            // the operations are read twice to verify their checksums first, so there is nothing to gain from retaining the sources
             for (int i = 0; i < numOps; i++) {
                 operations.add(readOperation(checksumStreamInput));
             }
         } else {
-            for (int i = 0; i < numOps; i++) {
-                checksumStreamInput.resetDigest();
-                operations.add(Translog.Operation.readOperation(checksumStreamInput));
-                verifyChecksum(checksumStreamInput);
+            boolean success = false;
+            try {
+                for (int i = 0; i < numOps; i++) {
+                    checksumStreamInput.resetDigest();
+                    operations.add(Translog.Operation.readOperation(checksumStreamInput, retainSources));
+                    verifyChecksum(checksumStreamInput);
+                }
+                success = true;
+            } finally {
+                if (success == false && retainSources) {
+                    releaseSources(operations);
+                }
             }
         }
         return operations;
     }
 
+    /**
+     * Releases the sources of the index operations that were read with {@code retainSources} set.
+     */
+    public static void releaseSources(List<Operation> operations) {
+        for (Operation operation : operations) {
+            if (operation instanceof Index index && index.source() instanceof ReleasableBytesReference source) {
+                source.close();
+            }
+        }
+    }
+
     public static Translog.Operation readOperation(BufferedChecksumStreamInput in) throws IOException {
         final Translog.Operation operation;
         try {
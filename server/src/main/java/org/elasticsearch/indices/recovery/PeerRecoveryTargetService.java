@@ -593,7 +593,9 @@ public class PeerRecoveryTargetService implements IndexEventListener {
             RecoveryTarget recoveryTarget,
             ActionListener<Void> listener
         ) {
-            performTranslogOps(request, listener, recoveryTarget);
+            // the operations are retained slices of the network buffers, keep them alive until they've been applied, including retries
+            request.mustIncRef();
+            performTranslogOps(request, ActionListener.runBefore(listener, request::decRef), recoveryTarget);
         }
 
         @Override
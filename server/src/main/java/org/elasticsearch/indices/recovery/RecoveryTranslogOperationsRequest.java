@@ -11,6 +11,8 @@ package org.elasticsearch.indices.recovery;
 
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.core.AbstractRefCounted;
+import org.elasticsearch.core.RefCounted;
 import org.elasticsearch.index.seqno.RetentionLeases;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.translog.Translog;
@@ -19,6 +21,10 @@ import org.elasticsearch.transport.RawIndexingDataTransportRequest;
 import java.io.IOException;
 import java.util.List;
 
+/**
+ * A batch of translog operations sent to the recovery target. On the receiving side the sources of the index operations are retained
+ * slices of the network buffers rather than copies, so the request must be released once the operations have been applied.
+ */
 public class RecoveryTranslogOperationsRequest extends RecoveryTransportRequest implements RawIndexingDataTransportRequest {
 
     private final List<Translog.Operation> operations;
@@ -27,6 +33,7 @@ public class RecoveryTranslogOperationsRequest extends RecoveryTransportRequest
     private final long maxSeqNoOfUpdatesOrDeletesOnPrimary;
     private final RetentionLeases retentionLeases;
     private final long mappingVersionOnPrimary;
+    private final RefCounted refCounted;
 
     RecoveryTranslogOperationsRequest(
         final long recoveryId,
@@ -46,6 +53,7 @@ public class RecoveryTranslogOperationsRequest extends RecoveryTransportRequest
         this.maxSeqNoOfUpdatesOrDeletesOnPrimary = maxSeqNoOfUpdatesOrDeletesOnPrimary;
         this.retentionLeases = retentionLeases;
         this.mappingVersionOnPrimary = mappingVersionOnPrimary;
+        this.refCounted = RefCounted.ALWAYS_REFERENCED;
     }
 
     public List<Translog.Operation> operations() {
@@ -79,12 +87,21 @@ public class RecoveryTranslogOperationsRequest extends RecoveryTransportRequest
 
     RecoveryTranslogOperationsRequest(StreamInput in) throws IOException {
         super(in);
-        operations = Translog.readOperations(in, "recovery");
-        totalTranslogOps = in.readVInt();
-        maxSeenAutoIdTimestampOnPrimary = in.readZLong();
-        maxSeqNoOfUpdatesOrDeletesOnPrimary = in.readZLong();
-        retentionLeases = new RetentionLeases(in);
-        mappingVersionOnPrimary = in.readVLong();
+        operations = Translog.readOperations(in, "recovery", true);
+        refCounted = AbstractRefCounted.of(() -> Translog.releaseSources(operations));
+        boolean success = false;
+        try {
+            totalTranslogOps = in.readVInt();
+            maxSeenAutoIdTimestampOnPrimary = in.readZLong();
+            maxSeqNoOfUpdatesOrDeletesOnPrimary = in.readZLong();
+            retentionLeases = new RetentionLeases(in);
+            mappingVersionOnPrimary = in.readVLong();
+            success = true;
+        } finally {
+            if (success == false) {
+                refCounted.decRef();
+            }
+        }
     }
 
     @Override
@@ -97,4 +114,24 @@ public class RecoveryTranslogOperationsRequest extends RecoveryTransportRequest
         retentionLeases.writeTo(out);
         out.writeVLong(mappingVersionOnPrimary);
     }
+
+    @Override
+    public void incRef() {
+        refCounted.incRef();
+    }
+
+    @Override
+    public boolean tryIncRef() {
+        return refCounted.tryIncRef();
+    }
+
+    @Override
+    public boolean decRef() {
+        return refCounted.decRef();
+    }
+
+    @Override
+    public boolean hasReferences() {
+        return refCounted.hasReferences();
+    }
 }
@@ -12,6 +12,7 @@ package org.elasticsearch.repositories;
 import org.apache.lucene.index.IndexCommit;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.DelegatingActionListener;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
@@ -22,6 +23,8 @@ import org.elasticsearch.index.snapshots.IndexShardSnapshotStatus;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.snapshots.SnapshotId;
 
+import java.util.Set;
+
 /**
  * Context holding the state for creating a shard snapshot via {@link Repository#snapshotShard(SnapshotShardContext)}.
  * Wraps a {@link org.elasticsearch.index.engine.Engine.IndexCommitRef} that is released once this instances is completed by invoking
@@ -39,6 +42,7 @@ public final class SnapshotShardContext extends DelegatingActionListener<ShardSn
     private final IndexShardSnapshotStatus snapshotStatus;
     private final IndexVersion repositoryMetaVersion;
     private final long snapshotStartTime;
+    private final Set<String> pendingChunkUploads = ConcurrentCollections.newConcurrentSet();
 
     /**
      * @param store                 store to be snapshotted
@@ -116,6 +120,14 @@ public final class SnapshotShardContext extends DelegatingActionListener<ShardSn
         return snapshotStartTime;
     }
 
+    /**
+     * @return the names of the blobs holding content-defined chunks that this shard snapshot still has to upload, removed by the first
+     *         file upload that claims each of them
+     */
+    public Set<String> pendingChunkUploads() {
+        return pendingChunkUploads;
+    }
+
     @Override
     public void onResponse(ShardSnapshotResult result) {
         delegate.onResponse(result);
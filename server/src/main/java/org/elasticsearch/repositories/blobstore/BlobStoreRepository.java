@@ -176,6 +176,7 @@ import java.util.zip.InflaterInputStream;
 import static org.elasticsearch.common.blobstore.OperationPurpose.SNAPSHOT_METADATA;
 import static org.elasticsearch.core.Strings.format;
 import static org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo;
+import static org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo.CHUNK_BLOB_PREFIX;
 import static org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo.canonicalName;
 import static org.elasticsearch.indices.recovery.RecoverySettings.INDICES_RECOVERY_MAX_BYTES_PER_SEC_SETTING;
 
@@ -347,12 +348,48 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
      */
     public static final Setting<Boolean> USE_FOR_PEER_RECOVERY_SETTING = Setting.boolSetting("use_for_peer_recovery", false);
 
+    /**
+     * Setting that enables storing large files in content-defined chunks, each of which is uploaded only once per shard no matter how
+     * many files contain it, so that a file rewritten by a merge does not need to be uploaded again in full.
+     */
+    public static final Setting<Boolean> CONTENT_DEFINED_CHUNKING_ENABLED_SETTING = Setting.boolSetting(
+        "content_defined_chunking.enabled",
+        false
+    );
+
+    /**
+     * Setting that defines the minimum size of the files that are stored in content-defined chunks when
+     * {@link #CONTENT_DEFINED_CHUNKING_ENABLED_SETTING} is set.
+     */
+    public static final Setting<ByteSizeValue> CONTENT_DEFINED_CHUNKING_MIN_FILE_SIZE_SETTING = Setting.byteSizeSetting(
+        "content_defined_chunking.min_file_size",
+        ByteSizeValue.ofMb(256),
+        ByteSizeValue.ofBytes(1),
+        ByteSizeValue.ofBytes(Long.MAX_VALUE)
+    );
+
+    /**
+     * Setting that defines the average size of content-defined chunks.
+     */
+    public static final Setting<ByteSizeValue> CONTENT_DEFINED_CHUNKING_AVERAGE_CHUNK_SIZE_SETTING = Setting.byteSizeSetting(
+        "content_defined_chunking.average_chunk_size",
+        ByteSizeValue.ofMb(4),
+        ByteSizeValue.ofKb(64),
+        ByteSizeValue.ofMb(64)
+    );
+
     protected final boolean supportURLRepo;
 
     private final boolean compress;
 
     private final boolean cacheRepositoryData;
 
+    private final boolean contentDefinedChunking;
+
+    private final long contentDefinedChunkingMinFileSize;
+
+    private final long contentDefinedChunkingAverageChunkSize;
+
     private volatile RateLimiter snapshotRateLimiter;
 
     private volatile RateLimiter restoreRateLimiter;
@@ -503,6 +540,9 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         restoreRateLimiter = getRestoreRateLimiter();
         readOnly = metadata.settings().getAsBoolean(READONLY_SETTING_KEY, false);
         cacheRepositoryData = CACHE_REPOSITORY_DATA.get(metadata.settings());
+        contentDefinedChunking = CONTENT_DEFINED_CHUNKING_ENABLED_SETTING.get(metadata.settings());
+        contentDefinedChunkingMinFileSize = CONTENT_DEFINED_CHUNKING_MIN_FILE_SIZE_SETTING.get(metadata.settings()).getBytes();
+        contentDefinedChunkingAverageChunkSize = CONTENT_DEFINED_CHUNKING_AVERAGE_CHUNK_SIZE_SETTING.get(metadata.settings()).getBytes();
         bufferSize = Math.toIntExact(BUFFER_SIZE_SETTING.get(metadata.settings()).getBytes());
         this.namedXContentRegistry = namedXContentRegistry;
         this.basePath = basePath;
@@ -1389,8 +1429,8 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                     }
                 }
 
-                // Unused blobs are all previous index-, data- and meta-blobs and that are not referenced by the new index- as well as all
-                // temporary blobs
+                // Unused blobs are all previous index-, data-, chunk- and meta-blobs and that are not referenced by the new index- as
+                // well as all temporary blobs
                 private static List<String> unusedBlobs(
                     Set<String> originalShardBlobs,
                     Set<String> survivingSnapshotUUIDs,
@@ -1404,7 +1444,9 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                                     && survivingSnapshotUUIDs.contains(
                                         blob.substring(SNAPSHOT_PREFIX.length(), blob.length() - METADATA_BLOB_NAME_SUFFIX.length())
                                     ) == false)
+                                || (blob.startsWith(CHUNK_BLOB_PREFIX) && updatedSnapshots.isChunkBlobReferenced(blob) == false)
                                 || (blob.startsWith(UPLOADED_DATA_BLOB_PREFIX)
+                                    && blob.startsWith(CHUNK_BLOB_PREFIX) == false
                                     && updatedSnapshots.findNameFile(canonicalName(blob)) == null)
                                 || FsBlobContainer.isTempBlobName(blob)
                         )
@@ -3276,6 +3318,14 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                         throw new IndexShardSnapshotFailedException(shardId, "Failed to get store file metadata", e);
                     }
                 }
+                final ContentDefinedChunker contentDefinedChunker = contentDefinedChunking
+                    && SnapshotsService.useContentDefinedChunks(context.getRepositoryMetaVersion())
+                        ? new ContentDefinedChunker(
+                            contentDefinedChunkingAverageChunkSize,
+                            chunkSize() == null ? Long.MAX_VALUE : chunkSize().getBytes(),
+                            bufferSize
+                        )
+                        : null;
                 for (String fileName : fileNames) {
                     ensureNotAborted(shardId, snapshotId, snapshotStatus, fileName);
 
@@ -3293,11 +3343,26 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                         indexIncrementalFileCount++;
                         indexIncrementalSize += md.length();
                         // create a new FileInfo
-                        BlobStoreIndexShardSnapshot.FileInfo snapshotFileInfo = new BlobStoreIndexShardSnapshot.FileInfo(
-                            (needsWrite ? UPLOADED_DATA_BLOB_PREFIX : VIRTUAL_DATA_BLOB_PREFIX) + UUIDs.randomBase64UUID(),
-                            md,
-                            chunkSize()
-                        );
+                        final String name = (needsWrite ? UPLOADED_DATA_BLOB_PREFIX : VIRTUAL_DATA_BLOB_PREFIX) + UUIDs.randomBase64UUID();
+                        final BlobStoreIndexShardSnapshot.FileInfo snapshotFileInfo;
+                        if (needsWrite && contentDefinedChunker != null && md.length() >= contentDefinedChunkingMinFileSize) {
+                            // the chunks must be known before the new shard generation is written, so we read the file twice: once here
+                            // to find its chunks and once more to upload the chunks that are not in the repository yet
+                            snapshotStatus.updateStatusDescription("snapshot task runner: chunking file [" + fileName + "]");
+                            snapshotFileInfo = new BlobStoreIndexShardSnapshot.FileInfo(
+                                name,
+                                md,
+                                null,
+                                chunkFile(context, md, contentDefinedChunker)
+                            );
+                            for (BlobStoreIndexShardSnapshot.FileInfo.Chunk chunk : snapshotFileInfo.chunks()) {
+                                if (snapshots.isChunkBlobReferenced(chunk.blobName()) == false) {
+                                    context.pendingChunkUploads().add(chunk.blobName());
+                                }
+                            }
+                        } else {
+                            snapshotFileInfo = new BlobStoreIndexShardSnapshot.FileInfo(name, md, chunkSize());
+                        }
                         indexCommitPointFiles.add(snapshotFileInfo);
                         if (needsWrite) {
                             filesToSnapshot.add(snapshotFileInfo);
@@ -3421,6 +3486,9 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
 
             // filesToSnapshot will be emptied while snapshotting the file. We make a copy here for cleanup purpose in case of failure.
             final AtomicReference<List<FileInfo>> fileToCleanUp = new AtomicReference<>(List.copyOf(filesToSnapshot));
+            // Likewise for the chunks to upload. Chunks that are already in the repository are referenced by other snapshots and must
+            // not be cleaned up.
+            final Set<String> chunksToCleanUp = Set.copyOf(context.pendingChunkUploads());
             final ActionListener<Collection<Void>> allFilesUploadedListener = ActionListener.assertOnce(ActionListener.wrap(ignore -> {
                 snapshotStatus.updateStatusDescription("all files uploaded: finalizing");
                 final IndexShardSnapshotStatus.Copy lastSnapshotStatus = snapshotStatus.moveToFinalize();
@@ -3469,7 +3537,13 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                     snapshotStatus.updateStatusDescription("all files uploaded: cleaning up data files, exception while finalizing: " + e);
                     shardContainer.deleteBlobsIgnoringIfNotExists(
                         OperationPurpose.SNAPSHOT_DATA,
-                        Iterators.flatMap(fileToCleanUp.get().iterator(), f -> Iterators.forRange(0, f.numberOfParts(), f::partName))
+                        Iterators.flatMap(
+                            fileToCleanUp.get().iterator(),
+                            f -> Iterators.filter(
+                                Iterators.forRange(0, f.numberOfParts(), f::partName),
+                                partName -> f.chunks() == null || chunksToCleanUp.contains(partName)
+                            )
+                        )
                     );
                 } catch (Exception innerException) {
                     e.addSuppressed(innerException);
@@ -4080,28 +4154,24 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         ) {
             for (int i = 0; i < fileInfo.numberOfParts(); i++) {
                 final long partBytes = fileInfo.partBytes(i);
-
-                // Make reads abortable by mutating the snapshotStatus object
-                final InputStream inputStream = new FilterInputStream(
-                    maybeRateLimitSnapshots(new InputStreamIndexInput(indexInput, partBytes))
-                ) {
-                    @Override
-                    public int read() throws IOException {
-                        checkAborted();
-                        return super.read();
-                    }
-
-                    @Override
-                    public int read(byte[] b, int off, int len) throws IOException {
-                        checkAborted();
-                        return super.read(b, off, len);
-                    }
-
-                    private void checkAborted() {
-                        ensureNotAborted(shardId, snapshotId, snapshotStatus, fileInfo.physicalName());
-                    }
-                };
                 final String partName = fileInfo.partName(i);
+                if (fileInfo.chunks() != null && context.pendingChunkUploads().remove(partName) == false) {
+                    // The chunk is already in the repository or is uploaded for another file of this shard, but we must still read it to
+                    // verify the checksum of the whole file
+                    logger.trace("[{}] Skipping [{}] which is already in [{}]", metadata.name(), partName, shardContainer.path());
+                    Streams.consumeFully(
+                        abortableInputStream(new InputStreamIndexInput(indexInput, partBytes), shardId, snapshotId, snapshotStatus, file)
+                    );
+                    continue;
+                }
+
+                final InputStream inputStream = abortableInputStream(
+                    maybeRateLimitSnapshots(new InputStreamIndexInput(indexInput, partBytes)),
+                    shardId,
+                    snapshotId,
+                    snapshotStatus,
+                    file
+                );
                 logger.trace("[{}] Writing [{}] to [{}]", metadata.name(), partName, shardContainer.path());
                 final long startMS = threadPool.relativeTimeInMillis();
                 shardContainer.writeBlob(OperationPurpose.SNAPSHOT_DATA, partName, inputStream, partBytes, false);
@@ -4123,6 +4193,64 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }
     }
 
+    /**
+     * Reads a file of the shard to find its content-defined chunks. The file is read once more to upload its chunks, and both reads are
+     * subject to the snapshot rate limit.
+     */
+    private List<BlobStoreIndexShardSnapshot.FileInfo.Chunk> chunkFile(
+        SnapshotShardContext context,
+        StoreFileMetadata md,
+        ContentDefinedChunker contentDefinedChunker
+    ) {
+        final Store store = context.store();
+        final ShardId shardId = store.shardId();
+        try (
+            Releasable ignored = context.withCommitRef();
+            IndexInput indexInput = store.directory().openInput(md.name(), IOContext.READONCE)
+        ) {
+            return contentDefinedChunker.chunk(
+                abortableInputStream(
+                    maybeRateLimitSnapshots(new InputStreamIndexInput(indexInput, md.length())),
+                    shardId,
+                    context.snapshotId(),
+                    context.status(),
+                    md.name()
+                )
+            );
+        } catch (IOException e) {
+            throw new IndexShardSnapshotFailedException(shardId, "Failed to read file [" + md.name() + "] to find its chunks", e);
+        }
+    }
+
+    /**
+     * Makes reads abortable by mutating the snapshotStatus object
+     */
+    private static InputStream abortableInputStream(
+        InputStream inputStream,
+        ShardId shardId,
+        SnapshotId snapshotId,
+        IndexShardSnapshotStatus snapshotStatus,
+        String fileName
+    ) {
+        return new FilterInputStream(inputStream) {
+            @Override
+            public int read() throws IOException {
+                checkAborted();
+                return super.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                checkAborted();
+                return super.read(b, off, len);
+            }
+
+            private void checkAborted() {
+                ensureNotAborted(shardId, snapshotId, snapshotStatus, fileName);
+            }
+        };
+    }
+
     private static void failStoreIfCorrupted(Store store, Exception e) {
         if (Lucene.isCorruptionException(e)) {
             try {
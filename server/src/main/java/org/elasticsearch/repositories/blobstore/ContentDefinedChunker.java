@@ -0,0 +1,103 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.repositories.blobstore;
+
+import org.elasticsearch.common.hash.MessageDigests;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits files into chunks whose boundaries depend on their content rather than on their position, so that files which share long runs
+ * of bytes, such as a segment and the segment it was merged into, also share most of their chunks. Each chunk is identified by the
+ * SHA-256 hash of its content.
+ * <p>
+ * Boundaries are found with a gear rolling hash over the bytes of the file: a chunk ends once enough of the bits of the hash are zero,
+ * with more bits required before the chunk reaches the average chunk size than after it to keep chunk sizes close to the average
+ * (see FastCDC, Xia et al., USENIX ATC '16). The gear table is generated from a fixed seed and must never change, otherwise files would
+ * no longer share chunks with the files snapshotted before the change.
+ */
+final class ContentDefinedChunker {
+
+    private static final long[] GEAR = new long[256];
+
+    static {
+        long seed = 0x5eed_c0de_ca11_ab1eL;
+        for (int i = 0; i < GEAR.length; i++) {
+            // splitmix64
+            long z = (seed += 0x9e37_79b9_7f4a_7c15L);
+            z = (z ^ (z >>> 30)) * 0xbf58_476d_1ce4_e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d0_49bb_1331_11ebL;
+            GEAR[i] = z ^ (z >>> 31);
+        }
+    }
+
+    private final long minChunkSize;
+    private final long averageChunkSize;
+    private final long maxChunkSize;
+    private final long smallChunkMask;
+    private final long largeChunkMask;
+    private final int bufferSize;
+
+    /**
+     * @param averageChunkSize the size chunks should have on average, rounded down to a power of two
+     * @param maxChunkSize     the maximum size of a chunk, e.g. the maximum size of a blob in the repository
+     * @param bufferSize       the size of the buffer to read files with
+     */
+    ContentDefinedChunker(long averageChunkSize, long maxChunkSize, int bufferSize) {
+        final int bits = 63 - Long.numberOfLeadingZeros(averageChunkSize);
+        if (bits < 3) {
+            throw new IllegalArgumentException("average chunk size [" + averageChunkSize + "] is too small");
+        }
+        this.averageChunkSize = 1L << bits;
+        this.maxChunkSize = Math.min(this.averageChunkSize * 4, maxChunkSize);
+        this.minChunkSize = Math.min(this.averageChunkSize / 4, this.maxChunkSize);
+        // use the high bits of the hash, which depend on the last 64 bytes, rather than the low bits which only depend on the last few
+        this.smallChunkMask = -1L << (64 - (bits + 1));
+        this.largeChunkMask = -1L << (64 - (bits - 1));
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Reads the given stream to its end and returns the chunks of its content.
+     */
+    List<FileInfo.Chunk> chunk(InputStream input) throws IOException {
+        final List<FileInfo.Chunk> chunks = new ArrayList<>();
+        final MessageDigest digest = MessageDigests.sha256();
+        final byte[] buffer = new byte[bufferSize];
+        long chunkLength = 0L;
+        long hash = 0L;
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            int chunkStart = 0;
+            for (int i = 0; i < read; i++) {
+                hash = (hash << 1) + GEAR[buffer[i] & 0xff];
+                chunkLength += 1;
+                if (chunkLength >= minChunkSize
+                    && ((hash & (chunkLength < averageChunkSize ? smallChunkMask : largeChunkMask)) == 0L || chunkLength >= maxChunkSize)) {
+                    digest.update(buffer, chunkStart, i + 1 - chunkStart);
+                    chunks.add(new FileInfo.Chunk(MessageDigests.toHexString(digest.digest()), chunkLength));
+                    chunkStart = i + 1;
+                    chunkLength = 0L;
+                    hash = 0L;
+                }
+            }
+            digest.update(buffer, chunkStart, read - chunkStart);
+        }
+        if (chunkLength > 0L) {
+            chunks.add(new FileInfo.Chunk(MessageDigests.toHexString(digest.digest()), chunkLength));
+        }
+        return chunks;
+    }
+}
@@ -148,6 +148,8 @@ public final class SnapshotsService extends AbstractLifecycleComponent implement
 
     public static final IndexVersion FILE_INFO_WRITER_UUIDS_IN_SHARD_DATA_VERSION = IndexVersions.V_7_16_0;
 
+    public static final IndexVersion CONTENT_DEFINED_CHUNKS_IN_SHARD_DATA_VERSION = IndexVersions.SNAPSHOT_CONTENT_DEFINED_CHUNKS;
+
     public static final IndexVersion OLD_SNAPSHOT_FORMAT = IndexVersions.V_7_5_0;
 
     public static final String POLICY_ID_METADATA_FIELD = "policy";
@@ -2356,6 +2358,10 @@ public final class SnapshotsService extends AbstractLifecycleComponent implement
         return repositoryMetaVersion.onOrAfter(FILE_INFO_WRITER_UUIDS_IN_SHARD_DATA_VERSION);
     }
 
+    public static boolean useContentDefinedChunks(IndexVersion repositoryMetaVersion) {
+        return repositoryMetaVersion.onOrAfter(CONTENT_DEFINED_CHUNKS_IN_SHARD_DATA_VERSION);
+    }
+
     /** Deletes snapshot from repository
      *
      * @param deleteEntry       delete entry in cluster state
@@ -20,6 +20,7 @@ import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.network.HandlingTimeTracker;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.core.Releasable;
@@ -30,6 +31,8 @@ import org.elasticsearch.threadpool.ThreadPool;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Handles inbound messages by first deserializing a {@link TransportMessage} from an {@link InboundMessage} and then passing
@@ -53,6 +56,9 @@ public class InboundHandler {
 
     private volatile long slowLogThresholdMs = Long.MAX_VALUE;
 
+    private static final long SLOW_QUEUEING_WARNING_INTERVAL_MILLIS = TimeValue.timeValueSeconds(30).millis();
+    private final Map<String, SlowQueueingWarnings> slowQueueingWarnings = ConcurrentCollections.newConcurrentMap();
+
     InboundHandler(
         ThreadPool threadPool,
         OutboundHandler outboundHandler,
@@ -115,7 +121,7 @@ public class InboundHandler {
             threadContext.setHeaders(header.getHeaders());
             threadContext.putTransient("_remote_address", remoteAddress);
             if (header.isRequest()) {
-                handleRequest(channel, message);
+                handleRequest(channel, message, startTime);
             } else {
                 // Responses do not support short circuiting currently
                 assert message.isShortCircuit() == false;
@@ -220,7 +226,7 @@ public class InboundHandler {
         }
     }
 
-    private <T extends TransportRequest> void handleRequest(TcpChannel channel, InboundMessage message) throws IOException {
+    private <T extends TransportRequest> void handleRequest(TcpChannel channel, InboundMessage message, long startTime) throws IOException {
         final Header header = message.getHeader();
         if (header.isHandshake()) {
             handleHandshakeRequest(channel, message);
@@ -231,6 +237,7 @@ public class InboundHandler {
         final long requestId = header.getRequestId();
         final RequestHandlerRegistry<T> reg = requestHandlers.getHandler(action);
         assert message.isShortCircuit() || reg != null : action;
+        final RequestTimer requestTimer = reg == null ? null : new RequestTimer(reg, startTime);
         final TransportChannel transportChannel = new TcpTransportChannel(
             outboundHandler,
             channel,
@@ -238,9 +245,14 @@ public class InboundHandler {
             requestId,
             header.getVersion(),
             header.getCompressionScheme(),
-            reg == null ? ResponseStatsConsumer.NONE : reg,
+            requestTimer == null ? ResponseStatsConsumer.NONE : requestTimer,
             false,
-            Releasables.assertOnce(message.takeBreakerReleaseControl())
+            // record the handling time whether the request completes or fails, and even if no response can be sent back
+            Releasables.assertOnce(
+                requestTimer == null
+                    ? message.takeBreakerReleaseControl()
+                    : Releasables.wrap(requestTimer::finishHandling, message.takeBreakerReleaseControl())
+            )
         );
 
         try {
@@ -274,7 +286,7 @@ public class InboundHandler {
                         doHandleRequest(reg, request, transportChannel);
                     }
                 } else {
-                    handleRequestForking(request, reg, transportChannel);
+                    handleRequestForking(request, reg, transportChannel, requestTimer);
                 }
             } finally {
                 request.decRef();
@@ -292,13 +304,25 @@ public class InboundHandler {
         }
     }
 
-    private <T extends TransportRequest> void handleRequestForking(T request, RequestHandlerRegistry<T> reg, TransportChannel channel) {
+    private <T extends TransportRequest> void handleRequestForking(
+        T request,
+        RequestHandlerRegistry<T> reg,
+        TransportChannel channel,
+        RequestTimer requestTimer
+    ) {
         boolean success = false;
         request.mustIncRef();
         try {
-            reg.getExecutor().execute(threadPool.getThreadContext().preserveContextWithTracing(new AbstractRunnable() {
+            final Executor executor = reg.getExecutor();
+            requestTimer.markEnqueued();
+            executor.execute(threadPool.getThreadContext().preserveContextWithTracing(new AbstractRunnable() {
                 @Override
                 protected void doRun() {
+                    final long queueTime = requestTimer.startHandling();
+                    final long logThreshold = slowLogThresholdMs;
+                    if (logThreshold > 0 && queueTime > logThreshold) {
+                        maybeLogSlowQueueing(request.getRequestId(), reg.getAction(), queueTime, logThreshold);
+                    }
                     doHandleRequest(reg, request, channel);
                 }
 
@@ -331,6 +355,89 @@ public class InboundHandler {
         }
     }
 
+    /**
+     * Logs a warning about a request that waited too long in the queue of its executor. This can happen to many requests at once when
+     * an executor is saturated, so there is at most one warning per action every {@link #SLOW_QUEUEING_WARNING_INTERVAL_MILLIS}, which
+     * also reports the requests whose warnings were suppressed since the previous one.
+     */
+    private void maybeLogSlowQueueing(long requestId, String action, long queueTime, long logThreshold) {
+        final SlowQueueingWarnings warnings = slowQueueingWarnings.computeIfAbsent(action, ignored -> new SlowQueueingWarnings());
+        final long suppressed;
+        final long maxSuppressedQueueTime;
+        synchronized (warnings) {
+            final long now = threadPool.rawRelativeTimeInMillis();
+            if (now < warnings.nextWarningMillis) {
+                warnings.suppressed += 1;
+                warnings.maxSuppressedQueueTime = Math.max(warnings.maxSuppressedQueueTime, queueTime);
+                return;
+            }
+            warnings.nextWarningMillis = now + SLOW_QUEUEING_WARNING_INTERVAL_MILLIS;
+            suppressed = warnings.suppressed;
+            maxSuppressedQueueTime = warnings.maxSuppressedQueueTime;
+            warnings.suppressed = 0;
+            warnings.maxSuppressedQueueTime = 0;
+        }
+        logger.warn(
+            "request [{}] for action [{}] waited [{}ms] in the queue of executor [{}] which is above the warn threshold of [{}ms]; "
+                + "[{}] more requests for this action waited above the threshold, for up to [{}ms], since the previous warning",
+            requestId,
+            action,
+            queueTime,
+            EsExecutors.executorName(Thread.currentThread()),
+            logThreshold,
+            suppressed,
+            maxSuppressedQueueTime
+        );
+    }
+
+    private static final class SlowQueueingWarnings {
+        // all guarded by this
+        private long nextWarningMillis = Long.MIN_VALUE;
+        private long suppressed;
+        private long maxSuppressedQueueTime;
+    }
+
+    /**
+     * Records the size of the response to a request and the time spent queueing and handling the request in the stats of its action.
+     */
+    private final class RequestTimer implements ResponseStatsConsumer {
+
+        private final RequestHandlerRegistry<?> reg;
+        private volatile long startTimeMillis;
+
+        RequestTimer(RequestHandlerRegistry<?> reg, long receivedTimeMillis) {
+            this.reg = reg;
+            this.startTimeMillis = receivedTimeMillis;
+        }
+
+        void markEnqueued() {
+            startTimeMillis = threadPool.rawRelativeTimeInMillis();
+        }
+
+        /**
+         * @return how long the request waited in the queue of the executor since {@link #markEnqueued()}
+         */
+        long startHandling() {
+            final long now = threadPool.rawRelativeTimeInMillis();
+            final long queueTime = now - startTimeMillis;
+            startTimeMillis = now;
+            reg.addQueueTime(queueTime);
+            return queueTime;
+        }
+
+        /**
+         * Records how long the request was handled since {@link #startHandling()}, called once the request completes or fails.
+         */
+        void finishHandling() {
+            reg.addHandlingTime(threadPool.rawRelativeTimeInMillis() - startTimeMillis);
+        }
+
+        @Override
+        public void addResponseStats(int messageSize) {
+            reg.addResponseStats(messageSize);
+        }
+    }
+
     private void handleHandshakeRequest(TcpChannel channel, InboundMessage message) throws IOException {
         var header = message.getHeader();
         assert header.actionName.equals(TransportHandshaker.HANDSHAKE_ACTION_NAME);
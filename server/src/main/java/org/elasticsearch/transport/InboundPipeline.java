@@ -69,7 +69,7 @@ public class InboundPipeline implements Releasable {
     public void doHandleBytes(TcpChannel channel, ReleasableBytesReference reference) throws IOException {
         channel.getChannelStats().markAccessed(relativeTimeInMillis.getAsLong());
         statsTracker.markBytesRead(reference.length());
-        pending.add(reference.retain());
+        pending.add(statsTracker.trackRetainedBytes(reference.retain()));
 
         final ArrayList<Object> fragments = fragmentList.get();
         boolean continueHandling = true;
@@ -55,6 +55,10 @@ public abstract class NetworkMessage {
     }
 
     private static Compression.Scheme adjustedScheme(TransportVersion version, Compression.Scheme compressionScheme) {
+        if (compressionScheme == Compression.Scheme.ZSTD && version.before(Compression.Scheme.ZSTD_VERSION)) {
+            // the version negotiated in the handshake tells us the other side can't decompress zstd, fall back to lz4
+            compressionScheme = Compression.Scheme.LZ4;
+        }
         return compressionScheme == Compression.Scheme.LZ4 && version.before(Compression.Scheme.LZ4_VERSION) ? null : compressionScheme;
     }
 }
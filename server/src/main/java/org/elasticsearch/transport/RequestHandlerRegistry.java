@@ -140,6 +140,14 @@ public class RequestHandlerRegistry<Request extends TransportRequest> implements
         statsTracker().addResponseStats(messageSize);
     }
 
+    public void addQueueTime(long queueTimeMillis) {
+        statsTracker().addQueueTime(queueTimeMillis);
+    }
+
+    public void addHandlingTime(long handlingTimeMillis) {
+        statsTracker().addHandlingTime(handlingTimeMillis);
+    }
+
     public TransportActionStats getStats() {
         var statsTracker = existingStatsTracker();
         if (statsTracker == null) {
@@ -9,6 +9,7 @@
 
 package org.elasticsearch.transport;
 
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.metrics.MeanMetric;
 
 import java.util.concurrent.atomic.LongAdder;
@@ -18,6 +19,7 @@ public class StatsTracker {
     private final LongAdder bytesRead = new LongAdder();
     private final LongAdder messagesReceived = new LongAdder();
     private final MeanMetric writeBytesMetric = new MeanMetric();
+    private final LongAdder bytesRetained = new LongAdder();
 
     public void markBytesRead(long bytesReceived) {
         bytesRead.add(bytesReceived);
@@ -27,6 +29,20 @@ public class StatsTracker {
         messagesReceived.increment();
     }
 
+    /**
+     * Track the given received bytes as retained until they are released. Handlers that deserialize large payloads as retained slices
+     * of the message rather than copying them keep the underlying network buffers alive, so the bytes are only released once the last
+     * such slice is released.
+     */
+    public ReleasableBytesReference trackRetainedBytes(ReleasableBytesReference bytes) {
+        final int length = bytes.length();
+        bytesRetained.add(length);
+        return new ReleasableBytesReference(bytes, () -> {
+            bytesRetained.add(-length);
+            bytes.close();
+        });
+    }
+
     public void markBytesWritten(long bytesWritten) {
         writeBytesMetric.inc(bytesWritten);
     }
@@ -35,6 +51,10 @@ public class StatsTracker {
         return bytesRead.sum();
     }
 
+    public long getBytesRetained() {
+        return bytesRetained.sum();
+    }
+
     public long getMessagesReceived() {
         return messagesReceived.sum();
     }
@@ -242,7 +242,8 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
             DiscoveryNode node,
             List<TcpChannel> channels,
             ConnectionProfile connectionProfile,
-            TransportVersion handshakeVersion
+            TransportVersion handshakeVersion,
+            boolean zstdCompressionSupported
         ) {
             this.node = node;
             this.channels = Collections.unmodifiableList(channels);
@@ -256,7 +257,13 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
             }
             version = handshakeVersion;
             compress = connectionProfile.getCompressionEnabled();
-            compressionScheme = connectionProfile.getCompressionScheme();
+            if (connectionProfile.getCompressionScheme() == Compression.Scheme.ZSTD
+                && (zstdCompressionSupported == false || Compression.Scheme.isZstdAvailable() == false)) {
+                // one of the nodes doesn't have the native zstd library, or the other node is too old to tell us whether it has it
+                compressionScheme = Compression.Scheme.LZ4;
+            } else {
+                compressionScheme = connectionProfile.getCompressionScheme();
+            }
         }
 
         @Override
@@ -941,11 +948,19 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
         }
     }
 
+    /**
+     * The outcome of a transport handshake.
+     *
+     * @param transportVersion         the transport version to use on the connection
+     * @param zstdCompressionSupported whether the other node can decompress {@link Compression.Scheme#ZSTD} messages
+     */
+    public record HandshakeResult(TransportVersion transportVersion, boolean zstdCompressionSupported) {}
+
     public void executeHandshake(
         DiscoveryNode node,
         TcpChannel channel,
         ConnectionProfile profile,
-        ActionListener<TransportVersion> listener
+        ActionListener<HandshakeResult> listener
     ) {
         long requestId = responseHandlers.newRequestId();
         handshaker.sendHandshake(requestId, node, channel, profile.getHandshakeTimeout(), listener);
@@ -996,6 +1011,7 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
             bytesRead,
             messagesSent,
             bytesWritten,
+            statsTracker.getBytesRetained(),
             networkService.getHandlingTimeTracker().getHistogram(),
             outboundHandlingTimeTracker.getHistogram(),
             requestHandlers.getStats()
@@ -1107,10 +1123,16 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
             if (countDown.countDown()) {
                 final TcpChannel handshakeChannel = channels.get(0);
                 try {
-                    executeHandshake(node, handshakeChannel, connectionProfile, ActionListener.wrap(responseVersion -> {
+                    executeHandshake(node, handshakeChannel, connectionProfile, ActionListener.wrap(handshakeResult -> {
                         final long connectionId = outboundConnectionCount.incrementAndGet();
                         logger.debug("opened transport connection [{}] to [{}] using channels [{}]", connectionId, node, channels);
-                        NodeChannels nodeChannels = new NodeChannels(node, channels, connectionProfile, responseVersion);
+                        NodeChannels nodeChannels = new NodeChannels(
+                            node,
+                            channels,
+                            connectionProfile,
+                            handshakeResult.transportVersion(),
+                            handshakeResult.zstdCompressionSupported()
+                        );
                         long relativeMillisTime = threadPool.relativeTimeInMillis();
                         nodeChannels.channels.forEach(ch -> {
                             // Mark the channel init time
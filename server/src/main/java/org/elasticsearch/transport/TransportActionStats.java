@@ -9,6 +9,7 @@
 
 package org.elasticsearch.transport;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -24,13 +25,33 @@ public record TransportActionStats(
     long[] requestSizeHistogram,
     long responseCount,
     long totalResponseSize,
-    long[] responseSizeHistogram
+    long[] responseSizeHistogram,
+    long[] queueTimeHistogram,
+    long[] handlingTimeHistogram
 ) implements Writeable, ToXContentObject {
 
-    public static final TransportActionStats EMPTY = new TransportActionStats(0, 0, new long[0], 0, 0, new long[0]);
+    public static final TransportActionStats EMPTY = new TransportActionStats(
+        0,
+        0,
+        new long[0],
+        0,
+        0,
+        new long[0],
+        new long[0],
+        new long[0]
+    );
 
     public TransportActionStats(StreamInput in) throws IOException {
-        this(in.readVLong(), in.readVLong(), in.readVLongArray(), in.readVLong(), in.readVLong(), in.readVLongArray());
+        this(
+            in.readVLong(),
+            in.readVLong(),
+            in.readVLongArray(),
+            in.readVLong(),
+            in.readVLong(),
+            in.readVLongArray(),
+            in.getTransportVersion().onOrAfter(TransportVersions.TRANSPORT_ACTION_LATENCY_STATS) ? in.readVLongArray() : new long[0],
+            in.getTransportVersion().onOrAfter(TransportVersions.TRANSPORT_ACTION_LATENCY_STATS) ? in.readVLongArray() : new long[0]
+        );
     }
 
     @Override
@@ -49,6 +70,13 @@ public record TransportActionStats(
         histogramToXContent(builder, responseSizeHistogram);
         builder.endObject();
 
+        if (queueTimeHistogram.length > 0) {
+            TransportStats.histogramToXContent(builder, queueTimeHistogram, "queue_time_histogram");
+        }
+        if (handlingTimeHistogram.length > 0) {
+            TransportStats.histogramToXContent(builder, handlingTimeHistogram, "handling_time_histogram");
+        }
+
         return builder.endObject();
     }
 
@@ -89,5 +117,9 @@ public record TransportActionStats(
         out.writeVLong(responseCount);
         out.writeVLong(totalResponseSize);
         out.writeVLongArray(responseSizeHistogram);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.TRANSPORT_ACTION_LATENCY_STATS)) {
+            out.writeVLongArray(queueTimeHistogram);
+            out.writeVLongArray(handlingTimeHistogram);
+        }
     }
 }
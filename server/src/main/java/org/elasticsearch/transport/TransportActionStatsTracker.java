@@ -9,6 +9,8 @@
 
 package org.elasticsearch.transport;
 
+import org.elasticsearch.common.network.HandlingTimeTracker;
+
 import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.LongAdder;
 
@@ -68,6 +70,8 @@ public class TransportActionStatsTracker {
 
     private final StatsTracker requestStats = new StatsTracker();
     private final StatsTracker responseStats = new StatsTracker();
+    private final HandlingTimeTracker queueTimeTracker = new HandlingTimeTracker();
+    private final HandlingTimeTracker handlingTimeTracker = new HandlingTimeTracker();
 
     public void addRequestStats(int messageSize) {
         requestStats.addStats(messageSize);
@@ -77,6 +81,20 @@ public class TransportActionStatsTracker {
         responseStats.addStats(messageSize);
     }
 
+    /**
+     * Record how long a request waited in the queue of the handler's executor before it started to be handled.
+     */
+    public void addQueueTime(long queueTimeMillis) {
+        queueTimeTracker.addHandlingTime(queueTimeMillis);
+    }
+
+    /**
+     * Record how long it took from starting to handle a request until its response was sent.
+     */
+    public void addHandlingTime(long handlingTimeMillis) {
+        handlingTimeTracker.addHandlingTime(handlingTimeMillis);
+    }
+
     public TransportActionStats getStats() {
         return new TransportActionStats(
             requestStats.count().longValue(),
@@ -84,7 +102,9 @@ public class TransportActionStatsTracker {
             requestStats.getHistogram(),
             responseStats.count().longValue(),
             responseStats.totalSize().longValue(),
-            responseStats.getHistogram()
+            responseStats.getHistogram(),
+            queueTimeTracker.getHistogram(),
+            handlingTimeTracker.getHistogram()
         );
     }
 
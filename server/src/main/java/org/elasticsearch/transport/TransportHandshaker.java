@@ -19,6 +19,7 @@ import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.core.UpdateForV9;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -167,6 +168,12 @@ final class TransportHandshaker {
         V9_HANDSHAKE_VERSION
     );
 
+    /**
+     * From this version, if the requesting node is on this version too, the response ends with whether the responding node can decompress
+     * {@link Compression.Scheme#ZSTD} messages.
+     */
+    static final TransportVersion ZSTD_SUPPORT_VERSION = TransportVersions.TRANSPORT_HANDSHAKE_ZSTD_SUPPORT;
+
     static final String HANDSHAKE_ACTION_NAME = "internal:tcp/handshake";
     private final ConcurrentMap<Long, HandshakeResponseHandler> pendingHandshakes = new ConcurrentHashMap<>();
     private final CounterMetric numHandshakes = new CounterMetric();
@@ -193,7 +200,7 @@ final class TransportHandshaker {
         DiscoveryNode node,
         TcpChannel channel,
         TimeValue timeout,
-        ActionListener<TransportVersion> listener
+        ActionListener<TcpTransport.HandshakeResult> listener
     ) {
         numHandshakes.inc();
         final HandshakeResponseHandler handler = new HandshakeResponseHandler(requestId, listener);
@@ -222,9 +229,10 @@ final class TransportHandshaker {
     }
 
     void handleHandshake(TransportChannel channel, long requestId, StreamInput stream) throws IOException {
+        final HandshakeRequest handshakeRequest;
         try {
             // Must read the handshake request to exhaust the stream
-            new HandshakeRequest(stream);
+            handshakeRequest = new HandshakeRequest(stream);
         } catch (Exception e) {
             assert ignoreDeserializationErrors : e;
             throw e;
@@ -243,7 +251,15 @@ final class TransportHandshaker {
             assert ignoreDeserializationErrors : exception;
             throw exception;
         }
-        channel.sendResponse(new HandshakeResponse(this.version, Build.current().version()));
+        final boolean requestingNodeReadsZstdSupport = handshakeRequest.transportVersion != null
+            && handshakeRequest.transportVersion.onOrAfter(ZSTD_SUPPORT_VERSION);
+        channel.sendResponse(
+            new HandshakeResponse(
+                this.version,
+                Build.current().version(),
+                requestingNodeReadsZstdSupport ? Compression.Scheme.isZstdAvailable() : null
+            )
+        );
     }
 
     TransportResponseHandler<HandshakeResponse> removeHandlerForHandshake(long requestId) {
@@ -261,10 +277,10 @@ final class TransportHandshaker {
     private class HandshakeResponseHandler implements TransportResponseHandler<HandshakeResponse> {
 
         private final long requestId;
-        private final ActionListener<TransportVersion> listener;
+        private final ActionListener<TcpTransport.HandshakeResult> listener;
         private final AtomicBoolean isDone = new AtomicBoolean(false);
 
-        private HandshakeResponseHandler(long requestId, ActionListener<TransportVersion> listener) {
+        private HandshakeResponseHandler(long requestId, ActionListener<TcpTransport.HandshakeResult> listener) {
             this.requestId = requestId;
             this.listener = listener;
         }
@@ -294,7 +310,12 @@ final class TransportHandshaker {
                         )
                     );
                 } else {
-                    listener.onResponse(TransportVersion.min(TransportHandshaker.this.version, response.getTransportVersion()));
+                    listener.onResponse(
+                        new TcpTransport.HandshakeResult(
+                            TransportVersion.min(TransportHandshaker.this.version, response.getTransportVersion()),
+                            response.isZstdCompressionSupported()
+                        )
+                    );
                 }
             }
         }
@@ -386,9 +407,21 @@ final class TransportHandshaker {
          */
         private final String releaseVersion;
 
+        /**
+         * Whether the responding node can decompress {@link Compression.Scheme#ZSTD} messages, or {@code null} if the requesting node is
+         * from before {@link #ZSTD_SUPPORT_VERSION} and doesn't expect this to be sent.
+         */
+        @Nullable
+        private final Boolean zstdCompressionSupported;
+
         HandshakeResponse(TransportVersion transportVersion, String releaseVersion) {
+            this(transportVersion, releaseVersion, null);
+        }
+
+        HandshakeResponse(TransportVersion transportVersion, String releaseVersion, @Nullable Boolean zstdCompressionSupported) {
             this.transportVersion = Objects.requireNonNull(transportVersion);
             this.releaseVersion = Objects.requireNonNull(releaseVersion);
+            this.zstdCompressionSupported = zstdCompressionSupported;
         }
 
         HandshakeResponse(StreamInput in) throws IOException {
@@ -399,6 +432,8 @@ final class TransportHandshaker {
             } else {
                 releaseVersion = transportVersion.toReleaseVersion();
             }
+            // this node is on ZSTD_SUPPORT_VERSION, so a responding node on that version too will have sent its zstd support
+            zstdCompressionSupported = transportVersion.onOrAfter(ZSTD_SUPPORT_VERSION) ? in.readBoolean() : null;
         }
 
         @Override
@@ -407,6 +442,9 @@ final class TransportHandshaker {
             if (out.getTransportVersion().onOrAfter(V9_HANDSHAKE_VERSION)) {
                 out.writeString(releaseVersion);
             } // else we just send the transport version and rely on a best-effort mapping to release versions
+            if (zstdCompressionSupported != null) {
+                out.writeBoolean(zstdCompressionSupported);
+            }
         }
 
         /**
@@ -423,6 +461,13 @@ final class TransportHandshaker {
         String getReleaseVersion() {
             return releaseVersion;
         }
+
+        /**
+         * @return whether the responding node can decompress {@link Compression.Scheme#ZSTD} messages.
+         */
+        boolean isZstdCompressionSupported() {
+            return Boolean.TRUE.equals(zstdCompressionSupported);
+        }
     }
 
     @FunctionalInterface
@@ -36,6 +36,7 @@ public class TransportStats implements Writeable, ChunkedToXContent {
     private final long rxSize;
     private final long txCount;
     private final long txSize;
+    private final long rxRetainedSize;
     private final long[] inboundHandlingTimeBucketFrequencies;
     private final long[] outboundHandlingTimeBucketFrequencies;
     private final Map<String, TransportActionStats> transportActionStats;
@@ -47,6 +48,7 @@ public class TransportStats implements Writeable, ChunkedToXContent {
         long rxSize,
         long txCount,
         long txSize,
+        long rxRetainedSize,
         long[] inboundHandlingTimeBucketFrequencies,
         long[] outboundHandlingTimeBucketFrequencies,
         Map<String, TransportActionStats> transportActionStats
@@ -57,6 +59,7 @@ public class TransportStats implements Writeable, ChunkedToXContent {
         this.rxSize = rxSize;
         this.txCount = txCount;
         this.txSize = txSize;
+        this.rxRetainedSize = rxRetainedSize;
         this.inboundHandlingTimeBucketFrequencies = inboundHandlingTimeBucketFrequencies;
         this.outboundHandlingTimeBucketFrequencies = outboundHandlingTimeBucketFrequencies;
         this.transportActionStats = transportActionStats;
@@ -88,6 +91,11 @@ public class TransportStats implements Writeable, ChunkedToXContent {
         } else {
             transportActionStats = Map.of();
         }
+        if (in.getTransportVersion().onOrAfter(TransportVersions.TRANSPORT_STATS_RETAINED_BYTES)) {
+            rxRetainedSize = in.readVLong();
+        } else {
+            rxRetainedSize = 0L;
+        }
         assert assertHistogramsConsistent();
     }
 
@@ -112,6 +120,9 @@ public class TransportStats implements Writeable, ChunkedToXContent {
         if (out.getTransportVersion().onOrAfter(TransportVersions.V_8_8_0)) {
             out.writeMap(transportActionStats, StreamOutput::writeWriteable);
         } // else just drop these stats
+        if (out.getTransportVersion().onOrAfter(TransportVersions.TRANSPORT_STATS_RETAINED_BYTES)) {
+            out.writeVLong(rxRetainedSize);
+        }
     }
 
     public long serverOpen() {
@@ -154,6 +165,18 @@ public class TransportStats implements Writeable, ChunkedToXContent {
         return txSize();
     }
 
+    /**
+     * The size of the network buffers that the transport layer currently holds on to for received messages, whether they are still
+     * being decoded and aggregated or have been retained by the handlers that deserialized them without copying.
+     */
+    public ByteSizeValue rxRetainedSize() {
+        return ByteSizeValue.ofBytes(rxRetainedSize);
+    }
+
+    public ByteSizeValue getRxRetainedSize() {
+        return rxRetainedSize();
+    }
+
     public long[] getInboundHandlingTimeBucketFrequencies() {
         return Arrays.copyOf(inboundHandlingTimeBucketFrequencies, inboundHandlingTimeBucketFrequencies.length);
     }
@@ -193,6 +216,7 @@ public class TransportStats implements Writeable, ChunkedToXContent {
             builder.humanReadableField(Fields.RX_SIZE_IN_BYTES, Fields.RX_SIZE, ByteSizeValue.ofBytes(rxSize));
             builder.field(Fields.TX_COUNT, txCount);
             builder.humanReadableField(Fields.TX_SIZE_IN_BYTES, Fields.TX_SIZE, ByteSizeValue.ofBytes(txSize));
+            builder.humanReadableField(Fields.RX_RETAINED_SIZE_IN_BYTES, Fields.RX_RETAINED_SIZE, ByteSizeValue.ofBytes(rxRetainedSize));
             if (inboundHandlingTimeBucketFrequencies.length > 0) {
                 histogramToXContent(builder, inboundHandlingTimeBucketFrequencies, Fields.INBOUND_HANDLING_TIME_HISTOGRAM);
                 histogramToXContent(builder, outboundHandlingTimeBucketFrequencies, Fields.OUTBOUND_HANDLING_TIME_HISTOGRAM);
@@ -263,6 +287,8 @@ public class TransportStats implements Writeable, ChunkedToXContent {
         static final String TX_COUNT = "tx_count";
         static final String TX_SIZE = "tx_size";
         static final String TX_SIZE_IN_BYTES = "tx_size_in_bytes";
+        static final String RX_RETAINED_SIZE = "rx_retained_size";
+        static final String RX_RETAINED_SIZE_IN_BYTES = "rx_retained_size_in_bytes";
         static final String INBOUND_HANDLING_TIME_HISTOGRAM = "inbound_handling_time_histogram";
         static final String OUTBOUND_HANDLING_TIME_HISTOGRAM = "outbound_handling_time_histogram";
         static final String ACTIONS = "actions";
@@ -0,0 +1,198 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.recycler.Recycler;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.nativeaccess.Zstd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+
+/**
+ * Decompresses the blocks written by {@link ZstdTransportOutputStream}. The native buffers are allocated for the first block, grown if a
+ * later block needs more space and released on {@link #close()}, so like the channel it reads from, a decompressor must only be used on a
+ * single thread.
+ */
+public class ZstdTransportDecompressor extends TransportDecompressor {
+
+    private enum State {
+        INIT_BLOCK,
+        DECOMPRESS_DATA,
+        FINISHED,
+        CORRUPTED
+    }
+
+    private final NativeAccess nativeAccess;
+    private final Zstd zstd;
+
+    private State currentState = State.INIT_BLOCK;
+
+    /**
+     * Compressed length of current incoming block.
+     */
+    private int compressedLength;
+
+    /**
+     * Decompressed length of current incoming block.
+     */
+    private int decompressedLength;
+
+    private CloseableByteBuffer src;
+    private CloseableByteBuffer dest;
+
+    public ZstdTransportDecompressor(Recycler<BytesRef> recycler) {
+        super(recycler);
+        if (Compression.Scheme.isZstdAvailable() == false) {
+            // we don't advertise zstd support in the handshake so other nodes should never send us zstd messages
+            throw new IllegalStateException("received a zstd compressed message but zstd is not available on this node");
+        }
+        this.nativeAccess = NativeAccess.instance();
+        this.zstd = nativeAccess.getZstd();
+    }
+
+    @Override
+    public Compression.Scheme getScheme() {
+        return Compression.Scheme.ZSTD;
+    }
+
+    @Override
+    public int decompress(BytesReference bytesReference) throws IOException {
+        int bytesConsumed = 0;
+        if (hasSkippedHeader == false) {
+            hasSkippedHeader = true;
+            int esHeaderLength = Compression.Scheme.HEADER_LENGTH;
+            bytesReference = bytesReference.slice(esHeaderLength, bytesReference.length() - esHeaderLength);
+            bytesConsumed += esHeaderLength;
+        }
+
+        while (true) {
+            int consumed = decodeBlock(bytesReference);
+            bytesConsumed += consumed;
+            int newLength = bytesReference.length() - consumed;
+            if (consumed > 0 && newLength > 0) {
+                bytesReference = bytesReference.slice(consumed, newLength);
+            } else {
+                break;
+            }
+        }
+
+        return bytesConsumed;
+    }
+
+    private int decodeBlock(BytesReference reference) throws IOException {
+        try {
+            switch (currentState) {
+                case INIT_BLOCK:
+                    if (reference.length() < ZstdTransportOutputStream.HEADER_LENGTH) {
+                        return 0;
+                    }
+                    final int compressedLength = reference.getInt(0);
+                    final int decompressedLength = reference.getInt(4);
+                    if (compressedLength < 0
+                        || compressedLength > zstd.compressBound(ZstdTransportOutputStream.MAX_BLOCK_SIZE)
+                        || decompressedLength < 0
+                        || decompressedLength > ZstdTransportOutputStream.MAX_BLOCK_SIZE
+                        || (compressedLength == 0) != (decompressedLength == 0)) {
+                        throw new IllegalStateException(
+                            String.format(
+                                Locale.ROOT,
+                                "stream corrupted: invalid compressedLength(%d) or decompressedLength(%d)",
+                                compressedLength,
+                                decompressedLength
+                            )
+                        );
+                    }
+                    if (decompressedLength == 0) {
+                        currentState = State.FINISHED;
+                    } else {
+                        this.compressedLength = compressedLength;
+                        this.decompressedLength = decompressedLength;
+                        currentState = State.DECOMPRESS_DATA;
+                    }
+                    return ZstdTransportOutputStream.HEADER_LENGTH;
+                case DECOMPRESS_DATA:
+                    if (reference.length() < this.compressedLength) {
+                        return 0;
+                    }
+                    decompressBlock(reference.slice(0, this.compressedLength));
+                    currentState = State.INIT_BLOCK;
+                    return this.compressedLength;
+                case FINISHED:
+                    return 0;
+                case CORRUPTED:
+                    throw new IllegalStateException("zstd stream corrupted.");
+                default:
+                    throw new IllegalStateException();
+            }
+        } catch (IOException | RuntimeException e) {
+            currentState = State.CORRUPTED;
+            throw e;
+        }
+    }
+
+    private void decompressBlock(BytesReference block) throws IOException {
+        if (src == null || src.buffer().capacity() < compressedLength) {
+            Releasables.close(src);
+            src = null;
+            src = nativeAccess.newBuffer(compressedLength);
+        }
+        if (dest == null || dest.buffer().capacity() < decompressedLength) {
+            Releasables.close(dest);
+            dest = null;
+            dest = nativeAccess.newBuffer(decompressedLength);
+        }
+        final ByteBuffer srcBuffer = src.buffer();
+        srcBuffer.clear();
+        final BytesRefIterator iterator = block.iterator();
+        BytesRef ref;
+        while ((ref = iterator.next()) != null) {
+            srcBuffer.put(ref.bytes, ref.offset, ref.length);
+        }
+        srcBuffer.flip();
+        final ByteBuffer destBuffer = dest.buffer();
+        destBuffer.clear();
+        destBuffer.limit(decompressedLength);
+
+        final int decompressed = zstd.decompress(dest, src);
+        if (decompressed != decompressedLength) {
+            throw new IllegalStateException("expected " + decompressedLength + " decompressed bytes, got " + decompressed);
+        }
+
+        int bytesToCopy = decompressedLength;
+        int uncompressedOffset = 0;
+        while (bytesToCopy > 0) {
+            maybeAddNewPage();
+            final Recycler.V<BytesRef> page = pages.getLast();
+            int toCopy = Math.min(bytesToCopy, pageLength - pageOffset);
+            destBuffer.get(uncompressedOffset, page.v().bytes, page.v().offset + pageOffset, toCopy);
+            pageOffset += toCopy;
+            bytesToCopy -= toCopy;
+            uncompressedOffset += toCopy;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            super.close();
+        } finally {
+            Releasables.close(src, dest);
+            src = null;
+            dest = null;
+        }
+    }
+}
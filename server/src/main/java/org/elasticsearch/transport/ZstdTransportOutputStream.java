@@ -0,0 +1,187 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.util.ByteUtils;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.nativeaccess.Zstd;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * An {@link OutputStream} that compresses the bytes written to it in blocks using zstd. Each block is preceded by its compressed and
+ * decompressed length and the stream ends with a block of length zero, see {@link ZstdTransportDecompressor}.
+ * <p>
+ * Like {@link ReuseBuffersLZ4BlockOutputStream}, the bytes of the current block are collected in a thread-local array, so the stream must
+ * be written to and closed on a single thread. The native buffers that zstd needs are only allocated once a block is compressed, sized
+ * to that block, and are reused for the following blocks of the same stream until it's closed.
+ */
+public class ZstdTransportOutputStream extends FilterOutputStream {
+
+    private static class ArrayBox {
+        private byte[] uncompressed = BytesRef.EMPTY_BYTES;
+        private final byte[] copyBuffer = new byte[4096];
+        private boolean owned = false;
+
+        private void markOwnership(int uncompressedBlockSize) {
+            assert owned == false;
+            owned = true;
+            if (uncompressedBlockSize > uncompressed.length) {
+                uncompressed = new byte[uncompressedBlockSize];
+            }
+        }
+
+        private void release() {
+            owned = false;
+        }
+    }
+
+    private static final ThreadLocal<ArrayBox> ARRAY_BOX = ThreadLocal.withInitial(ArrayBox::new);
+
+    static final int HEADER_LENGTH = 4 + // compressed length
+        4; // decompressed length
+
+    static final int MAX_BLOCK_SIZE = 1 << 25; // 32 M
+
+    private final int blockSize;
+    private final int level;
+    private final NativeAccess nativeAccess;
+    private final Zstd zstd;
+    private final ArrayBox arrayBox;
+    private final byte[] buffer;
+    private CloseableByteBuffer uncompressed;
+    private CloseableByteBuffer compressed;
+    private boolean finished;
+    private int o;
+
+    public ZstdTransportOutputStream(OutputStream out, int blockSize, int level) {
+        super(out);
+        if (blockSize <= 0 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("blockSize must be > 0 and <= " + MAX_BLOCK_SIZE + ", got " + blockSize);
+        }
+        if (Compression.Scheme.isZstdAvailable() == false) {
+            throw new IllegalStateException("zstd transport compression is not available on this node");
+        }
+        this.blockSize = blockSize;
+        this.level = level;
+        this.nativeAccess = NativeAccess.instance();
+        this.zstd = nativeAccess.getZstd();
+        this.arrayBox = ARRAY_BOX.get();
+        arrayBox.markOwnership(blockSize);
+        this.buffer = arrayBox.uncompressed;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureNotFinished();
+        if (o == blockSize) {
+            flushBufferedData();
+        }
+        buffer[o++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensureNotFinished();
+        while (o + len > blockSize) {
+            final int l = blockSize - o;
+            System.arraycopy(b, off, buffer, o, l);
+            o = blockSize;
+            flushBufferedData();
+            off += l;
+            len -= l;
+        }
+        System.arraycopy(b, off, buffer, o, len);
+        o += len;
+    }
+
+    /**
+     * Flushes the underlying stream but not the buffered data, which is only compressed once a block is full or the stream is closed.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (finished == false) {
+                flushBufferedData();
+                writeBlockHeader(0, 0);
+                finished = true;
+                out.flush();
+            }
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+        } finally {
+            arrayBox.release();
+            Releasables.close(uncompressed, compressed);
+            uncompressed = null;
+            compressed = null;
+        }
+    }
+
+    private void flushBufferedData() throws IOException {
+        if (o == 0) {
+            return;
+        }
+        if (uncompressed == null) {
+            // the first block is the largest one, either full or the only one
+            uncompressed = nativeAccess.newBuffer(o);
+            compressed = nativeAccess.newBuffer(zstd.compressBound(o));
+        }
+        final ByteBuffer src = uncompressed.buffer();
+        src.clear();
+        src.put(buffer, 0, o);
+        src.flip();
+        final int compressedLength = zstd.compress(compressed, uncompressed, level);
+        writeBlockHeader(compressedLength, o);
+        final ByteBuffer dst = compressed.buffer();
+        final byte[] copyBuffer = arrayBox.copyBuffer;
+        for (int written = 0; written < compressedLength;) {
+            final int toCopy = Math.min(copyBuffer.length, compressedLength - written);
+            dst.get(written, copyBuffer, 0, toCopy);
+            out.write(copyBuffer, 0, toCopy);
+            written += toCopy;
+        }
+        o = 0;
+    }
+
+    private void writeBlockHeader(int compressedLength, int decompressedLength) throws IOException {
+        final byte[] header = arrayBox.copyBuffer;
+        ByteUtils.writeIntBE(compressedLength, header, 0);
+        ByteUtils.writeIntBE(decompressedLength, header, 4);
+        out.write(header, 0, HEADER_LENGTH);
+    }
+
+    private void ensureNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("This stream is already closed");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(out=" + out + ", blockSize=" + blockSize + ", level=" + level + ")";
+    }
+}
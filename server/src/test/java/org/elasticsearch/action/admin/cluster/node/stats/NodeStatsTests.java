@@ -284,6 +284,10 @@ public class NodeStatsTests extends ESTestCase {
                     assertEquals(nodeStats.getTransport().getServerOpen(), deserializedNodeStats.getTransport().getServerOpen());
                     assertEquals(nodeStats.getTransport().getTxCount(), deserializedNodeStats.getTransport().getTxCount());
                     assertEquals(nodeStats.getTransport().getTxSize(), deserializedNodeStats.getTransport().getTxSize());
+                    assertEquals(
+                        nodeStats.getTransport().getRxRetainedSize(),
+                        deserializedNodeStats.getTransport().getRxRetainedSize()
+                    );
                     assertArrayEquals(
                         nodeStats.getTransport().getInboundHandlingTimeBucketFrequencies(),
                         deserializedNodeStats.getTransport().getInboundHandlingTimeBucketFrequencies()
@@ -843,9 +847,22 @@ public class NodeStatsTests extends ESTestCase {
                 randomNonNegativeLong(),
                 randomNonNegativeLong(),
                 randomNonNegativeLong(),
+                randomNonNegativeLong(),
                 IntStream.range(0, HandlingTimeTracker.BUCKET_COUNT).mapToLong(i -> randomNonNegativeLong()).toArray(),
                 IntStream.range(0, HandlingTimeTracker.BUCKET_COUNT).mapToLong(i -> randomNonNegativeLong()).toArray(),
-                Map.of("test-action", new TransportActionStats(1, 2, new long[29], 3, 4, new long[29]))
+                Map.of(
+                    "test-action",
+                    new TransportActionStats(
+                        1,
+                        2,
+                        new long[29],
+                        3,
+                        4,
+                        new long[29],
+                        new long[HandlingTimeTracker.BUCKET_COUNT],
+                        new long[HandlingTimeTracker.BUCKET_COUNT]
+                    )
+                )
             )
             : null;
         HttpStats httpStats = null;
@@ -2274,6 +2274,61 @@ public class MetadataTests extends ESTestCase {
         assertSame(instance, deserializedDiff.apply(instance));
     }
 
+    public void testApplyingDiffReusesUnchangedState() throws IOException {
+        MappingMetadata mapping = new MappingMetadata(MapperService.SINGLE_MAPPING_NAME, Map.of("a", "b"));
+        Metadata.Builder builder = Metadata.builder();
+        int numIndices = between(2, 10);
+        for (int i = 0; i < numIndices; i++) {
+            builder.put(
+                IndexMetadata.builder("index-" + i)
+                    .settings(indexSettings(IndexVersion.current(), 1, 0))
+                    .putMapping(mapping)
+                    .putAlias(AliasMetadata.builder("alias-" + i))
+            );
+        }
+        Metadata before = builder.build();
+        assertThat(before.getIndicesLookup(), notNullValue());
+
+        // a mapping update doesn't change the names of anything
+        MappingMetadata updatedMapping = new MappingMetadata(MapperService.SINGLE_MAPPING_NAME, Map.of("c", "d"));
+        Metadata after = Metadata.builder(before).put(IndexMetadata.builder(before.index("index-0")).putMapping(updatedMapping)).build();
+        Metadata applied = applyDiff(before, after);
+        assertThat(applied.getIndicesLookup(), sameInstance(before.getIndicesLookup()));
+        assertThat(applied.index("index-0").mapping(), equalTo(updatedMapping));
+        for (int i = 1; i < numIndices; i++) {
+            assertThat(applied.index("index-" + i), sameInstance(before.index("index-" + i)));
+        }
+        assertThat(applied.getMappingsByHash().keySet(), equalTo(Set.of(mapping.getSha256(), updatedMapping.getSha256())));
+
+        // the old mapping is dropped once no index uses it anymore
+        Metadata.Builder allUpdated = Metadata.builder(applied);
+        for (int i = 1; i < numIndices; i++) {
+            allUpdated.put(IndexMetadata.builder(applied.index("index-" + i)).putMapping(updatedMapping));
+        }
+        applied = applyDiff(applied, allUpdated.build());
+        assertThat(applied.getMappingsByHash().keySet(), equalTo(Set.of(updatedMapping.getSha256())));
+
+        // changing an alias changes the lookup
+        after = Metadata.builder(applied)
+            .put(IndexMetadata.builder(applied.index("index-0")).putAlias(AliasMetadata.builder("other-alias")))
+            .build();
+        Metadata appliedAliasChange = applyDiff(applied, after);
+        assertThat(appliedAliasChange.getIndicesLookup(), not(sameInstance(applied.getIndicesLookup())));
+        assertThat(appliedAliasChange.getIndicesLookup().get("other-alias"), notNullValue());
+
+        // as does removing an index
+        after = Metadata.builder(applied).remove("index-" + (numIndices - 1)).build();
+        Metadata appliedRemoval = applyDiff(applied, after);
+        assertThat(appliedRemoval.getIndicesLookup(), not(sameInstance(applied.getIndicesLookup())));
+        assertThat(appliedRemoval.getIndicesLookup().get("alias-" + (numIndices - 1)), nullValue());
+    }
+
+    private static Metadata applyDiff(Metadata before, Metadata after) throws IOException {
+        final BytesStreamOutput out = new BytesStreamOutput();
+        after.diff(before).writeTo(out);
+        return Metadata.readDiffFrom(out.bytes().streamInput()).apply(before);
+    }
+
     public void testChunkedToXContent() {
         AbstractChunkedSerializingTestCase.assertChunkCount(randomMetadata(randomInt(10)), MetadataTests::expectedChunkCount);
     }
@@ -30,6 +30,7 @@ import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.routing.ShardRoutingState;
 import org.elasticsearch.cluster.routing.allocation.AllocateUnassignedDecision;
 import org.elasticsearch.cluster.routing.allocation.RoutingAllocation;
+import org.elasticsearch.cluster.routing.allocation.WriteLoadForecaster;
 import org.elasticsearch.cluster.routing.allocation.decider.AllocationDeciders;
 import org.elasticsearch.cluster.routing.allocation.decider.ThrottlingAllocationDecider;
 import org.elasticsearch.common.UUIDs;
@@ -42,6 +43,7 @@ import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.snapshots.SnapshotShardSizeInfo;
 import org.elasticsearch.test.gateway.TestGatewayAllocator;
+import org.elasticsearch.threadpool.TestThreadPool;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -49,6 +51,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -341,6 +346,92 @@ public class BalancedShardsAllocatorTests extends ESAllocationTestCase {
         }
     }
 
+    public void testParallelWeightComputationIsDeterministic() {
+        var clusterState = createStateWithManyIndices(
+            between(
+                BalancedShardsAllocator.INDICES_PER_WEIGHT_COMPUTATION_TASK + 1,
+                5 * BalancedShardsAllocator.INDICES_PER_WEIGHT_COMPUTATION_TASK
+            )
+        );
+        var clusterSettings = ClusterSettings.createBuiltInClusterSettings(
+            Settings.builder().put(BalancedShardsAllocator.WEIGHT_COMPUTATION_PARALLELISM_SETTING.getKey(), between(2, 4)).build()
+        );
+
+        // forked tasks that never run, so that the calling thread computes every chunk
+        var onCallingThread = new BalancedShardsAllocator(clusterSettings, WriteLoadForecaster.DEFAULT, command -> {});
+        var expected = allocateAndGetShardsPerNode(onCallingThread, clusterState);
+
+        var threadPool = new TestThreadPool(getTestName());
+        try {
+            var onThreadPool = new BalancedShardsAllocator(clusterSettings, WriteLoadForecaster.DEFAULT, threadPool.generic());
+            for (int i = 0; i < 3; i++) {
+                assertThat(allocateAndGetShardsPerNode(onThreadPool, clusterState), equalTo(expected));
+            }
+        } finally {
+            terminate(threadPool);
+        }
+    }
+
+    public void testParallelWeightComputationDisabledByDefault() {
+        var clusterState = createStateWithManyIndices(2 * BalancedShardsAllocator.INDICES_PER_WEIGHT_COMPUTATION_TASK);
+        var allocator = new BalancedShardsAllocator(
+            ClusterSettings.createBuiltInClusterSettings(),
+            WriteLoadForecaster.DEFAULT,
+            command -> fail("weights should be computed on the calling thread")
+        );
+        allocateAndGetShardsPerNode(allocator, clusterState);
+    }
+
+    public void testRecordsPhaseTimes() {
+        // each phase takes 1, 2 and 3 milliseconds respectively
+        var clockCalls = new AtomicInteger();
+        var clock = new AtomicLong();
+        var allocator = new BalancedShardsAllocator(
+            ClusterSettings.createBuiltInClusterSettings(),
+            WriteLoadForecaster.DEFAULT,
+            null,
+            () -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(clockCalls.getAndIncrement() % 4))
+        );
+        assertThat(allocator.getAllocateUnassignedTimeMillis(), equalTo(0L));
+        assertThat(allocator.getMoveShardsTimeMillis(), equalTo(0L));
+        assertThat(allocator.getBalanceTimeMillis(), equalTo(0L));
+
+        var clusterState = createStateWithManyIndices(between(1, 10));
+        var allocations = between(1, 5);
+        for (int i = 0; i < allocations; i++) {
+            allocateAndGetShardsPerNode(allocator, clusterState);
+        }
+        assertThat(allocator.getAllocateUnassignedTimeMillis(), equalTo((long) allocations));
+        assertThat(allocator.getMoveShardsTimeMillis(), equalTo(2L * allocations));
+        assertThat(allocator.getBalanceTimeMillis(), equalTo(3L * allocations));
+    }
+
+    private ClusterState createStateWithManyIndices(int indexCount) {
+        var discoveryNodesBuilder = DiscoveryNodes.builder();
+        for (int node = 0; node < 4; node++) {
+            discoveryNodesBuilder.add(newNode("node-" + node));
+        }
+
+        var metadataBuilder = Metadata.builder();
+        var routingTableBuilder = RoutingTable.builder();
+        for (int i = 0; i < indexCount; i++) {
+            addIndex(metadataBuilder, routingTableBuilder, "index-" + i, Map.of("node-0", between(1, 3), "node-1", between(1, 2)));
+        }
+
+        return ClusterState.builder(ClusterName.DEFAULT)
+            .nodes(discoveryNodesBuilder)
+            .metadata(metadataBuilder)
+            .routingTable(routingTableBuilder)
+            .build();
+    }
+
+    private Map<String, Set<String>> allocateAndGetShardsPerNode(BalancedShardsAllocator allocator, ClusterState clusterState) {
+        var allocation = createRoutingAllocation(clusterState);
+        allocator.allocate(allocation);
+        var allocatedState = ClusterState.builder(clusterState).routingTable(RoutingTable.of(allocation.routingNodes())).build();
+        return getPerNode(allocatedState, mapping(shardRouting -> shardRouting.shardId() + ":" + shardRouting.state(), toSet()));
+    }
+
     public void testGetIndexDiskUsageInBytes() {
         {
             final var indexDiskUsageInBytes = getIndexDiskUsageInBytes(
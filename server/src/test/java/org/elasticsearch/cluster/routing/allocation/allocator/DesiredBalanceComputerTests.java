@@ -29,6 +29,7 @@ import org.elasticsearch.cluster.routing.IndexRoutingTable;
 import org.elasticsearch.cluster.routing.IndexShardRoutingTable;
 import org.elasticsearch.cluster.routing.RecoverySource;
 import org.elasticsearch.cluster.routing.RoutingChangesObserver;
+import org.elasticsearch.cluster.routing.RoutingNode;
 import org.elasticsearch.cluster.routing.RoutingTable;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.routing.ShardRoutingState;
@@ -37,7 +38,9 @@ import org.elasticsearch.cluster.routing.allocation.DiskThresholdSettings;
 import org.elasticsearch.cluster.routing.allocation.RoutingAllocation;
 import org.elasticsearch.cluster.routing.allocation.ShardAllocationDecision;
 import org.elasticsearch.cluster.routing.allocation.command.MoveAllocationCommand;
+import org.elasticsearch.cluster.routing.allocation.decider.AllocationDecider;
 import org.elasticsearch.cluster.routing.allocation.decider.AllocationDeciders;
+import org.elasticsearch.cluster.routing.allocation.decider.Decision;
 import org.elasticsearch.cluster.routing.allocation.decider.ThrottlingAllocationDecider;
 import org.elasticsearch.common.Randomness;
 import org.elasticsearch.common.UUIDs;
@@ -46,6 +49,7 @@ import org.elasticsearch.common.time.TimeProvider;
 import org.elasticsearch.common.time.TimeProviderUtils;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.Maps;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.repositories.IndexId;
@@ -69,6 +73,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 import static org.elasticsearch.cluster.ClusterInfo.shardIdentifierFromRouting;
 import static org.elasticsearch.cluster.routing.ShardRoutingState.INITIALIZING;
 import static org.elasticsearch.cluster.routing.ShardRoutingState.RELOCATING;
@@ -81,10 +86,12 @@ import static org.elasticsearch.test.MockLog.assertThatLogger;
 import static org.hamcrest.Matchers.aMapWithSize;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 
 public class DesiredBalanceComputerTests extends ESAllocationTestCase {
@@ -577,6 +584,208 @@ public class DesiredBalanceComputerTests extends ESAllocationTestCase {
         );
     }
 
+    public void testIncrementalComputationOnlyRebalancesAffectedIndices() {
+        var otherIndex = "other-index";
+        var fullComputations = new ArrayList<Boolean>();
+        var indicesInScope = new ArrayList<Set<String>>();
+        var balancedShardsAllocator = new BalancedShardsAllocator(Settings.EMPTY);
+        var settings = Settings.builder().put(DesiredBalanceComputer.INCREMENTAL_COMPUTATION_SETTING.getKey(), true).build();
+        var desiredBalanceComputer = new DesiredBalanceComputer(
+            createBuiltInClusterSettings(settings),
+            TimeProviderUtils.create(() -> 0L),
+            new ShardsAllocator() {
+                @Override
+                public void allocate(RoutingAllocation allocation) {
+                    fullComputations.add(allocation.isInBalancingScope("no-such-index"));
+                    indicesInScope.add(Set.of(TEST_INDEX, otherIndex).stream().filter(allocation::isInBalancingScope).collect(toSet()));
+                    balancedShardsAllocator.allocate(allocation);
+                }
+
+                @Override
+                public ShardAllocationDecision decideShardAllocation(ShardRouting shard, RoutingAllocation allocation) {
+                    throw new AssertionError("only used for allocation explain");
+                }
+            }
+        );
+
+        var clusterState = createInitialClusterState(3);
+        var changes = new RoutingChangesObserver.DelegatingRoutingChangesObserver();
+        var routingNodes = clusterState.mutableRoutingNodes();
+        for (var iterator = routingNodes.unassigned().iterator(); iterator.hasNext();) {
+            var shardRouting = iterator.next();
+            routingNodes.startShard(iterator.initialize(shardRouting.primary() ? "node-0" : "node-1", null, 0L, changes), changes, 0L);
+        }
+        clusterState = ClusterState.builder(clusterState).routingTable(RoutingTable.of(routingNodes)).build();
+
+        // the first computation has nothing to start from
+        var desiredBalance = desiredBalanceComputer.compute(
+            DesiredBalance.BECOME_MASTER_INITIAL,
+            createInput(clusterState),
+            queue(),
+            input -> true
+        );
+        assertThat(desiredBalance.finishReason(), equalTo(DesiredBalance.ComputationFinishReason.CONVERGED));
+        assertThat(fullComputations, everyItem(equalTo(true)));
+
+        // a new index only re-plans the new index
+        fullComputations.clear();
+        indicesInScope.clear();
+        var otherIndexMetadata = IndexMetadata.builder(otherIndex).settings(indexSettings(IndexVersion.current(), 1, 1)).build();
+        clusterState = ClusterState.builder(clusterState)
+            .metadata(Metadata.builder(clusterState.metadata()).put(otherIndexMetadata, true))
+            .routingTable(
+                RoutingTable.builder(TestShardRoutingRoleStrategies.DEFAULT_ROLE_ONLY, clusterState.routingTable())
+                    .addAsNew(otherIndexMetadata)
+            )
+            .build();
+        desiredBalance = desiredBalanceComputer.compute(desiredBalance, createInput(clusterState), queue(), input -> true);
+        assertThat(fullComputations, everyItem(equalTo(false)));
+        assertThat(indicesInScope, everyItem(equalTo(Set.of(otherIndex))));
+        assertThat(desiredBalance.getAssignment(new ShardId(otherIndexMetadata.getIndex(), 0)).assigned(), equalTo(2));
+
+        // a new node may take shards of any index
+        fullComputations.clear();
+        clusterState = ClusterState.builder(clusterState)
+            .nodes(DiscoveryNodes.builder(clusterState.nodes()).add(newNode("node-3", Set.of(DiscoveryNodeRole.DATA_ROLE))))
+            .build();
+        desiredBalanceComputer.compute(desiredBalance, createInput(clusterState), queue(), input -> true);
+        assertThat(fullComputations, everyItem(equalTo(true)));
+    }
+
+    public void testIndexDeletionRebalancesEveryIndex() {
+        var pinnedIndex = "pinned-index";
+        var otherIndex = "other-index";
+        var fullComputations = new ArrayList<Boolean>();
+        var desiredBalanceComputer = incrementalDesiredBalanceComputer(fullComputations);
+        // the shards of the pinned index may only be allocated to node-0
+        var pinningDecider = new AllocationDecider() {
+            @Override
+            public Decision canAllocate(ShardRouting shardRouting, RoutingNode node, RoutingAllocation allocation) {
+                return shardRouting.getIndexName().equals(pinnedIndex) && node.nodeId().equals("node-0") == false
+                    ? Decision.NO
+                    : Decision.YES;
+            }
+        };
+        var deciders = new AllocationDeciders(List.of(pinningDecider));
+
+        var clusterState = startShardsOnDesiredNodes(createInitialClusterState(2), null);
+        var desiredBalance = desiredBalanceComputer.compute(
+            DesiredBalance.BECOME_MASTER_INITIAL,
+            createInput(clusterState, deciders),
+            queue(),
+            input -> true
+        );
+        assertThat(fullComputations, everyItem(equalTo(true)));
+
+        // fill up node-0 with the pinned index, then create another index, which mostly goes to node-1
+        for (var index : List.of(pinnedIndex, otherIndex)) {
+            var indexMetadata = IndexMetadata.builder(index).settings(indexSettings(IndexVersion.current(), 4, 0)).build();
+            clusterState = ClusterState.builder(clusterState)
+                .metadata(Metadata.builder(clusterState.metadata()).put(indexMetadata, true))
+                .routingTable(
+                    RoutingTable.builder(TestShardRoutingRoleStrategies.DEFAULT_ROLE_ONLY, clusterState.routingTable())
+                        .addAsNew(indexMetadata)
+                )
+                .build();
+            fullComputations.clear();
+            desiredBalance = desiredBalanceComputer.compute(desiredBalance, createInput(clusterState, deciders), queue(), input -> true);
+            assertThat(desiredBalance.finishReason(), equalTo(DesiredBalance.ComputationFinishReason.CONVERGED));
+            assertThat(fullComputations, everyItem(equalTo(false)));
+            clusterState = startShardsOnDesiredNodes(clusterState, desiredBalance);
+        }
+        assertThat(shardsPerNode(desiredBalance, clusterState, pinnedIndex), equalTo(Map.of("node-0", 4)));
+        assertThat(shardsPerNode(desiredBalance, clusterState, otherIndex), equalTo(Map.of("node-0", 1, "node-1", 3)));
+
+        // deleting the pinned index leaves node-0 with fewer shards, which only moving the shards of the other index fixes
+        fullComputations.clear();
+        clusterState = ClusterState.builder(clusterState)
+            .metadata(Metadata.builder(clusterState.metadata()).remove(pinnedIndex))
+            .routingTable(RoutingTable.builder(clusterState.routingTable()).remove(pinnedIndex))
+            .build();
+        desiredBalance = desiredBalanceComputer.compute(desiredBalance, createInput(clusterState, deciders), queue(), input -> true);
+        assertThat(fullComputations, everyItem(equalTo(true)));
+        assertThat(shardsPerNode(desiredBalance, clusterState, otherIndex), equalTo(Map.of("node-0", 2, "node-1", 2)));
+    }
+
+    public void testIncrementalComputationPeriodicallyRebalancesEveryIndex() {
+        var fullComputations = new ArrayList<Boolean>();
+        var desiredBalanceComputer = incrementalDesiredBalanceComputer(fullComputations);
+        var clusterState = startShardsOnDesiredNodes(createInitialClusterState(3), null);
+
+        var desiredBalance = desiredBalanceComputer.compute(
+            DesiredBalance.BECOME_MASTER_INITIAL,
+            createInput(clusterState),
+            queue(),
+            input -> true
+        );
+        assertThat(fullComputations, everyItem(equalTo(true)));
+
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < DesiredBalanceComputer.MAX_CONSECUTIVE_INCREMENTAL_COMPUTATIONS; i++) {
+                fullComputations.clear();
+                desiredBalance = desiredBalanceComputer.compute(desiredBalance, createInput(clusterState), queue(), input -> true);
+                assertThat(fullComputations, everyItem(equalTo(false)));
+            }
+            fullComputations.clear();
+            desiredBalance = desiredBalanceComputer.compute(desiredBalance, createInput(clusterState), queue(), input -> true);
+            assertThat(fullComputations, not(empty()));
+            assertThat(fullComputations, everyItem(equalTo(true)));
+        }
+    }
+
+    /**
+     * A {@link DesiredBalanceComputer} that computes incrementally and records whether each run of the allocator could move the
+     * shards of every index.
+     */
+    private static DesiredBalanceComputer incrementalDesiredBalanceComputer(List<Boolean> fullComputations) {
+        var balancedShardsAllocator = new BalancedShardsAllocator(Settings.EMPTY);
+        var settings = Settings.builder().put(DesiredBalanceComputer.INCREMENTAL_COMPUTATION_SETTING.getKey(), true).build();
+        return new DesiredBalanceComputer(
+            createBuiltInClusterSettings(settings),
+            TimeProviderUtils.create(() -> 0L),
+            new ShardsAllocator() {
+                @Override
+                public void allocate(RoutingAllocation allocation) {
+                    fullComputations.add(allocation.isInBalancingScope("no-such-index"));
+                    balancedShardsAllocator.allocate(allocation);
+                }
+
+                @Override
+                public ShardAllocationDecision decideShardAllocation(ShardRouting shard, RoutingAllocation allocation) {
+                    throw new AssertionError("only used for allocation explain");
+                }
+            }
+        );
+    }
+
+    /**
+     * Start the unassigned shards of the cluster on the nodes the desired balance assigns them to, or the primaries on node-0 and
+     * the replicas on node-1 if there is no desired balance yet.
+     */
+    private static ClusterState startShardsOnDesiredNodes(ClusterState clusterState, @Nullable DesiredBalance desiredBalance) {
+        var changes = new RoutingChangesObserver.DelegatingRoutingChangesObserver();
+        var routingNodes = clusterState.mutableRoutingNodes();
+        for (var iterator = routingNodes.unassigned().iterator(); iterator.hasNext();) {
+            var shardRouting = iterator.next();
+            var nodeId = desiredBalance != null
+                ? desiredBalance.getAssignment(shardRouting.shardId()).nodeIds().iterator().next()
+                : (shardRouting.primary() ? "node-0" : "node-1");
+            routingNodes.startShard(iterator.initialize(nodeId, null, 0L, changes), changes, 0L);
+        }
+        return ClusterState.builder(clusterState).routingTable(RoutingTable.of(routingNodes)).build();
+    }
+
+    private static Map<String, Integer> shardsPerNode(DesiredBalance desiredBalance, ClusterState clusterState, String index) {
+        var shardsPerNode = new HashMap<String, Integer>();
+        var indexMetadata = clusterState.metadata().index(index);
+        for (int shard = 0; shard < indexMetadata.getNumberOfShards(); shard++) {
+            for (var nodeId : desiredBalance.getAssignment(new ShardId(indexMetadata.getIndex(), shard)).nodeIds()) {
+                shardsPerNode.merge(nodeId, 1, Integer::sum);
+            }
+        }
+        return shardsPerNode;
+    }
+
     public void testDesiredBalanceShouldConvergeInABigCluster() {
         var nodes = randomIntBetween(3, 7);
         var nodeIds = new ArrayList<String>(nodes);
@@ -1382,6 +1591,14 @@ public class DesiredBalanceComputerTests extends ESAllocationTestCase {
         return new DesiredBalanceInput(randomInt(), routingAllocationOf(clusterState), List.of(ignored));
     }
 
+    private static DesiredBalanceInput createInput(ClusterState clusterState, AllocationDeciders deciders) {
+        return new DesiredBalanceInput(
+            randomInt(),
+            new RoutingAllocation(deciders, clusterState, ClusterInfo.EMPTY, SnapshotShardSizeInfo.EMPTY, 0L),
+            List.of()
+        );
+    }
+
     private static RoutingAllocation routingAllocationOf(ClusterState clusterState) {
         return new RoutingAllocation(new AllocationDeciders(List.of()), clusterState, ClusterInfo.EMPTY, SnapshotShardSizeInfo.EMPTY, 0L);
     }
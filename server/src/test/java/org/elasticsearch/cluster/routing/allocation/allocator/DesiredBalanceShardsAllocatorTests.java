@@ -37,12 +37,14 @@ import org.elasticsearch.cluster.routing.allocation.AllocationService.RerouteStr
 import org.elasticsearch.cluster.routing.allocation.ExistingShardsAllocator;
 import org.elasticsearch.cluster.routing.allocation.RoutingAllocation;
 import org.elasticsearch.cluster.routing.allocation.ShardAllocationDecision;
+import org.elasticsearch.cluster.routing.allocation.WriteLoadForecaster;
 import org.elasticsearch.cluster.routing.allocation.allocator.DesiredBalanceShardsAllocator.DesiredBalanceReconcilerAction;
 import org.elasticsearch.cluster.routing.allocation.command.MoveAllocationCommand;
 import org.elasticsearch.cluster.routing.allocation.decider.AllocationDeciders;
 import org.elasticsearch.cluster.service.ClusterApplierService;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.cluster.service.FakeThreadPoolMasterService;
+import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.time.TimeProviderUtils;
@@ -77,6 +79,7 @@ import static org.elasticsearch.cluster.routing.AllocationId.newInitializing;
 import static org.elasticsearch.cluster.routing.TestShardRouting.shardRoutingBuilder;
 import static org.elasticsearch.cluster.routing.UnassignedInfo.INDEX_DELAYED_NODE_LEFT_TIMEOUT_SETTING;
 import static org.elasticsearch.common.settings.ClusterSettings.createBuiltInClusterSettings;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
@@ -234,6 +237,60 @@ public class DesiredBalanceShardsAllocatorTests extends ESAllocationTestCase {
         }
     }
 
+    public void testReportsBalancerPhaseTimes() {
+        final var threadPool = new TestThreadPool(getTestName());
+        final var clusterService = ClusterServiceUtils.createClusterService(ClusterState.EMPTY_STATE, threadPool);
+        final var clusterSettings = createBuiltInClusterSettings();
+        // each phase takes 1, 2 and 3 milliseconds respectively
+        final var clockCalls = new AtomicInteger();
+        final var clock = new AtomicLong();
+        final var balancedShardsAllocator = new BalancedShardsAllocator(
+            clusterSettings,
+            WriteLoadForecaster.DEFAULT,
+            null,
+            () -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(clockCalls.getAndIncrement() % 4))
+        );
+        final var desiredBalanceShardsAllocator = new DesiredBalanceShardsAllocator(
+            clusterSettings,
+            balancedShardsAllocator,
+            threadPool,
+            clusterService,
+            (clusterState, rerouteStrategy) -> clusterState,
+            TelemetryProvider.NOOP,
+            EMPTY_NODE_ALLOCATION_STATS
+        );
+        try {
+            final var clusterState = ClusterState.builder(ClusterName.DEFAULT)
+                .nodes(DiscoveryNodes.builder().add(newNode(LOCAL_NODE_ID)).add(newNode(OTHER_NODE_ID)))
+                .build();
+            final var allocations = between(1, 5);
+            for (int i = 0; i < allocations; i++) {
+                balancedShardsAllocator.allocate(
+                    new RoutingAllocation(
+                        new AllocationDeciders(List.of()),
+                        clusterState,
+                        ClusterInfo.EMPTY,
+                        SnapshotShardSizeInfo.EMPTY,
+                        randomNonNegativeLong()
+                    )
+                );
+            }
+
+            final var stats = desiredBalanceShardsAllocator.getStats();
+            assertThat(stats.cumulativeAllocateUnassignedTime(), equalTo((long) allocations));
+            assertThat(stats.cumulativeMoveShardsTime(), equalTo(2L * allocations));
+            assertThat(stats.cumulativeBalanceTime(), equalTo(3L * allocations));
+            assertValidStats(stats);
+            final var json = Strings.toString(stats);
+            assertThat(json, containsString("\"allocate_unassigned_time_in_millis\":" + allocations + ","));
+            assertThat(json, containsString("\"move_shards_time_in_millis\":" + 2 * allocations + ","));
+            assertThat(json, containsString("\"balance_time_in_millis\":" + 3 * allocations + "}"));
+        } finally {
+            clusterService.close();
+            terminate(threadPool);
+        }
+    }
+
     public void testShouldNotRemoveAllocationDelayMarkersOnReconcile() {
 
         var localNode = newNode(LOCAL_NODE_ID);
@@ -40,6 +40,9 @@ public class DesiredBalanceStatsTests extends AbstractWireSerializingTestCase<De
             randomNonNegativeLong(),
             randomNonNegativeLong(),
             randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
             randomNonNegativeLong()
         );
     }
@@ -69,7 +72,10 @@ public class DesiredBalanceStatsTests extends AbstractWireSerializingTestCase<De
                           "unassigned_shards" : %d,
                           "total_allocations" : %d,
                           "undesired_allocations" : %d,
-                          "undesired_allocations_ratio" : %s
+                          "undesired_allocations_ratio" : %s,
+                          "allocate_unassigned_time_in_millis" : %d,
+                          "move_shards_time_in_millis" : %d,
+                          "balance_time_in_millis" : %d
                         }""",
                     instance.lastConvergedIndex(),
                     instance.computationActive(),
@@ -83,7 +89,10 @@ public class DesiredBalanceStatsTests extends AbstractWireSerializingTestCase<De
                     instance.unassignedShards(),
                     instance.totalAllocations(),
                     instance.undesiredAllocations(),
-                    Double.toString(instance.undesiredAllocationsRatio())
+                    Double.toString(instance.undesiredAllocationsRatio()),
+                    instance.cumulativeAllocateUnassignedTime(),
+                    instance.cumulativeMoveShardsTime(),
+                    instance.cumulativeBalanceTime()
                 )
             )
         );
@@ -103,6 +103,47 @@ public class AllocationDecidersTests extends ESAllocationTestCase {
         verifyDecidersCall(RoutingAllocation.DebugMode.EXCLUDE_YES_DECISIONS, allDecisions, allDecisions.size(), expectedDecision);
     }
 
+    public void testCachesIndexAllocationDecisionsWhileSimulating() {
+        IndexMetadata index = IndexMetadata.builder("index").settings(indexSettings(IndexVersion.current(), 1, 0)).build();
+        IndexMetadata updatedIndex = IndexMetadata.builder(index).settingsVersion(index.getSettingsVersion() + 1).build();
+        ClusterState clusterState = ClusterState.builder(ClusterName.DEFAULT)
+            .metadata(Metadata.builder().put(index, false).build())
+            .build();
+        RoutingNode routingNode = RoutingNodesHelper.routingNode("node", null);
+        RoutingNode otherRoutingNode = RoutingNodesHelper.routingNode("other-node", null);
+
+        var decidersCalled = new int[] { 0 };
+        var deciders = new AllocationDeciders(List.of(new TestAllocationDecider(() -> {
+            decidersCalled[0]++;
+            return Decision.YES;
+        })));
+
+        var simulation = new RoutingAllocation(deciders, clusterState, null, null, 0L).mutableCloneForSimulation();
+        int repeats = between(2, 10);
+        for (int i = 0; i < repeats; i++) {
+            assertThat(deciders.canAllocate(index, routingNode, simulation), equalTo(Decision.YES));
+        }
+        assertThat(decidersCalled[0], equalTo(1));
+        deciders.canAllocate(index, otherRoutingNode, simulation);
+        assertThat("decisions are cached per node", decidersCalled[0], equalTo(2));
+        deciders.canAllocate(updatedIndex, routingNode, simulation);
+        assertThat("new index metadata is not served from the cache", decidersCalled[0], equalTo(3));
+
+        decidersCalled[0] = 0;
+        simulation.setDebugMode(RoutingAllocation.DebugMode.ON);
+        for (int i = 0; i < repeats; i++) {
+            deciders.canAllocate(index, routingNode, simulation);
+        }
+        assertThat("decisions are not cached in debug mode", decidersCalled[0], equalTo(repeats));
+
+        decidersCalled[0] = 0;
+        var allocation = new RoutingAllocation(deciders, clusterState, null, null, 0L);
+        for (int i = 0; i < repeats; i++) {
+            deciders.canAllocate(index, routingNode, allocation);
+        }
+        assertThat("decisions are only cached while simulating", decidersCalled[0], equalTo(repeats));
+    }
+
     private static List<Decision> generateDecisions(Supplier<Decision> others) {
         return shuffledList(randomList(1, 25, others));
     }
@@ -16,15 +16,20 @@ import org.elasticsearch.common.util.concurrent.DeterministicTaskQueue;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.core.Tuple;
+import org.elasticsearch.telemetry.InstrumentType;
+import org.elasticsearch.telemetry.Measurement;
+import org.elasticsearch.telemetry.RecordingMeterRegistry;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.MockLog;
 import org.elasticsearch.test.junit.annotations.TestLogging;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.junit.Before;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 
 public class ClusterApplierRecordingServiceTests extends ESTestCase {
 
@@ -136,6 +141,34 @@ public class ClusterApplierRecordingServiceTests extends ESTestCase {
         }
     }
 
+    public void testRecordingServiceMetrics() {
+        var meterRegistry = new RecordingMeterRegistry();
+        var service = new ClusterApplierRecordingService(meterRegistry);
+
+        var recorder = new Recorder(threadPool, TimeValue.ZERO);
+        try (var r = recorder.record(ClusterApplierRecordingService.RUNNING_TASK_ACTION + " [some task source]")) {
+            advanceTime(2);
+        }
+        try (var r = recorder.record("action1")) {
+            advanceTime(5);
+        }
+        recorder.addRecording("action2", 7);
+        service.updateStats(recorder);
+
+        List<Measurement> measurements = meterRegistry.getRecorder()
+            .getMeasurements(InstrumentType.LONG_HISTOGRAM, ClusterApplierRecordingService.ACTION_DURATION_HISTOGRAM);
+        assertThat(
+            measurements.stream()
+                .map(m -> Tuple.tuple((String) m.attributes().get(ClusterApplierRecordingService.ACTION_ATTRIBUTE_NAME), m.getLong()))
+                .toList(),
+            containsInAnyOrder(
+                Tuple.tuple(ClusterApplierRecordingService.RUNNING_TASK_ACTION, 2L),
+                Tuple.tuple("action1", 5L),
+                Tuple.tuple("action2", 7L)
+            )
+        );
+    }
+
     @TestLogging(reason = "testing debug logging", value = "org.elasticsearch.cluster.service.ClusterApplierRecordingService:DEBUG")
     public void testSlowTaskDebugLogging() {
         final var debugLoggingTimeout = TimeValue.timeValueMillis(between(1, 100000));
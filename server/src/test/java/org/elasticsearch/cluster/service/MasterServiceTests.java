@@ -54,6 +54,9 @@ import org.elasticsearch.core.Tuple;
 import org.elasticsearch.node.Node;
 import org.elasticsearch.tasks.Task;
 import org.elasticsearch.tasks.TaskManager;
+import org.elasticsearch.telemetry.InstrumentType;
+import org.elasticsearch.telemetry.RecordingMeterRegistry;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
 import org.elasticsearch.test.ClusterServiceUtils;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.MockLog;
@@ -89,6 +92,7 @@ import static java.util.Collections.emptySet;
 import static org.elasticsearch.action.support.ActionTestUtils.assertNoSuccessListener;
 import static org.elasticsearch.cluster.service.MasterService.MAX_TASK_DESCRIPTION_CHARS;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
@@ -147,11 +151,23 @@ public class MasterServiceTests extends ESTestCase {
         TaskManager taskManager,
         ThreadPool threadPool,
         ExecutorService threadPoolExecutor
+    ) {
+        return createMasterService(makeMaster, taskManager, threadPool, threadPoolExecutor, Settings.EMPTY, MeterRegistry.NOOP);
+    }
+
+    private MasterService createMasterService(
+        boolean makeMaster,
+        TaskManager taskManager,
+        ThreadPool threadPool,
+        ExecutorService threadPoolExecutor,
+        Settings extraSettings,
+        MeterRegistry meterRegistry
     ) {
         final DiscoveryNode localNode = DiscoveryNodeUtils.builder("node1").roles(emptySet()).build();
         final Settings settings = Settings.builder()
             .put(ClusterName.CLUSTER_NAME_SETTING.getKey(), MasterServiceTests.class.getSimpleName())
             .put(Node.NODE_NAME_SETTING.getKey(), "test_node")
+            .put(extraSettings)
             .build();
 
         if (taskManager == null) {
@@ -162,7 +178,8 @@ public class MasterServiceTests extends ESTestCase {
             settings,
             new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS),
             threadPool,
-            taskManager
+            taskManager,
+            meterRegistry
         ) {
             @Override
             protected ExecutorService createThreadPoolExecutor() {
@@ -2641,6 +2658,67 @@ public class MasterServiceTests extends ESTestCase {
         }
     }
 
+    public void testQueueLatencyTargetsAndMaxBatchSizes() {
+        final var deterministicTaskQueue = new DeterministicTaskQueue();
+        final var threadPool = deterministicTaskQueue.getThreadPool();
+        final var meterRegistry = new RecordingMeterRegistry();
+        final var settings = Settings.builder()
+            .put(MasterService.MASTER_SERVICE_QUEUE_LATENCY_TARGET_SETTING.getConcreteSettingForNamespace("slow").getKey(), "10s")
+            .put(MasterService.MASTER_SERVICE_QUEUE_MAX_BATCH_SIZE_SETTING.getConcreteSettingForNamespace("flood").getKey(), 2)
+            .build();
+        try (
+            var masterService = createMasterService(
+                true,
+                null,
+                threadPool,
+                new StoppableExecutorServiceWrapper(threadPool.generic()),
+                settings,
+                meterRegistry
+            )
+        ) {
+            final var batches = new ArrayList<Tuple<String, Integer>>();
+            class Task implements ClusterStateTaskListener {
+                @Override
+                public void onFailure(Exception e) {
+                    fail(e);
+                }
+            }
+            final var floodQueue = masterService.createTaskQueue("flood", Priority.URGENT, batchExecutionContext -> {
+                batches.add(Tuple.tuple("flood", batchExecutionContext.taskContexts().size()));
+                batchExecutionContext.taskContexts().forEach(taskContext -> taskContext.success(() -> {}));
+                return batchExecutionContext.initialState();
+            });
+            final var slowQueue = masterService.createTaskQueue("slow", Priority.LOW, batchExecutionContext -> {
+                batches.add(Tuple.tuple("slow", batchExecutionContext.taskContexts().size()));
+                batchExecutionContext.taskContexts().forEach(taskContext -> taskContext.success(() -> {}));
+                return batchExecutionContext.initialState();
+            });
+
+            threadPool.getThreadContext().markAsSystemContext();
+            slowQueue.submitTask("slow", new Task(), null);
+            for (int i = 0; i < 5; i++) {
+                floodQueue.submitTask("flood", new Task(), null);
+            }
+
+            // the slow queue has waited past its latency target by the time the processor runs, so it goes before the urgent tasks
+            deterministicTaskQueue.scheduleAt(deterministicTaskQueue.getCurrentTimeMillis() + 10_001, () -> {});
+            deterministicTaskQueue.advanceTime();
+            deterministicTaskQueue.runAllTasks();
+            assertThat(
+                batches,
+                contains(Tuple.tuple("slow", 1), Tuple.tuple("flood", 2), Tuple.tuple("flood", 2), Tuple.tuple("flood", 1))
+            );
+
+            final var latencies = meterRegistry.getRecorder()
+                .getMeasurements(InstrumentType.LONG_HISTOGRAM, MasterService.QUEUE_LATENCY_HISTOGRAM);
+            assertThat(latencies, hasSize(6));
+            for (final var measurement : latencies) {
+                assertThat(measurement.getLong(), greaterThanOrEqualTo(10_001L));
+                assertThat(measurement.attributes().get(MasterService.QUEUE_ATTRIBUTE_NAME), anyOf(equalTo("slow"), equalTo("flood")));
+            }
+        }
+    }
+
     public void testVersionNumberProtection() {
         runVersionNumberProtectionTest(
             currentState -> ClusterState.builder(currentState)
@@ -0,0 +1,150 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.common.blobstore.support;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.action.ActionRunnable;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.MockBigArrays;
+import org.elasticsearch.common.util.MockPageCacheRecycler;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.TestThreadPool;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class MultipartUploadBudgetTests extends ESTestCase {
+
+    public void testUploadParts() throws IOException {
+        final int partSize = between(1, 1024);
+        final long maxInFlightBytes = randomLongBetween(partSize, partSize * 8L);
+        final MultipartUploadBudget budget = new MultipartUploadBudget(maxInFlightBytes);
+        assertTrue(budget.canUploadConcurrently(partSize));
+        assertFalse(budget.canUploadConcurrently(maxInFlightBytes + 1));
+
+        final int numberOfParts = between(1, 100);
+        final int lastPartSize = between(1, partSize);
+        final byte[] bytes = randomByteArrayOfLength((numberOfParts - 1) * partSize + lastPartSize);
+
+        final BigArrays bigArrays = new MockBigArrays(new MockPageCacheRecycler(Settings.EMPTY), ByteSizeValue.ofMb(1));
+        final ThreadPool threadPool = new TestThreadPool(getTestName());
+        try {
+            final AtomicLong maxObservedInFlightBytes = new AtomicLong();
+            final List<byte[]> parts = budget.uploadParts(
+                bigArrays,
+                new ByteArrayInputStream(bytes),
+                numberOfParts,
+                partSize,
+                lastPartSize,
+                (partIndex, partBytes, listener) -> threadPool.generic().execute(ActionRunnable.supply(listener, () -> {
+                    maxObservedInFlightBytes.accumulateAndGet(budget.inFlightBytes(), Math::max);
+                    assertThat(requestBreaker(bigArrays).getUsed(), greaterThanOrEqualTo((long) partBytes.length()));
+                    return BytesRef.deepCopyOf(partBytes.toBytesRef()).bytes;
+                }))
+            );
+            assertThat(maxObservedInFlightBytes.get(), lessThanOrEqualTo(maxInFlightBytes));
+            assertThat(budget.inFlightBytes(), equalTo(0L));
+            assertThat(requestBreaker(bigArrays).getUsed(), equalTo(0L));
+
+            final ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+            for (byte[] part : parts) {
+                uploaded.write(part);
+            }
+            assertArrayEquals(bytes, uploaded.toByteArray());
+        } finally {
+            ThreadPool.terminate(threadPool, 30, TimeUnit.SECONDS);
+        }
+    }
+
+    public void testStopsReadingPartsOnFailure() {
+        final int partSize = between(1, 1024);
+        final MultipartUploadBudget budget = new MultipartUploadBudget(randomLongBetween(partSize, partSize * 8L));
+        final int numberOfParts = between(2, 100);
+        final int failingPart = between(0, numberOfParts - 2);
+        final ByteArrayInputStream input = new ByteArrayInputStream(randomByteArrayOfLength(numberOfParts * partSize));
+        final BigArrays bigArrays = new MockBigArrays(new MockPageCacheRecycler(Settings.EMPTY), ByteSizeValue.ofMb(1));
+
+        final ThreadPool threadPool = new TestThreadPool(getTestName());
+        try {
+            final AtomicInteger completedParts = new AtomicInteger();
+            final IOException e = expectThrows(
+                IOException.class,
+                () -> budget.uploadParts(
+                    bigArrays,
+                    input,
+                    numberOfParts,
+                    partSize,
+                    partSize,
+                    (partIndex, partBytes, listener) -> threadPool.generic().execute(ActionRunnable.run(listener, () -> {
+                        completedParts.incrementAndGet();
+                        if (partIndex == failingPart) {
+                            throw new IOException("simulated");
+                        }
+                    }))
+                )
+            );
+            assertThat(e.getMessage(), equalTo("simulated"));
+            // all the parts that were read have completed, and the remaining ones were never read
+            assertThat(completedParts.get() * (long) partSize, equalTo(numberOfParts * (long) partSize - input.available()));
+            assertThat(budget.inFlightBytes(), equalTo(0L));
+            assertThat(requestBreaker(bigArrays).getUsed(), equalTo(0L));
+        } finally {
+            ThreadPool.terminate(threadPool, 30, TimeUnit.SECONDS);
+        }
+    }
+
+    public void testFailsIfPartTripsCircuitBreaker() {
+        final int partSize = between(1024, 4096);
+        final MultipartUploadBudget budget = new MultipartUploadBudget(partSize * 8L);
+        final int numberOfParts = between(2, 8);
+        final BigArrays bigArrays = new MockBigArrays(new MockPageCacheRecycler(Settings.EMPTY), ByteSizeValue.ofBytes(partSize - 1));
+        final AtomicInteger uploadedParts = new AtomicInteger();
+
+        expectThrows(
+            CircuitBreakingException.class,
+            () -> budget.uploadParts(
+                bigArrays,
+                new ByteArrayInputStream(randomByteArrayOfLength(numberOfParts * partSize)),
+                numberOfParts,
+                partSize,
+                partSize,
+                (partIndex, partBytes, listener) -> {
+                    uploadedParts.incrementAndGet();
+                    listener.onResponse(null);
+                }
+            )
+        );
+        assertThat(uploadedParts.get(), equalTo(0));
+        assertThat(budget.inFlightBytes(), equalTo(0L));
+        assertThat(requestBreaker(bigArrays).getUsed(), equalTo(0L));
+    }
+
+    public void testInvalidBudget() {
+        expectThrows(IllegalArgumentException.class, () -> new MultipartUploadBudget(randomLongBetween(Long.MIN_VALUE, 0L)));
+    }
+
+    private static CircuitBreaker requestBreaker(BigArrays bigArrays) {
+        return bigArrays.breakerService().getBreaker(CircuitBreaker.REQUEST);
+    }
+}
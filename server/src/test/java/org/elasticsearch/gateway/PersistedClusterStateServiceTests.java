@@ -73,6 +73,7 @@ import java.io.IOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -1004,6 +1005,281 @@ public class PersistedClusterStateServiceTests extends ESTestCase {
         }
     }
 
+    public void testJournalsIndexMetadataUpdates() throws IOException {
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            final PersistedClusterStateService persistedClusterStateService = newJournalingClusterStateService(
+                nodeEnvironment,
+                ByteSizeValue.ofMb(1)
+            );
+            final long term = randomLongBetween(1L, Long.MAX_VALUE - 1);
+            final Path[] journalPaths = journalPaths(nodeEnvironment);
+
+            try (Writer writer = persistedClusterStateService.createWriter()) {
+                ClusterState clusterState = loadPersistedClusterState(persistedClusterStateService);
+                clusterState = ClusterState.builder(clusterState)
+                    .metadata(
+                        Metadata.builder(clusterState.metadata())
+                            .coordinationMetadata(CoordinationMetadata.builder(clusterState.coordinationMetadata()).term(term).build())
+                            .put(newJournalTestIndex("deleted"))
+                    )
+                    .incrementVersion()
+                    .build();
+                writer.writeFullStateAndCommit(term, clusterState);
+
+                final int updates = between(1, 10);
+                for (int i = 0; i < updates; i++) {
+                    final ClusterState previousState = clusterState;
+                    final Metadata.Builder metadata = Metadata.builder(clusterState.metadata()).put(newJournalTestIndex("index-" + i));
+                    if (i == updates - 1) {
+                        metadata.remove("deleted");
+                    }
+                    clusterState = ClusterState.builder(clusterState).metadata(metadata).incrementVersion().build();
+                    writer.writeIncrementalStateAndCommit(term, previousState, clusterState);
+                }
+                assertJournalsExist(journalPaths, true);
+
+                ClusterState loadedState = loadPersistedClusterState(persistedClusterStateService);
+                assertThat(loadedState.version(), equalTo(clusterState.version()));
+                assertThat(loadedState.metadata().indices().keySet(), equalTo(clusterState.metadata().indices().keySet()));
+                assertThat(loadedState.metadata().index("deleted"), nullValue());
+                for (IndexMetadata indexMetadata : clusterState.metadata().indices().values()) {
+                    final IndexMetadata loadedIndexMetadata = loadedState.metadata().index(indexMetadata.getIndex().getName());
+                    assertThat(loadedIndexMetadata.getIndexUUID(), equalTo(indexMetadata.getIndexUUID()));
+                    assertThat(loadedIndexMetadata.getVersion(), equalTo(indexMetadata.getVersion()));
+                    assertThat(loadedIndexMetadata.mapping(), equalTo(indexMetadata.mapping()));
+                }
+
+                // a record that was not completely written is ignored
+                for (Path journalPath : journalPaths) {
+                    Files.write(journalPath, new byte[] { 0, 0, 1, 0, 42 }, StandardOpenOption.APPEND);
+                }
+                assertThat(loadPersistedClusterState(persistedClusterStateService).version(), equalTo(clusterState.version()));
+
+                // a new term is committed along with all the journaled updates
+                writer.writeIncrementalTermUpdateAndCommit(
+                    term + 1,
+                    clusterState.version(),
+                    clusterState.metadata().oldestIndexVersion(),
+                    clusterState.metadata().clusterUUID(),
+                    clusterState.metadata().clusterUUIDCommitted()
+                );
+                assertJournalsExist(journalPaths, false);
+            }
+
+            final PersistedClusterStateService.OnDiskState onDiskState = persistedClusterStateService.loadBestOnDiskState(false);
+            assertThat(onDiskState.currentTerm, equalTo(term + 1));
+            assertNotNull(onDiskState.metadata.index("index-0"));
+            assertThat(onDiskState.metadata.index("deleted"), nullValue());
+        }
+    }
+
+    public void testIgnoresJournalLeftStaleByFullCommit() throws IOException {
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            final PersistedClusterStateService persistedClusterStateService = newJournalingClusterStateService(
+                nodeEnvironment,
+                ByteSizeValue.ofMb(1)
+            );
+            final long term = randomLongBetween(1L, Long.MAX_VALUE);
+            final Path[] journalPaths = journalPaths(nodeEnvironment);
+
+            try (Writer writer = persistedClusterStateService.createWriter()) {
+                final ClusterState initialState = ClusterState.builder(loadPersistedClusterState(persistedClusterStateService))
+                    .metadata(
+                        Metadata.builder()
+                            .coordinationMetadata(CoordinationMetadata.builder().term(term).build())
+                            .put(newJournalTestIndex("committed"))
+                    )
+                    .incrementVersion()
+                    .build();
+                writer.writeFullStateAndCommit(term, initialState);
+
+                final ClusterState journaledState = ClusterState.builder(initialState)
+                    .metadata(Metadata.builder(initialState.metadata()).put(newJournalTestIndex("journaled")).remove("committed"))
+                    .incrementVersion()
+                    .build();
+                writer.writeIncrementalStateAndCommit(term, initialState, journaledState);
+                assertJournalsExist(journalPaths, true);
+                final byte[][] journals = new byte[journalPaths.length][];
+                for (int i = 0; i < journalPaths.length; i++) {
+                    journals[i] = Files.readAllBytes(journalPaths[i]);
+                }
+
+                final ClusterState fullState = ClusterState.builder(initialState)
+                    .version(journaledState.version() + 1)
+                    .metadata(Metadata.builder(initialState.metadata()).put(newJournalTestIndex("full")))
+                    .build();
+                writer.writeFullStateAndCommit(term, fullState);
+                assertJournalsExist(journalPaths, false);
+
+                // simulate failing to delete the journals after the full commit
+                for (int i = 0; i < journalPaths.length; i++) {
+                    Files.write(journalPaths[i], journals[i]);
+                }
+
+                final ClusterState loadedState = loadPersistedClusterState(persistedClusterStateService);
+                assertThat(loadedState.version(), equalTo(fullState.version()));
+                assertThat(loadedState.metadata().indices().keySet(), equalTo(Set.of("committed", "full")));
+
+                // the stale journals are replaced once something is journaled again
+                final ClusterState nextState = ClusterState.builder(fullState)
+                    .metadata(Metadata.builder(fullState.metadata()).put(newJournalTestIndex("next")))
+                    .incrementVersion()
+                    .build();
+                writer.writeIncrementalStateAndCommit(term, fullState, nextState);
+                assertThat(
+                    loadPersistedClusterState(persistedClusterStateService).metadata().indices().keySet(),
+                    equalTo(Set.of("committed", "full", "next"))
+                );
+            }
+        }
+    }
+
+    public void testFoldsJournalWhenFull() throws IOException {
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            // any record fills the journal, so every other update is committed
+            final PersistedClusterStateService persistedClusterStateService = newJournalingClusterStateService(
+                nodeEnvironment,
+                ByteSizeValue.ofBytes(1)
+            );
+            final long term = randomLongBetween(1L, Long.MAX_VALUE);
+            final Path[] journalPaths = journalPaths(nodeEnvironment);
+
+            try (Writer writer = persistedClusterStateService.createWriter()) {
+                ClusterState clusterState = ClusterState.builder(loadPersistedClusterState(persistedClusterStateService))
+                    .metadata(Metadata.builder().coordinationMetadata(CoordinationMetadata.builder().term(term).build()))
+                    .incrementVersion()
+                    .build();
+                writer.writeFullStateAndCommit(term, clusterState);
+
+                final int updates = between(2, 6);
+                for (int i = 0; i < updates; i++) {
+                    final ClusterState previousState = clusterState;
+                    clusterState = ClusterState.builder(clusterState)
+                        .metadata(Metadata.builder(clusterState.metadata()).put(newJournalTestIndex("index-" + i)))
+                        .incrementVersion()
+                        .build();
+                    writer.writeIncrementalStateAndCommit(term, previousState, clusterState);
+
+                    final boolean journaled = i % 2 == 0;
+                    assertJournalsExist(journalPaths, journaled);
+                    final PersistedClusterStateService.OnDiskState onDiskState = persistedClusterStateService.loadBestOnDiskState(false);
+                    assertThat(onDiskState.lastAcceptedVersion, equalTo(clusterState.version()));
+                    assertThat(onDiskState.metadata.indices().keySet(), equalTo(clusterState.metadata().indices().keySet()));
+                    if (journaled == false) {
+                        // the commit holds the journaled updates as well as this one
+                        assertCommittedIndices(nodeEnvironment, clusterState.metadata());
+                    }
+                }
+            }
+        }
+    }
+
+    public void testFoldsJournalOnGlobalMetadataChange() throws IOException {
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            final PersistedClusterStateService persistedClusterStateService = newJournalingClusterStateService(
+                nodeEnvironment,
+                ByteSizeValue.ofMb(1)
+            );
+            final long term = randomLongBetween(1L, Long.MAX_VALUE);
+            final Path[] journalPaths = journalPaths(nodeEnvironment);
+
+            try (Writer writer = persistedClusterStateService.createWriter()) {
+                ClusterState clusterState = ClusterState.builder(loadPersistedClusterState(persistedClusterStateService))
+                    .metadata(Metadata.builder().coordinationMetadata(CoordinationMetadata.builder().term(term).build()))
+                    .incrementVersion()
+                    .build();
+                writer.writeFullStateAndCommit(term, clusterState);
+
+                final int journaledUpdates = between(1, 5);
+                for (int i = 0; i < journaledUpdates; i++) {
+                    final ClusterState previousState = clusterState;
+                    clusterState = ClusterState.builder(clusterState)
+                        .metadata(Metadata.builder(clusterState.metadata()).put(newJournalTestIndex("index-" + i)))
+                        .incrementVersion()
+                        .build();
+                    writer.writeIncrementalStateAndCommit(term, previousState, clusterState);
+                }
+                assertJournalsExist(journalPaths, true);
+                assertCommittedIndices(nodeEnvironment, Metadata.EMPTY_METADATA);
+
+                final ClusterState previousState = clusterState;
+                clusterState = ClusterState.builder(clusterState)
+                    .metadata(
+                        Metadata.builder(clusterState.metadata())
+                            .persistentSettings(Settings.builder().put(randomAlphaOfLength(10), randomAlphaOfLength(10)).build())
+                    )
+                    .incrementVersion()
+                    .build();
+                writer.writeIncrementalStateAndCommit(term, previousState, clusterState);
+                assertJournalsExist(journalPaths, false);
+                assertCommittedIndices(nodeEnvironment, clusterState.metadata());
+
+                final ClusterState loadedState = loadPersistedClusterState(persistedClusterStateService);
+                assertThat(loadedState.version(), equalTo(clusterState.version()));
+                assertThat(loadedState.metadata().persistentSettings(), equalTo(clusterState.metadata().persistentSettings()));
+                assertThat(loadedState.metadata().indices().keySet(), equalTo(clusterState.metadata().indices().keySet()));
+            }
+        }
+    }
+
+    private PersistedClusterStateService newJournalingClusterStateService(NodeEnvironment nodeEnvironment, ByteSizeValue journalMaxSize) {
+        return new PersistedClusterStateService(
+            nodeEnvironment,
+            xContentRegistry(),
+            new ClusterSettings(
+                Settings.builder().put(PersistedClusterStateService.JOURNAL_MAX_SIZE.getKey(), journalMaxSize).build(),
+                ClusterSettings.BUILT_IN_CLUSTER_SETTINGS
+            ),
+            () -> 0L
+        );
+    }
+
+    private static IndexMetadata newJournalTestIndex(String name) {
+        return IndexMetadata.builder(name)
+            .putMapping(randomMappingMetadataOrNull())
+            .settings(
+                indexSettings(1, 0).put(IndexMetadata.SETTING_VERSION_CREATED, IndexVersion.current())
+                    .put(IndexMetadata.SETTING_INDEX_UUID, UUIDs.randomBase64UUID(random()))
+            )
+            .build();
+    }
+
+    private static Path[] journalPaths(NodeEnvironment nodeEnvironment) {
+        return Arrays.stream(nodeEnvironment.nodeDataPaths())
+            .map(p -> p.resolve(METADATA_DIRECTORY_NAME).resolve(PersistedClusterStateService.JOURNAL_FILE_NAME))
+            .toArray(Path[]::new);
+    }
+
+    private static void assertJournalsExist(Path[] journalPaths, boolean exist) {
+        for (Path journalPath : journalPaths) {
+            assertThat(journalPath.toString(), Files.exists(journalPath), equalTo(exist));
+        }
+    }
+
+    /**
+     * Asserts that the last commit in each data path holds exactly the given indices, regardless of any journal.
+     */
+    private static void assertCommittedIndices(NodeEnvironment nodeEnvironment, Metadata metadata) throws IOException {
+        final Set<String> expectedIndexUUIDs = new HashSet<>();
+        for (IndexMetadata indexMetadata : metadata.indices().values()) {
+            expectedIndexUUIDs.add(indexMetadata.getIndexUUID());
+        }
+        for (Path dataPath : nodeEnvironment.nodeDataPaths()) {
+            final Set<String> committedIndexUUIDs = new HashSet<>();
+            try (
+                Directory directory = newFSDirectory(dataPath.resolve(METADATA_DIRECTORY_NAME));
+                DirectoryReader reader = DirectoryReader.open(directory)
+            ) {
+                forEachDocument(
+                    reader,
+                    Set.of(INDEX_TYPE_NAME),
+                    document -> committedIndexUUIDs.add(document.getField("index_uuid").stringValue())
+                );
+            }
+            assertThat(dataPath.toString(), committedIndexUUIDs, equalTo(expectedIndexUUIDs));
+        }
+    }
+
     public void testReloadsMetadataAcrossMultipleSegments() throws IOException {
         try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
             final PersistedClusterStateService persistedClusterStateService = newPersistedClusterStateService(nodeEnvironment);
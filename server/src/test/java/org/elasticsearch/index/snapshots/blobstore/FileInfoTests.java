@@ -11,6 +11,7 @@ package org.elasticsearch.index.snapshots.blobstore;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.Version;
 import org.elasticsearch.ElasticsearchParseException;
+import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.index.IndexVersions;
@@ -26,6 +27,7 @@ import org.elasticsearch.xcontent.json.JsonXContent;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 
 import static org.elasticsearch.index.store.StoreFileMetadata.UNAVAILABLE_WRITER_UUID;
 import static org.hamcrest.Matchers.containsString;
@@ -199,4 +201,73 @@ public class FileInfoTests extends ESTestCase {
             assertEquals(numBytes, metadata.length());
         }
     }
+
+    public void testChunksToFromXContent() throws IOException {
+        final List<FileInfo.Chunk> chunks = randomList(2, 20, FileInfoTests::randomChunk);
+        final StoreFileMetadata meta = new StoreFileMetadata(
+            "foobar",
+            chunks.stream().mapToLong(FileInfo.Chunk::length).sum(),
+            randomAlphaOfLengthBetween(1, 10),
+            Version.LATEST.toString()
+        );
+        final FileInfo info = new FileInfo("_foobar", meta, null, chunks);
+        XContentBuilder builder = XContentFactory.contentBuilder(XContentType.JSON);
+        FileInfo.toXContent(info, builder, ToXContent.EMPTY_PARAMS);
+        byte[] xcontent = BytesReference.toBytes(BytesReference.bytes(shuffleXContent(builder)));
+
+        final FileInfo parsedInfo;
+        try (XContentParser parser = createParser(JsonXContent.jsonXContent, xcontent)) {
+            parser.nextToken();
+            parsedInfo = FileInfo.fromXContent(parser);
+        }
+        assertThat(parsedInfo.chunks(), equalTo(chunks));
+        assertThat(parsedInfo.numberOfParts(), equalTo(chunks.size()));
+        assertThat(parsedInfo.partName(0), equalTo(FileInfo.CHUNK_BLOB_PREFIX + chunks.get(0).hash()));
+        assertThat(parsedInfo.isSame(info), is(true));
+
+        // chunks that do not add up to the length of the file are rejected
+        final String invalid = Strings.toString(builder).replace("\"length\":" + meta.length(), "\"length\":" + (meta.length() + 1));
+        try (XContentParser parser = createParser(JsonXContent.jsonXContent, invalid)) {
+            parser.nextToken();
+            ElasticsearchParseException e = expectThrows(ElasticsearchParseException.class, () -> FileInfo.fromXContent(parser));
+            assertThat(e.getMessage(), containsString("invalid chunks"));
+        }
+    }
+
+    public void testPartForPosition() {
+        final FileInfo info;
+        if (randomBoolean()) {
+            info = new FileInfo(
+                "foo",
+                new StoreFileMetadata("foo", randomIntBetween(1, 1000), "666", MIN_SUPPORTED_LUCENE_VERSION.toString()),
+                randomBoolean() ? null : ByteSizeValue.ofBytes(randomIntBetween(1, 1000))
+            );
+        } else {
+            final List<FileInfo.Chunk> chunks = randomList(1, 20, FileInfoTests::randomChunk);
+            info = new FileInfo(
+                "foo",
+                new StoreFileMetadata(
+                    "foo",
+                    chunks.stream().mapToLong(FileInfo.Chunk::length).sum(),
+                    "666",
+                    MIN_SUPPORTED_LUCENE_VERSION.toString()
+                ),
+                null,
+                chunks
+            );
+        }
+        long position = 0L;
+        for (int part = 0; part < info.numberOfParts(); part++) {
+            assertThat(info.partStart(part), equalTo(position));
+            for (long i = 0; i < info.partBytes(part); i++) {
+                assertThat(info.partForPosition(position + i), equalTo(part));
+            }
+            position += info.partBytes(part);
+        }
+        assertThat(position, equalTo(info.length()));
+    }
+
+    private static FileInfo.Chunk randomChunk() {
+        return new FileInfo.Chunk(randomAlphaOfLength(64), randomLongBetween(1, 100));
+    }
 }
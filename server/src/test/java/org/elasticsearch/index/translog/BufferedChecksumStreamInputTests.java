@@ -9,8 +9,11 @@
 
 package org.elasticsearch.index.translog;
 
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.AbstractStreamTests;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 
 import java.io.IOException;
@@ -36,4 +39,28 @@ public class BufferedChecksumStreamInputTests extends AbstractStreamTests {
             assertEquals(crc32.getValue(), input.getChecksum());
         }
     }
+
+    public void testChecksumOfBytesReferences() throws IOException {
+        final BytesReference first = new BytesArray(randomByteArrayOfLength(between(0, 1024)));
+        final BytesReference second = new BytesArray(randomByteArrayOfLength(between(0, 1024)));
+        final BytesReference serialized;
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.writeBytesReference(first);
+            out.writeBytesReference(second);
+            out.writeInt(randomInt());
+            serialized = out.bytes();
+        }
+        final CRC32 crc32 = new CRC32();
+        crc32.update(BytesReference.toBytes(serialized));
+
+        final ReleasableBytesReference releasable = ReleasableBytesReference.wrap(serialized);
+        try (BufferedChecksumStreamInput input = new BufferedChecksumStreamInput(releasable.streamInput(), "test")) {
+            try (ReleasableBytesReference read = input.readReleasableBytesReference()) {
+                assertEquals(first, read);
+            }
+            assertEquals(second, input.readSlicedBytesReference());
+            input.readInt();
+            assertEquals(crc32.getValue(), input.getChecksum());
+        }
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.repositories.blobstore;
+
+import org.elasticsearch.common.hash.MessageDigests;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class ContentDefinedChunkerTests extends ESTestCase {
+
+    public void testChunks() throws IOException {
+        final int averageChunkSize = 1 << between(6, 12);
+        final long maxChunkSize = randomBoolean() ? Long.MAX_VALUE : between(averageChunkSize, averageChunkSize * 8);
+        final ContentDefinedChunker chunker = new ContentDefinedChunker(averageChunkSize, maxChunkSize, between(1, 4096));
+        final byte[] bytes = randomByteArrayOfLength(between(1, averageChunkSize * 64));
+
+        final List<FileInfo.Chunk> chunks = chunker.chunk(new ByteArrayInputStream(bytes));
+        int offset = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            final FileInfo.Chunk chunk = chunks.get(i);
+            assertThat(chunk.length(), lessThanOrEqualTo(Math.min(averageChunkSize * 4L, maxChunkSize)));
+            if (i < chunks.size() - 1) {
+                assertThat(chunk.length(), greaterThanOrEqualTo(averageChunkSize / 4L));
+            }
+            final byte[] chunkBytes = Arrays.copyOfRange(bytes, offset, offset + Math.toIntExact(chunk.length()));
+            assertThat(chunk.hash(), equalTo(MessageDigests.toHexString(MessageDigests.sha256().digest(chunkBytes))));
+            offset += Math.toIntExact(chunk.length());
+        }
+        assertThat(offset, equalTo(bytes.length));
+
+        // chunks do not depend on how the stream is read
+        final ContentDefinedChunker otherChunker = new ContentDefinedChunker(averageChunkSize, maxChunkSize, between(1, 4096));
+        assertThat(otherChunker.chunk(new ByteArrayInputStream(bytes)), equalTo(chunks));
+    }
+
+    public void testInsertionOnlyChangesNearbyChunks() throws IOException {
+        final int averageChunkSize = 1 << 10;
+        final ContentDefinedChunker chunker = new ContentDefinedChunker(averageChunkSize, Long.MAX_VALUE, 8192);
+        final byte[] bytes = randomByteArrayOfLength(averageChunkSize * 256);
+        final int insertionPoint = between(0, bytes.length);
+        final byte[] inserted = randomByteArrayOfLength(between(1, averageChunkSize));
+        final byte[] updatedBytes = new byte[bytes.length + inserted.length];
+        System.arraycopy(bytes, 0, updatedBytes, 0, insertionPoint);
+        System.arraycopy(inserted, 0, updatedBytes, insertionPoint, inserted.length);
+        System.arraycopy(bytes, insertionPoint, updatedBytes, insertionPoint + inserted.length, bytes.length - insertionPoint);
+
+        final List<FileInfo.Chunk> chunks = chunker.chunk(new ByteArrayInputStream(bytes));
+        final Set<FileInfo.Chunk> updatedChunks = new HashSet<>(chunker.chunk(new ByteArrayInputStream(updatedBytes)));
+        final long sharedChunks = chunks.stream().filter(updatedChunks::contains).count();
+        assertThat(chunks.size(), greaterThan(16));
+        // with fixed-size parts an insertion would shift all the following parts, but here only the chunks around it change
+        assertThat(sharedChunks, greaterThanOrEqualTo(chunks.size() - 8L));
+    }
+}
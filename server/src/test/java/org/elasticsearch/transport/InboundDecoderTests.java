@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import static org.elasticsearch.common.bytes.ReleasableBytesReferenceStreamInputTests.wrapAsReleasable;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.instanceOf;
 
@@ -384,7 +385,7 @@ public class InboundDecoderTests extends ESTestCase {
         }
         OutboundMessage message;
         TransportMessage transportMessage;
-        Compression.Scheme scheme = randomFrom(Compression.Scheme.DEFLATE, Compression.Scheme.LZ4);
+        Compression.Scheme scheme = randomFrom(Compression.Scheme.DEFLATE, Compression.Scheme.LZ4, Compression.Scheme.ZSTD);
         if (isRequest) {
             transportMessage = new TestRequest(randomAlphaOfLength(100));
             message = new OutboundMessage.Request(
@@ -453,6 +454,43 @@ public class InboundDecoderTests extends ESTestCase {
 
     }
 
+    public void testZstdFallsBackToLz4ForOlderVersions() throws IOException {
+        final TransportVersion version = TransportVersionUtils.randomVersionBetween(
+            random(),
+            TransportVersions.MINIMUM_COMPATIBLE,
+            TransportVersionUtils.getPreviousVersion(Compression.Scheme.ZSTD_VERSION)
+        );
+        final OutboundMessage message = new OutboundMessage.Request(
+            threadContext,
+            new TestRequest(randomAlphaOfLength(100)),
+            version,
+            "test-request",
+            randomNonNegativeLong(),
+            false,
+            Compression.Scheme.ZSTD
+        );
+
+        try (RecyclerBytesStreamOutput os = new RecyclerBytesStreamOutput(recycler)) {
+            final BytesReference totalBytes = message.serialize(os);
+            InboundDecoder decoder = new InboundDecoder(recycler);
+            final ArrayList<Object> fragments = new ArrayList<>();
+            final int bytesConsumed;
+            try (ReleasableBytesReference releasable1 = wrapAsReleasable(totalBytes)) {
+                bytesConsumed = decoder.decode(releasable1, fragments::add);
+            }
+            final BytesReference bytes2 = totalBytes.slice(bytesConsumed, totalBytes.length() - bytesConsumed);
+            try (ReleasableBytesReference releasable2 = wrapAsReleasable(bytes2)) {
+                decoder.decode(releasable2, fragments::add);
+            }
+            assertThat(fragments, hasItem(Compression.Scheme.LZ4));
+            for (Object fragment : fragments) {
+                if (fragment instanceof ReleasableBytesReference content) {
+                    content.close();
+                }
+            }
+        }
+    }
+
     public void testCompressedDecodeHandshakeCompatibility() throws IOException {
         String action = "test-request";
         long requestId = randomNonNegativeLong();
@@ -41,6 +41,7 @@ import org.junit.Before;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.Executor;
@@ -328,6 +329,105 @@ public class InboundHandlerTests extends ESTestCase {
         }
     }
 
+    public void testTracksAndLogsQueueTime() throws Exception {
+        final String action = "test-request";
+        final AtomicReference<TransportChannel> channelCaptor = new AtomicReference<>();
+        final RequestHandlerRegistry<TestRequest> registry = new RequestHandlerRegistry<>(
+            action,
+            TestRequest::new,
+            taskManager,
+            (request, channel, task) -> channelCaptor.set(channel),
+            command -> {
+                // simulate the request waiting in the queue of a busy executor
+                safeSleep(TimeValue.timeValueMillis(50));
+                command.run();
+            },
+            false,
+            true,
+            Tracer.NOOP
+        );
+        requestHandlers.registerHandler(registry);
+
+        final long requestId = randomNonNegativeLong();
+        final long suppressedRequestId = randomValueOtherThan(requestId, ESTestCase::randomNonNegativeLong);
+        handler.setSlowLogThreshold(TimeValue.timeValueMillis(5L));
+        try (var mockLog = MockLog.capture(InboundHandler.class)) {
+            mockLog.addExpectation(
+                new MockLog.SeenEventExpectation(
+                    "expected slow queueing",
+                    EXPECTED_LOGGER_NAME,
+                    Level.WARN,
+                    "request [" + requestId + "] for action [" + action + "] waited [*ms] in the queue of executor*"
+                )
+            );
+            mockLog.addExpectation(
+                new MockLog.UnseenEventExpectation(
+                    "warnings are rate-limited per action",
+                    EXPECTED_LOGGER_NAME,
+                    Level.WARN,
+                    "request [" + suppressedRequestId + "]*"
+                )
+            );
+            handler.inboundMessage(channel, requestMessage(action, requestId));
+            channelCaptor.getAndSet(null).sendResponse(new TestResponse(randomAlphaOfLength(10)));
+            handler.inboundMessage(channel, requestMessage(action, suppressedRequestId));
+            mockLog.assertAllExpectationsMatched();
+        }
+
+        final TransportActionStats statsBeforeResponse = registry.getStats();
+        assertEquals(2L, Arrays.stream(statsBeforeResponse.queueTimeHistogram()).sum());
+        assertEquals(0L, statsBeforeResponse.queueTimeHistogram()[0]);
+        assertEquals(1L, Arrays.stream(statsBeforeResponse.handlingTimeHistogram()).sum());
+
+        channelCaptor.get().sendResponse(new TestResponse(randomAlphaOfLength(10)));
+        assertEquals(2L, Arrays.stream(registry.getStats().handlingTimeHistogram()).sum());
+    }
+
+    public void testTracksHandlingTimeOfFailedRequests() throws Exception {
+        final String action = "test-request";
+        final RequestHandlerRegistry<TestRequest> registry = new RequestHandlerRegistry<>(
+            action,
+            TestRequest::new,
+            taskManager,
+            (request, channel, task) -> { throw new ElasticsearchException("simulated"); },
+            randomFrom(EsExecutors.DIRECT_EXECUTOR_SERVICE, threadPool.generic()),
+            false,
+            true,
+            Tracer.NOOP
+        );
+        requestHandlers.registerHandler(registry);
+
+        handler.inboundMessage(channel, requestMessage(action, randomNonNegativeLong()));
+        assertBusy(() -> assertEquals(1L, Arrays.stream(registry.getStats().handlingTimeHistogram()).sum()));
+        assertNotNull(channel.getMessageCaptor().get());
+    }
+
+    private InboundMessage requestMessage(String action, long requestId) throws IOException {
+        final int headerSize = TcpHeader.headerSize(TransportVersion.current());
+        final OutboundMessage.Request request = new OutboundMessage.Request(
+            threadPool.getThreadContext(),
+            new TestRequest(randomAlphaOfLength(10)),
+            TransportVersion.current(),
+            action,
+            requestId,
+            false,
+            null
+        );
+        final BytesReference fullRequestBytes = request.serialize(
+            new RecyclerBytesStreamOutput(new BytesRefRecycler(PageCacheRecycler.NON_RECYCLING_INSTANCE))
+        );
+        final BytesReference requestContent = fullRequestBytes.slice(headerSize, fullRequestBytes.length() - headerSize);
+        final Header requestHeader = new Header(
+            fullRequestBytes.length() - 6,
+            requestId,
+            TransportStatus.setRequest((byte) 0),
+            TransportVersion.current()
+        );
+        final InboundMessage requestMessage = new InboundMessage(requestHeader, ReleasableBytesReference.wrap(requestContent), () -> {});
+        requestHeader.finishParsingHeader(requestMessage.openOrGetStreamInput());
+        return requestMessage;
+    }
+
     private static InboundMessage unreadableInboundHandshake(TransportVersion remoteVersion, Header requestHeader) {
         return new InboundMessage(requestHeader, ReleasableBytesReference.wrap(BytesArray.EMPTY), () -> {}) {
             @Override
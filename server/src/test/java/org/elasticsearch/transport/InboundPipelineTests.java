@@ -38,6 +38,7 @@ import java.util.function.LongSupplier;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.instanceOf;
 
 public class InboundPipelineTests extends ESTestCase {
@@ -187,6 +188,7 @@ public class InboundPipelineTests extends ESTestCase {
                 for (ReleasableBytesReference released : toRelease) {
                     assertFalse(released.hasReferences());
                 }
+                assertEquals(0L, statsTracker.getBytesRetained());
             }
 
             assertEquals(bytesReceived, statsTracker.getBytesRead());
@@ -292,10 +294,12 @@ public class InboundPipelineTests extends ESTestCase {
                 pipeline.handleBytes(new FakeTcpChannel(), slice);
             }
             assertFalse(bodyReleased.get());
+            assertThat(statsTracker.getBytesRetained(), greaterThan(0L));
             try (ReleasableBytesReference slice = new ReleasableBytesReference(reference.slice(reference.length() - 1, 1), releasable)) {
                 pipeline.handleBytes(new FakeTcpChannel(), slice);
             }
             assertTrue(bodyReleased.get());
+            assertEquals(0L, statsTracker.getBytesRetained());
         }
     }
 
@@ -10,6 +10,7 @@
 package org.elasticsearch.transport;
 
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.network.HandlingTimeTracker;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.xcontent.ToXContentFragment;
 
@@ -35,7 +36,46 @@ public class TransportActionStatsTests extends ESTestCase {
             {"ge":"32b","ge_bytes":32,"lt":"64b","lt_bytes":64,"count":13},\
             {"ge":"64b","ge_bytes":64,"lt":"128b","lt_bytes":128,"count":0},\
             {"ge":"128b","ge_bytes":128,"lt":"256b","lt_bytes":256,"count":14}\
-            ]}}""", Strings.toString(new TransportActionStats(7, 8, requestSizeHistogram, 11, 12, responseSizeHistogram), false, true));
+            ]}}""",
+            Strings.toString(
+                new TransportActionStats(7, 8, requestSizeHistogram, 11, 12, responseSizeHistogram, new long[0], new long[0]),
+                false,
+                true
+            )
+        );
+
+        final var queueTimeHistogram = new long[HandlingTimeTracker.BUCKET_COUNT];
+        queueTimeHistogram[4] = 15;
+
+        final var handlingTimeHistogram = new long[HandlingTimeTracker.BUCKET_COUNT];
+        handlingTimeHistogram[0] = 16;
+
+        assertEquals("""
+            {"requests":{"count":0,"total_size":"0b","total_size_in_bytes":0,"histogram":[]},\
+            "responses":{"count":0,"total_size":"0b","total_size_in_bytes":0,"histogram":[]},\
+            "queue_time_histogram":[{"ge":"8ms","ge_millis":8,"lt":"16ms","lt_millis":16,"count":15}],\
+            "handling_time_histogram":[{"lt":"1ms","lt_millis":1,"count":16}]}""",
+            Strings.toString(
+                new TransportActionStats(0, 0, new long[29], 0, 0, new long[29], queueTimeHistogram, handlingTimeHistogram),
+                false,
+                true
+            )
+        );
+    }
+
+    public void testLatencyHistograms() {
+        final var tracker = new TransportActionStatsTracker();
+        tracker.addQueueTime(0);
+        tracker.addQueueTime(10);
+        tracker.addHandlingTime(3);
+
+        final var stats = tracker.getStats();
+        assertEquals(HandlingTimeTracker.BUCKET_COUNT, stats.queueTimeHistogram().length);
+        assertEquals(1L, stats.queueTimeHistogram()[0]);
+        assertEquals(1L, stats.queueTimeHistogram()[4]);
+        assertEquals(2L, Arrays.stream(stats.queueTimeHistogram()).sum());
+        assertEquals(1L, stats.handlingTimeHistogram()[2]);
+        assertEquals(1L, Arrays.stream(stats.handlingTimeHistogram()).sum());
     }
 
     private static void assertHistogram(long[] histogram, String expectedJson) {
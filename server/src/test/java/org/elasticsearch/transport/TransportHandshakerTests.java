@@ -65,7 +65,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testHandshakeRequestAndResponse() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         handshaker.sendHandshake(reqId, node, channel, new TimeValue(30, TimeUnit.SECONDS), versionFuture);
 
@@ -90,11 +90,11 @@ public class TransportHandshakerTests extends ESTestCase {
         handler.handleResponse((TransportHandshaker.HandshakeResponse) responseFuture.actionGet());
 
         assertTrue(versionFuture.isDone());
-        assertEquals(TransportVersion.current(), versionFuture.actionGet());
+        assertEquals(TransportVersion.current(), versionFuture.actionGet().transportVersion());
     }
 
     public void testHandshakeResponseFromOlderNode() throws Exception {
-        final PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        final PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         final long reqId = randomNonNegativeLong();
         handshaker.sendHandshake(reqId, node, channel, SAFE_AWAIT_TIMEOUT, versionFuture);
         TransportResponseHandler<TransportHandshaker.HandshakeResponse> handler = handshaker.removeHandlerForHandshake(reqId);
@@ -105,11 +105,11 @@ public class TransportHandshakerTests extends ESTestCase {
         handler.handleResponse(new TransportHandshaker.HandshakeResponse(remoteVersion, randomIdentifier()));
 
         assertTrue(versionFuture.isDone());
-        assertEquals(remoteVersion, versionFuture.result());
+        assertEquals(remoteVersion, versionFuture.result().transportVersion());
     }
 
     public void testHandshakeResponseFromNewerNode() throws Exception {
-        final PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        final PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         final long reqId = randomNonNegativeLong();
         handshaker.sendHandshake(reqId, node, channel, SAFE_AWAIT_TIMEOUT, versionFuture);
         TransportResponseHandler<TransportHandshaker.HandshakeResponse> handler = handshaker.removeHandlerForHandshake(reqId);
@@ -124,7 +124,7 @@ public class TransportHandshakerTests extends ESTestCase {
         );
 
         assertTrue(versionFuture.isDone());
-        assertEquals(TransportVersion.current(), versionFuture.result());
+        assertEquals(TransportVersion.current(), versionFuture.result().transportVersion());
     }
 
     public void testHandshakeRequestFutureVersionsCompatibility() throws IOException {
@@ -194,6 +194,10 @@ public class TransportHandshakerTests extends ESTestCase {
         final var responseBytesStreamOutput = new BytesStreamOutput();
         responseBytesStreamOutput.setTransportVersion(TransportHandshaker.V7_HANDSHAKE_VERSION);
         responseBytesStreamOutput.writeVInt(transportVersion.id());
+        final boolean zstdCompressionSupported = randomBoolean();
+        if (transportVersion.onOrAfter(TransportHandshaker.ZSTD_SUPPORT_VERSION)) {
+            responseBytesStreamOutput.writeBoolean(zstdCompressionSupported);
+        }
 
         final var responseBytesStream = responseBytesStreamOutput.bytes().streamInput();
         responseBytesStream.setTransportVersion(TransportHandshaker.V7_HANDSHAKE_VERSION);
@@ -201,6 +205,10 @@ public class TransportHandshakerTests extends ESTestCase {
 
         assertEquals(transportVersion, handshakeResponse.getTransportVersion());
         assertEquals(transportVersion.toReleaseVersion(), handshakeResponse.getReleaseVersion());
+        assertEquals(
+            transportVersion.onOrAfter(TransportHandshaker.ZSTD_SUPPORT_VERSION) && zstdCompressionSupported,
+            handshakeResponse.isZstdCompressionSupported()
+        );
     }
 
     public void testReadV8HandshakeRequest() throws IOException {
@@ -229,6 +237,10 @@ public class TransportHandshakerTests extends ESTestCase {
         final var responseBytesStreamOutput = new BytesStreamOutput();
         responseBytesStreamOutput.setTransportVersion(TransportHandshaker.V8_HANDSHAKE_VERSION);
         responseBytesStreamOutput.writeVInt(transportVersion.id());
+        final boolean zstdCompressionSupported = randomBoolean();
+        if (transportVersion.onOrAfter(TransportHandshaker.ZSTD_SUPPORT_VERSION)) {
+            responseBytesStreamOutput.writeBoolean(zstdCompressionSupported);
+        }
 
         final var responseBytesStream = responseBytesStreamOutput.bytes().streamInput();
         responseBytesStream.setTransportVersion(TransportHandshaker.V8_HANDSHAKE_VERSION);
@@ -236,6 +248,10 @@ public class TransportHandshakerTests extends ESTestCase {
 
         assertEquals(transportVersion, handshakeResponse.getTransportVersion());
         assertEquals(transportVersion.toReleaseVersion(), handshakeResponse.getReleaseVersion());
+        assertEquals(
+            transportVersion.onOrAfter(TransportHandshaker.ZSTD_SUPPORT_VERSION) && zstdCompressionSupported,
+            handshakeResponse.isZstdCompressionSupported()
+        );
     }
 
     public void testReadV9HandshakeRequest() throws IOException {
@@ -268,6 +284,10 @@ public class TransportHandshakerTests extends ESTestCase {
         responseBytesStreamOutput.setTransportVersion(TransportHandshaker.V9_HANDSHAKE_VERSION);
         responseBytesStreamOutput.writeVInt(transportVersion.id());
         responseBytesStreamOutput.writeString(releaseVersion);
+        final boolean zstdCompressionSupported = randomBoolean();
+        if (transportVersion.onOrAfter(TransportHandshaker.ZSTD_SUPPORT_VERSION)) {
+            responseBytesStreamOutput.writeBoolean(zstdCompressionSupported);
+        }
 
         final var responseBytesStream = responseBytesStreamOutput.bytes().streamInput();
         responseBytesStream.setTransportVersion(TransportHandshaker.V9_HANDSHAKE_VERSION);
@@ -275,10 +295,43 @@ public class TransportHandshakerTests extends ESTestCase {
 
         assertEquals(transportVersion, handshakeResponse.getTransportVersion());
         assertEquals(releaseVersion, handshakeResponse.getReleaseVersion());
+        assertEquals(
+            transportVersion.onOrAfter(TransportHandshaker.ZSTD_SUPPORT_VERSION) && zstdCompressionSupported,
+            handshakeResponse.isZstdCompressionSupported()
+        );
+    }
+
+    public void testHandshakeResponseAdvertisesZstdSupport() throws IOException {
+        final TransportVersion requestVersion = TransportVersionUtils.randomCompatibleVersion(random());
+        final TransportHandshaker.HandshakeRequest handshakeRequest = new TransportHandshaker.HandshakeRequest(
+            requestVersion,
+            randomIdentifier()
+        );
+        final BytesStreamOutput requestStreamOutput = new BytesStreamOutput();
+        requestStreamOutput.setTransportVersion(HANDSHAKE_REQUEST_VERSION);
+        handshakeRequest.writeTo(requestStreamOutput);
+        final StreamInput requestInput = requestStreamOutput.bytes().streamInput();
+        requestInput.setTransportVersion(HANDSHAKE_REQUEST_VERSION);
+        final PlainActionFuture<TransportResponse> responseFuture = new PlainActionFuture<>();
+        handshaker.handleHandshake(new TestTransportChannel(responseFuture), randomNonNegativeLong(), requestInput);
+
+        final BytesStreamOutput responseStreamOutput = new BytesStreamOutput();
+        responseStreamOutput.setTransportVersion(HANDSHAKE_REQUEST_VERSION);
+        responseFuture.actionGet().writeTo(responseStreamOutput);
+        final StreamInput responseInput = responseStreamOutput.bytes().streamInput();
+        responseInput.setTransportVersion(HANDSHAKE_REQUEST_VERSION);
+        if (requestVersion.onOrAfter(TransportHandshaker.ZSTD_SUPPORT_VERSION)) {
+            final var handshakeResponse = new TransportHandshaker.HandshakeResponse(responseInput);
+            assertEquals(Compression.Scheme.isZstdAvailable(), handshakeResponse.isZstdCompressionSupported());
+        } else {
+            // an older requesting node doesn't expect the flag so it must not be sent
+            assertEquals(TransportVersion.current(), TransportVersion.readVersion(responseInput));
+            assertEquals(-1, responseInput.read());
+        }
     }
 
     public void testHandshakeError() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         handshaker.sendHandshake(reqId, node, channel, new TimeValue(30, TimeUnit.SECONDS), versionFuture);
 
@@ -295,7 +348,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testSendRequestThrowsException() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         doThrow(new IOException("boom")).when(requestSender).sendRequest(node, channel, reqId, HANDSHAKE_REQUEST_VERSION);
 
@@ -308,7 +361,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testHandshakeTimeout() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         handshaker.sendHandshake(reqId, node, channel, new TimeValue(100, TimeUnit.MILLISECONDS), versionFuture);
 
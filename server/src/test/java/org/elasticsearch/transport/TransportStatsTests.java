@@ -22,21 +22,44 @@ public class TransportStatsTests extends ESTestCase {
     public void testToXContent() {
         assertEquals(
             Strings.toString(
-                new TransportStats(1, 2, 3, ByteSizeUnit.MB.toBytes(4), 5, ByteSizeUnit.MB.toBytes(6), new long[0], new long[0], Map.of()),
+                new TransportStats(
+                    1,
+                    2,
+                    3,
+                    ByteSizeUnit.MB.toBytes(4),
+                    5,
+                    ByteSizeUnit.MB.toBytes(6),
+                    7168,
+                    new long[0],
+                    new long[0],
+                    Map.of()
+                ),
                 false,
                 true
             ),
             """
                 {"transport":{"server_open":1,"total_outbound_connections":2,\
                 "rx_count":3,"rx_size":"4mb","rx_size_in_bytes":4194304,\
-                "tx_count":5,"tx_size":"6mb","tx_size_in_bytes":6291456\
+                "tx_count":5,"tx_size":"6mb","tx_size_in_bytes":6291456,\
+                "rx_retained_size":"7kb","rx_retained_size_in_bytes":7168\
                 }}"""
         );
 
         final var histogram = new long[HandlingTimeTracker.BUCKET_COUNT];
         assertEquals(
             Strings.toString(
-                new TransportStats(1, 2, 3, ByteSizeUnit.MB.toBytes(4), 5, ByteSizeUnit.MB.toBytes(6), histogram, histogram, Map.of()),
+                new TransportStats(
+                    1,
+                    2,
+                    3,
+                    ByteSizeUnit.MB.toBytes(4),
+                    5,
+                    ByteSizeUnit.MB.toBytes(6),
+                    7168,
+                    histogram,
+                    histogram,
+                    Map.of()
+                ),
                 false,
                 true
             ),
@@ -44,6 +67,7 @@ public class TransportStatsTests extends ESTestCase {
                 {"transport":{"server_open":1,"total_outbound_connections":2,\
                 "rx_count":3,"rx_size":"4mb","rx_size_in_bytes":4194304,\
                 "tx_count":5,"tx_size":"6mb","tx_size_in_bytes":6291456,\
+                "rx_retained_size":"7kb","rx_retained_size_in_bytes":7168,\
                 "inbound_handling_time_histogram":[],\
                 "outbound_handling_time_histogram":[]\
                 }}"""
@@ -52,7 +76,18 @@ public class TransportStatsTests extends ESTestCase {
         histogram[4] = 10;
         assertEquals(
             Strings.toString(
-                new TransportStats(1, 2, 3, ByteSizeUnit.MB.toBytes(4), 5, ByteSizeUnit.MB.toBytes(6), histogram, histogram, Map.of()),
+                new TransportStats(
+                    1,
+                    2,
+                    3,
+                    ByteSizeUnit.MB.toBytes(4),
+                    5,
+                    ByteSizeUnit.MB.toBytes(6),
+                    7168,
+                    histogram,
+                    histogram,
+                    Map.of()
+                ),
                 false,
                 true
             ),
@@ -60,6 +95,7 @@ public class TransportStatsTests extends ESTestCase {
                 {"transport":{"server_open":1,"total_outbound_connections":2,\
                 "rx_count":3,"rx_size":"4mb","rx_size_in_bytes":4194304,\
                 "tx_count":5,"tx_size":"6mb","tx_size_in_bytes":6291456,\
+                "rx_retained_size":"7kb","rx_retained_size_in_bytes":7168,\
                 "inbound_handling_time_histogram":[{"ge":"8ms","ge_millis":8,"lt":"16ms","lt_millis":16,"count":10}],\
                 "outbound_handling_time_histogram":[{"ge":"8ms","ge_millis":8,"lt":"16ms","lt_millis":16,"count":10}]\
                 }}"""
@@ -73,7 +109,16 @@ public class TransportStatsTests extends ESTestCase {
         responseSizeHistogram[3] = 13;
         responseSizeHistogram[5] = 14;
 
-        final var exampleActionStats = new TransportActionStats(7, 8, requestSizeHistogram, 11, 12, responseSizeHistogram);
+        final var exampleActionStats = new TransportActionStats(
+            7,
+            8,
+            requestSizeHistogram,
+            11,
+            12,
+            responseSizeHistogram,
+            new long[HandlingTimeTracker.BUCKET_COUNT],
+            new long[HandlingTimeTracker.BUCKET_COUNT]
+        );
 
         assertEquals(
             Strings.toString(
@@ -84,6 +129,7 @@ public class TransportStatsTests extends ESTestCase {
                     ByteSizeUnit.MB.toBytes(4),
                     5,
                     ByteSizeUnit.MB.toBytes(6),
+                    7168,
                     new long[0],
                     new long[0],
                     Map.of("internal:test/action", exampleActionStats)
@@ -95,6 +141,7 @@ public class TransportStatsTests extends ESTestCase {
                 {"transport":{"server_open":1,"total_outbound_connections":2,\
                 "rx_count":3,"rx_size":"4mb","rx_size_in_bytes":4194304,\
                 "tx_count":5,"tx_size":"6mb","tx_size_in_bytes":6291456,\
+                "rx_retained_size":"7kb","rx_retained_size_in_bytes":7168,\
                 "actions":{"internal:test/action":%s}}}""", Strings.toString(exampleActionStats, false, true))
         );
     }
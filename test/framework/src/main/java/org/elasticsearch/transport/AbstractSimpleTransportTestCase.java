@@ -664,7 +664,7 @@ public abstract class AbstractSimpleTransportTestCase extends ESTestCase {
                 .put(TransportSettings.TRANSPORT_COMPRESS.getKey(), Compression.Enabled.TRUE)
                 .put(
                     TransportSettings.TRANSPORT_COMPRESSION_SCHEME.getKey(),
-                    randomFrom(Compression.Scheme.DEFLATE, Compression.Scheme.LZ4)
+                    randomFrom(Compression.Scheme.DEFLATE, Compression.Scheme.LZ4, Compression.Scheme.ZSTD)
                 )
                 .build();
             ConnectionProfile connectionProfile = ConnectionProfile.buildDefaultConnectionProfile(settingsWithCompress);
@@ -721,7 +721,7 @@ public abstract class AbstractSimpleTransportTestCase extends ESTestCase {
                 .put(TransportSettings.TRANSPORT_COMPRESS.getKey(), Compression.Enabled.TRUE)
                 .put(
                     TransportSettings.TRANSPORT_COMPRESSION_SCHEME.getKey(),
-                    randomFrom(Compression.Scheme.DEFLATE, Compression.Scheme.LZ4)
+                    randomFrom(Compression.Scheme.DEFLATE, Compression.Scheme.LZ4, Compression.Scheme.ZSTD)
                 )
                 .build();
             ConnectionProfile connectionProfile = ConnectionProfile.buildDefaultConnectionProfile(settingsWithCompress);
@@ -791,7 +791,7 @@ public abstract class AbstractSimpleTransportTestCase extends ESTestCase {
                 .put(TransportSettings.TRANSPORT_COMPRESS.getKey(), Compression.Enabled.INDEXING_DATA)
                 .put(
                     TransportSettings.TRANSPORT_COMPRESSION_SCHEME.getKey(),
-                    randomFrom(Compression.Scheme.DEFLATE, Compression.Scheme.LZ4)
+                    randomFrom(Compression.Scheme.DEFLATE, Compression.Scheme.LZ4, Compression.Scheme.ZSTD)
                 )
                 .build();
             ConnectionProfile connectionProfile = ConnectionProfile.buildDefaultConnectionProfile(settingsWithCompress);
@@ -3323,6 +3323,9 @@ public abstract class AbstractSimpleTransportTestCase extends ESTestCase {
             assertEquals(iteration * actualResponseSize, transportActionStats.totalResponseSize());
             assertArrayEquals(getConstantMessageSizeHistogram(iteration, actualRequestSize), transportActionStats.requestSizeHistogram());
             assertArrayEquals(getConstantMessageSizeHistogram(iteration, actualResponseSize), transportActionStats.responseSizeHistogram());
+            assertEquals(iteration, Arrays.stream(transportActionStats.handlingTimeHistogram()).sum());
+            // handled on the transport thread, so it never waits in a queue
+            assertEquals(0L, Arrays.stream(transportActionStats.queueTimeHistogram()).sum());
         }
     }
 
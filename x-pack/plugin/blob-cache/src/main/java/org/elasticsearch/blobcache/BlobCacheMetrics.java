@@ -13,10 +13,14 @@ import org.elasticsearch.telemetry.TelemetryProvider;
 import org.elasticsearch.telemetry.metric.DoubleHistogram;
 import org.elasticsearch.telemetry.metric.LongCounter;
 import org.elasticsearch.telemetry.metric.LongHistogram;
+import org.elasticsearch.telemetry.metric.LongWithAttributes;
 import org.elasticsearch.telemetry.metric.MeterRegistry;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 public class BlobCacheMetrics {
     private static final Logger logger = LogManager.getLogger(BlobCacheMetrics.class);
@@ -26,6 +30,7 @@ public class BlobCacheMetrics {
     public static final String CACHE_POPULATION_SOURCE_ATTRIBUTE_KEY = "source";
     public static final String SHARD_ID_ATTRIBUTE_KEY = "shard_id";
     public static final String INDEX_ATTRIBUTE_KEY = "index_name";
+    public static final String CACHE_TIER_ATTRIBUTE_KEY = "tier";
 
     private final LongCounter cacheMissCounter;
     private final LongCounter evictedCountNonZeroFrequency;
@@ -33,6 +38,9 @@ public class BlobCacheMetrics {
     private final DoubleHistogram cachePopulationThroughput;
     private final LongCounter cachePopulationBytes;
     private final LongCounter cachePopulationTime;
+    // counted in adders and reported through async counters because they're recorded on the hot path of every read
+    private final LongAdder[] readHits = newTierAdders();
+    private final LongAdder[] readMisses = newTierAdders();
 
     public enum CachePopulationReason {
         /**
@@ -45,6 +53,19 @@ public class BlobCacheMetrics {
         CacheMiss
     }
 
+    public enum CacheTier {
+        /**
+         * The in-memory tier that holds the most frequently read parts of the shared cache
+         */
+        Memory,
+        /**
+         * The shared cache file on disk
+         */
+        Disk;
+
+        private final Map<String, Object> attributes = Map.of(CACHE_TIER_ATTRIBUTE_KEY, name());
+    }
+
     public BlobCacheMetrics(MeterRegistry meterRegistry) {
         this(
             meterRegistry.registerLongCounter(
@@ -78,6 +99,18 @@ public class BlobCacheMetrics {
                 "milliseconds"
             )
         );
+        meterRegistry.registerLongsAsyncCounter(
+            "es.blob_cache.read.hit.total",
+            "The number of reads that were served by a tier of the cache",
+            "count",
+            () -> tierCounts(readHits)
+        );
+        meterRegistry.registerLongsAsyncCounter(
+            "es.blob_cache.read.miss.total",
+            "The number of reads that could not be served by a tier of the cache",
+            "count",
+            () -> tierCounts(readMisses)
+        );
     }
 
     BlobCacheMetrics(
@@ -110,6 +143,36 @@ public class BlobCacheMetrics {
         return cacheMissLoadTimes;
     }
 
+    /**
+     * Record a read that was served by the given tier of the cache
+     */
+    public void recordHit(CacheTier tier) {
+        readHits[tier.ordinal()].increment();
+    }
+
+    /**
+     * Record a read that could not be served by the given tier of the cache
+     */
+    public void recordMiss(CacheTier tier) {
+        readMisses[tier.ordinal()].increment();
+    }
+
+    private static LongAdder[] newTierAdders() {
+        final LongAdder[] adders = new LongAdder[CacheTier.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static List<LongWithAttributes> tierCounts(LongAdder[] adders) {
+        final List<LongWithAttributes> counts = new ArrayList<>(adders.length);
+        for (CacheTier tier : CacheTier.values()) {
+            counts.add(new LongWithAttributes(adders[tier.ordinal()].sum(), tier.attributes));
+        }
+        return counts;
+    }
+
     /**
      * Record the various cache population metrics after a chunk is copied to the cache
      *
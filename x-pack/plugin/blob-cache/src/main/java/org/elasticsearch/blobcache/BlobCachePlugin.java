@@ -23,11 +23,16 @@ public class BlobCachePlugin extends Plugin implements ExtensiblePlugin {
             SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING,
             SharedBlobCacheService.SHARED_CACHE_RANGE_SIZE_SETTING,
             SharedBlobCacheService.SHARED_CACHE_RECOVERY_RANGE_SIZE_SETTING,
+            SharedBlobCacheService.SHARED_CACHE_COALESCING_MAX_GAP_SETTING,
             SharedBlobCacheService.SHARED_CACHE_MAX_FREQ_SETTING,
             SharedBlobCacheService.SHARED_CACHE_DECAY_INTERVAL_SETTING,
             SharedBlobCacheService.SHARED_CACHE_MIN_TIME_DELTA_SETTING,
             SharedBlobCacheService.SHARED_CACHE_MMAP,
-            SharedBlobCacheService.SHARED_CACHE_COUNT_READS
+            SharedBlobCacheService.SHARED_CACHE_COUNT_READS,
+            SharedBlobCacheService.SHARED_CACHE_PERSISTENT_SETTING,
+            SharedBlobCacheService.SHARED_CACHE_MEMORY_TIER_SIZE_SETTING,
+            SharedBlobCacheService.SHARED_CACHE_MEMORY_TIER_BLOCK_SIZE_SETTING,
+            SharedBlobCacheService.SHARED_CACHE_MEMORY_TIER_MIN_FREQ_SETTING
         );
     }
 }
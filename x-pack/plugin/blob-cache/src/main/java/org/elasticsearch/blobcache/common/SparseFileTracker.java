@@ -93,6 +93,7 @@ public class SparseFileTracker {
                 }
                 final boolean added = this.ranges.add(range);
                 assert added : range + " already exist in " + this.ranges;
+                maybeUpdateCompletePointer(range);
                 previous = range;
                 initialLength += range.end - range.start;
             }
@@ -0,0 +1,167 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.blobcache.shared;
+
+import org.elasticsearch.blobcache.common.ByteRange;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.gateway.CorruptStateException;
+import org.elasticsearch.index.translog.BufferedChecksumStreamInput;
+import org.elasticsearch.index.translog.BufferedChecksumStreamOutput;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * The journal that allows the {@link SharedBlobCacheService} to reuse the contents of the {@link SharedBytes} cache file after a restart.
+ * It records, for each region of the cache file that is in use, the key and the region of the blob it holds together with the byte
+ * ranges of that region that are present on disk.
+ * <p>
+ * The journal is only written when the cache is closed, after the cache file has been fsync'ed, and it is deleted as soon as it has been
+ * read on startup, before anything is written to the cache file again. A node that stops without closing its cache therefore starts with
+ * an empty cache, since the contents of the cache file may not match the last journal anymore.
+ */
+final class SharedBlobCacheJournal {
+
+    static final String JOURNAL_FILE_NAME = "shared_snapshot_cache.journal";
+
+    private static final int MAGIC = 0x53424a4c; // "SBJL"
+
+    private static final int CURRENT_VERSION = 1;
+
+    private SharedBlobCacheJournal() {}
+
+    /**
+     * A region of the cache file and what it holds.
+     *
+     * @param sharedBytesPos the position of the region in the cache file
+     * @param key            the key of the blob held by the region
+     * @param region         the region of the blob held by the region
+     * @param length         the length of the region of the blob
+     * @param ranges         the byte ranges of the region of the blob that are present in the cache file
+     */
+    record Entry<KeyType>(int sharedBytesPos, KeyType key, int region, int length, SortedSet<ByteRange> ranges) {}
+
+    static Path journalPath(Path dataPath) {
+        return dataPath.resolve(JOURNAL_FILE_NAME);
+    }
+
+    /**
+     * Writes a new journal, replacing any existing one atomically.
+     */
+    static <KeyType> void write(
+        Path path,
+        int numRegions,
+        int regionSize,
+        List<Entry<KeyType>> entries,
+        Writeable.Writer<KeyType> keyWriter
+    ) throws IOException {
+        final Path tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (
+            BufferedChecksumStreamOutput out = new BufferedChecksumStreamOutput(
+                new OutputStreamStreamOutput(new BufferedOutputStream(Files.newOutputStream(tmpPath)))
+            )
+        ) {
+            out.writeInt(MAGIC);
+            out.writeVInt(CURRENT_VERSION);
+            out.writeVInt(numRegions);
+            out.writeVInt(regionSize);
+            out.writeCollection(entries, (o, entry) -> {
+                o.writeVInt(entry.sharedBytesPos());
+                keyWriter.write(o, entry.key());
+                o.writeVInt(entry.region());
+                o.writeVInt(entry.length());
+                o.writeCollection(entry.ranges(), SharedBlobCacheJournal::writeRange);
+            });
+            out.writeLong(out.getChecksum());
+        }
+        IOUtils.fsync(tmpPath, false);
+        Files.move(tmpPath, path, StandardCopyOption.ATOMIC_MOVE);
+        IOUtils.fsync(path.getParent(), true);
+    }
+
+    /**
+     * Reads the journal at the given path. Returns an empty list if the journal was written for a cache file with a different layout.
+     *
+     * @throws CorruptStateException if the journal is corrupted
+     */
+    static <KeyType> List<Entry<KeyType>> read(Path path, int numRegions, int regionSize, Writeable.Reader<KeyType> keyReader)
+        throws IOException {
+        try (
+            BufferedChecksumStreamInput in = new BufferedChecksumStreamInput(
+                new InputStreamStreamInput(new BufferedInputStream(Files.newInputStream(path))),
+                path.toString()
+            )
+        ) {
+            if (in.readInt() != MAGIC) {
+                throw new CorruptStateException("shared cache journal [" + path + "] has an invalid header");
+            }
+            final int version = in.readVInt();
+            if (version != CURRENT_VERSION) {
+                throw new CorruptStateException("shared cache journal [" + path + "] has an unsupported version [" + version + "]");
+            }
+            if (in.readVInt() != numRegions || in.readVInt() != regionSize) {
+                return List.of();
+            }
+            final List<Entry<KeyType>> entries = in.readCollectionAsList(i -> readEntry(i, path, numRegions, regionSize, keyReader));
+            final long expectedChecksum = in.getChecksum();
+            final long checksum = in.readLong();
+            if (checksum != expectedChecksum) {
+                throw new CorruptStateException(
+                    "shared cache journal [" + path + "] has checksum [" + checksum + "] but expected [" + expectedChecksum + "]"
+                );
+            }
+            return entries;
+        }
+    }
+
+    private static <KeyType> Entry<KeyType> readEntry(
+        StreamInput in,
+        Path path,
+        int numRegions,
+        int regionSize,
+        Writeable.Reader<KeyType> keyReader
+    ) throws IOException {
+        final int sharedBytesPos = in.readVInt();
+        final KeyType key = keyReader.read(in);
+        final int region = in.readVInt();
+        final int length = in.readVInt();
+        if (sharedBytesPos >= numRegions || length <= 0 || length > regionSize) {
+            throw new CorruptStateException(
+                "shared cache journal [" + path + "] has an invalid entry at [" + sharedBytesPos + "] with length [" + length + "]"
+            );
+        }
+        final SortedSet<ByteRange> ranges = in.readCollection(ignored -> new TreeSet<>(), (i, set) -> {
+            final long start = i.readVLong();
+            final long end = i.readVLong();
+            if (start >= end || end > length) {
+                throw new CorruptStateException(
+                    "shared cache journal [" + path + "] has an invalid range [" + start + "-" + end + "] at [" + sharedBytesPos + "]"
+                );
+            }
+            set.add(ByteRange.of(start, end));
+        });
+        return new Entry<>(sharedBytesPos, key, region, length, ranges);
+    }
+
+    private static void writeRange(StreamOutput out, ByteRange range) throws IOException {
+        out.writeVLong(range.start());
+        out.writeVLong(range.end());
+    }
+}
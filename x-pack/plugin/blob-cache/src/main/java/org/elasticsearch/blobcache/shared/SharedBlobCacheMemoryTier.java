@@ -0,0 +1,82 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.blobcache.shared;
+
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+
+/**
+ * A small on-heap tier above the {@link SharedBytes} cache file. It holds copies of fixed-size blocks of the regions of the shared cache
+ * that are read most often, such as the headers and footers of Lucene files or the index of a terms dictionary, so that reading them
+ * again does not hit the disk.
+ * <p>
+ * Blocks are keyed by the {@link SharedBlobCacheService.CacheFileRegion} instance they were read from rather than by the key of the
+ * region: once a region is evicted from the shared cache its blocks cannot be hit anymore, even if the same region of the same blob is
+ * cached again later. They are dropped from this tier when the region is released, see {@link #invalidate}, so that they do not keep
+ * evicted regions reachable.
+ */
+final class SharedBlobCacheMemoryTier {
+
+    private record BlockKey(SharedBlobCacheService.CacheFileRegion<?> region, int block) {}
+
+    private final Cache<BlockKey, byte[]> blocks;
+    private final int blockSize;
+    private final int minFrequency;
+
+    SharedBlobCacheMemoryTier(long size, int blockSize, int minFrequency) {
+        assert size > 0L : size;
+        assert blockSize > 0 : blockSize;
+        this.blocks = CacheBuilder.<BlockKey, byte[]>builder().setMaximumWeight(size).weigher((key, bytes) -> bytes.length).build();
+        this.blockSize = blockSize;
+        this.minFrequency = minFrequency;
+    }
+
+    int blockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @return whether the blocks of a region that was used with the given frequency should be copied to this tier
+     */
+    boolean shouldAdmit(int frequency) {
+        return frequency >= minFrequency;
+    }
+
+    /**
+     * @return the block of the given region, or {@code null} if this tier does not hold it
+     */
+    byte[] get(SharedBlobCacheService.CacheFileRegion<?> region, int block) {
+        return blocks.get(new BlockKey(region, block));
+    }
+
+    void put(SharedBlobCacheService.CacheFileRegion<?> region, int block, byte[] bytes) {
+        assert bytes.length <= blockSize : bytes.length + " > " + blockSize;
+        final BlockKey key = new BlockKey(region, block);
+        blocks.put(key, bytes);
+        region.hasMemoryTierBlocks = true;
+        if (region.isEvicted()) {
+            // raced with the eviction of the region, which may have invalidated its blocks already
+            blocks.invalidate(key);
+        }
+    }
+
+    /**
+     * Drops all the blocks of the given region, which was evicted from the shared cache.
+     */
+    void invalidate(SharedBlobCacheService.CacheFileRegion<?> region, long regionLength) {
+        assert region.isEvicted();
+        for (int block = 0; block * (long) blockSize < regionLength; block++) {
+            blocks.invalidate(new BlockKey(region, block));
+        }
+    }
+
+    // used in tests
+    int count() {
+        return blocks.count();
+    }
+}
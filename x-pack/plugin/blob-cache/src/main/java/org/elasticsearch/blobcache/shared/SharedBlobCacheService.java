@@ -22,14 +22,17 @@ import org.elasticsearch.blobcache.common.SparseFileTracker;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodeRole;
 import org.elasticsearch.cluster.routing.allocation.DataTier;
+import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.settings.SettingsException;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.MemorySizeValue;
 import org.elasticsearch.common.unit.RelativeByteSizeValue;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.core.AbstractRefCounted;
 import org.elasticsearch.core.Assertions;
+import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Strings;
@@ -37,6 +40,7 @@ import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.monitor.fs.FsProbe;
+import org.elasticsearch.monitor.jvm.JvmInfo;
 import org.elasticsearch.node.NodeRoleSettings;
 import org.elasticsearch.threadpool.ThreadPool;
 
@@ -47,12 +51,17 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 import java.lang.reflect.Array;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
@@ -89,6 +98,16 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         Setting.Property.NodeScope
     );
 
+    /**
+     * The maximum number of bytes between two missing ranges of a region for them to be fetched with a single request to the blob store,
+     * see {@link RangeMissingHandler#sharedInputStreamFactory}. Disabled by default.
+     */
+    public static final Setting<ByteSizeValue> SHARED_CACHE_COALESCING_MAX_GAP_SETTING = Setting.byteSizeSetting(
+        SHARED_CACHE_SETTINGS_PREFIX + "coalescing.max_gap",
+        ByteSizeValue.ZERO,
+        Setting.Property.NodeScope
+    );
+
     public static final Setting<ByteSizeValue> SHARED_CACHE_REGION_SIZE_SETTING = new Setting<>(
         SHARED_CACHE_SETTINGS_PREFIX + "region_size",
         SHARED_CACHE_RANGE_SIZE_SETTING,
@@ -260,6 +279,65 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         Setting.Property.NodeScope
     );
 
+    /**
+     * Whether the contents of the shared cache are kept across restarts, see {@link SharedBlobCacheJournal}. Only applies to caches that
+     * know how to serialize their keys.
+     */
+    public static final Setting<Boolean> SHARED_CACHE_PERSISTENT_SETTING = Setting.boolSetting(
+        SHARED_CACHE_SETTINGS_PREFIX + "persistent",
+        false,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * The maximum share of the heap that the in-memory tier may use.
+     */
+    static final double MEMORY_TIER_MAX_HEAP_RATIO = 0.1;
+
+    /**
+     * The size of the in-memory tier that holds the most frequently read blocks of the shared cache, see
+     * {@link SharedBlobCacheMemoryTier}, either in bytes or as a percentage of the heap. Can't exceed
+     * {@link #MEMORY_TIER_MAX_HEAP_RATIO} of the heap. Disabled by default.
+     */
+    public static final Setting<ByteSizeValue> SHARED_CACHE_MEMORY_TIER_SIZE_SETTING = new Setting<>(
+        SHARED_CACHE_SETTINGS_PREFIX + "memory_tier.size",
+        ByteSizeValue.ZERO.getStringRep(),
+        s -> MemorySizeValue.parseBytesSizeValueOrHeapRatio(s, SHARED_CACHE_SETTINGS_PREFIX + "memory_tier.size"),
+        value -> {
+            final long maxBytes = (long) (JvmInfo.jvmInfo().getMem().getHeapMax().getBytes() * MEMORY_TIER_MAX_HEAP_RATIO);
+            if (value.getBytes() > maxBytes) {
+                throw new SettingsException(
+                    "setting [{}] must be at most [{}] ([{}]% of the heap)",
+                    SHARED_CACHE_SETTINGS_PREFIX + "memory_tier.size",
+                    ByteSizeValue.ofBytes(maxBytes),
+                    (int) (MEMORY_TIER_MAX_HEAP_RATIO * 100)
+                );
+            }
+        },
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * The size of the blocks that the in-memory tier copies from the shared cache, a multiple of the page size.
+     */
+    public static final Setting<ByteSizeValue> SHARED_CACHE_MEMORY_TIER_BLOCK_SIZE_SETTING = new Setting<>(
+        SHARED_CACHE_SETTINGS_PREFIX + "memory_tier.block_size",
+        ByteSizeValue.ofKb(16).getStringRep(),
+        s -> ByteSizeValue.parseBytesSizeValue(s, SHARED_CACHE_SETTINGS_PREFIX + "memory_tier.block_size"),
+        getPositivePageSizeAlignedByteSizeValueValidator(SHARED_CACHE_SETTINGS_PREFIX + "memory_tier.block_size"),
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * The minimum frequency, as tracked by the LFU cache, of a region for its blocks to be copied to the in-memory tier when read.
+     */
+    public static final Setting<Integer> SHARED_CACHE_MEMORY_TIER_MIN_FREQ_SETTING = Setting.intSetting(
+        SHARED_CACHE_SETTINGS_PREFIX + "memory_tier.min_freq",
+        2,                            // default
+        1,                            // min
+        Setting.Property.NodeScope
+    );
+
     // used in tests
     void computeDecay() {
         if (cache instanceof LFUCache lfuCache) {
@@ -293,6 +371,8 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         }
 
         abstract void touch();
+
+        abstract int frequency();
     }
 
     private static final Logger logger = LogManager.getLogger(SharedBlobCacheService.class);
@@ -307,6 +387,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
     private final int regionSize;
     private final int rangeSize;
     private final int recoveryRangeSize;
+    private final long coalescingMaxGap;
 
     private final int numRegions;
     private final ConcurrentLinkedQueue<SharedBytes.IO> freeRegions = new ConcurrentLinkedQueue<>();
@@ -329,6 +410,18 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
     private final LongSupplier relativeTimeInNanosSupplier;
 
+    @Nullable // if the in-memory tier is disabled
+    private final SharedBlobCacheMemoryTier memoryTier;
+
+    @Nullable // if the cache is not persistent
+    private final Path journalPath;
+
+    @Nullable // if the cache is not persistent
+    private final Writeable.Writer<KeyType> keyWriter;
+
+    // set once the contents of the cache are being persisted, after which no region is assigned anymore; guarded by this
+    private boolean closing;
+
     public SharedBlobCacheService(
         NodeEnvironment environment,
         Settings settings,
@@ -346,6 +439,23 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         Executor ioExecutor,
         BlobCacheMetrics blobCacheMetrics,
         LongSupplier relativeTimeInNanosSupplier
+    ) {
+        this(environment, settings, threadPool, ioExecutor, blobCacheMetrics, relativeTimeInNanosSupplier, null, null);
+    }
+
+    /**
+     * Creates a cache whose contents can be kept across restarts if {@link #SHARED_CACHE_PERSISTENT_SETTING} is set, using the given
+     * reader and writer to persist the keys of the cached regions.
+     */
+    public SharedBlobCacheService(
+        NodeEnvironment environment,
+        Settings settings,
+        ThreadPool threadPool,
+        Executor ioExecutor,
+        BlobCacheMetrics blobCacheMetrics,
+        LongSupplier relativeTimeInNanosSupplier,
+        @Nullable Writeable.Reader<KeyType> keyReader,
+        @Nullable Writeable.Writer<KeyType> keyWriter
     ) {
         this.threadPool = threadPool;
         this.ioExecutor = ioExecutor;
@@ -366,6 +476,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         this.regionSize = regionSize;
         assert regionSize > 0L;
         this.cache = new LFUCache(settings);
+        final boolean persistent = keyReader != null && keyWriter != null && SHARED_CACHE_PERSISTENT_SETTING.get(settings);
         try {
             sharedBytes = new SharedBytes(
                 numRegions,
@@ -373,23 +484,73 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
                 environment,
                 writeBytes::add,
                 SHARED_CACHE_COUNT_READS.get(settings) ? readBytes::add : ignored -> {},
-                SHARED_CACHE_MMAP.get(settings)
+                SHARED_CACHE_MMAP.get(settings),
+                persistent
             );
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
+        final Path journalPath = SharedBlobCacheJournal.journalPath(environment.nodeDataPaths()[0]);
+        this.journalPath = persistent && numRegions > 0 ? journalPath : null;
+        this.keyWriter = keyWriter;
+        final Set<Integer> restoredRegions = restoreRegions(journalPath, keyReader);
         for (int i = 0; i < numRegions; i++) {
-            freeRegions.add(sharedBytes.getFileChannel(i));
+            if (restoredRegions.contains(i) == false) {
+                freeRegions.add(sharedBytes.getFileChannel(i));
+            }
         }
 
         this.rangeSize = BlobCacheUtils.toIntBytes(SHARED_CACHE_RANGE_SIZE_SETTING.get(settings).getBytes());
         this.recoveryRangeSize = BlobCacheUtils.toIntBytes(SHARED_CACHE_RECOVERY_RANGE_SIZE_SETTING.get(settings).getBytes());
+        this.coalescingMaxGap = SHARED_CACHE_COALESCING_MAX_GAP_SETTING.get(settings).getBytes();
+        final long memoryTierSize = SHARED_CACHE_MEMORY_TIER_SIZE_SETTING.get(settings).getBytes();
+        this.memoryTier = memoryTierSize > 0L && numRegions > 0
+            ? new SharedBlobCacheMemoryTier(
+                memoryTierSize,
+                BlobCacheUtils.toIntBytes(SHARED_CACHE_MEMORY_TIER_BLOCK_SIZE_SETTING.get(settings).getBytes()),
+                SHARED_CACHE_MEMORY_TIER_MIN_FREQ_SETTING.get(settings)
+            )
+            : null;
 
         this.blobCacheMetrics = blobCacheMetrics;
         this.evictIncrementer = blobCacheMetrics.getEvictedCountNonZeroFrequency()::increment;
         this.relativeTimeInNanosSupplier = relativeTimeInNanosSupplier;
     }
 
+    /**
+     * Assigns the regions recorded in the journal at the given path, if any, to the keys they held before the restart and deletes the
+     * journal, since the cache file is about to be written to again.
+     *
+     * @return the positions of the regions that were restored
+     */
+    private Set<Integer> restoreRegions(Path journalPath, @Nullable Writeable.Reader<KeyType> keyReader) {
+        if (Files.exists(journalPath) == false) {
+            return Set.of();
+        }
+        final Set<Integer> restoredRegions = new HashSet<>();
+        try {
+            if (this.journalPath != null && sharedBytes.reusedExistingFile() && cache instanceof LFUCache lfuCache) {
+                for (var entry : SharedBlobCacheJournal.read(journalPath, numRegions, regionSize, keyReader)) {
+                    final int sharedBytesPos = entry.sharedBytesPos();
+                    if (restoredRegions.contains(sharedBytesPos) == false
+                        && lfuCache.restore(entry, sharedBytes.getFileChannel(sharedBytesPos))) {
+                        restoredRegions.add(sharedBytesPos);
+                    }
+                }
+                logger.info("restored [{}] regions of the shared cache from [{}]", restoredRegions.size(), journalPath);
+            }
+        } catch (Exception e) {
+            logger.warn(() -> "failed to restore the shared cache from [" + journalPath + "], starting with an empty cache", e);
+        }
+        try {
+            Files.delete(journalPath);
+            IOUtils.fsync(journalPath.getParent(), true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return restoredRegions;
+    }
+
     public static long calculateCacheSize(Settings settings, long totalFsSize) {
         return SHARED_CACHE_SIZE_SETTING.get(settings)
             .calculateValue(ByteSizeValue.ofBytes(totalFsSize), SHARED_CACHE_SIZE_MAX_HEADROOM_SETTING.get(settings))
@@ -408,6 +569,14 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         return recoveryRangeSize;
     }
 
+    /**
+     * @return the maximum number of bytes between two missing ranges of a region for them to be fetched with a single request, or 0 if
+     *         missing ranges should never be coalesced
+     */
+    public long getCoalescingMaxGap() {
+        return coalescingMaxGap;
+    }
+
     protected int getRegion(long position) {
         return (int) (position / regionSize);
     }
@@ -571,7 +740,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         final Executor fetchExecutor,
         final ActionListener<Boolean> listener
     ) {
-        if (freeRegionCount() < 1 && maybeEvictLeastUsed() == false) {
+        if (maybeFreeRegion() == false) {
             // no free page available and no old enough unused region to be evicted
             logger.info("No free regions, skipping loading region [{}]", region);
             listener.onResponse(false);
@@ -659,6 +828,17 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         );
     }
 
+    /**
+     * Checks whether a new region can be loaded in cache without evicting a region that is still in use, evicting an old enough unused
+     * region if there are no free regions. Callers that fetch speculative regions with {@link #maybeFetchRegion} can use this to stop
+     * early when the cache is full.
+     *
+     * @return {@code true} if there is a free region in the cache
+     */
+    public boolean maybeFreeRegion() {
+        return freeRegionCount() > 0 || maybeEvictLeastUsed();
+    }
+
     // used by tests
     boolean maybeEvictLeastUsed() {
         if (cache instanceof LFUCache lfuCache) {
@@ -671,6 +851,11 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         throw new AlreadyClosedException(message);
     }
 
+    // used by tests
+    SharedBlobCacheMemoryTier memoryTier() {
+        return memoryTier;
+    }
+
     // used by tests
     int freeRegionCount() {
         return freeRegions.size();
@@ -714,9 +899,32 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
     @Override
     public void close() {
+        if (journalPath != null) {
+            writeJournal();
+        }
         sharedBytes.decRef();
     }
 
+    /**
+     * Records the regions that are in use in the journal, so that their contents can be reused once the node is restarted.
+     */
+    private void writeJournal() {
+        final List<SharedBlobCacheJournal.Entry<KeyType>> entries;
+        synchronized (this) {
+            // no region changes hands from now on, so that the journal keeps matching the contents of the cache file
+            closing = true;
+            entries = cache instanceof LFUCache lfuCache ? lfuCache.journalEntries() : List.of();
+        }
+        try {
+            // only the ranges completed before the fsync are in the journal
+            sharedBytes.fsync();
+            SharedBlobCacheJournal.write(journalPath, numRegions, regionSize, entries, keyWriter);
+            logger.info("persisted [{}] regions of the shared cache to [{}]", entries.size(), journalPath);
+        } catch (Exception e) {
+            logger.warn(() -> "failed to persist the shared cache to [" + journalPath + "]", e);
+        }
+    }
+
     private record RegionKey<KeyType>(KeyType file, int region) {
         @Override
         public String toString() {
@@ -814,12 +1022,24 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         // side effects
         private SharedBytes.IO io = null;
 
+        // whether the in-memory tier may hold blocks of this region, which must be dropped once the region is released
+        volatile boolean hasMemoryTierBlocks;
+
         CacheFileRegion(SharedBlobCacheService<KeyType> blobCacheService, RegionKey<KeyType> regionKey, int regionSize) {
+            this(blobCacheService, regionKey, regionSize, Collections.emptySortedSet());
+        }
+
+        CacheFileRegion(
+            SharedBlobCacheService<KeyType> blobCacheService,
+            RegionKey<KeyType> regionKey,
+            int regionSize,
+            SortedSet<ByteRange> completedRanges
+        ) {
             this.blobCacheService = blobCacheService;
             this.regionKey = regionKey;
             assert regionSize > 0;
             // NOTE we use a constant string for description to avoid consume extra heap space
-            tracker = new SparseFileTracker("file", regionSize);
+            tracker = new SparseFileTracker("file", regionSize, completedRanges);
         }
 
         // only used for logging
@@ -893,6 +1113,9 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
                 assert blobCacheService.regionOwners.remove(io) == this;
                 blobCacheService.freeRegions.add(io);
             }
+            if (hasMemoryTierBlocks) {
+                blobCacheService.memoryTier.invalidate(this, tracker.getLength());
+            }
             logger.trace("closed {} with channel offset {}", regionKey, physicalStartOffset());
         }
 
@@ -1168,13 +1391,64 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             }
             final var region = fileRegion.chunk;
             if (region.tracker.checkAvailable(end - getRegionStart(startRegion)) == false) {
+                blobCacheMetrics.recordMiss(BlobCacheMetrics.CacheTier.Disk);
                 return false;
             }
-            boolean res = region.tryRead(buf, offset);
+            boolean res = memoryTier == null ? tryReadFromDisk(region, buf, offset) : tryReadWithMemoryTier(fileRegion, buf, offset);
             lastAccessedRegion = res ? fileRegion : null;
             return res;
         }
 
+        private boolean tryReadFromDisk(CacheFileRegion<KeyType> region, ByteBuffer buf, long offset) throws IOException {
+            if (region.tryRead(buf, offset)) {
+                blobCacheMetrics.recordHit(BlobCacheMetrics.CacheTier.Disk);
+                return true;
+            }
+            blobCacheMetrics.recordMiss(BlobCacheMetrics.CacheTier.Disk);
+            return false;
+        }
+
+        /**
+         * Reads from the in-memory tier if it holds the block that contains the requested bytes, otherwise reads from disk and copies the
+         * block to the in-memory tier if the region is used frequently enough. Reads spanning multiple blocks always go to disk.
+         */
+        private boolean tryReadWithMemoryTier(CacheEntry<CacheFileRegion<KeyType>> fileRegion, ByteBuffer buf, long offset)
+            throws IOException {
+            final CacheFileRegion<KeyType> region = fileRegion.chunk;
+            final int blockSize = memoryTier.blockSize();
+            final int relativePos = getRegionRelativePosition(offset);
+            final int length = buf.remaining();
+            final int block = relativePos / blockSize;
+            if ((relativePos + length - 1) / blockSize != block) {
+                return tryReadFromDisk(region, buf, offset);
+            }
+            final int blockStart = block * blockSize;
+            final byte[] bytes = memoryTier.get(region, block);
+            if (bytes != null) {
+                buf.put(bytes, relativePos - blockStart, length);
+                if (region.isEvicted()) {
+                    buf.position(buf.position() - length);
+                    return false;
+                }
+                blobCacheMetrics.recordHit(BlobCacheMetrics.CacheTier.Memory);
+                return true;
+            }
+            blobCacheMetrics.recordMiss(BlobCacheMetrics.CacheTier.Memory);
+            if (tryReadFromDisk(region, buf, offset) == false) {
+                return false;
+            }
+            if (memoryTier.shouldAdmit(fileRegion.frequency())) {
+                final int blockLength = Math.toIntExact(Math.min(blockSize, region.tracker.getLength() - blockStart));
+                if (region.tracker.checkAvailable(blockStart + blockLength)) {
+                    final byte[] blockBytes = new byte[blockLength];
+                    if (region.tryRead(ByteBuffer.wrap(blockBytes), getRegionStart(region.regionKey.region()) + blockStart)) {
+                        memoryTier.put(region, block, blockBytes);
+                    }
+                }
+            }
+            return true;
+        }
+
         public int populateAndRead(
             final ByteRange rangeToWrite,
             final ByteRange rangeToRead,
@@ -1519,6 +1793,11 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
                     maybePromote(now, this);
                 }
             }
+
+            @Override
+            int frequency() {
+                return freq;
+            }
         }
 
         private final ConcurrentHashMap<RegionKey<KeyType>, LFUCacheEntry> keyMapping = new ConcurrentHashMap<>();
@@ -1606,6 +1885,59 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             return evictedCount;
         }
 
+        /**
+         * Assigns the given region of the cache file to the key it held before a restart.
+         *
+         * @return whether the region was restored, which is not the case if its key is already mapped to another region
+         */
+        boolean restore(SharedBlobCacheJournal.Entry<KeyType> journalEntry, SharedBytes.IO io) {
+            final RegionKey<KeyType> regionKey = new RegionKey<>(journalEntry.key(), journalEntry.region());
+            final CacheFileRegion<KeyType> chunk;
+            try {
+                chunk = new CacheFileRegion<>(SharedBlobCacheService.this, regionKey, journalEntry.length(), journalEntry.ranges());
+            } catch (IllegalArgumentException e) {
+                logger.debug(() -> "skipping invalid shared cache journal entry for " + regionKey, e);
+                return false;
+            }
+            final LFUCacheEntry entry = new LFUCacheEntry(chunk, epoch.get());
+            if (keyMapping.putIfAbsent(regionKey, entry) != null) {
+                return false;
+            }
+            assignToSlot(entry, io);
+            return true;
+        }
+
+        /**
+         * @return the regions in use along with the ranges of their contents that are present, from the least to the most frequently
+         * used region
+         */
+        List<SharedBlobCacheJournal.Entry<KeyType>> journalEntries() {
+            assert Thread.holdsLock(SharedBlobCacheService.this);
+            final List<SharedBlobCacheJournal.Entry<KeyType>> entries = new ArrayList<>();
+            for (int i = 0; i < maxFreq; i++) {
+                for (LFUCacheEntry entry = freqs[i]; entry != null; entry = entry.next) {
+                    final CacheFileRegion<KeyType> chunk = entry.chunk;
+                    final SharedBytes.IO io = chunk.volatileIO();
+                    if (io == null || chunk.isEvicted()) {
+                        continue;
+                    }
+                    final SortedSet<ByteRange> ranges = chunk.tracker.getCompletedRanges();
+                    if (ranges.isEmpty() == false) {
+                        entries.add(
+                            new SharedBlobCacheJournal.Entry<>(
+                                io.sharedBytesPos(),
+                                chunk.regionKey.file(),
+                                chunk.regionKey.region(),
+                                Math.toIntExact(chunk.tracker.getLength()),
+                                ranges
+                            )
+                        );
+                    }
+                }
+            }
+            return entries;
+        }
+
         private LFUCacheEntry initChunk(LFUCacheEntry entry) {
             assert Thread.holdsLock(entry.chunk);
             RegionKey<KeyType> regionKey = entry.chunk.regionKey;
@@ -1644,11 +1976,11 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         private void assignToSlot(LFUCacheEntry entry, SharedBytes.IO freeSlot) {
             assert regionOwners.put(freeSlot, entry.chunk) == null;
             synchronized (SharedBlobCacheService.this) {
-                if (entry.chunk.isEvicted()) {
+                if (entry.chunk.isEvicted() || closing) {
                     assert regionOwners.remove(freeSlot) == entry.chunk;
                     freeRegions.add(freeSlot);
                     keyMapping.remove(entry.chunk.regionKey, entry);
-                    throwAlreadyClosed("evicted during free region allocation");
+                    throwAlreadyClosed(closing ? "shared cache is closing" : "evicted during free region allocation");
                 }
                 pushEntryToBack(entry);
                 // assign io only when chunk is ready for use. Under lock to avoid concurrent tryEvict.
@@ -71,14 +71,35 @@ public class SharedBytes extends AbstractRefCounted {
 
     private final boolean mmap;
 
+    // whether the cache file is kept on close, so that its contents can be reused after a restart
+    private final boolean persistent;
+
+    // whether an existing cache file of the expected size was opened, whose contents may be reused
+    private final boolean reusedExistingFile;
+
     SharedBytes(int numRegions, int regionSize, NodeEnvironment environment, IntConsumer writeBytes, IntConsumer readBytes, boolean mmap)
         throws IOException {
+        this(numRegions, regionSize, environment, writeBytes, readBytes, mmap, false);
+    }
+
+    SharedBytes(
+        int numRegions,
+        int regionSize,
+        NodeEnvironment environment,
+        IntConsumer writeBytes,
+        IntConsumer readBytes,
+        boolean mmap,
+        boolean persistent
+    ) throws IOException {
         this.numRegions = numRegions;
         this.regionSize = regionSize;
+        this.persistent = persistent;
         final long fileSize = (long) numRegions * regionSize;
         Path cacheFile = null;
+        boolean reusedExistingFile = false;
         if (fileSize > 0) {
             cacheFile = findCacheSnapshotCacheFilePath(environment, fileSize);
+            reusedExistingFile = Files.exists(cacheFile) && Files.size(cacheFile) == fileSize;
             preallocate(cacheFile, fileSize);
             this.fileChannel = FileChannel.open(cacheFile, OPEN_OPTIONS);
             assert this.fileChannel.size() == fileSize : "expected file size " + fileSize + " but was " + fileChannel.size();
@@ -89,6 +110,7 @@ public class SharedBytes extends AbstractRefCounted {
             }
         }
         this.path = cacheFile;
+        this.reusedExistingFile = reusedExistingFile;
         this.mmap = mmap;
         this.ios = new IO[numRegions];
         if (mmap && fileSize > 0) {
@@ -290,10 +312,27 @@ public class SharedBytes extends AbstractRefCounted {
         return bytesRead;
     }
 
+    /**
+     * @return whether the cache file existed with the expected size before this instance was created, in which case it may still hold the
+     * data that was cached before a restart
+     */
+    boolean reusedExistingFile() {
+        return reusedExistingFile;
+    }
+
+    /**
+     * Ensures that all the data written to the cache file so far is durably stored on disk.
+     */
+    void fsync() throws IOException {
+        if (fileChannel != null) {
+            fileChannel.force(false);
+        }
+    }
+
     @Override
     protected void closeInternal() {
         try {
-            IOUtils.close(fileChannel, path == null ? null : () -> Files.deleteIfExists(path));
+            IOUtils.close(fileChannel, path == null || persistent ? null : () -> Files.deleteIfExists(path));
         } catch (IOException e) {
             logger.warn("Failed to clean up shared bytes file", e);
         }
@@ -306,6 +345,8 @@ public class SharedBytes extends AbstractRefCounted {
 
     public final class IO {
 
+        private final int sharedBytesPos;
+
         private final long pageStart;
 
         private final MappedByteBuffer mappedByteBuffer;
@@ -313,10 +354,15 @@ public class SharedBytes extends AbstractRefCounted {
         private IO(final int sharedBytesPos, MappedByteBuffer mappedByteBuffer) {
             long physicalOffset = (long) sharedBytesPos * regionSize;
             assert physicalOffset <= (long) numRegions * regionSize;
+            this.sharedBytesPos = sharedBytesPos;
             this.pageStart = physicalOffset;
             this.mappedByteBuffer = mappedByteBuffer;
         }
 
+        int sharedBytesPos() {
+            return sharedBytesPos;
+        }
+
         @SuppressForbidden(reason = "Use positional reads on purpose")
         public int read(ByteBuffer dst, int position) throws IOException {
             int remaining = dst.remaining();
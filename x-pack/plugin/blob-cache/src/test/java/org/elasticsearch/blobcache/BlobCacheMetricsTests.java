@@ -14,6 +14,7 @@ import org.elasticsearch.telemetry.RecordingMeterRegistry;
 import org.elasticsearch.test.ESTestCase;
 import org.junit.Before;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class BlobCacheMetricsTests extends ESTestCase {
@@ -61,6 +62,27 @@ public class BlobCacheMetricsTests extends ESTestCase {
         assertExpectedAttributesPresent(totalTimeMeasurement, cachePopulationReason, cachePopulationSource);
     }
 
+    public void testRecordHitAndMiss() {
+        final BlobCacheMetrics.CacheTier tier = randomFrom(BlobCacheMetrics.CacheTier.values());
+        final int hits = between(1, 10);
+        for (int i = 0; i < hits; i++) {
+            metrics.recordHit(tier);
+        }
+        metrics.recordMiss(tier);
+        recordingMeterRegistry.getRecorder().collect();
+
+        for (String name : new String[] { "es.blob_cache.read.hit.total", "es.blob_cache.read.miss.total" }) {
+            final List<Measurement> measurements = recordingMeterRegistry.getRecorder()
+                .getMeasurements(InstrumentType.LONG_ASYNC_COUNTER, name);
+            assertEquals(BlobCacheMetrics.CacheTier.values().length, measurements.size());
+            for (Measurement measurement : measurements) {
+                final boolean recordedTier = tier.name().equals(measurement.attributes().get(BlobCacheMetrics.CACHE_TIER_ATTRIBUTE_KEY));
+                final long expected = recordedTier == false ? 0L : name.equals("es.blob_cache.read.hit.total") ? hits : 1L;
+                assertEquals(expected, measurement.getLong());
+            }
+        }
+    }
+
     private static void assertExpectedAttributesPresent(
         Measurement measurement,
         BlobCacheMetrics.CachePopulationReason cachePopulationReason,
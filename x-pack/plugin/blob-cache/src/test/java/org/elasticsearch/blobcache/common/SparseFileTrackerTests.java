@@ -476,6 +476,9 @@ public class SparseFileTrackerTests extends ESTestCase {
 
         final SparseFileTracker sparseFileTracker = new SparseFileTracker("test", fileLength, completedRanges);
         assertThat(sparseFileTracker.getCompletedRanges(), equalTo(completedRanges));
+        final long expectedComplete = completedRanges.isEmpty() || completedRanges.first().start() > 0 ? 0L : completedRanges.first().end();
+        assertThat(sparseFileTracker.getComplete(), equalTo(expectedComplete));
+        assertThat(sparseFileTracker.checkAvailable(expectedComplete), is(true));
 
         for (ByteRange completedRange : completedRanges) {
             assertThat(sparseFileTracker.getAbsentRangeWithin(completedRange), nullValue());
@@ -18,6 +18,8 @@ import org.elasticsearch.blobcache.common.SparseFileTracker;
 import org.elasticsearch.blobcache.shared.SharedBlobCacheService.RangeMissingHandler;
 import org.elasticsearch.blobcache.shared.SharedBlobCacheService.SourceInputStreamFactory;
 import org.elasticsearch.cluster.node.DiscoveryNodeRole;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.settings.SettingsException;
@@ -33,19 +35,28 @@ import org.elasticsearch.core.CheckedRunnable;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.env.TestEnvironment;
+import org.elasticsearch.monitor.jvm.JvmInfo;
 import org.elasticsearch.node.NodeRoleSettings;
+import org.elasticsearch.telemetry.InstrumentType;
+import org.elasticsearch.telemetry.Measurement;
+import org.elasticsearch.telemetry.RecordingMeterRegistry;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.TimeUnit;
@@ -58,6 +69,8 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.elasticsearch.node.Node.NODE_NAME_SETTING;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.instanceOf;
@@ -1378,6 +1391,19 @@ public class SharedBlobCacheServiceTests extends ESTestCase {
         assertThatNonPositiveRecoveryRangeSizeRejected(SharedBlobCacheService.SHARED_CACHE_RECOVERY_RANGE_SIZE_SETTING);
     }
 
+    public void testMemoryTierSizeBoundedByHeap() {
+        final Setting<ByteSizeValue> setting = SharedBlobCacheService.SHARED_CACHE_MEMORY_TIER_SIZE_SETTING;
+        final long heapSize = JvmInfo.jvmInfo().getMem().getHeapMax().getBytes();
+        assertThat(setting.get(Settings.builder().put(setting.getKey(), "5%").build()).getBytes(), equalTo((long) (heapSize * 0.05)));
+
+        final Settings settings = Settings.builder()
+            .put(setting.getKey(), randomFrom("50%", ByteSizeValue.ofBytes(heapSize).getStringRep()))
+            .build();
+        final IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> setting.get(settings));
+        assertThat(e.getCause(), instanceOf(SettingsException.class));
+        assertThat(e.getCause().getMessage(), containsString("must be at most"));
+    }
+
     public void testUseFullRegionSize() throws IOException {
         final long regionSize = size(randomIntBetween(1, 100));
         final long cacheSize = regionSize * randomIntBetween(1, 10);
@@ -1541,4 +1567,210 @@ public class SharedBlobCacheServiceTests extends ESTestCase {
             threadPool.shutdown();
         }
     }
+
+    public void testPersistentCacheSurvivesRestart() throws IOException {
+        final long regionSize = size(2L);
+        Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(10)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_PERSISTENT_SETTING.getKey(), true)
+            .put("path.home", createTempDir())
+            .build();
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        final String cacheKey = randomAlphaOfLength(10);
+        final long blobLength = size(3L);
+        final byte[] bytes = randomByteArrayOfLength(Math.toIntExact(regionSize));
+        try (NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings))) {
+            final Path journalPath = SharedBlobCacheJournal.journalPath(environment.nodeDataPaths()[0]);
+            try (var cacheService = newPersistentCacheService(environment, settings, taskQueue)) {
+                final var region = cacheService.get(cacheKey, blobLength, 0);
+                final PlainActionFuture<Boolean> future = new PlainActionFuture<>();
+                region.populate(
+                    ByteRange.of(0L, regionSize),
+                    (channel, channelPos, streamFactory, relativePos, length, progressUpdater, completionListener) -> completeWith(
+                        completionListener,
+                        () -> {
+                            channel.write(ByteBuffer.wrap(bytes, relativePos, length), channelPos);
+                            progressUpdater.accept(length);
+                        }
+                    ),
+                    taskQueue.getThreadPool().generic(),
+                    future
+                );
+                taskQueue.runAllRunnableTasks();
+                assertThat(future.actionGet(), is(true));
+                // a region without any data is not restored
+                cacheService.get(cacheKey, blobLength, 1);
+                assertThat(cacheService.freeRegionCount(), equalTo(3));
+            }
+            assertTrue(Files.exists(journalPath));
+
+            try (var cacheService = newPersistentCacheService(environment, settings, taskQueue)) {
+                assertFalse(Files.exists(journalPath));
+                assertThat(cacheService.freeRegionCount(), equalTo(4));
+                final var region = cacheService.get(cacheKey, blobLength, 0);
+                assertThat(region.tracker.getCompletedRanges(), equalTo(new TreeSet<>(Set.of(ByteRange.of(0L, regionSize)))));
+                assertThat(region.tracker.checkAvailable(regionSize), is(true));
+                final ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
+                assertTrue(region.tryRead(buffer, 0L));
+                assertArrayEquals(bytes, buffer.array());
+                assertThat(cacheService.get(cacheKey, blobLength, 1).tracker.getCompletedRanges(), empty());
+            }
+
+            // a corrupted journal is ignored
+            final byte[] journal = Files.readAllBytes(journalPath);
+            journal[randomIntBetween(0, journal.length - 1)] ^= 0x01;
+            Files.write(journalPath, journal);
+            try (var cacheService = newPersistentCacheService(environment, settings, taskQueue)) {
+                assertFalse(Files.exists(journalPath));
+                assertThat(cacheService.freeRegionCount(), equalTo(5));
+            }
+
+            // the journal is discarded if the cache is not persistent anymore
+            assertTrue(Files.exists(journalPath));
+            final Settings nonPersistentSettings = Settings.builder()
+                .put(settings)
+                .put(SharedBlobCacheService.SHARED_CACHE_PERSISTENT_SETTING.getKey(), false)
+                .build();
+            try (var cacheService = newPersistentCacheService(environment, nonPersistentSettings, taskQueue)) {
+                assertFalse(Files.exists(journalPath));
+                assertThat(cacheService.freeRegionCount(), equalTo(5));
+            }
+            assertFalse(Files.exists(journalPath));
+        }
+    }
+
+    public void testMemoryTier() throws Exception {
+        final long regionSize = size(4L);
+        final long blockSize = size(1L);
+        Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(8)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_MEMORY_TIER_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(2)).getStringRep())
+            .put(
+                SharedBlobCacheService.SHARED_CACHE_MEMORY_TIER_BLOCK_SIZE_SETTING.getKey(),
+                ByteSizeValue.ofBytes(blockSize).getStringRep()
+            )
+            .put(SharedBlobCacheService.SHARED_CACHE_MEMORY_TIER_MIN_FREQ_SETTING.getKey(), 1)
+            .put("path.home", createTempDir())
+            .build();
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        final RecordingMeterRegistry meterRegistry = new RecordingMeterRegistry();
+        try (
+            NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+            var cacheService = new SharedBlobCacheService<>(
+                environment,
+                settings,
+                taskQueue.getThreadPool(),
+                taskQueue.getThreadPool().executor(ThreadPool.Names.GENERIC),
+                new BlobCacheMetrics(meterRegistry)
+            )
+        ) {
+            final var cacheKey = generateCacheKey();
+            final byte[] bytes = randomByteArrayOfLength(Math.toIntExact(regionSize));
+            final var cacheFile = cacheService.getCacheFile(cacheKey, regionSize);
+            final ByteBuffer buffer = ByteBuffer.allocate(between(1, Math.toIntExact(blockSize)));
+            final int offset = between(0, Math.toIntExact(blockSize) - buffer.capacity());
+            final int end = offset + buffer.capacity();
+
+            // nothing is available yet
+            assertFalse(cacheFile.tryRead(buffer, offset));
+            assertTierReads(meterRegistry, BlobCacheMetrics.CacheTier.Disk, 0L, 1L);
+
+            populate(cacheService, cacheKey, regionSize, bytes, taskQueue);
+
+            // the first read is served from disk and copies the block to the in-memory tier
+            assertTrue(cacheFile.tryRead(buffer, offset));
+            assertArrayEquals(Arrays.copyOfRange(bytes, offset, end), buffer.array());
+            assertTierReads(meterRegistry, BlobCacheMetrics.CacheTier.Disk, 1L, 1L);
+            assertTierReads(meterRegistry, BlobCacheMetrics.CacheTier.Memory, 0L, 1L);
+            assertThat(cacheService.memoryTier().count(), equalTo(1));
+
+            // the second read is served from memory
+            buffer.clear();
+            assertTrue(cacheFile.tryRead(buffer, offset));
+            assertArrayEquals(Arrays.copyOfRange(bytes, offset, end), buffer.array());
+            assertTierReads(meterRegistry, BlobCacheMetrics.CacheTier.Disk, 1L, 1L);
+            assertTierReads(meterRegistry, BlobCacheMetrics.CacheTier.Memory, 1L, 1L);
+
+            // a read spanning two blocks is served from disk
+            final ByteBuffer spanningBuffer = ByteBuffer.allocate(2);
+            assertTrue(cacheFile.tryRead(spanningBuffer, blockSize - 1));
+            assertArrayEquals(Arrays.copyOfRange(bytes, (int) blockSize - 1, (int) blockSize + 1), spanningBuffer.array());
+            assertTierReads(meterRegistry, BlobCacheMetrics.CacheTier.Disk, 2L, 1L);
+            assertTierReads(meterRegistry, BlobCacheMetrics.CacheTier.Memory, 1L, 1L);
+
+            // blocks of evicted regions are not served anymore, even if the region is cached again
+            assertThat(cacheService.forceEvict(cacheKey::equals), equalTo(1));
+            // and they are dropped from the in-memory tier so that they don't keep the evicted region reachable
+            assertThat(cacheService.memoryTier().count(), equalTo(0));
+            final byte[] otherBytes = randomByteArrayOfLength(Math.toIntExact(regionSize));
+            populate(cacheService, cacheKey, regionSize, otherBytes, taskQueue);
+            final var otherCacheFile = cacheService.getCacheFile(cacheKey, regionSize);
+            buffer.clear();
+            assertTrue(otherCacheFile.tryRead(buffer, offset));
+            assertArrayEquals(Arrays.copyOfRange(otherBytes, offset, end), buffer.array());
+            assertTierReads(meterRegistry, BlobCacheMetrics.CacheTier.Memory, 1L, 2L);
+        }
+    }
+
+    private static void populate(
+        SharedBlobCacheService<Object> cacheService,
+        Object cacheKey,
+        long regionSize,
+        byte[] bytes,
+        DeterministicTaskQueue taskQueue
+    ) {
+        final PlainActionFuture<Boolean> future = new PlainActionFuture<>();
+        cacheService.get(cacheKey, regionSize, 0)
+            .populate(
+                ByteRange.of(0L, regionSize),
+                (channel, channelPos, streamFactory, relativePos, length, progressUpdater, completionListener) -> completeWith(
+                    completionListener,
+                    () -> {
+                        channel.write(ByteBuffer.wrap(bytes, relativePos, length), channelPos);
+                        progressUpdater.accept(length);
+                    }
+                ),
+                taskQueue.getThreadPool().generic(),
+                future
+            );
+        taskQueue.runAllRunnableTasks();
+        assertThat(future.actionGet(), is(true));
+    }
+
+    private static void assertTierReads(RecordingMeterRegistry meterRegistry, BlobCacheMetrics.CacheTier tier, long hits, long misses) {
+        meterRegistry.getRecorder().resetCalls();
+        meterRegistry.getRecorder().collect();
+        assertThat(tierReads(meterRegistry, "es.blob_cache.read.hit.total", tier), equalTo(hits));
+        assertThat(tierReads(meterRegistry, "es.blob_cache.read.miss.total", tier), equalTo(misses));
+    }
+
+    private static long tierReads(RecordingMeterRegistry meterRegistry, String name, BlobCacheMetrics.CacheTier tier) {
+        return meterRegistry.getRecorder()
+            .getMeasurements(InstrumentType.LONG_ASYNC_COUNTER, name)
+            .stream()
+            .filter(m -> tier.name().equals(m.attributes().get(BlobCacheMetrics.CACHE_TIER_ATTRIBUTE_KEY)))
+            .mapToLong(Measurement::getLong)
+            .sum();
+    }
+
+    private static SharedBlobCacheService<String> newPersistentCacheService(
+        NodeEnvironment environment,
+        Settings settings,
+        DeterministicTaskQueue taskQueue
+    ) {
+        return new SharedBlobCacheService<>(
+            environment,
+            settings,
+            taskQueue.getThreadPool(),
+            taskQueue.getThreadPool().executor(ThreadPool.Names.GENERIC),
+            BlobCacheMetrics.NOOP,
+            System::nanoTime,
+            StreamInput::readString,
+            StreamOutput::writeString
+        );
+    }
 }
@@ -45,4 +45,9 @@ public interface PlanStreamOutput {
     }
 
     void writeOptionalCachedString(String str) throws IOException;
+
+    /**
+     * Writes the id of a {@link org.elasticsearch.xpack.esql.core.expression.NameId}. The mirror of {@link PlanStreamInput#mapNameId}.
+     */
+    void writeNameId(long id) throws IOException;
 }
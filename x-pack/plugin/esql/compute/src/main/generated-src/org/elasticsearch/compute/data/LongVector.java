@@ -90,6 +90,7 @@ public sealed interface LongVector extends Vector permits ConstantLongVector, Lo
             case SERIALIZE_VECTOR_CONSTANT -> blockFactory.newConstantLongVector(in.readLong(), positions);
             case SERIALIZE_VECTOR_ARRAY -> LongArrayVector.readArrayVector(positions, in, blockFactory);
             case SERIALIZE_VECTOR_BIG_ARRAY -> LongBigArrayVector.readArrayVector(positions, in, blockFactory);
+            case SERIALIZE_VECTOR_DELTA -> readDeltaValues(positions, in, blockFactory);
             default -> {
                 assert false : "invalid vector serialization type [" + serializationType + "]";
                 throw new IllegalStateException("invalid vector serialization type [" + serializationType + "]");
@@ -105,6 +106,9 @@ public sealed interface LongVector extends Vector permits ConstantLongVector, Lo
         if (isConstant() && positions > 0) {
             out.writeByte(SERIALIZE_VECTOR_CONSTANT);
             out.writeLong(getLong(0));
+        } else if (version.onOrAfter(TransportVersions.ESQL_COMPACT_EXCHANGE) && deltaEncodingSaves(this, positions)) {
+            out.writeByte(SERIALIZE_VECTOR_DELTA);
+            writeDeltaValues(this, positions, out);
         } else if (version.onOrAfter(TransportVersions.V_8_14_0) && this instanceof LongArrayVector v) {
             out.writeByte(SERIALIZE_VECTOR_ARRAY);
             v.writeArrayVector(positions, out);
@@ -132,6 +136,54 @@ public sealed interface LongVector extends Vector permits ConstantLongVector, Lo
         }
     }
 
+    /**
+     * Should we delta encode this vector? Delta encoding writes the first value and then the
+     * difference from the previous value as a zig-zag encoded vlong. That's much smaller than
+     * eight bytes per value for sorted or clustered values like timestamps and counters. We
+     * only use it if it at least halves the size because reading it back is slower.
+     */
+    private static boolean deltaEncodingSaves(LongVector v, int positions) {
+        if (positions < 2) {
+            return false;
+        }
+        final long budget = (long) (positions - 1) * Long.BYTES / 2;
+        long deltaBytes = 0;
+        long prev = v.getLong(0);
+        for (int i = 1; i < positions; i++) {
+            long curr = v.getLong(i);
+            long delta = curr - prev;
+            long zigZag = (delta << 1) ^ (delta >> 63);
+            deltaBytes += Math.max(1, (70 - Long.numberOfLeadingZeros(zigZag)) / 7);
+            if (deltaBytes >= budget) {
+                return false;
+            }
+            prev = curr;
+        }
+        return true;
+    }
+
+    private static LongVector readDeltaValues(int positions, StreamInput in, BlockFactory blockFactory) throws IOException {
+        try (var builder = blockFactory.newLongVectorFixedBuilder(positions)) {
+            long value = in.readZLong();
+            builder.appendLong(0, value);
+            for (int i = 1; i < positions; i++) {
+                value += in.readZLong();
+                builder.appendLong(i, value);
+            }
+            return builder.build();
+        }
+    }
+
+    private static void writeDeltaValues(LongVector v, int positions, StreamOutput out) throws IOException {
+        long prev = v.getLong(0);
+        out.writeZLong(prev);
+        for (int i = 1; i < positions; i++) {
+            long curr = v.getLong(i);
+            out.writeZLong(curr - prev);
+            prev = curr;
+        }
+    }
+
     /**
      * A builder that grows as needed.
      */
@@ -14,4 +14,10 @@ public enum DataPartitioning {
     SEGMENT,
 
     DOC,
+
+    /**
+     * Pick the partitioning for each shard from its segment statistics and from
+     * how selective the query is, splitting only the largest segments by doc id.
+     */
+    AUTO,
 }
@@ -7,6 +7,7 @@
 
 package org.elasticsearch.compute.lucene;
 
+import org.apache.lucene.index.DocValuesSkipper;
 import org.apache.lucene.index.NumericDocValues;
 import org.apache.lucene.index.PointValues;
 import org.apache.lucene.index.SortedNumericDocValues;
@@ -102,6 +103,10 @@ public final class LuceneMaxFactory extends LuceneOperator.Factory {
             return bytesToLong(pointValues.getMaxPackedValue());
         }
 
+        public final long fromDocValuesSkipper(DocValuesSkipper skipper) {
+            return skipper.maxValue();
+        }
+
         public final long evaluate(long value1, long value2) {
             return Math.max(value1, value2);
         }
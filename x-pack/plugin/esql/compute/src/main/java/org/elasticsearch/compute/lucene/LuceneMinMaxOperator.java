@@ -7,6 +7,8 @@
 
 package org.elasticsearch.compute.lucene;
 
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.DocValuesSkipper;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.NumericDocValues;
 import org.apache.lucene.index.PointValues;
@@ -15,7 +17,6 @@ import org.apache.lucene.search.LeafCollector;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Scorable;
-import org.apache.lucene.util.Bits;
 import org.elasticsearch.compute.data.Block;
 import org.elasticsearch.compute.data.BlockFactory;
 import org.elasticsearch.compute.data.BooleanBlock;
@@ -32,7 +33,8 @@ import java.io.IOException;
  * 2. a bool flag (seen) that is true if at least one document has been matched, otherwise false
  * <p>
  * It works for fields that index data using lucene {@link PointValues} and/or {@link SortedNumericDocValues}.
- * It assumes that {@link SortedNumericDocValues} are always present.
+ * It assumes that {@link SortedNumericDocValues} are always present. When all documents of a segment match it reads
+ * the answer from the segment's {@link PointValues} or, failing that, from the {@link DocValuesSkipper}.
  */
 final class LuceneMinMaxOperator extends LuceneOperator {
 
@@ -41,6 +43,9 @@ final class LuceneMinMaxOperator extends LuceneOperator {
         /** Extract the competitive value from the {@link PointValues}  */
         long fromPointValues(PointValues pointValues) throws IOException;
 
+        /** Extract the competitive value from the {@link DocValuesSkipper} */
+        long fromDocValuesSkipper(DocValuesSkipper skipper);
+
         /** Wraps the provided {@link SortedNumericDocValues} with a {@link MultiValueMode} */
         NumericDocValues multiValueMode(SortedNumericDocValues sortedNumericDocValues);
 
@@ -105,31 +110,24 @@ final class LuceneMinMaxOperator extends LuceneOperator {
                 final LeafReader reader = scorer.leafReaderContext().reader();
                 final Query query = scorer.weight().getQuery();
                 if (query == null || query instanceof MatchAllDocsQuery) {
-                    final PointValues pointValues = reader.getPointValues(fieldName);
                     // only apply shortcut if we are visiting all documents, otherwise we need to trigger the search
                     // on doc values as that's the order they are visited without push down.
-                    if (pointValues != null && pointValues.getDocCount() >= remainingDocs) {
-                        final Bits liveDocs = reader.getLiveDocs();
-                        if (liveDocs == null) {
-                            // In data partitioning, we might have got the same segment previous
-                            // to this but with a different document range. And we're totally ignoring that range.
-                            // We're just reading the min/max from the segment. That's sneaky, but it makes sense.
-                            // And if we get another slice in the same segment we may as well skip it -
-                            // we've already looked.
-                            if (scorer.position() == 0) {
-                                seen = true;
-                                result = numberType.evaluate(result, numberType.fromPointValues(pointValues));
-                                if (remainingDocs != NO_LIMIT) {
-                                    remainingDocs -= pointValues.getDocCount();
-                                }
-                            }
-                            scorer.markAsDone();
+                    final PointValues pointValues = reader.getPointValues(fieldName);
+                    if (pointValues != null) {
+                        if (canShortcut(pointValues.getDocCount())) {
+                            shortcut(scorer, reader, numberType.fromPointValues(pointValues), pointValues.getDocCount());
+                        }
+                    } else {
+                        // fields without points may still have a skip index on their doc values
+                        final DocValuesSkipper skipper = reader.getDocValuesSkipper(fieldName);
+                        if (skipper != null && canShortcut(skipper.docCount())) {
+                            shortcut(scorer, reader, numberType.fromDocValuesSkipper(skipper), skipper.docCount());
                         }
                     }
                 }
                 if (scorer.isDone() == false) {
                     // could not apply shortcut, trigger the search
-                    final NumericDocValues values = numberType.multiValueMode(reader.getSortedNumericDocValues(fieldName));
+                    final NumericDocValues values = numberType.multiValueMode(DocValues.getSortedNumeric(reader, fieldName));
                     final LeafCollector leafCollector = new LeafCollector() {
                         @Override
                         public void setScorer(Scorable scorer) {}
@@ -171,6 +169,33 @@ final class LuceneMinMaxOperator extends LuceneOperator {
         }
     }
 
+    private boolean canShortcut(int docCount) {
+        return docCount > 0 && (remainingDocs == NO_LIMIT || docCount >= remainingDocs);
+    }
+
+    /**
+     * Takes the min/max for the whole segment from its metadata instead of visiting the documents.
+     */
+    private void shortcut(LuceneScorer scorer, LeafReader reader, long segmentValue, int docCount) {
+        if (reader.getLiveDocs() != null) {
+            // the metadata may come from deleted documents
+            return;
+        }
+        // In data partitioning, we might have got the same segment previous
+        // to this but with a different document range. And we're totally ignoring that range.
+        // We're just reading the min/max from the segment. That's sneaky, but it makes sense.
+        // And if we get another slice in the same segment we may as well skip it -
+        // we've already looked.
+        if (scorer.position() == 0) {
+            seen = true;
+            result = numberType.evaluate(result, segmentValue);
+            if (remainingDocs != NO_LIMIT) {
+                remainingDocs -= docCount;
+            }
+        }
+        scorer.markAsDone();
+    }
+
     @Override
     protected void describe(StringBuilder sb) {
         sb.append(", remainingDocs=").append(remainingDocs);
@@ -54,6 +54,10 @@ public abstract class LuceneOperator extends SourceOperator {
      * Count of the number of slices processed.
      */
     private int processedSlices;
+    /**
+     * Count of the number of slices stolen from other operators.
+     */
+    private int stolenSlices;
     final int maxPageSize;
     private final LuceneSliceQueue sliceQueue;
 
@@ -62,6 +66,7 @@ public abstract class LuceneOperator extends SourceOperator {
 
     private LuceneSlice currentSlice;
     private int sliceIndex;
+    private LuceneSliceQueue.SharedRange currentRange;
 
     private LuceneScorer currentScorer;
 
@@ -133,16 +138,29 @@ public abstract class LuceneOperator extends SourceOperator {
     protected abstract Page getCheckedOutput() throws IOException;
 
     @Override
-    public void close() {}
+    public void close() {
+        if (currentRange != null) {
+            sliceQueue.finishRange(currentRange);
+            currentRange = null;
+        }
+    }
 
     LuceneScorer getCurrentOrLoadNextScorer() {
         while (currentScorer == null || currentScorer.isDone()) {
+            if (currentRange != null) {
+                sliceQueue.finishRange(currentRange);
+                currentRange = null;
+            }
             if (currentSlice == null || sliceIndex >= currentSlice.numLeaves()) {
                 sliceIndex = 0;
                 currentSlice = sliceQueue.nextSlice();
                 if (currentSlice == null) {
-                    doneCollecting = true;
-                    return null;
+                    currentSlice = sliceQueue.stealSlice();
+                    if (currentSlice == null) {
+                        doneCollecting = true;
+                        return null;
+                    }
+                    stolenSlices++;
                 }
                 processedSlices++;
                 processedShards.add(currentSlice.shardContext().shardIdentifier());
@@ -150,12 +168,15 @@ public abstract class LuceneOperator extends SourceOperator {
             final PartialLeafReaderContext partialLeaf = currentSlice.getLeaf(sliceIndex++);
             logger.trace("Starting {}", partialLeaf);
             final LeafReaderContext leaf = partialLeaf.leafReaderContext();
-            if (currentScorer == null || currentScorer.leafReaderContext() != leaf) {
+            // a stolen range may be behind the current scorer, and BulkScorer can't go backwards
+            if (currentScorer == null || currentScorer.leafReaderContext() != leaf || currentScorer.position > partialLeaf.minDoc()) {
                 final Weight weight = currentSlice.weight();
                 processedQueries.add(weight.getQuery());
                 currentScorer = new LuceneScorer(currentSlice.shardContext(), weight, leaf);
             }
             assert currentScorer.maxPosition <= partialLeaf.maxDoc() : currentScorer.maxPosition + ">" + partialLeaf.maxDoc();
+            currentRange = sliceQueue.startRange(currentSlice, partialLeaf);
+            currentScorer.range = currentRange;
             currentScorer.maxPosition = partialLeaf.maxDoc();
             currentScorer.position = Math.max(currentScorer.position, partialLeaf.minDoc());
         }
@@ -176,6 +197,7 @@ public abstract class LuceneOperator extends SourceOperator {
         private BulkScorer bulkScorer;
         private int position;
         private int maxPosition;
+        private LuceneSliceQueue.SharedRange range;
         private Thread executingThread;
 
         LuceneScorer(ShardContext shardContext, Weight weight, LeafReaderContext leafReaderContext) {
@@ -199,7 +221,14 @@ public abstract class LuceneOperator extends SourceOperator {
             // avoid overflow and limit the range
             numDocs = Math.min(maxPosition - position, numDocs);
             assert numDocs > 0 : "scorer was exhausted";
-            position = bulkScorer.score(collector, acceptDocs, position, Math.min(maxPosition, position + numDocs));
+            // claim the docs first so no other operator can steal them while we're scoring
+            int max = range.claim(position, numDocs);
+            if (max <= position) {
+                // the rest of our range was stolen
+                maxPosition = position;
+                return;
+            }
+            position = bulkScorer.score(collector, acceptDocs, position, max);
         }
 
         LeafReaderContext leafReaderContext() {
@@ -207,11 +236,12 @@ public abstract class LuceneOperator extends SourceOperator {
         }
 
         boolean isDone() {
-            return bulkScorer == null || position >= maxPosition;
+            return bulkScorer == null || position >= maxPosition || position >= range.maxDoc();
         }
 
         void markAsDone() {
             position = DocIdSetIterator.NO_MORE_DOCS;
+            range.close();
         }
 
         ShardContext shardContext() {
@@ -252,6 +282,7 @@ public abstract class LuceneOperator extends SourceOperator {
         );
 
         private final int processedSlices;
+        private final int stolenSlices;
         private final Set<String> processedQueries;
         private final Set<String> processedShards;
         private final long processingNanos;
@@ -265,6 +296,7 @@ public abstract class LuceneOperator extends SourceOperator {
 
         private Status(LuceneOperator operator) {
             processedSlices = operator.processedSlices;
+            stolenSlices = operator.stolenSlices;
             processedQueries = operator.processedQueries.stream().map(Query::toString).collect(Collectors.toCollection(TreeSet::new));
             processingNanos = operator.processingNanos;
             processedShards = new TreeSet<>(operator.processedShards);
@@ -291,6 +323,7 @@ public abstract class LuceneOperator extends SourceOperator {
 
         Status(
             int processedSlices,
+            int stolenSlices,
             Set<String> processedQueries,
             Set<String> processedShards,
             long processingNanos,
@@ -303,6 +336,7 @@ public abstract class LuceneOperator extends SourceOperator {
             long rowsEmitted
         ) {
             this.processedSlices = processedSlices;
+            this.stolenSlices = stolenSlices;
             this.processedQueries = processedQueries;
             this.processedShards = processedShards;
             this.processingNanos = processingNanos;
@@ -336,6 +370,7 @@ public abstract class LuceneOperator extends SourceOperator {
             } else {
                 rowsEmitted = 0;
             }
+            stolenSlices = in.getTransportVersion().onOrAfter(TransportVersions.ESQL_STOLEN_SLICES) ? in.readVInt() : 0;
         }
 
         @Override
@@ -357,6 +392,9 @@ public abstract class LuceneOperator extends SourceOperator {
             if (out.getTransportVersion().onOrAfter(TransportVersions.ESQL_PROFILE_ROWS_PROCESSED)) {
                 out.writeVLong(rowsEmitted);
             }
+            if (out.getTransportVersion().onOrAfter(TransportVersions.ESQL_STOLEN_SLICES)) {
+                out.writeVInt(stolenSlices);
+            }
         }
 
         @Override
@@ -368,6 +406,10 @@ public abstract class LuceneOperator extends SourceOperator {
             return processedSlices;
         }
 
+        public int stolenSlices() {
+            return stolenSlices;
+        }
+
         public Set<String> processedQueries() {
             return processedQueries;
         }
@@ -412,6 +454,7 @@ public abstract class LuceneOperator extends SourceOperator {
         public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
             builder.startObject();
             builder.field("processed_slices", processedSlices);
+            builder.field("stolen_slices", stolenSlices);
             builder.field("processed_queries", processedQueries);
             builder.field("processed_shards", processedShards);
             builder.field("processing_nanos", processingNanos);
@@ -434,6 +477,7 @@ public abstract class LuceneOperator extends SourceOperator {
             if (o == null || getClass() != o.getClass()) return false;
             Status status = (Status) o;
             return processedSlices == status.processedSlices
+                && stolenSlices == status.stolenSlices
                 && processedQueries.equals(status.processedQueries)
                 && processedShards.equals(status.processedShards)
                 && processingNanos == status.processingNanos
@@ -448,7 +492,17 @@ public abstract class LuceneOperator extends SourceOperator {
 
         @Override
         public int hashCode() {
-            return Objects.hash(processedSlices, sliceIndex, totalSlices, pagesEmitted, sliceMin, sliceMax, current, rowsEmitted);
+            return Objects.hash(
+                processedSlices,
+                stolenSlices,
+                sliceIndex,
+                totalSlices,
+                pagesEmitted,
+                sliceMin,
+                sliceMax,
+                current,
+                rowsEmitted
+            );
         }
 
         @Override
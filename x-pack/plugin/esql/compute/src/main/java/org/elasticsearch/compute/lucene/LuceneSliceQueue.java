@@ -13,23 +13,49 @@ import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Weight;
 import org.elasticsearch.core.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 /**
  * Shared Lucene slices between Lucene operators.
+ * <p>
+ *     Slices are assigned up front, but once the queue runs dry an idle operator
+ *     can {@link #stealSlice steal} the unprocessed tail of a leaf another operator
+ *     is still working on. That keeps all drivers busy when some slices are much
+ *     more expensive than others, for example when a shard is skewed.
+ * </p>
  */
 public final class LuceneSliceQueue {
     private static final int MAX_DOCS_PER_SLICE = 250_000; // copied from IndexSearcher
     private static final int MAX_SEGMENTS_PER_SLICE = 5; // copied from IndexSearcher
+    /**
+     * The smallest range of documents that we'll steal from another operator.
+     * Stealing smaller ranges isn't worth the cost of building a new scorer.
+     */
+    static final int MIN_DOCS_TO_STEAL = 16 * 1024;
+    /**
+     * {@link DataPartitioning#AUTO} won't make slices with fewer documents than this.
+     */
+    static final int MIN_DOCS_PER_AUTO_SLICE = 32 * 1024;
+    /**
+     * {@link DataPartitioning#AUTO} considers a query selective if it matches fewer than
+     * one in this many documents in the largest segment.
+     */
+    private static final int SELECTIVE_QUERY_RATIO = 10;
 
     private final int totalSlices;
     private final Queue<LuceneSlice> slices;
+    private final Set<SharedRange> activeRanges = ConcurrentHashMap.newKeySet();
 
     private LuceneSliceQueue(List<LuceneSlice> slices) {
         this.totalSlices = slices.size();
@@ -41,6 +67,53 @@ public final class LuceneSliceQueue {
         return slices.poll();
     }
 
+    /**
+     * Split off the unprocessed tail of the largest range that another operator is
+     * still working on. Only call this after {@link #nextSlice()} returned {@code null}.
+     * @return a single leaf slice or {@code null} if there isn't any range worth stealing
+     */
+    @Nullable
+    LuceneSlice stealSlice() {
+        while (true) {
+            SharedRange victim = null;
+            int mostRemaining = 2 * MIN_DOCS_TO_STEAL - 1;
+            for (SharedRange range : activeRanges) {
+                int remaining = range.remaining();
+                if (remaining > mostRemaining) {
+                    victim = range;
+                    mostRemaining = remaining;
+                }
+            }
+            if (victim == null) {
+                return null;
+            }
+            PartialLeafReaderContext stolen = victim.splitTail(MIN_DOCS_TO_STEAL);
+            if (stolen != null) {
+                return new LuceneSlice(victim.slice.shardContext(), List.of(stolen), victim.slice.weight());
+            }
+            // the owner made progress or another thief got there first, look again
+        }
+    }
+
+    /**
+     * Publish the range of a leaf that an operator is starting to process so that idle
+     * operators can {@link #stealSlice steal} part of it.
+     */
+    SharedRange startRange(LuceneSlice slice, PartialLeafReaderContext leaf) {
+        SharedRange range = new SharedRange(slice, leaf.leafReaderContext(), leaf.minDoc(), leaf.maxDoc());
+        activeRanges.add(range);
+        return range;
+    }
+
+    /**
+     * Stop publishing a range, either because it's been fully processed or because its
+     * owner doesn't need any more documents from it.
+     */
+    void finishRange(SharedRange range) {
+        range.close();
+        activeRanges.remove(range);
+    }
+
     public int totalSlices() {
         return totalSlices;
     }
@@ -58,12 +131,13 @@ public final class LuceneSliceQueue {
         final List<LuceneSlice> slices = new ArrayList<>();
         for (ShardContext ctx : contexts) {
             final List<LeafReaderContext> leafContexts = ctx.searcher().getLeafContexts();
+            final Weight weight = weightFunction.apply(ctx);
             List<List<PartialLeafReaderContext>> groups = switch (dataPartitioning) {
-                case SHARD -> Collections.singletonList(leafContexts.stream().map(PartialLeafReaderContext::new).toList());
+                case SHARD -> shardSlices(leafContexts);
                 case SEGMENT -> segmentSlices(leafContexts);
                 case DOC -> docSlices(ctx.searcher().getIndexReader(), taskConcurrency);
+                case AUTO -> autoSlices(leafContexts, weight, taskConcurrency);
             };
-            final Weight weight = weightFunction.apply(ctx);
             for (List<PartialLeafReaderContext> group : groups) {
                 if (group.isEmpty() == false) {
                     slices.add(new LuceneSlice(ctx, group, weight));
@@ -73,6 +147,10 @@ public final class LuceneSliceQueue {
         return new LuceneSliceQueue(slices);
     }
 
+    static List<List<PartialLeafReaderContext>> shardSlices(List<LeafReaderContext> leafContexts) {
+        return Collections.singletonList(leafContexts.stream().map(PartialLeafReaderContext::new).toList());
+    }
+
     static List<List<PartialLeafReaderContext>> docSlices(IndexReader indexReader, int numSlices) {
         final int totalDocCount = indexReader.maxDoc();
         final int normalMaxDocsPerSlice = totalDocCount / numSlices;
@@ -123,4 +201,146 @@ public final class LuceneSliceQueue {
         IndexSearcher.LeafSlice[] gs = IndexSearcher.slices(leafContexts, MAX_DOCS_PER_SLICE, MAX_SEGMENTS_PER_SLICE, false);
         return Arrays.stream(gs).map(g -> Arrays.stream(g.partitions).map(PartialLeafReaderContext::new).toList()).toList();
     }
+
+    /**
+     * Pick the partitioning for a shard from its segments and from how selective the query is.
+     * <ul>
+     *     <li>Small shards are read as a single slice because the overhead of more drivers
+     *     doesn't pay for itself.</li>
+     *     <li>Selective queries get {@link DataPartitioning#SEGMENT} partitioning because
+     *     most of their cost is in the matching documents, and splitting a segment by
+     *     doc id would just build extra scorers.</li>
+     *     <li>Everything else is grouped like {@link DataPartitioning#SEGMENT} except that
+     *     segments with more documents than each driver's fair share are split by doc id.
+     *     That keeps force merged indices from running single threaded.</li>
+     * </ul>
+     */
+    static List<List<PartialLeafReaderContext>> autoSlices(List<LeafReaderContext> leafContexts, Weight weight, int taskConcurrency) {
+        int totalDocs = 0;
+        LeafReaderContext largestLeaf = null;
+        for (LeafReaderContext leaf : leafContexts) {
+            totalDocs += leaf.reader().maxDoc();
+            if (largestLeaf == null || leaf.reader().maxDoc() > largestLeaf.reader().maxDoc()) {
+                largestLeaf = leaf;
+            }
+        }
+        if (totalDocs <= MIN_DOCS_PER_AUTO_SLICE) {
+            return shardSlices(leafContexts);
+        }
+        if (isSelective(weight, largestLeaf)) {
+            return segmentSlices(leafContexts);
+        }
+        int maxDocsPerSlice = Math.max(MIN_DOCS_PER_AUTO_SLICE, Math.min(MAX_DOCS_PER_SLICE, totalDocs / Math.max(1, taskConcurrency)));
+        IndexSearcher.LeafSlice[] gs = IndexSearcher.slices(leafContexts, maxDocsPerSlice, MAX_SEGMENTS_PER_SLICE, true);
+        return Arrays.stream(gs).map(g -> Arrays.stream(g.partitions).map(PartialLeafReaderContext::new).toList()).toList();
+    }
+
+    /**
+     * Is the query likely to match only a small fraction of the documents? We only trust
+     * {@link Weight#count} here because it's cheap to compute for the queries where it's
+     * defined. If it isn't we assume the query isn't selective.
+     */
+    private static boolean isSelective(Weight weight, LeafReaderContext leaf) {
+        final int count;
+        try {
+            count = weight.count(leaf);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count >= 0 && count < leaf.reader().maxDoc() / SELECTIVE_QUERY_RATIO;
+    }
+
+    /**
+     * A range of documents in a leaf that is claimed incrementally by its owner and whose
+     * tail can be split off by other operators. Both ends of the range are packed into a
+     * single {@code long} so claiming and splitting are a single compare-and-set.
+     */
+    static final class SharedRange {
+        private final LuceneSlice slice;
+        private final LeafReaderContext leaf;
+        /**
+         * The first unclaimed doc in the high 32 bits and one more than the last
+         * doc in the low 32 bits.
+         */
+        private final AtomicLong bounds;
+
+        SharedRange(LuceneSlice slice, LeafReaderContext leaf, int minDoc, int maxDoc) {
+            this.slice = slice;
+            this.leaf = leaf;
+            this.bounds = new AtomicLong(pack(minDoc, maxDoc));
+        }
+
+        /**
+         * Claim up to {@code numDocs} documents starting at {@code from}. Documents before
+         * {@code from} are assumed to have been processed by the owner already.
+         * @return one more than the last claimed document, {@code from} if there is nothing left to claim
+         */
+        int claim(int from, int numDocs) {
+            while (true) {
+                long current = bounds.get();
+                int next = Math.max(from, next(current));
+                int max = max(current);
+                if (next >= max) {
+                    return from;
+                }
+                int claimed = (int) Math.min((long) next + numDocs, max);
+                if (bounds.compareAndSet(current, pack(claimed, max))) {
+                    return claimed;
+                }
+            }
+        }
+
+        /**
+         * Split off the upper half of the unclaimed documents.
+         * @return the stolen range or {@code null} if fewer than {@code minDocs} documents would be stolen
+         */
+        @Nullable
+        PartialLeafReaderContext splitTail(int minDocs) {
+            long current = bounds.get();
+            int next = next(current);
+            int max = max(current);
+            int mid = next + (max - next) / 2;
+            if (max - mid < minDocs) {
+                return null;
+            }
+            if (bounds.compareAndSet(current, pack(next, mid)) == false) {
+                return null;
+            }
+            return new PartialLeafReaderContext(leaf, mid, max);
+        }
+
+        /**
+         * One more than the last document that hasn't been stolen.
+         */
+        int maxDoc() {
+            return max(bounds.get());
+        }
+
+        int remaining() {
+            long current = bounds.get();
+            return Math.max(0, max(current) - next(current));
+        }
+
+        void close() {
+            while (true) {
+                long current = bounds.get();
+                int max = max(current);
+                if (bounds.compareAndSet(current, pack(max, max))) {
+                    return;
+                }
+            }
+        }
+
+        private static long pack(int next, int max) {
+            return ((long) next << 32) | (max & 0xFFFFFFFFL);
+        }
+
+        private static int next(long bounds) {
+            return (int) (bounds >>> 32);
+        }
+
+        private static int max(long bounds) {
+            return (int) bounds;
+        }
+    }
 }
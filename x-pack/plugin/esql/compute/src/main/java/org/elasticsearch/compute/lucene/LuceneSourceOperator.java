@@ -211,6 +211,7 @@ public class LuceneSourceOperator extends LuceneOperator {
 
     @Override
     public void close() {
+        super.close();
         Releasables.close(docsBuilder, scoreBuilder);
     }
 
@@ -18,7 +18,8 @@ import org.apache.lucene.search.IndexSearcher;
  */
 public record PartialLeafReaderContext(LeafReaderContext leafReaderContext, int minDoc, int maxDoc) {
     public PartialLeafReaderContext(IndexSearcher.LeafReaderContextPartition partition) {
-        this(partition.ctx, partition.minDocId, partition.maxDocId);
+        // partitions that run to the end of the segment use NO_MORE_DOCS as their max
+        this(partition.ctx, partition.minDocId, Math.min(partition.maxDocId, partition.ctx.reader().maxDoc()));
     }
 
     public PartialLeafReaderContext(LeafReaderContext leafReaderContext) {
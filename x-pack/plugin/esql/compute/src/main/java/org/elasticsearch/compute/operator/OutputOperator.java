@@ -19,6 +19,14 @@ import java.util.function.Function;
  */
 public class OutputOperator extends SinkOperator {
 
+    /**
+     * A page consumer that can't always keep up, like one streaming pages to a slow client. The {@link Driver} stops sending it pages
+     * while it's blocked.
+     */
+    public interface BlockingPageConsumer extends Consumer<Page> {
+        IsBlockedResult isBlocked();
+    }
+
     private final List<String> columns;
     private final Consumer<Page> pageConsumer;
     private final Function<Page, Page> mapper;
@@ -61,6 +69,11 @@ public class OutputOperator extends SinkOperator {
         return finished == false;
     }
 
+    @Override
+    public IsBlockedResult isBlocked() {
+        return pageConsumer instanceof BlockingPageConsumer blocking ? blocking.isBlocked() : NOT_BLOCKED;
+    }
+
     @Override
     protected void doAddInput(Page page) {
         pageConsumer.accept(mapper.apply(page));
@@ -115,6 +115,14 @@ final class ExchangeBuffer {
         }
     }
 
+    /**
+     * The number of pages that can be added before this buffer is full, but at least one so that a
+     * writer that waited for {@link #waitForWriting()} can always make progress.
+     */
+    int remainingCapacity() {
+        return Math.max(1, maxSize - queueSize.get());
+    }
+
     private void discardPages() {
         Page p;
         while ((p = pollPage()) != null) {
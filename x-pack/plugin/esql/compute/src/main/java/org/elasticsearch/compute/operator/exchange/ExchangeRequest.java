@@ -7,6 +7,7 @@
 
 package org.elasticsearch.compute.operator.exchange;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.tasks.CancellableTask;
@@ -21,16 +22,34 @@ import java.util.Objects;
 public final class ExchangeRequest extends TransportRequest {
     private final String exchangeId;
     private final boolean sourcesFinished;
+    private final long maxBatchBytes;
+    private final int maxBatchPages;
 
     public ExchangeRequest(String exchangeId, boolean sourcesFinished) {
+        this(exchangeId, sourcesFinished, 0, 1);
+    }
+
+    public ExchangeRequest(String exchangeId, boolean sourcesFinished, long maxBatchBytes, int maxBatchPages) {
+        if (maxBatchPages < 1) {
+            throw new IllegalArgumentException("max_batch_pages must be at least one; got=" + maxBatchPages);
+        }
         this.exchangeId = exchangeId;
         this.sourcesFinished = sourcesFinished;
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxBatchPages = maxBatchPages;
     }
 
     public ExchangeRequest(StreamInput in) throws IOException {
         super(in);
         this.exchangeId = in.readString();
         this.sourcesFinished = in.readBoolean();
+        if (in.getTransportVersion().onOrAfter(TransportVersions.ESQL_COMPACT_EXCHANGE)) {
+            this.maxBatchBytes = in.readVLong();
+            this.maxBatchPages = in.readVInt();
+        } else {
+            this.maxBatchBytes = 0;
+            this.maxBatchPages = 1;
+        }
     }
 
     @Override
@@ -38,6 +57,10 @@ public final class ExchangeRequest extends TransportRequest {
         super.writeTo(out);
         out.writeString(exchangeId);
         out.writeBoolean(sourcesFinished);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.ESQL_COMPACT_EXCHANGE)) {
+            out.writeVLong(maxBatchBytes);
+            out.writeVInt(maxBatchPages);
+        }
     }
 
     @Override
@@ -59,6 +82,22 @@ public final class ExchangeRequest extends TransportRequest {
         return sourcesFinished;
     }
 
+    /**
+     * The sink may batch pages into a single response until it holds this many bytes.
+     * {@code 0} means the sink sends at most one page per response.
+     */
+    public long maxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    /**
+     * The maximum number of pages the sink may batch into a single response. This is the free space in the
+     * buffer of the {@link ExchangeSourceHandler} so that batches don't push it past its page limit.
+     */
+    public int maxBatchPages() {
+        return maxBatchPages;
+    }
+
     /**
      * Returns the exchange ID. We don't use the parent task id because it can be overwritten by a proxy node.
      */
@@ -71,12 +110,15 @@ public final class ExchangeRequest extends TransportRequest {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ExchangeRequest that = (ExchangeRequest) o;
-        return sourcesFinished == that.sourcesFinished && exchangeId.equals(that.exchangeId);
+        return sourcesFinished == that.sourcesFinished
+            && maxBatchBytes == that.maxBatchBytes
+            && maxBatchPages == that.maxBatchPages
+            && exchangeId.equals(that.exchangeId);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(exchangeId, sourcesFinished);
+        return Objects.hash(exchangeId, sourcesFinished, maxBatchBytes, maxBatchPages);
     }
 
     @Override
@@ -7,6 +7,7 @@
 
 package org.elasticsearch.compute.operator.exchange;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.compute.data.BlockFactory;
 import org.elasticsearch.compute.data.BlockStreamInput;
@@ -18,59 +19,77 @@ import org.elasticsearch.core.Releasable;
 import org.elasticsearch.transport.TransportResponse;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
 
+/**
+ * Response to an {@link ExchangeRequest}. Holds a batch of pages, which is empty if the
+ * sink had nothing to send, and whether the sink has finished.
+ */
 public final class ExchangeResponse extends TransportResponse implements Releasable {
     private final RefCounted counted = AbstractRefCounted.of(this::closeInternal);
-    private final Page page;
+    private final List<Page> pages;
     private final boolean finished;
-    private boolean pageTaken;
+    private boolean pagesTaken;
     private final BlockFactory blockFactory;
     private long reservedBytes = 0;
 
-    public ExchangeResponse(BlockFactory blockFactory, Page page, boolean finished) {
+    public ExchangeResponse(BlockFactory blockFactory, @Nullable Page page, boolean finished) {
+        this(blockFactory, page == null ? List.of() : List.of(page), finished);
+    }
+
+    public ExchangeResponse(BlockFactory blockFactory, List<Page> pages, boolean finished) {
         this.blockFactory = blockFactory;
-        this.page = page;
+        this.pages = pages;
         this.finished = finished;
     }
 
     public ExchangeResponse(BlockStreamInput in) throws IOException {
         super(in);
         this.blockFactory = in.blockFactory();
-        this.page = in.readOptionalWriteable(Page::new);
+        if (in.getTransportVersion().onOrAfter(TransportVersions.ESQL_COMPACT_EXCHANGE)) {
+            this.pages = in.readCollectionAsImmutableList(Page::new);
+        } else {
+            Page page = in.readOptionalWriteable(Page::new);
+            this.pages = page == null ? List.of() : List.of(page);
+        }
         this.finished = in.readBoolean();
     }
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
-        if (page != null) {
-            long bytes = page.ramBytesUsedByBlocks();
+        long bytes = ramBytesUsedByPages();
+        if (bytes > 0) {
             blockFactory.breaker().addEstimateBytesAndMaybeBreak(bytes, "serialize exchange response");
             reservedBytes += bytes;
         }
-        out.writeOptionalWriteable(page);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.ESQL_COMPACT_EXCHANGE)) {
+            out.writeCollection(pages);
+        } else {
+            assert pages.size() <= 1 : "batches can't be sent to older nodes";
+            out.writeOptionalWriteable(pages.isEmpty() ? null : pages.get(0));
+        }
         out.writeBoolean(finished);
     }
 
     /**
-     * Take the ownership of the page responded by {@link RemoteSink}. This can be null and out of order.
+     * Take the ownership of the pages responded by {@link RemoteSink}. This can be empty and out of order.
      */
-    @Nullable
-    public Page takePage() {
-        if (pageTaken) {
-            assert false : "Page was taken already";
-            throw new IllegalStateException("Page was taken already");
+    public List<Page> takePages() {
+        if (pagesTaken) {
+            assert false : "Pages were taken already";
+            throw new IllegalStateException("Pages were taken already");
         }
-        pageTaken = true;
-        return page;
+        pagesTaken = true;
+        return pages;
     }
 
-    public long ramBytesUsedByPage() {
-        if (page != null) {
-            return page.ramBytesUsedByBlocks();
-        } else {
-            return 0;
+    public long ramBytesUsedByPages() {
+        long bytes = 0;
+        for (Page page : pages) {
+            bytes += page.ramBytesUsedByBlocks();
         }
+        return bytes;
     }
 
     /**
@@ -86,12 +105,12 @@ public final class ExchangeResponse extends TransportResponse implements Releasa
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ExchangeResponse response = (ExchangeResponse) o;
-        return finished == response.finished && Objects.equals(page, response.page);
+        return finished == response.finished && pages.equals(response.pages);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(page, finished);
+        return Objects.hash(pages, finished);
     }
 
     @Override
@@ -121,8 +140,10 @@ public final class ExchangeResponse extends TransportResponse implements Releasa
 
     private void closeInternal() {
         blockFactory.breaker().addWithoutBreaking(-reservedBytes);
-        if (pageTaken == false && page != null) {
-            page.releaseBlocks();
+        if (pagesTaken == false) {
+            for (Page page : pages) {
+                page.releaseBlocks();
+            }
         }
     }
 }
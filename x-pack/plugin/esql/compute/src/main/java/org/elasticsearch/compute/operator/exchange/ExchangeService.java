@@ -18,7 +18,9 @@ import org.elasticsearch.action.support.SubscribableListener;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
@@ -70,11 +72,25 @@ public final class ExchangeService extends AbstractLifecycleComponent {
     public static final String INACTIVE_SINKS_INTERVAL_SETTING = "esql.exchange.sink_inactive_interval";
     public static final TimeValue INACTIVE_SINKS_INTERVAL_DEFAULT = TimeValue.timeValueMinutes(5);
 
+    /**
+     * The target size of the batch of pages that a remote exchange sink returns for each fetch request.
+     * Batching small pages saves round trips, which matters most on high latency links between clusters.
+     * {@code 0b} fetches a single page per request.
+     */
+    public static final Setting<ByteSizeValue> BATCH_SIZE_SETTING = Setting.byteSizeSetting(
+        "esql.exchange.batch_size",
+        ByteSizeValue.ofKb(512),
+        ByteSizeValue.ZERO,
+        ByteSizeValue.ofMb(16),
+        Setting.Property.NodeScope
+    );
+
     private static final Logger LOGGER = LogManager.getLogger(ExchangeService.class);
 
     private final ThreadPool threadPool;
     private final Executor executor;
     private final BlockFactory blockFactory;
+    private final long maxBatchBytes;
 
     private final Map<String, ExchangeSinkHandler> sinks = ConcurrentCollections.newConcurrentMap();
     private final Map<String, ExchangeSourceHandler> exchangeSources = ConcurrentCollections.newConcurrentMap();
@@ -83,6 +99,7 @@ public final class ExchangeService extends AbstractLifecycleComponent {
         this.threadPool = threadPool;
         this.executor = threadPool.executor(executorName);
         this.blockFactory = blockFactory;
+        this.maxBatchBytes = BATCH_SIZE_SETTING.get(settings).getBytes();
         final var inactiveInterval = settings.getAsTime(INACTIVE_SINKS_INTERVAL_SETTING, INACTIVE_SINKS_INTERVAL_DEFAULT);
         // Run the reaper every half of the keep_alive interval
         this.threadPool.scheduleWithFixedDelay(
@@ -242,7 +259,7 @@ public final class ExchangeService extends AbstractLifecycleComponent {
             } else {
                 final CancellableTask task = (CancellableTask) exchangeTask;
                 task.addListener(() -> sinkHandler.onFailure(new TaskCancelledException("request cancelled " + task.getReasonCancelled())));
-                sinkHandler.fetchPageAsync(request.sourcesFinished(), listener);
+                sinkHandler.fetchPageAsync(request.sourcesFinished(), request.maxBatchBytes(), request.maxBatchPages(), listener);
             }
         }
     }
@@ -312,7 +329,7 @@ public final class ExchangeService extends AbstractLifecycleComponent {
      * @param conn             the connection to the remote node where the remote exchange sink is located
      */
     public RemoteSink newRemoteSink(Task parentTask, String exchangeId, TransportService transportService, Transport.Connection conn) {
-        return new TransportRemoteSink(transportService, blockFactory, conn, parentTask, exchangeId, executor);
+        return new TransportRemoteSink(transportService, blockFactory, conn, parentTask, exchangeId, executor, maxBatchBytes);
     }
 
     static final class TransportRemoteSink implements RemoteSink {
@@ -322,6 +339,7 @@ public final class ExchangeService extends AbstractLifecycleComponent {
         final Task parentTask;
         final String exchangeId;
         final Executor responseExecutor;
+        final long maxBatchBytes;
 
         final AtomicLong estimatedPageSizeInBytes = new AtomicLong(0L);
         final AtomicReference<SubscribableListener<Void>> completionListenerRef = new AtomicReference<>(null);
@@ -332,7 +350,8 @@ public final class ExchangeService extends AbstractLifecycleComponent {
             Transport.Connection connection,
             Task parentTask,
             String exchangeId,
-            Executor responseExecutor
+            Executor responseExecutor,
+            long maxBatchBytes
         ) {
             this.transportService = transportService;
             this.blockFactory = blockFactory;
@@ -340,10 +359,16 @@ public final class ExchangeService extends AbstractLifecycleComponent {
             this.parentTask = parentTask;
             this.exchangeId = exchangeId;
             this.responseExecutor = responseExecutor;
+            this.maxBatchBytes = maxBatchBytes;
         }
 
         @Override
         public void fetchPageAsync(boolean allSourcesFinished, ActionListener<ExchangeResponse> listener) {
+            fetchPagesAsync(allSourcesFinished, 1, listener);
+        }
+
+        @Override
+        public void fetchPagesAsync(boolean allSourcesFinished, int maxPages, ActionListener<ExchangeResponse> listener) {
             if (allSourcesFinished) {
                 close(listener.map(unused -> new ExchangeResponse(blockFactory, null, true)));
                 return;
@@ -354,7 +379,7 @@ public final class ExchangeService extends AbstractLifecycleComponent {
                 completionListener.addListener(listener.map(unused -> new ExchangeResponse(blockFactory, null, true)));
                 return;
             }
-            doFetchPageAsync(false, ActionListener.wrap(r -> {
+            doFetchPageAsync(false, maxPages, ActionListener.wrap(r -> {
                 if (r.finished()) {
                     completionListenerRef.compareAndSet(null, SubscribableListener.newSucceeded(null));
                 }
@@ -362,7 +387,7 @@ public final class ExchangeService extends AbstractLifecycleComponent {
             }, e -> close(ActionListener.running(() -> listener.onFailure(e)))));
         }
 
-        private void doFetchPageAsync(boolean allSourcesFinished, ActionListener<ExchangeResponse> listener) {
+        private void doFetchPageAsync(boolean allSourcesFinished, int maxPages, ActionListener<ExchangeResponse> listener) {
             final long reservedBytes = allSourcesFinished ? 0 : estimatedPageSizeInBytes.get();
             if (reservedBytes > 0) {
                 // This doesn't fully protect ESQL from OOM, but reduces the likelihood.
@@ -372,13 +397,13 @@ public final class ExchangeService extends AbstractLifecycleComponent {
             transportService.sendChildRequest(
                 connection,
                 EXCHANGE_ACTION_NAME,
-                new ExchangeRequest(exchangeId, allSourcesFinished),
+                new ExchangeRequest(exchangeId, allSourcesFinished, maxBatchBytes, maxPages),
                 parentTask,
                 TransportRequestOptions.EMPTY,
                 new ActionListenerResponseHandler<>(listener, in -> {
                     try (BlockStreamInput bsi = new BlockStreamInput(in, blockFactory)) {
                         final ExchangeResponse resp = new ExchangeResponse(bsi);
-                        final long responseBytes = resp.ramBytesUsedByPage();
+                        final long responseBytes = resp.ramBytesUsedByPages();
                         estimatedPageSizeInBytes.getAndUpdate(curr -> Math.max(responseBytes, curr / 2));
                         return resp;
                     }
@@ -394,9 +419,8 @@ public final class ExchangeService extends AbstractLifecycleComponent {
             );
             actual.addListener(listener);
             if (candidate == actual) {
-                doFetchPageAsync(true, ActionListener.wrap(r -> {
-                    final Page page = r.takePage();
-                    if (page != null) {
+                doFetchPageAsync(true, 1, ActionListener.wrap(r -> {
+                    for (Page page : r.takePages()) {
                         page.releaseBlocks();
                     }
                     candidate.onResponse(null);
@@ -13,6 +13,8 @@ import org.elasticsearch.compute.data.BlockFactory;
 import org.elasticsearch.compute.data.Page;
 import org.elasticsearch.compute.operator.IsBlockedResult;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Semaphore;
@@ -26,13 +28,13 @@ import java.util.function.LongSupplier;
  * using the {@link #fetchPageAsync(boolean, ActionListener)} method.
  *
  * @see #createExchangeSink(Runnable)
- * @see #fetchPageAsync(boolean, ActionListener)
+ * @see #fetchPageAsync(boolean, long, int, ActionListener)
  * @see ExchangeSourceHandler
  */
 public final class ExchangeSinkHandler {
 
     private final ExchangeBuffer buffer;
-    private final Queue<ActionListener<ExchangeResponse>> listeners = new ConcurrentLinkedQueue<>();
+    private final Queue<PendingFetch> listeners = new ConcurrentLinkedQueue<>();
     private final AtomicInteger outstandingSinks = new AtomicInteger();
     // listeners are notified by only one thread.
     private final Semaphore promised = new Semaphore(1);
@@ -107,14 +109,29 @@ public final class ExchangeSinkHandler {
      * @see ExchangeSourceHandler#addRemoteSink(RemoteSink, boolean, Runnable, int, ActionListener)
      */
     public void fetchPageAsync(boolean sourceFinished, ActionListener<ExchangeResponse> listener) {
+        fetchPageAsync(sourceFinished, 0, 1, listener);
+    }
+
+    /**
+     * Fetches a batch of pages and the sink status asynchronously.
+     *
+     * @param sourceFinished if true, then this handler can finish as sources have enough pages.
+     * @param maxBatchBytes  keep adding available pages to the response until it holds this many bytes.
+     *                       {@code 0} responds with at most one page.
+     * @param maxBatchPages  the maximum number of pages in the response, at least one.
+     * @param listener       the listener that will be notified when pages are ready or this handler is finished
+     */
+    public void fetchPageAsync(boolean sourceFinished, long maxBatchBytes, int maxBatchPages, ActionListener<ExchangeResponse> listener) {
         if (sourceFinished) {
             buffer.finish(true);
         }
-        listeners.add(listener);
+        listeners.add(new PendingFetch(listener, maxBatchBytes, maxBatchPages));
         onChanged();
         notifyListeners();
     }
 
+    private record PendingFetch(ActionListener<ExchangeResponse> listener, long maxBatchBytes, int maxBatchPages) {}
+
     /**
      * Add a listener, which will be notified when this exchange sink handler is completed. An exchange sink
      * handler is consider completed when all associated sinks are completed and the output pages are fetched.
@@ -144,21 +161,43 @@ public final class ExchangeSinkHandler {
             if (promised.tryAcquire() == false) {
                 break;
             }
-            final ActionListener<ExchangeResponse> listener;
+            final PendingFetch fetch;
             final ExchangeResponse response;
             try {
                 // Use `poll` and recheck because `listeners.isEmpty()` might return true, while a listener is being added
-                listener = listeners.poll();
-                if (listener == null) {
+                fetch = listeners.poll();
+                if (fetch == null) {
                     continue;
                 }
-                response = new ExchangeResponse(blockFactory, buffer.pollPage(), buffer.isFinished());
+                response = new ExchangeResponse(blockFactory, pollPages(fetch.maxBatchBytes, fetch.maxBatchPages), buffer.isFinished());
             } finally {
                 promised.release();
             }
             onChanged();
-            ActionListener.respondAndRelease(listener, response);
+            ActionListener.respondAndRelease(fetch.listener, response);
+        }
+    }
+
+    /**
+     * Polls available pages until they hold at least {@code maxBatchBytes} or there are {@code maxBatchPages}
+     * of them. Batching saves round trips when the sink produces many small pages faster than they're fetched.
+     */
+    private List<Page> pollPages(long maxBatchBytes, int maxBatchPages) {
+        Page page = buffer.pollPage();
+        if (page == null) {
+            return List.of();
+        }
+        long bytes = page.ramBytesUsedByBlocks();
+        if (bytes >= maxBatchBytes || maxBatchPages <= 1) {
+            return List.of(page);
+        }
+        List<Page> pages = new ArrayList<>();
+        pages.add(page);
+        while (bytes < maxBatchBytes && pages.size() < maxBatchPages && (page = buffer.pollPage()) != null) {
+            pages.add(page);
+            bytes += page.ramBytesUsedByBlocks();
         }
+        return pages;
     }
 
     /**
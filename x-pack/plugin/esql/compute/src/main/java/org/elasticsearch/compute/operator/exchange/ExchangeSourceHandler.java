@@ -202,9 +202,8 @@ public final class ExchangeSourceHandler {
                 loopControl.exiting();
                 // finish other sinks if one of them failed or source no longer need pages.
                 boolean toFinishSinks = buffer.noMoreInputs() || failure.hasFailure();
-                remoteSink.fetchPageAsync(toFinishSinks, ActionListener.wrap(resp -> {
-                    Page page = resp.takePage();
-                    if (page != null) {
+                remoteSink.fetchPagesAsync(toFinishSinks, buffer.remainingCapacity(), ActionListener.wrap(resp -> {
+                    for (Page page : resp.takePages()) {
                         onPageFetched.run();
                         buffer.addPage(page);
                     }
@@ -14,10 +14,16 @@ public interface RemoteSink {
 
     void fetchPageAsync(boolean allSourcesFinished, ActionListener<ExchangeResponse> listener);
 
+    /**
+     * Fetches up to {@code maxPages} pages at once. Sinks that don't batch pages respond with at most one page.
+     */
+    default void fetchPagesAsync(boolean allSourcesFinished, int maxPages, ActionListener<ExchangeResponse> listener) {
+        fetchPageAsync(allSourcesFinished, listener);
+    }
+
     default void close(ActionListener<Void> listener) {
         fetchPageAsync(true, listener.delegateFailure((l, r) -> {
-            final Page page = r.takePage();
-            if (page != null) {
+            for (Page page : r.takePages()) {
                 page.releaseBlocks();
             }
             l.onResponse(null);
@@ -10,6 +10,7 @@ package org.elasticsearch.compute.data;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.BytesRefHash;
@@ -30,6 +31,7 @@ import java.util.stream.IntStream;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 
 public class BlockSerializationTests extends SerializationTestCase {
 
@@ -157,6 +159,38 @@ public class BlockSerializationTests extends SerializationTestCase {
         }
     }
 
+    public void testDeltaEncodedLongVector() throws IOException {
+        int positions = between(2, 10_000);
+        long start = randomLongBetween(0, Long.MAX_VALUE / 2);
+        try (LongVector.Builder builder = blockFactory.newLongVectorBuilder(positions)) {
+            long value = start;
+            for (int p = 0; p < positions; p++) {
+                builder.appendLong(value);
+                value += between(0, 100);
+            }
+            try (LongVector vector = builder.build(); BytesStreamOutput out = new BytesStreamOutput()) {
+                vector.writeTo(out);
+                // the delta encoded vector is much smaller than eight bytes per value
+                assertThat(out.size(), lessThan(positions * Long.BYTES / 2 + Long.BYTES * 2));
+                try (LongBlock deserBlock = serializeDeserializeBlock(vector.asBlock())) {
+                    EqualsHashCodeTestUtils.checkEqualsAndHashCode(vector.asBlock(), unused -> deserBlock);
+                }
+            }
+        }
+    }
+
+    public void testRandomLongVectorNotDeltaEncoded() throws IOException {
+        int positions = between(2, 1000);
+        try (LongVector.Builder builder = blockFactory.newLongVectorBuilder(positions)) {
+            for (int p = 0; p < positions; p++) {
+                builder.appendLong(randomLong());
+            }
+            try (LongVector vector = builder.build(); LongBlock deserBlock = serializeDeserializeBlock(vector.asBlock())) {
+                EqualsHashCodeTestUtils.checkEqualsAndHashCode(vector.asBlock(), unused -> deserBlock);
+            }
+        }
+    }
+
     public void testFilterFloatBlock() throws IOException {
         try (FloatBlock toFilter = blockFactory.newFloatBlockBuilder(0).appendFloat(1).appendFloat(2).build()) {
             assertFilterBlock(toFilter.filter(1));
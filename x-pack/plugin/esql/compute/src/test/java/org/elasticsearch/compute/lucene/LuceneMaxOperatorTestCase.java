@@ -202,7 +202,7 @@ public abstract class LuceneMaxOperatorTestCase extends AnyOperatorTestCase {
         return matchesRegex(
             "LuceneMaxOperator\\[type = "
                 + getNumberType().name()
-                + ", dataPartitioning = (DOC|SHARD|SEGMENT), fieldName = "
+                + ", dataPartitioning = (DOC|SHARD|SEGMENT|AUTO), fieldName = "
                 + FIELD_NAME
                 + ", limit = 100]"
         );
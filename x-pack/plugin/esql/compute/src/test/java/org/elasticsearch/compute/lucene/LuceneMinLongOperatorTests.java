@@ -7,22 +7,34 @@
 
 package org.elasticsearch.compute.lucene;
 
+import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.LongField;
 import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.RandomIndexWriter;
 import org.elasticsearch.compute.aggregation.AggregatorFunction;
 import org.elasticsearch.compute.aggregation.MinLongAggregatorFunctionSupplier;
 import org.elasticsearch.compute.data.Block;
 import org.elasticsearch.compute.data.BooleanBlock;
 import org.elasticsearch.compute.data.LongBlock;
 import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.operator.Driver;
 import org.elasticsearch.compute.operator.DriverContext;
+import org.elasticsearch.compute.test.OperatorTestCase;
+import org.elasticsearch.compute.test.TestResultPageSinkOperator;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 
 public class LuceneMinLongOperatorTests extends LuceneMinOperatorTestCase {
@@ -84,4 +96,50 @@ public class LuceneMinLongOperatorTests extends LuceneMinOperatorTestCase {
             }
         };
     }
+
+    public void testDocValuesSkipper() throws IOException {
+        long min = Long.MAX_VALUE;
+        try (
+            Directory dir = newDirectory();
+            RandomIndexWriter writer = new RandomIndexWriter(random(), dir, newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))
+        ) {
+            int numDocs = between(1, 1_000);
+            for (int d = 0; d < numDocs; d++) {
+                long value = randomLong();
+                min = Math.min(min, value);
+                Document doc = new Document();
+                // doc values with a skip index but no points
+                doc.add(SortedNumericDocValuesField.indexedField(FIELD_NAME, value));
+                writer.addDocument(doc);
+                if (rarely()) {
+                    writer.commit();
+                }
+            }
+            try (IndexReader reader = writer.getReader()) {
+                ShardContext ctx = new LuceneSourceOperatorTests.MockShardContext(reader, 0);
+                LuceneMinFactory factory = new LuceneMinFactory(
+                    List.of(ctx),
+                    c -> new MatchAllDocsQuery(),
+                    randomFrom(DataPartitioning.values()),
+                    1,
+                    FIELD_NAME,
+                    LuceneMinFactory.NumberType.LONG,
+                    LuceneOperator.NO_LIMIT
+                );
+                List<Page> results = new ArrayList<>();
+                DriverContext driverContext = driverContext();
+                OperatorTestCase.runDriver(
+                    new Driver(driverContext, factory.get(driverContext), List.of(), new TestResultPageSinkOperator(results::add), () -> {})
+                );
+                assertThat(results, hasSize(1));
+                Page page = results.get(0);
+                try {
+                    assertThat(((BooleanBlock) page.getBlock(1)).getBoolean(0), equalTo(true));
+                    assertThat(((LongBlock) page.getBlock(0)).getLong(0), equalTo(min));
+                } finally {
+                    page.releaseBlocks();
+                }
+            }
+        }
+    }
 }
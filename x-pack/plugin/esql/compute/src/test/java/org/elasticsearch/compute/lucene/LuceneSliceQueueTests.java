@@ -0,0 +1,179 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.lucene;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+
+public class LuceneSliceQueueTests extends ESTestCase {
+    public void testClaim() {
+        LuceneSliceQueue.SharedRange range = new LuceneSliceQueue.SharedRange(null, null, 10, 100);
+        assertThat(range.remaining(), equalTo(90));
+        assertThat(range.claim(10, 20), equalTo(30));
+        assertThat(range.remaining(), equalTo(70));
+        // the scorer can jump past the claimed range
+        assertThat(range.claim(50, 20), equalTo(70));
+        assertThat(range.claim(70, 1000), equalTo(100));
+        assertThat(range.remaining(), equalTo(0));
+        assertThat(range.claim(100, 10), equalTo(100));
+    }
+
+    public void testSplitTail() {
+        LuceneSliceQueue.SharedRange range = new LuceneSliceQueue.SharedRange(null, null, 0, 100);
+        assertThat(range.claim(0, 10), equalTo(10));
+        PartialLeafReaderContext stolen = range.splitTail(10);
+        assertThat(stolen.minDoc(), equalTo(55));
+        assertThat(stolen.maxDoc(), equalTo(100));
+        assertThat(range.maxDoc(), equalTo(55));
+        assertThat(range.claim(10, 1000), equalTo(55));
+        assertThat(range.splitTail(1), nullValue());
+    }
+
+    public void testSplitTailTooSmall() {
+        LuceneSliceQueue.SharedRange range = new LuceneSliceQueue.SharedRange(null, null, 0, 100);
+        assertThat(range.splitTail(51), nullValue());
+        assertThat(range.maxDoc(), equalTo(100));
+    }
+
+    public void testClose() {
+        LuceneSliceQueue.SharedRange range = new LuceneSliceQueue.SharedRange(null, null, 0, 100);
+        range.close();
+        assertThat(range.remaining(), equalTo(0));
+        assertThat(range.splitTail(1), nullValue());
+        assertThat(range.claim(0, 10), equalTo(0));
+    }
+
+    public void testAutoSlicesSplitsLargeSegment() throws IOException {
+        try (Directory dir = newDirectory()) {
+            indexOneSegment(dir, 100_000);
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                List<List<PartialLeafReaderContext>> slices = autoSlices(reader, new MatchAllDocsQuery(), 4);
+                // 100_000 docs / 4 drivers is less than the minimum slice size
+                assertThat(slices, hasSize(4));
+                int expectedMin = 0;
+                for (List<PartialLeafReaderContext> slice : slices) {
+                    assertThat(slice, hasSize(1));
+                    assertThat(slice.get(0).minDoc(), equalTo(expectedMin));
+                    expectedMin = slice.get(0).maxDoc();
+                }
+                assertThat(expectedMin, equalTo(100_000));
+            }
+        }
+    }
+
+    public void testAutoSlicesSelectiveQuery() throws IOException {
+        try (Directory dir = newDirectory()) {
+            indexOneSegment(dir, 100_000);
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                List<List<PartialLeafReaderContext>> slices = autoSlices(reader, new TermQuery(new Term("f", "rare")), 4);
+                assertThat(slices, hasSize(1));
+                assertThat(slices.get(0), hasSize(1));
+                assertThat(slices.get(0).get(0).minDoc(), equalTo(0));
+                assertThat(slices.get(0).get(0).maxDoc(), equalTo(100_000));
+            }
+        }
+    }
+
+    public void testAutoSlicesSmallShard() throws IOException {
+        try (Directory dir = newDirectory()) {
+            indexOneSegment(dir, between(1, LuceneSliceQueue.MIN_DOCS_PER_AUTO_SLICE));
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                assertThat(autoSlices(reader, new MatchAllDocsQuery(), between(1, 16)), hasSize(1));
+            }
+        }
+    }
+
+    private static List<List<PartialLeafReaderContext>> autoSlices(DirectoryReader reader, Query query, int taskConcurrency)
+        throws IOException {
+        IndexSearcher searcher = new IndexSearcher(reader);
+        Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1);
+        return LuceneSliceQueue.autoSlices(reader.leaves(), weight, taskConcurrency);
+    }
+
+    private static void indexOneSegment(Directory dir, int numDocs) throws IOException {
+        try (IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig())) {
+            for (int d = 0; d < numDocs; d++) {
+                Document doc = new Document();
+                doc.add(new StringField("f", d % 1000 == 0 ? "rare" : "common", Field.Store.NO));
+                writer.addDocument(doc);
+            }
+            writer.forceMerge(1);
+        }
+    }
+
+    /**
+     * Claim and steal from many threads at once and make sure every doc is processed exactly once.
+     */
+    public void testConcurrentClaimAndSteal() throws Exception {
+        int maxDoc = between(1_000, 100_000);
+        AtomicIntegerArray seen = new AtomicIntegerArray(maxDoc);
+        LuceneSliceQueue.SharedRange owner = new LuceneSliceQueue.SharedRange(null, null, 0, maxDoc);
+        int thieves = between(1, 4);
+        int claimSize = between(1, 100);
+        CyclicBarrier barrier = new CyclicBarrier(thieves + 1);
+        List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> {
+            safeAwait(barrier);
+            consume(owner, 0, claimSize, seen);
+        }));
+        for (int t = 0; t < thieves; t++) {
+            threads.add(new Thread(() -> {
+                safeAwait(barrier);
+                PartialLeafReaderContext stolen;
+                while ((stolen = owner.splitTail(1)) != null) {
+                    LuceneSliceQueue.SharedRange range = new LuceneSliceQueue.SharedRange(null, null, stolen.minDoc(), stolen.maxDoc());
+                    consume(range, stolen.minDoc(), claimSize, seen);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int d = 0; d < maxDoc; d++) {
+            assertThat("doc " + d, seen.get(d), equalTo(1));
+        }
+    }
+
+    private static void consume(LuceneSliceQueue.SharedRange range, int position, int claimSize, AtomicIntegerArray seen) {
+        while (true) {
+            int max = range.claim(position, claimSize);
+            if (max <= position) {
+                return;
+            }
+            for (int d = position; d < max; d++) {
+                seen.incrementAndGet(d);
+            }
+            position = max;
+        }
+    }
+}
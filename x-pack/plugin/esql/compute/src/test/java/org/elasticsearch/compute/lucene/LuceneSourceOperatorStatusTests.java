@@ -22,6 +22,7 @@ public class LuceneSourceOperatorStatusTests extends AbstractWireSerializingTest
     public static LuceneSourceOperator.Status simple() {
         return new LuceneSourceOperator.Status(
             2,
+            1,
             Set.of("*:*"),
             new TreeSet<>(List.of("a:0", "a:1")),
             1002,
@@ -39,6 +40,7 @@ public class LuceneSourceOperatorStatusTests extends AbstractWireSerializingTest
         return """
             {
               "processed_slices" : 2,
+              "stolen_slices" : 1,
               "processed_queries" : [
                 "*:*"
               ],
@@ -70,6 +72,7 @@ public class LuceneSourceOperatorStatusTests extends AbstractWireSerializingTest
     @Override
     public LuceneSourceOperator.Status createTestInstance() {
         return new LuceneSourceOperator.Status(
+            randomNonNegativeInt(),
             randomNonNegativeInt(),
             randomProcessedQueries(),
             randomProcessedShards(),
@@ -105,6 +108,7 @@ public class LuceneSourceOperatorStatusTests extends AbstractWireSerializingTest
     @Override
     protected LuceneSourceOperator.Status mutateInstance(LuceneSourceOperator.Status instance) {
         int processedSlices = instance.processedSlices();
+        int stolenSlices = instance.stolenSlices();
         Set<String> processedQueries = instance.processedQueries();
         Set<String> processedShards = instance.processedShards();
         long processNanos = instance.processNanos();
@@ -115,7 +119,7 @@ public class LuceneSourceOperatorStatusTests extends AbstractWireSerializingTest
         int sliceMax = instance.sliceMax();
         int current = instance.current();
         long rowsEmitted = instance.rowsEmitted();
-        switch (between(0, 10)) {
+        switch (between(0, 11)) {
             case 0 -> processedSlices = randomValueOtherThan(processedSlices, ESTestCase::randomNonNegativeInt);
             case 1 -> processedQueries = randomValueOtherThan(processedQueries, LuceneSourceOperatorStatusTests::randomProcessedQueries);
             case 2 -> processedShards = randomValueOtherThan(processedShards, LuceneSourceOperatorStatusTests::randomProcessedShards);
@@ -127,10 +131,12 @@ public class LuceneSourceOperatorStatusTests extends AbstractWireSerializingTest
             case 8 -> sliceMax = randomValueOtherThan(sliceMax, ESTestCase::randomNonNegativeInt);
             case 9 -> current = randomValueOtherThan(current, ESTestCase::randomNonNegativeInt);
             case 10 -> rowsEmitted = randomValueOtherThan(rowsEmitted, ESTestCase::randomNonNegativeLong);
+            case 11 -> stolenSlices = randomValueOtherThan(stolenSlices, ESTestCase::randomNonNegativeInt);
             default -> throw new UnsupportedOperationException();
         }
         return new LuceneSourceOperator.Status(
             processedSlices,
+            stolenSlices,
             processedQueries,
             processedShards,
             processNanos,
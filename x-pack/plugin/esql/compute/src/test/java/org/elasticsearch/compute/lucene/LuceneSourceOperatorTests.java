@@ -18,6 +18,7 @@ import org.apache.lucene.store.Directory;
 import org.apache.lucene.tests.index.RandomIndexWriter;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.compute.data.DocBlock;
+import org.elasticsearch.compute.data.DocVector;
 import org.elasticsearch.compute.data.DoubleBlock;
 import org.elasticsearch.compute.data.ElementType;
 import org.elasticsearch.compute.data.LongBlock;
@@ -29,6 +30,7 @@ import org.elasticsearch.compute.test.AnyOperatorTestCase;
 import org.elasticsearch.compute.test.OperatorTestCase;
 import org.elasticsearch.compute.test.TestResultPageSinkOperator;
 import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Releasables;
 import org.elasticsearch.index.cache.query.TrivialQueryCachingPolicy;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.mapper.NumberFieldMapper;
@@ -41,6 +43,7 @@ import org.junit.After;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -105,7 +108,7 @@ public class LuceneSourceOperatorTests extends AnyOperatorTestCase {
     protected Matcher<String> expectedDescriptionOfSimple() {
         return matchesRegex(
             "LuceneSourceOperator"
-                + "\\[dataPartitioning = (DOC|SHARD|SEGMENT), maxPageSize = \\d+, limit = 100, scoreMode = (COMPLETE|COMPLETE_NO_SCORES)]"
+                + "\\[dataPartitioning = (DOC|SHARD|SEGMENT|AUTO), maxPageSize = \\d+, limit = 100, scoreMode = (COMPLETE|COMPLETE_NO_SCORES)]"
         );
     }
 
@@ -179,6 +182,119 @@ public class LuceneSourceOperatorTests extends AnyOperatorTestCase {
         assertThat(results, hasSize(both(greaterThanOrEqualTo(minPages)).and(lessThanOrEqualTo(maxPages))));
     }
 
+    /**
+     * Drive several operators that share a slice queue one page at a time, in random order,
+     * so that all but the first have to steal from the single slice of a force merged shard.
+     */
+    public void testStealingVisitsEachDocOnce() throws IOException {
+        int numDocs = between(3 * LuceneSliceQueue.MIN_DOCS_TO_STEAL, 5 * LuceneSliceQueue.MIN_DOCS_TO_STEAL);
+        LuceneSourceOperator.Factory factory = forceMergedFactory(numDocs, between(10, 1000));
+        List<DriverContext> contexts = new ArrayList<>();
+        List<LuceneSourceOperator> operators = new ArrayList<>();
+        int numOperators = between(2, 8);
+        for (int i = 0; i < numOperators; i++) {
+            DriverContext ctx = driverContext();
+            contexts.add(ctx);
+            operators.add((LuceneSourceOperator) factory.get(ctx));
+        }
+        int[] visits = new int[numDocs];
+        try {
+            List<LuceneSourceOperator> running = new ArrayList<>(operators);
+            int step = 0;
+            while (running.isEmpty() == false) {
+                // the first operator takes the only slice and the others have to steal from it
+                LuceneSourceOperator operator = step < numOperators ? operators.get(step) : randomFrom(running);
+                step++;
+                Page page = operator.getOutput();
+                if (page != null) {
+                    try {
+                        countVisits(page, visits);
+                    } finally {
+                        page.releaseBlocks();
+                    }
+                }
+                if (operator.isFinished()) {
+                    running.remove(operator);
+                }
+            }
+            int stolenSlices = operators.stream().mapToInt(o -> ((LuceneOperator.Status) o.status()).stolenSlices()).sum();
+            assertThat(stolenSlices, greaterThanOrEqualTo(1));
+        } finally {
+            Releasables.close(operators);
+        }
+        for (DriverContext ctx : contexts) {
+            ctx.finish();
+            OperatorTestCase.assertDriverContext(ctx);
+        }
+        assertEachDocVisitedOnce(visits);
+    }
+
+    /**
+     * Run several drivers that share a slice queue concurrently and make sure that stealing
+     * never visits a document twice or skips one.
+     */
+    public void testConcurrentStealingVisitsEachDocOnce() throws IOException {
+        int numDocs = between(2 * LuceneSliceQueue.MIN_DOCS_TO_STEAL, 5 * LuceneSliceQueue.MIN_DOCS_TO_STEAL);
+        LuceneSourceOperator.Factory factory = forceMergedFactory(numDocs, between(10, 1000));
+        List<Page> results = Collections.synchronizedList(new ArrayList<>());
+        List<DriverContext> contexts = new ArrayList<>();
+        List<Driver> drivers = new ArrayList<>();
+        int numDrivers = between(2, 8);
+        for (int i = 0; i < numDrivers; i++) {
+            DriverContext ctx = driverContext();
+            contexts.add(ctx);
+            drivers.add(new Driver(ctx, factory.get(ctx), List.of(), new TestResultPageSinkOperator(results::add), () -> {}));
+        }
+        OperatorTestCase.runDriver(drivers);
+        for (DriverContext ctx : contexts) {
+            OperatorTestCase.assertDriverContext(ctx);
+        }
+        int[] visits = new int[numDocs];
+        for (Page page : results) {
+            try {
+                countVisits(page, visits);
+            } finally {
+                page.releaseBlocks();
+            }
+        }
+        assertEachDocVisitedOnce(visits);
+    }
+
+    private LuceneSourceOperator.Factory forceMergedFactory(int numDocs, int maxPageSize) throws IOException {
+        try (RandomIndexWriter writer = new RandomIndexWriter(random(), directory)) {
+            for (int d = 0; d < numDocs; d++) {
+                writer.addDocument(List.of(new SortedNumericDocValuesField("s", d)));
+            }
+            writer.forceMerge(1);
+            reader = writer.getReader();
+        }
+        assertThat(reader.leaves(), hasSize(1));
+        ShardContext ctx = new MockShardContext(reader, 0);
+        return new LuceneSourceOperator.Factory(
+            List.of(ctx),
+            c -> new MatchAllDocsQuery(),
+            DataPartitioning.SHARD,
+            1,
+            maxPageSize,
+            LuceneOperator.NO_LIMIT,
+            false
+        );
+    }
+
+    private void countVisits(Page page, int[] visits) {
+        DocVector docs = ((DocBlock) page.getBlock(0)).asVector();
+        for (int p = 0; p < page.getPositionCount(); p++) {
+            int docBase = reader.leaves().get(docs.segments().getInt(p)).docBase;
+            visits[docBase + docs.docs().getInt(p)]++;
+        }
+    }
+
+    private static void assertEachDocVisitedOnce(int[] visits) {
+        for (int d = 0; d < visits.length; d++) {
+            assertThat("doc " + d, visits[d], equalTo(1));
+        }
+    }
+
     // Scores are not interesting to this test, but enabled conditionally and effectively ignored just for coverage.
     private final boolean scoring = randomBoolean();
 
@@ -116,7 +116,7 @@ public class LuceneTopNSourceOperatorScoringTests extends LuceneTopNSourceOperat
     protected Matcher<String> expectedDescriptionOfSimple() {
         return matchesRegex(
             "LuceneTopNSourceOperator"
-                + "\\[dataPartitioning = (DOC|SHARD|SEGMENT), maxPageSize = \\d+, limit = 100, scoreMode = COMPLETE, sorts = \\[\\{.+}]]"
+                + "\\[dataPartitioning = (DOC|SHARD|SEGMENT|AUTO), maxPageSize = \\d+, limit = 100, scoreMode = COMPLETE, sorts = \\[\\{.+}]]"
         );
     }
 
@@ -123,7 +123,7 @@ public class LuceneTopNSourceOperatorTests extends AnyOperatorTestCase {
         var s = scoring ? "COMPLETE" : "TOP_DOCS";
         return matchesRegex(
             "LuceneTopNSourceOperator"
-                + "\\[dataPartitioning = (DOC|SHARD|SEGMENT), maxPageSize = \\d+, limit = 100, scoreMode = "
+                + "\\[dataPartitioning = (DOC|SHARD|SEGMENT|AUTO), maxPageSize = \\d+, limit = 100, scoreMode = "
                 + s
                 + ", sorts = \\[\\{.+}]]"
         );
@@ -7,10 +7,13 @@
 
 package org.elasticsearch.compute.operator;
 
+import org.elasticsearch.action.support.SubscribableListener;
+import org.elasticsearch.compute.data.Page;
 import org.elasticsearch.compute.test.AnyOperatorTestCase;
 import org.hamcrest.Matcher;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 
 import static org.hamcrest.Matchers.equalTo;
@@ -48,4 +51,27 @@ public class OutputOperatorTests extends AnyOperatorTestCase {
     public void testBigDescription() {
         assertThat(big().describe(), equalTo(expectedDescriptionOfBig()));
     }
+
+    public void testBlockingPageConsumer() {
+        SubscribableListener<Void> unblocked = new SubscribableListener<>();
+        AtomicReference<IsBlockedResult> blocked = new AtomicReference<>(Operator.NOT_BLOCKED);
+        OutputOperator.BlockingPageConsumer consumer = new OutputOperator.BlockingPageConsumer() {
+            @Override
+            public IsBlockedResult isBlocked() {
+                return blocked.get();
+            }
+
+            @Override
+            public void accept(Page page) {}
+        };
+        try (Operator operator = new OutputOperator.OutputOperatorFactory(List.of("a"), p -> p, consumer).get(driverContext())) {
+            assertTrue(operator.isBlocked().listener().isDone());
+            blocked.set(new IsBlockedResult(unblocked, "waiting for the client"));
+            assertFalse(operator.isBlocked().listener().isDone());
+            assertThat(operator.isBlocked().reason(), equalTo("waiting for the client"));
+            unblocked.onResponse(null);
+            blocked.set(Operator.NOT_BLOCKED);
+            assertTrue(operator.isBlocked().listener().isDone());
+        }
+    }
 }
@@ -66,9 +66,11 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 
 public class ExchangeServiceTests extends ESTestCase {
 
@@ -407,8 +409,8 @@ public class ExchangeServiceTests extends ESTestCase {
                     }));
                 } else {
                     sinkHandler.fetchPageAsync(allSourcesFinished, listener.delegateFailure((l, r) -> {
-                        Page page = r.takePage();
-                        if (page != null) {
+                        List<Page> pages = r.takePages();
+                        for (Page page : pages) {
                             IntBlock block = page.getBlock(0);
                             for (int i = 0; i < block.getPositionCount(); i++) {
                                 int v = block.getInt(i);
@@ -417,7 +419,7 @@ public class ExchangeServiceTests extends ESTestCase {
                                 }
                             }
                         }
-                        l.onResponse(new ExchangeResponse(blockFactory, page, r.finished()));
+                        l.onResponse(new ExchangeResponse(blockFactory, pages, r.finished()));
                     }));
                 }
             }, false, () -> {}, instance, ActionListener.wrap(r -> {
@@ -460,11 +462,86 @@ public class ExchangeServiceTests extends ESTestCase {
         sinkExchanger.fetchPageAsync(true, future);
         ExchangeResponse resp = future.actionGet();
         assertTrue(resp.finished());
-        assertNull(resp.takePage());
+        assertThat(resp.takePages(), empty());
         assertTrue(sink.waitForWriting().listener().isDone());
         assertTrue(sink.isFinished());
     }
 
+    public void testBatchPages() {
+        BlockFactory blockFactory = blockFactory();
+        ExchangeSinkHandler sinkExchanger = new ExchangeSinkHandler(blockFactory, 10, threadPool.relativeTimeInMillisSupplier());
+        ExchangeSink sink = sinkExchanger.createExchangeSink(() -> {});
+        int numPages = between(3, 10);
+        for (int i = 0; i < numPages; i++) {
+            sink.addPage(new Page(blockFactory.newConstantIntBlockWith(i, 2)));
+        }
+        sink.finish();
+        List<Page> pages = new ArrayList<>();
+        AtomicBoolean finished = new AtomicBoolean();
+        ActionListener<ExchangeResponse> collect = ActionListener.wrap(r -> {
+            pages.addAll(r.takePages());
+            finished.set(r.finished());
+        }, e -> { throw new AssertionError(e); });
+        // without a batch size we get one page per fetch
+        sinkExchanger.fetchPageAsync(false, collect);
+        assertThat(pages, hasSize(1));
+        assertFalse(finished.get());
+        // the batch never holds more pages than the source has room for
+        sinkExchanger.fetchPageAsync(false, ByteSizeValue.ofMb(1).getBytes(), 1, collect);
+        assertThat(pages, hasSize(2));
+        assertFalse(finished.get());
+        // a large batch size gets the rest of the pages at once
+        sinkExchanger.fetchPageAsync(false, ByteSizeValue.ofMb(1).getBytes(), numPages, collect);
+        assertThat(pages, hasSize(numPages));
+        assertTrue(finished.get());
+        assertTrue(sinkExchanger.isFinished());
+        pages.forEach(Page::releaseBlocks);
+    }
+
+    public void testBatchesFitInSourceBuffer() {
+        BlockFactory blockFactory = blockFactory();
+        int maxBufferSize = between(1, 5);
+        ExchangeSourceHandler sourceHandler = new ExchangeSourceHandler(
+            maxBufferSize,
+            EsExecutors.DIRECT_EXECUTOR_SERVICE,
+            ActionListener.noop()
+        );
+        ExchangeSource exchangeSource = sourceHandler.createExchangeSource();
+        int totalPages = between(maxBufferSize, 50);
+        AtomicInteger sentPages = new AtomicInteger();
+        AtomicInteger maxBufferedPages = new AtomicInteger();
+        RemoteSink remoteSink = new RemoteSink() {
+            @Override
+            public void fetchPageAsync(boolean allSourcesFinished, ActionListener<ExchangeResponse> listener) {
+                fetchPagesAsync(allSourcesFinished, 1, listener);
+            }
+
+            @Override
+            public void fetchPagesAsync(boolean allSourcesFinished, int maxPages, ActionListener<ExchangeResponse> listener) {
+                assertThat(maxPages, greaterThan(0));
+                if (allSourcesFinished == false) {
+                    maxBufferedPages.accumulateAndGet(exchangeSource.bufferSize() + maxPages, Math::max);
+                }
+                List<Page> pages = new ArrayList<>();
+                while (allSourcesFinished == false && pages.size() < maxPages && sentPages.get() < totalPages) {
+                    pages.add(new Page(blockFactory.newConstantIntBlockWith(sentPages.incrementAndGet(), 1)));
+                }
+                listener.onResponse(new ExchangeResponse(blockFactory, pages, allSourcesFinished || sentPages.get() == totalPages));
+            }
+        };
+        sourceHandler.addRemoteSink(remoteSink, true, () -> {}, 1, ActionListener.noop());
+        int receivedPages = 0;
+        while (exchangeSource.isFinished() == false) {
+            assertThat(exchangeSource.bufferSize(), lessThanOrEqualTo(maxBufferSize));
+            Page page = exchangeSource.pollPage();
+            assertNotNull(page);
+            receivedPages++;
+            page.releaseBlocks();
+        }
+        assertThat(receivedPages, equalTo(totalPages));
+        assertThat(maxBufferedPages.get(), lessThanOrEqualTo(maxBufferSize));
+    }
+
     public void testFinishEarly() throws Exception {
         ExchangeSourceHandler sourceHandler = new ExchangeSourceHandler(20, threadPool.generic(), ActionListener.noop());
         Semaphore permits = new Semaphore(between(1, 5));
@@ -591,18 +668,18 @@ public class ExchangeServiceTests extends ESTestCase {
                     @Override
                     public void sendResponse(TransportResponse transportResponse) {
                         ExchangeResponse origResp = (ExchangeResponse) transportResponse;
-                        Page page = origResp.takePage();
-                        if (page != null) {
+                        List<Page> pages = origResp.takePages();
+                        for (Page page : pages) {
                             IntBlock block = page.getBlock(0);
                             for (int i = 0; i < block.getPositionCount(); i++) {
                                 if (block.getInt(i) == disconnectOnSeqNo) {
-                                    page.releaseBlocks();
+                                    pages.forEach(Page::releaseBlocks);
                                     sendResponse(new IOException("page is too large"));
                                     return;
                                 }
                             }
                         }
-                        try (var newRespRef = ReleasableRef.of(new ExchangeResponse(blockFactory, page, origResp.finished()))) {
+                        try (var newRespRef = ReleasableRef.of(new ExchangeResponse(blockFactory, pages, origResp.finished()))) {
                             super.sendResponse(newRespRef.get());
                         }
                     }
@@ -44,6 +44,7 @@ import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.not;
@@ -547,6 +548,7 @@ public class RestEsqlIT extends RestEsqlTestCase {
         name = name.replaceAll("\\[.+", "");
         MapMatcher status = switch (name) {
             case "LuceneSourceOperator" -> matchesMap().entry("processed_slices", greaterThan(0))
+                .entry("stolen_slices", greaterThanOrEqualTo(0))
                 .entry("processed_shards", List.of(testIndexName() + ":0"))
                 .entry("total_slices", greaterThan(0))
                 .entry("slice_index", 0)
@@ -585,6 +587,7 @@ public class RestEsqlIT extends RestEsqlTestCase {
                 .entry("rows_emitted", greaterThan(0))
                 .entry("current", greaterThan(0))
                 .entry("processed_slices", greaterThan(0))
+                .entry("stolen_slices", greaterThanOrEqualTo(0))
                 .entry("processed_shards", List.of("rest-esql-test:0"))
                 .entry("total_slices", greaterThan(0))
                 .entry("slice_max", 0)
@@ -186,7 +186,7 @@ public abstract class AbstractEsqlIntegTestCase extends ESIntegTestCase {
                 settings.put("exchange_concurrent_clients", randomIntBetween(1, 10));
             }
             if (randomBoolean()) {
-                settings.put("data_partitioning", randomFrom("shard", "segment", "doc"));
+                settings.put("data_partitioning", randomFrom("shard", "segment", "doc", "auto"));
             }
             if (randomBoolean()) {
                 final int pageSize = switch (between(0, 2)) {
@@ -615,6 +615,11 @@ public class EsqlCapabilities {
          */
         SORT_RETURNING_SOURCE_OK,
 
+        /**
+         * {@code EVAL}s that the {@code SORT} doesn't need run after the data node's top n.
+         */
+        EVAL_AFTER_TOP_N,
+
         /**
          * Allow filter per individual aggregation.
          */
@@ -764,7 +769,12 @@ public class EsqlCapabilities {
         /**
          * Support match options in match function
          */
-        MATCH_FUNCTION_OPTIONS;
+        MATCH_FUNCTION_OPTIONS,
+
+        /**
+         * Support for streaming the rows of a synchronous query with {@code ?stream=true}.
+         */
+        STREAMING_RESPONSE;
 
         private final boolean enabled;
 
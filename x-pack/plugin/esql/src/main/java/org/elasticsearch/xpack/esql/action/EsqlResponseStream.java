@@ -0,0 +1,230 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.esql.action;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.SubscribableListener;
+import org.elasticsearch.common.collect.Iterators;
+import org.elasticsearch.common.xcontent.ChunkedToXContent;
+import org.elasticsearch.common.xcontent.ChunkedToXContentHelper;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.operator.IsBlockedResult;
+import org.elasticsearch.compute.operator.Operator;
+import org.elasticsearch.compute.operator.OutputOperator;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.logging.LogManager;
+import org.elasticsearch.logging.Logger;
+import org.elasticsearch.rest.RestChannel;
+import org.elasticsearch.rest.RestResponse;
+import org.elasticsearch.rest.StreamingXContentResponse;
+import org.elasticsearch.xcontent.ToXContent;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams the rows of a synchronous query to the client as the coordinator produces them instead of collecting them into a
+ * {@link EsqlQueryResponse} first. The response looks like the row based response but the {@code took}, {@code is_partial},
+ * {@code _clusters} and {@code profile} sections come after the {@code values}, because they are only known at the end.
+ * <p>
+ * Pages are released once they've been sent. The driver producing them is blocked while more than
+ * {@link #MAX_PAGES_IN_FLIGHT} pages are waiting for the client, which in turn fills up the exchange buffers and blocks the data
+ * nodes, so the coordinator never holds more than a few pages of the result.
+ * </p>
+ */
+public final class EsqlResponseStream implements OutputOperator.BlockingPageConsumer {
+    private static final Logger LOGGER = LogManager.getLogger(EsqlResponseStream.class);
+
+    static final int MAX_PAGES_IN_FLIGHT = 8;
+
+    private final RestChannel channel;
+    private final AtomicInteger pagesInFlight = new AtomicInteger();
+    private final ActionListener<EsqlQueryResponse> completionListener = ActionListener.assertOnce(
+        ActionListener.wrap(this::finish, this::fail)
+    );
+
+    private volatile List<ColumnInfoImpl> columns;
+
+    @Nullable // until the first page or the end of the query
+    private StreamingXContentResponse response;
+
+    @Nullable // unless the driver is waiting for the client
+    private SubscribableListener<Void> unblocked;
+
+    public EsqlResponseStream(RestChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Set the columns of the result. Must be called before the first page arrives.
+     */
+    public void columns(List<ColumnInfoImpl> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * The listener to complete with the response to the query, minus the pages that were already streamed.
+     */
+    public ActionListener<EsqlQueryResponse> completionListener() {
+        return completionListener;
+    }
+
+    @Override
+    public void accept(Page page) {
+        List<ColumnInfoImpl> columns = this.columns;
+        assert columns != null : "columns not set";
+        pagesInFlight.incrementAndGet();
+        StreamingXContentResponse response;
+        try {
+            response = start();
+        } catch (Exception e) {
+            onPageSent(page);
+            throw e;
+        }
+        response.writeFragment(p -> ResponseXContentUtils.rowValues(columns, List.of(page), null), () -> onPageSent(page));
+    }
+
+    @Override
+    public IsBlockedResult isBlocked() {
+        if (pagesInFlight.get() < MAX_PAGES_IN_FLIGHT) {
+            return Operator.NOT_BLOCKED;
+        }
+        synchronized (this) {
+            if (pagesInFlight.get() < MAX_PAGES_IN_FLIGHT) {
+                return Operator.NOT_BLOCKED;
+            }
+            if (unblocked == null) {
+                unblocked = new SubscribableListener<>();
+            }
+            return new IsBlockedResult(unblocked, "waiting for the client");
+        }
+    }
+
+    private void onPageSent(Page page) {
+        Releasables.closeExpectNoException(page::releaseBlocks);
+        if (pagesInFlight.decrementAndGet() < MAX_PAGES_IN_FLIGHT) {
+            SubscribableListener<Void> toNotify;
+            synchronized (this) {
+                toNotify = unblocked;
+                unblocked = null;
+            }
+            if (toNotify != null) {
+                toNotify.onResponse(null);
+            }
+        }
+    }
+
+    /**
+     * Start the response by sending the column headings, if that hasn't happened yet.
+     */
+    private synchronized StreamingXContentResponse start() {
+        if (response == null) {
+            try {
+                response = new StreamingXContentResponse(channel, channel.request(), () -> {});
+            } catch (IOException e) {
+                throw new ElasticsearchException("failed to start the response", e);
+            }
+            List<ColumnInfoImpl> columns = this.columns;
+            response.writeFragment(
+                p -> Iterators.concat(
+                    ChunkedToXContentHelper.startObject(),
+                    ResponseXContentUtils.allColumns(columns, "columns"),
+                    ChunkedToXContentHelper.startArray("values")
+                ),
+                () -> {}
+            );
+        }
+        return response;
+    }
+
+    private synchronized boolean started() {
+        return response != null;
+    }
+
+    private void finish(EsqlQueryResponse queryResponse) {
+        boolean handedOff = false;
+        try {
+            if (columns == null) {
+                columns = queryResponse.columns();
+            }
+            StreamingXContentResponse response = start();
+            // the response is released once its trailing sections have been sent
+            handedOff = true;
+            response.writeFragment(trailer(queryResponse), queryResponse::decRef);
+            response.close();
+        } finally {
+            if (handedOff == false) {
+                queryResponse.decRef();
+            }
+        }
+    }
+
+    private static ChunkedToXContent trailer(EsqlQueryResponse queryResponse) {
+        EsqlExecutionInfo executionInfo = queryResponse.getExecutionInfo();
+        EsqlQueryResponse.Profile profile = queryResponse.profile();
+        return p -> {
+            Iterator<ToXContent> tookTime = Collections.emptyIterator();
+            if (executionInfo != null && executionInfo.overallTook() != null) {
+                tookTime = ChunkedToXContentHelper.chunk((builder, params) -> {
+                    builder.field("took", executionInfo.overallTook().millis());
+                    builder.field(EsqlExecutionInfo.IS_PARTIAL_FIELD.getPreferredName(), executionInfo.isPartial());
+                    return builder;
+                });
+            }
+            Iterator<ToXContent> executionInfoRender = executionInfo != null
+                && executionInfo.isCrossClusterSearch()
+                && executionInfo.includeCCSMetadata()
+                    ? ChunkedToXContentHelper.field("_clusters", executionInfo, p)
+                    : Collections.emptyIterator();
+            Iterator<ToXContent> profileRender = profile == null
+                ? Collections.emptyIterator()
+                : ChunkedToXContentHelper.field("profile", profile, p);
+            return Iterators.concat(
+                ChunkedToXContentHelper.endArray(),
+                tookTime,
+                executionInfoRender,
+                profileRender,
+                ChunkedToXContentHelper.endObject()
+            );
+        };
+    }
+
+    private void fail(Exception e) {
+        if (started() == false) {
+            // nothing sent yet so we can still send a regular error response
+            try {
+                channel.sendResponse(new RestResponse(channel, e));
+            } catch (IOException e2) {
+                e.addSuppressed(e2);
+                LOGGER.error("error building error response", e);
+                channel.request().getHttpChannel().close();
+            }
+            return;
+        }
+        StreamingXContentResponse response = start();
+        response.writeFragment(
+            p -> Iterators.concat(
+                ChunkedToXContentHelper.endArray(),
+                // the same fields as a regular error response
+                ChunkedToXContentHelper.chunk((builder, params) -> {
+                    ElasticsearchException.generateFailureXContent(builder, params, e, true);
+                    return builder.field("status", ExceptionsHelper.status(e).getStatus());
+                }),
+                ChunkedToXContentHelper.endObject()
+            ),
+            () -> {}
+        );
+        response.close();
+    }
+}
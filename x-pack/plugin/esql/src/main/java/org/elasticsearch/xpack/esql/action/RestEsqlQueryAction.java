@@ -16,6 +16,8 @@ import org.elasticsearch.rest.Scope;
 import org.elasticsearch.rest.ServerlessScope;
 import org.elasticsearch.rest.action.RestCancellableNodeClient;
 import org.elasticsearch.xcontent.XContentParser;
+import org.elasticsearch.xcontent.XContentType;
+import org.elasticsearch.xpack.esql.plugin.EsqlMediaTypeParser;
 
 import java.io.IOException;
 import java.util.List;
@@ -28,6 +30,11 @@ import static org.elasticsearch.xpack.esql.formatter.TextFormat.URL_PARAM_DELIMI
 public class RestEsqlQueryAction extends BaseRestHandler {
     private static final Logger LOGGER = LogManager.getLogger(RestEsqlQueryAction.class);
 
+    /**
+     * Stream the rows to the client as they are produced instead of building the whole response first.
+     */
+    public static final String URL_PARAM_STREAM = "stream";
+
     @Override
     public String getName() {
         return "esql_query";
@@ -45,9 +52,41 @@ public class RestEsqlQueryAction extends BaseRestHandler {
 
     @Override
     protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        boolean stream = request.paramAsBoolean(URL_PARAM_STREAM, false);
         try (XContentParser parser = request.contentOrSourceParamParser()) {
-            return restChannelConsumer(RequestXContent.parseSync(parser), request, client);
+            EsqlQueryRequest esqlRequest = RequestXContent.parseSync(parser);
+            return stream ? streamingChannelConsumer(esqlRequest, request, client) : restChannelConsumer(esqlRequest, request, client);
+        }
+    }
+
+    /**
+     * Sends the rows to the client as they are produced, see {@link EsqlResponseStream}.
+     */
+    private static RestChannelConsumer streamingChannelConsumer(EsqlQueryRequest esqlRequest, RestRequest request, NodeClient client) {
+        if (esqlRequest.columnar()) {
+            throw new IllegalArgumentException("Invalid use of [columnar] argument: cannot be used in combination with [stream]");
+        }
+        if (request.paramAsBoolean(EsqlQueryResponse.DROP_NULL_COLUMNS_OPTION, false)) {
+            throw new IllegalArgumentException(
+                "Invalid use of [" + EsqlQueryResponse.DROP_NULL_COLUMNS_OPTION + "] argument: cannot be used in combination with [stream]"
+            );
+        }
+        if (EsqlMediaTypeParser.getResponseMediaType(request, esqlRequest) instanceof XContentType == false) {
+            throw new IllegalArgumentException(
+                "Invalid use of [stream] argument: only supported with the json, yaml, cbor and smile formats"
+            );
         }
+        LOGGER.debug("Beginning streaming execution of ESQL query.\nQuery string: [{}]", esqlRequest.query());
+
+        return channel -> {
+            EsqlResponseStream responseStream = new EsqlResponseStream(channel);
+            esqlRequest.responseStream(responseStream);
+            new RestCancellableNodeClient(client, request.getHttpChannel()).execute(
+                EsqlQueryAction.INSTANCE,
+                esqlRequest,
+                responseStream.completionListener()
+            );
+        };
     }
 
     protected static RestChannelConsumer restChannelConsumer(EsqlQueryRequest esqlRequest, RestRequest request, NodeClient client) {
@@ -22,6 +22,7 @@ import org.elasticsearch.core.Nullable;
 import org.elasticsearch.xpack.esql.Column;
 import org.elasticsearch.xpack.esql.core.InvalidArgumentException;
 import org.elasticsearch.xpack.esql.core.expression.Attribute;
+import org.elasticsearch.xpack.esql.core.expression.NameId;
 import org.elasticsearch.xpack.esql.core.type.EsField;
 import org.elasticsearch.xpack.esql.session.Configuration;
 
@@ -76,12 +77,28 @@ public final class PlanStreamOutput extends StreamOutput implements org.elastics
 
     private final int maxSerializedAttributes;
 
+    /**
+     * Maps each {@link NameId} to the order in which it was first written or {@code null} to write ids as they are.
+     */
+    @Nullable
+    private final Map<Long, Long> canonicalNameIds;
+
     public PlanStreamOutput(StreamOutput delegate, @Nullable Configuration configuration) throws IOException {
         this(delegate, configuration, MAX_SERIALIZED_ATTRIBUTES);
     }
 
     public PlanStreamOutput(StreamOutput delegate, @Nullable Configuration configuration, int maxSerializedAttributes) throws IOException {
+        this(delegate, configuration, maxSerializedAttributes, false);
+    }
+
+    private PlanStreamOutput(
+        StreamOutput delegate,
+        @Nullable Configuration configuration,
+        int maxSerializedAttributes,
+        boolean canonicalNameIds
+    ) throws IOException {
         this.delegate = delegate;
+        this.canonicalNameIds = canonicalNameIds ? new HashMap<>() : null;
         if (configuration != null) {
             for (Map.Entry<String, Map<String, Column>> table : configuration.tables().entrySet()) {
                 for (Map.Entry<String, Column> column : table.getValue().entrySet()) {
@@ -92,6 +109,15 @@ public final class PlanStreamOutput extends StreamOutput implements org.elastics
         this.maxSerializedAttributes = maxSerializedAttributes;
     }
 
+    /**
+     * Build a stream that writes {@link NameId}s in the order they are first seen instead of their actual value. Two plans
+     * that only differ by their ids serialize to the same bytes which makes them usable as a cache key. The bytes can still
+     * be read back because {@link PlanStreamInput} maps the ids it reads to new ones anyway.
+     */
+    public static PlanStreamOutput canonical(StreamOutput delegate, @Nullable Configuration configuration) throws IOException {
+        return new PlanStreamOutput(delegate, configuration, MAX_SERIALIZED_ATTRIBUTES, true);
+    }
+
     @Override
     public void writeByte(byte b) throws IOException {
         delegate.writeByte(b);
@@ -232,6 +258,11 @@ public final class PlanStreamOutput extends StreamOutput implements org.elastics
         }
     }
 
+    @Override
+    public void writeNameId(long id) throws IOException {
+        writeLong(canonicalNameIds == null ? id : canonicalNameIds.computeIfAbsent(id, k -> (long) canonicalNameIds.size()));
+    }
+
     private Integer esFieldIdFromCache(EsField field) {
         return cachedEsFields.get(field);
     }
@@ -16,9 +16,13 @@ import org.elasticsearch.xpack.esql.core.expression.AttributeMap;
 import org.elasticsearch.xpack.esql.core.expression.Expression;
 import org.elasticsearch.xpack.esql.core.expression.FieldAttribute;
 import org.elasticsearch.xpack.esql.core.expression.NamedExpression;
+import org.elasticsearch.xpack.esql.core.type.DataType;
 import org.elasticsearch.xpack.esql.core.util.Queries;
 import org.elasticsearch.xpack.esql.core.util.StringUtils;
+import org.elasticsearch.xpack.esql.expression.function.aggregate.AggregateFunction;
 import org.elasticsearch.xpack.esql.expression.function.aggregate.Count;
+import org.elasticsearch.xpack.esql.expression.function.aggregate.Max;
+import org.elasticsearch.xpack.esql.expression.function.aggregate.Min;
 import org.elasticsearch.xpack.esql.optimizer.LocalPhysicalOptimizerContext;
 import org.elasticsearch.xpack.esql.optimizer.PhysicalOptimizerRules;
 import org.elasticsearch.xpack.esql.plan.physical.AggregateExec;
@@ -35,10 +39,16 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.elasticsearch.xpack.esql.optimizer.rules.physical.local.PushFiltersToSource.canPushToSource;
 import static org.elasticsearch.xpack.esql.plan.physical.EsStatsQueryExec.StatsType.COUNT;
+import static org.elasticsearch.xpack.esql.plan.physical.EsStatsQueryExec.StatsType.MAX;
+import static org.elasticsearch.xpack.esql.plan.physical.EsStatsQueryExec.StatsType.MIN;
 import static org.elasticsearch.xpack.esql.planner.TranslatorHandler.TRANSLATOR_HANDLER;
 
 /**
  * Looks for the case where certain stats exist right before the query and thus can be pushed down.
+ * <p>
+ * Only ungrouped stats are pushed down: {@code COUNT}, and {@code MIN}/{@code MAX} over numeric fields that can be
+ * read from points or the doc values skip index. Grouped stats, e.g. {@code MIN(x) BY keyword} or {@code BY BUCKET(...)},
+ * are still computed by the hash aggregation: points and skip indexes only hold per segment bounds, not per group ones.
  */
 public class PushStatsToSource extends PhysicalOptimizerRules.ParameterizedOptimizerRule<AggregateExec, LocalPhysicalOptimizerContext> {
 
@@ -80,41 +90,10 @@ public class PushStatsToSource extends PhysicalOptimizerRules.ParameterizedOptim
         if (aggregate.groupings().isEmpty()) {
             for (NamedExpression agg : aggregate.aggregates()) {
                 var attribute = agg.toAttribute();
-                EsStatsQueryExec.Stat stat = stats.computeIfAbsent(attribute, a -> {
-                    if (agg instanceof Alias as) {
-                        Expression child = as.child();
-                        if (child instanceof Count count) {
-                            var target = count.field();
-                            String fieldName = null;
-                            QueryBuilder query = null;
-                            // TODO: add count over field (has to be field attribute)
-                            if (target.foldable()) {
-                                fieldName = StringUtils.WILDCARD;
-                            }
-                            // check if regular field
-                            else {
-                                if (target instanceof FieldAttribute fa) {
-                                    var fName = fa.name();
-                                    if (context.searchStats().isSingleValue(fName)) {
-                                        fieldName = fa.name();
-                                        query = QueryBuilders.existsQuery(fieldName);
-                                    }
-                                }
-                            }
-                            if (fieldName != null) {
-                                if (count.hasFilter()) {
-                                    if (canPushToSource(count.filter()) == false) {
-                                        return null; // can't push down
-                                    }
-                                    var countFilter = TRANSLATOR_HANDLER.asQuery(count.filter());
-                                    query = Queries.combine(Queries.Clause.MUST, asList(countFilter.asBuilder(), query));
-                                }
-                                return new EsStatsQueryExec.Stat(fieldName, COUNT, query);
-                            }
-                        }
-                    }
-                    return null;
-                });
+                EsStatsQueryExec.Stat stat = stats.computeIfAbsent(
+                    attribute,
+                    a -> agg instanceof Alias as ? pushableStat(as.child(), context) : null
+                );
                 if (stat != null) {
                     List<Attribute> intermediateAttributes = AbstractPhysicalOperationProviders.intermediateAttributes(
                         singletonList(agg),
@@ -132,4 +111,56 @@ public class PushStatsToSource extends PhysicalOptimizerRules.ParameterizedOptim
 
         return tuple;
     }
+
+    private static EsStatsQueryExec.Stat pushableStat(Expression child, LocalPhysicalOptimizerContext context) {
+        String fieldName = null;
+        EsStatsQueryExec.StatsType type = null;
+        QueryBuilder query = null;
+        if (child instanceof Count count) {
+            var target = count.field();
+            type = COUNT;
+            // TODO: add count over field (has to be field attribute)
+            if (target.foldable()) {
+                fieldName = StringUtils.WILDCARD;
+            }
+            // check if regular field
+            else {
+                if (target instanceof FieldAttribute fa) {
+                    var fName = fa.name();
+                    if (context.searchStats().isSingleValue(fName)) {
+                        fieldName = fa.name();
+                        query = QueryBuilders.existsQuery(fieldName);
+                    }
+                }
+            }
+        } else if (child instanceof Min || child instanceof Max) {
+            type = child instanceof Min ? MIN : MAX;
+            if (((AggregateFunction) child).field() instanceof FieldAttribute fa && isMinMaxPushable(fa, context)) {
+                fieldName = fa.name();
+            }
+        }
+        if (fieldName != null) {
+            AggregateFunction aggregate = (AggregateFunction) child;
+            if (aggregate.hasFilter()) {
+                if (canPushToSource(aggregate.filter()) == false) {
+                    return null; // can't push down
+                }
+                var aggFilter = TRANSLATOR_HANDLER.asQuery(aggregate.filter());
+                query = Queries.combine(Queries.Clause.MUST, asList(aggFilter.asBuilder(), query));
+            }
+            return new EsStatsQueryExec.Stat(fieldName, type, query);
+        }
+        return null;
+    }
+
+    /**
+     * {@code MIN} and {@code MAX} can be read from points, doc value skippers, or failing that, the doc values. We only do it for
+     * types whose points and doc values hold the same longs as the aggregation. That rules out the floating point types, which ES|QL
+     * widens to double, so we can't tell a {@code float} apart from a {@code half_float} here.
+     */
+    private static boolean isMinMaxPushable(FieldAttribute fa, LocalPhysicalOptimizerContext context) {
+        DataType type = fa.dataType();
+        boolean longBacked = type == DataType.INTEGER || type == DataType.LONG || type == DataType.DATETIME || type == DataType.DATE_NANOS;
+        return longBacked && context.searchStats().hasDocValues(fa.name());
+    }
 }
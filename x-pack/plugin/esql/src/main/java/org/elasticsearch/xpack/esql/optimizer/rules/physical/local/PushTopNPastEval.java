@@ -0,0 +1,96 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.esql.optimizer.rules.physical.local;
+
+import org.elasticsearch.xpack.esql.core.expression.Alias;
+import org.elasticsearch.xpack.esql.core.expression.Attribute;
+import org.elasticsearch.xpack.esql.core.expression.Expressions;
+import org.elasticsearch.xpack.esql.core.expression.FieldAttribute;
+import org.elasticsearch.xpack.esql.core.expression.MetadataAttribute;
+import org.elasticsearch.xpack.esql.core.expression.NameId;
+import org.elasticsearch.xpack.esql.optimizer.PhysicalOptimizerRules;
+import org.elasticsearch.xpack.esql.plan.physical.EvalExec;
+import org.elasticsearch.xpack.esql.plan.physical.PhysicalPlan;
+import org.elasticsearch.xpack.esql.plan.physical.TopNExec;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves the parts of an {@code EVAL} that the {@code SORT} doesn't need above the {@link TopNExec}.
+ * <p>
+ * The logical plan pushes {@code EVAL}s below {@code SORT} so the sort can be combined with the {@code LIMIT}. That means a query like
+ * {@code FROM index | EVAL x = CONCAT(a, b) | SORT c | LIMIT 10} computes {@code x} for every matching document, and, since the field
+ * extraction is inserted right before its first usage, loads {@code a} and {@code b} for every matching document too. Once the
+ * {@code EVAL} sits above the {@link TopNExec} it only runs on the rows that survive the sort, and {@link InsertFieldExtraction}
+ * loads {@code a} and {@code b} after the {@link TopNExec}, carrying just the {@code _doc} through it.
+ * </p>
+ * <p>
+ * Any alias that the sort references, directly or through another alias, stays below the {@link TopNExec}.
+ * </p>
+ */
+public class PushTopNPastEval extends PhysicalOptimizerRules.OptimizerRule<TopNExec> {
+
+    @Override
+    protected PhysicalPlan rule(TopNExec topN) {
+        if (topN.child() instanceof EvalExec eval == false) {
+            return topN;
+        }
+        List<Alias> fields = eval.fields();
+        Set<NameId> needed = new HashSet<>();
+        for (Attribute attr : Expressions.references(topN.order())) {
+            needed.add(attr.id());
+        }
+        // aliases can only refer to the ones declared before them so a single backwards pass finds everything the sort needs
+        boolean[] keep = new boolean[fields.size()];
+        for (int i = fields.size() - 1; i >= 0; i--) {
+            Alias alias = fields.get(i);
+            if (needed.contains(alias.id())) {
+                keep[i] = true;
+                for (Attribute attr : alias.references()) {
+                    needed.add(attr.id());
+                }
+            }
+        }
+        List<Alias> below = new ArrayList<>();
+        List<Alias> above = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            (keep[i] ? below : above).add(fields.get(i));
+        }
+        if (above.isEmpty()) {
+            return topN;
+        }
+        PhysicalPlan newChild = below.isEmpty() ? eval.child() : new EvalExec(eval.source(), eval.child(), below);
+
+        // bail out if the aliases we move up need something that isn't visible above the sort, like a shadowed attribute
+        Set<NameId> available = new HashSet<>();
+        for (Attribute attr : newChild.output()) {
+            available.add(attr.id());
+        }
+        Set<String> shadowed = new HashSet<>();
+        for (Alias alias : below) {
+            shadowed.add(alias.name());
+        }
+        for (Alias alias : above) {
+            for (Attribute attr : alias.references()) {
+                if (available.contains(attr.id())) {
+                    continue;
+                }
+                // fields aren't loaded yet, InsertFieldExtraction will add them above the sort
+                boolean extractable = attr instanceof FieldAttribute || attr instanceof MetadataAttribute;
+                if (extractable == false || shadowed.contains(attr.name())) {
+                    return topN;
+                }
+            }
+            available.add(alias.id());
+        }
+        return new EvalExec(eval.source(), topN.replaceChild(newChild), above);
+    }
+}
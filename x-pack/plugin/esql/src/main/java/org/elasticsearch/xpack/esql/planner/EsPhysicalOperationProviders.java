@@ -18,6 +18,8 @@ import org.elasticsearch.compute.aggregation.GroupingAggregator;
 import org.elasticsearch.compute.data.Block;
 import org.elasticsearch.compute.data.ElementType;
 import org.elasticsearch.compute.lucene.LuceneCountOperator;
+import org.elasticsearch.compute.lucene.LuceneMaxFactory;
+import org.elasticsearch.compute.lucene.LuceneMinFactory;
 import org.elasticsearch.compute.lucene.LuceneOperator;
 import org.elasticsearch.compute.lucene.LuceneSourceOperator;
 import org.elasticsearch.compute.lucene.LuceneTopNSourceOperator;
@@ -43,6 +45,7 @@ import org.elasticsearch.search.internal.AliasFilter;
 import org.elasticsearch.search.lookup.SearchLookup;
 import org.elasticsearch.search.sort.SortAndFormats;
 import org.elasticsearch.search.sort.SortBuilder;
+import org.elasticsearch.xpack.esql.EsqlIllegalArgumentException;
 import org.elasticsearch.xpack.esql.core.expression.Attribute;
 import org.elasticsearch.xpack.esql.core.expression.Expression;
 import org.elasticsearch.xpack.esql.core.expression.FieldAttribute;
@@ -54,6 +57,7 @@ import org.elasticsearch.xpack.esql.expression.function.scalar.convert.AbstractC
 import org.elasticsearch.xpack.esql.plan.physical.AggregateExec;
 import org.elasticsearch.xpack.esql.plan.physical.EsQueryExec;
 import org.elasticsearch.xpack.esql.plan.physical.EsQueryExec.Sort;
+import org.elasticsearch.xpack.esql.plan.physical.EsStatsQueryExec;
 import org.elasticsearch.xpack.esql.plan.physical.FieldExtractExec;
 import org.elasticsearch.xpack.esql.planner.LocalExecutionPlanner.DriverParallelism;
 import org.elasticsearch.xpack.esql.planner.LocalExecutionPlanner.LocalExecutionPlannerContext;
@@ -221,6 +225,41 @@ public class EsPhysicalOperationProviders extends AbstractPhysicalOperationProvi
         );
     }
 
+    /**
+     * Build a {@link SourceOperator.SourceOperatorFactory} that finds the min or max of a numeric field in the search index.
+     */
+    public LuceneOperator.Factory minMaxSource(
+        LocalExecutionPlannerContext context,
+        EsStatsQueryExec.Stat stat,
+        DataType dataType,
+        QueryBuilder queryBuilder,
+        Expression limit
+    ) {
+        boolean isInt = dataType == DataType.INTEGER;
+        int l = limit == null ? NO_LIMIT : (Integer) limit.fold(context.foldCtx());
+        return switch (stat.type()) {
+            case MIN -> new LuceneMinFactory(
+                shardContexts,
+                querySupplier(queryBuilder),
+                context.queryPragmas().dataPartitioning(),
+                context.queryPragmas().taskConcurrency(),
+                stat.name(),
+                isInt ? LuceneMinFactory.NumberType.INTEGER : LuceneMinFactory.NumberType.LONG,
+                l
+            );
+            case MAX -> new LuceneMaxFactory(
+                shardContexts,
+                querySupplier(queryBuilder),
+                context.queryPragmas().dataPartitioning(),
+                context.queryPragmas().taskConcurrency(),
+                stat.name(),
+                isInt ? LuceneMaxFactory.NumberType.INTEGER : LuceneMaxFactory.NumberType.LONG,
+                l
+            );
+            default -> throw new EsqlIllegalArgumentException("expected min or max but got [" + stat.type() + "]");
+        };
+    }
+
     @Override
     public final Operator.OperatorFactory ordinalGroupingOperatorFactory(
         LocalExecutionPlanner.PhysicalOperation source,
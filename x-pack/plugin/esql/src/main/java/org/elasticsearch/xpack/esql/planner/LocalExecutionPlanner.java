@@ -268,7 +268,18 @@ public class LocalExecutionPlanner {
         EsStatsQueryExec.Stat stat = statsQuery.stats().get(0);
 
         EsPhysicalOperationProviders esProvider = (EsPhysicalOperationProviders) physicalOperationProviders;
-        final LuceneOperator.Factory luceneFactory = esProvider.countSource(context, stat.filter(statsQuery.query()), statsQuery.limit());
+        final LuceneOperator.Factory luceneFactory = switch (stat.type()) {
+            case COUNT -> esProvider.countSource(context, stat.filter(statsQuery.query()), statsQuery.limit());
+            // the first output is the min/max itself, followed by the seen flag
+            case MIN, MAX -> esProvider.minMaxSource(
+                context,
+                stat,
+                statsQuery.output().get(0).dataType(),
+                stat.filter(statsQuery.query()),
+                statsQuery.limit()
+            );
+            default -> throw new EsqlIllegalArgumentException("unsupported stat type [" + stat.type() + "]");
+        };
 
         Layout.Builder layout = new Layout.Builder();
         layout.append(statsQuery.outputSet());
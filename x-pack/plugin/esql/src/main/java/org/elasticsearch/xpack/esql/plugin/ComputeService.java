@@ -18,8 +18,10 @@ import org.elasticsearch.compute.data.Page;
 import org.elasticsearch.compute.operator.Driver;
 import org.elasticsearch.compute.operator.DriverProfile;
 import org.elasticsearch.compute.operator.DriverTaskRunner;
+import org.elasticsearch.compute.operator.OutputOperator;
 import org.elasticsearch.compute.operator.exchange.ExchangeService;
 import org.elasticsearch.compute.operator.exchange.ExchangeSourceHandler;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.TimeValue;
@@ -106,7 +108,14 @@ public class ComputeService {
         this.enrichLookupService = enrichLookupService;
         this.lookupFromIndexService = lookupFromIndexService;
         this.clusterService = clusterService;
-        this.dataNodeComputeHandler = new DataNodeComputeHandler(this, searchService, transportService, exchangeService, esqlExecutor);
+        this.dataNodeComputeHandler = new DataNodeComputeHandler(
+            this,
+            searchService,
+            transportService,
+            exchangeService,
+            esqlExecutor,
+            new DataNodeResultCache(clusterService.getSettings())
+        );
         this.clusterComputeHandler = new ClusterComputeHandler(
             this,
             exchangeService,
@@ -124,6 +133,7 @@ public class ComputeService {
         Configuration configuration,
         FoldContext foldContext,
         EsqlExecutionInfo execInfo,
+        @Nullable OutputOperator.BlockingPageConsumer streamingOutput,
         ActionListener<Result> listener
     ) {
         Tuple<PhysicalPlan, PhysicalPlan> coordinatorAndDataNodePlan = PlannerUtils.breakPlanBetweenCoordinatorAndDataNode(
@@ -135,7 +145,11 @@ public class ComputeService {
             collectedPages.forEach(p -> Releasables.closeExpectNoException(p::releaseBlocks));
             l.onFailure(e);
         });
-        PhysicalPlan coordinatorPlan = new OutputExec(coordinatorAndDataNodePlan.v1(), collectedPages::add);
+        // when streaming the pages go straight to the client and the result has none
+        PhysicalPlan coordinatorPlan = new OutputExec(
+            coordinatorAndDataNodePlan.v1(),
+            streamingOutput != null ? streamingOutput : collectedPages::add
+        );
         PhysicalPlan dataNodePlan = coordinatorAndDataNodePlan.v2();
         if (dataNodePlan != null && dataNodePlan instanceof ExchangeSinkExec == false) {
             assert false : "expected data node plan starts with an ExchangeSink; got " + dataNodePlan;
@@ -355,6 +369,7 @@ public class ComputeService {
     void runCompute(CancellableTask task, ComputeContext context, PhysicalPlan plan, ActionListener<List<DriverProfile>> listener) {
         listener = ActionListener.runBefore(listener, () -> Releasables.close(context.searchContexts()));
         List<EsPhysicalOperationProviders.ShardContext> contexts = new ArrayList<>(context.searchContexts().size());
+        List<SearchExecutionContext> planningContexts = new ArrayList<>(context.searchContexts().size());
         for (int i = 0; i < context.searchContexts().size(); i++) {
             SearchContext searchContext = context.searchContexts().get(i);
             var searchExecutionContext = new SearchExecutionContext(searchContext.getSearchExecutionContext()) {
@@ -366,6 +381,7 @@ public class ComputeService {
 
                 }
             };
+            planningContexts.add(searchExecutionContext);
             contexts.add(
                 new EsPhysicalOperationProviders.DefaultShardContext(i, searchExecutionContext, searchContext.request().getAliasFilter())
             );
@@ -402,6 +418,12 @@ public class ComputeService {
                 throw new IllegalStateException("no drivers created");
             }
             LOGGER.debug("using {} drivers", drivers.size());
+            // building the queries happens on copies of the contexts, tell the originals if that used anything non-deterministic
+            for (int i = 0; i < planningContexts.size(); i++) {
+                if (planningContexts.get(i).isCacheable() == false) {
+                    context.searchContexts().get(i).getSearchExecutionContext().disableCache();
+                }
+            }
         } catch (Exception e) {
             listener.onFailure(e);
             return;
@@ -422,6 +444,10 @@ public class ComputeService {
         );
     }
 
+    BlockFactory blockFactory() {
+        return blockFactory;
+    }
+
     static PhysicalPlan reductionPlan(ExchangeSinkExec plan, boolean enable) {
         PhysicalPlan reducePlan = new ExchangeSourceExec(plan.source(), plan.output(), plan.isIntermediateAgg());
         if (enable) {
@@ -23,7 +23,9 @@ import org.elasticsearch.compute.operator.exchange.ExchangeSink;
 import org.elasticsearch.compute.operator.exchange.ExchangeSinkHandler;
 import org.elasticsearch.compute.operator.exchange.ExchangeSourceHandler;
 import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.query.QueryBuilder;
@@ -50,6 +52,7 @@ import org.elasticsearch.xpack.esql.plan.physical.PhysicalPlan;
 import org.elasticsearch.xpack.esql.planner.PlannerUtils;
 import org.elasticsearch.xpack.esql.session.Configuration;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -57,6 +60,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import static org.elasticsearch.xpack.esql.plugin.EsqlPlugin.ESQL_WORKER_THREAD_POOL_NAME;
 
@@ -70,19 +74,22 @@ final class DataNodeComputeHandler implements TransportRequestHandler<DataNodeRe
     private final TransportService transportService;
     private final ExchangeService exchangeService;
     private final Executor esqlExecutor;
+    private final DataNodeResultCache resultCache;
 
     DataNodeComputeHandler(
         ComputeService computeService,
         SearchService searchService,
         TransportService transportService,
         ExchangeService exchangeService,
-        Executor esqlExecutor
+        Executor esqlExecutor,
+        DataNodeResultCache resultCache
     ) {
         this.computeService = computeService;
         this.searchService = searchService;
         this.transportService = transportService;
         this.exchangeService = exchangeService;
         this.esqlExecutor = esqlExecutor;
+        this.resultCache = resultCache;
         transportService.registerRequestHandler(ComputeService.DATA_ACTION_NAME, esqlExecutor, DataNodeRequest::new, this);
     }
 
@@ -370,6 +377,21 @@ final class DataNodeComputeHandler implements TransportRequestHandler<DataNodeRe
             };
             acquireSearchContexts(clusterAlias, shardIds, configuration, request.aliasFilters(), ActionListener.wrap(searchContexts -> {
                 assert ThreadPool.assertCurrentThreadPool(ThreadPool.Names.SEARCH, ESQL_WORKER_THREAD_POOL_NAME);
+                Supplier<ExchangeSink> sinkSupplier = () -> exchangeSink.createExchangeSink(() -> {});
+                ActionListener<List<DriverProfile>> listener = batchListener;
+                DataNodeResultCache.Key cacheKey = cacheKey(searchContexts);
+                if (cacheKey != null) {
+                    if (replayFromCache(cacheKey, searchContexts, batchListener)) {
+                        return;
+                    }
+                    DataNodeResultCache.Recorder recorder = resultCache.recorder(cacheKey, searchContexts);
+                    sinkSupplier = recorder.wrap(sinkSupplier);
+                    // runs after the search contexts are released, the recorder checked them when the sinks finished
+                    listener = listener.delegateFailureAndWrap((l, profiles) -> {
+                        recorder.complete(exchangeSink.isFinished());
+                        l.onResponse(profiles);
+                    });
+                }
                 var computeContext = new ComputeContext(
                     sessionId,
                     clusterAlias,
@@ -377,12 +399,50 @@ final class DataNodeComputeHandler implements TransportRequestHandler<DataNodeRe
                     configuration,
                     configuration.newFoldContext(),
                     null,
-                    () -> exchangeSink.createExchangeSink(() -> {})
+                    sinkSupplier
                 );
-                computeService.runCompute(parentTask, computeContext, request.plan(), batchListener);
+                computeService.runCompute(parentTask, computeContext, request.plan(), listener);
             }, batchListener::onFailure));
         }
 
+        @Nullable
+        private DataNodeResultCache.Key cacheKey(List<SearchContext> searchContexts) {
+            try {
+                var threadContext = transportService.getThreadPool().getThreadContext();
+                return resultCache.key(request.plan(), request.configuration(), searchContexts, threadContext);
+            } catch (IOException e) {
+                // the plan made it over the wire so this shouldn't happen, just run the query without the cache
+                assert false : e;
+                return null;
+            }
+        }
+
+        /**
+         * Send the cached pages for these shards to the exchange instead of running the plan against them.
+         */
+        private boolean replayFromCache(
+            DataNodeResultCache.Key cacheKey,
+            List<SearchContext> searchContexts,
+            ActionListener<List<DriverProfile>> batchListener
+        ) {
+            DataNodeResultCache.Entry entry = resultCache.get(cacheKey);
+            if (entry == null) {
+                return false;
+            }
+            Releasables.close(searchContexts);
+            ExchangeSink sink = exchangeSink.createExchangeSink(() -> {});
+            try {
+                resultCache.replay(entry, computeService.blockFactory(), sink);
+            } catch (Exception e) {
+                batchListener.onFailure(e);
+                return true;
+            } finally {
+                sink.finish();
+            }
+            batchListener.onResponse(List.of());
+            return true;
+        }
+
         private void onBatchCompleted(int lastBatchIndex) {
             if (lastBatchIndex < request.shardIds().size() && exchangeSink.isFinished() == false) {
                 runBatch(lastBatchIndex);
@@ -0,0 +1,383 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.esql.plugin;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.NamedWriteableAwareStreamInput;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.compute.data.Block;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.BlockStreamInput;
+import org.elasticsearch.compute.data.BlockWritables;
+import org.elasticsearch.compute.data.ElementType;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.operator.IsBlockedResult;
+import org.elasticsearch.compute.operator.exchange.ExchangeSink;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.mapper.MappingLookup;
+import org.elasticsearch.index.query.SearchExecutionContext;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.internal.AliasFilter;
+import org.elasticsearch.search.internal.SearchContext;
+import org.elasticsearch.xpack.core.security.authz.AuthorizationServiceField;
+import org.elasticsearch.xpack.core.security.authz.accesscontrol.IndicesAccessControl;
+import org.elasticsearch.xpack.esql.expression.function.scalar.date.Now;
+import org.elasticsearch.xpack.esql.io.stream.PlanStreamOutput;
+import org.elasticsearch.xpack.esql.plan.QueryPlan;
+import org.elasticsearch.xpack.esql.plan.logical.Enrich;
+import org.elasticsearch.xpack.esql.plan.logical.join.LookupJoin;
+import org.elasticsearch.xpack.esql.plan.physical.EnrichExec;
+import org.elasticsearch.xpack.esql.plan.physical.FragmentExec;
+import org.elasticsearch.xpack.esql.plan.physical.LookupJoinExec;
+import org.elasticsearch.xpack.esql.plan.physical.PhysicalPlan;
+import org.elasticsearch.xpack.esql.session.Configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches the pages that a batch of shards sends to the exchange on a data node. Entries are keyed on the plan, with its
+ * {@link org.elasticsearch.xpack.esql.core.expression.NameId}s canonicalized, and on the reader and mapping of every shard in
+ * the batch, so a refresh, a merge, or a mapping update makes the old entries unreachable. Those are dropped when their
+ * readers close, and the cache evicts the least recently used entries to stay under {@link #CACHE_SIZE_SETTING}. Like the
+ * request cache, the entries aren't accounted for in the request circuit breaker: they outlive the requests that it tracks
+ * and the cache is bounded on its own.
+ * <p>
+ * Results are only cached when they are a pure function of the key: no profiling, no {@code LOOKUP} tables, no {@code ENRICH}
+ * or {@code LOOKUP JOIN}, whose indices aren't part of the key, no {@code NOW()}, no document or field level security and
+ * nothing that marked the {@link org.elasticsearch.index.query.SearchExecutionContext} as not cacheable, like a {@code now}
+ * in the request filter.
+ * </p>
+ */
+final class DataNodeResultCache {
+    public static final Setting<ByteSizeValue> CACHE_SIZE_SETTING = Setting.memorySizeSetting(
+        "esql.query.result_cache.size",
+        "1%",
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * Batches producing more than this many serialized bytes aren't cached.
+     */
+    static final long MAX_ENTRY_SIZE = ByteSizeValue.ofMb(1).getBytes();
+
+    private static final NamedWriteableRegistry REGISTRY = new NamedWriteableRegistry(BlockWritables.getNamedWriteables());
+
+    private final Cache<Key, Entry> cache;
+    private final long maxEntrySize;
+    /**
+     * The keys of the entries built from each open reader. A single closed listener is registered per reader, which drops
+     * the entries that are still cached when the reader closes.
+     */
+    private final ConcurrentMap<IndexReader.CacheKey, Set<Key>> keysByReader = ConcurrentCollections.newConcurrentMap();
+
+    DataNodeResultCache(Settings settings) {
+        long size = CACHE_SIZE_SETTING.get(settings).getBytes();
+        this.maxEntrySize = Math.min(MAX_ENTRY_SIZE, size);
+        this.cache = CacheBuilder.<Key, Entry>builder()
+            .setMaximumWeight(size)
+            .weigher(DataNodeResultCache::weight)
+            .removalListener(notification -> untrack(notification.getKey()))
+            .build();
+    }
+
+    private static long weight(Key key, Entry entry) {
+        return key.ramBytesUsed() + entry.ramBytesUsed();
+    }
+
+    record ShardKey(ShardId shardId, IndexReader.CacheKey reader, MappingLookup.CacheKey mapping, AliasFilter aliasFilter) {}
+
+    record Key(BytesReference plan, ZoneId zoneId, Locale locale, List<ShardKey> shards) implements Accountable {
+        @Override
+        public long ramBytesUsed() {
+            // the shard keys point to objects that are alive anyway, only count the references
+            return RamUsageEstimator.shallowSizeOfInstance(Key.class) + plan.ramBytesUsed() + (long) shards.size() * 4
+                * RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+        }
+    }
+
+    record Entry(int pageCount, BytesReference pages) implements Accountable {
+        @Override
+        public long ramBytesUsed() {
+            return RamUsageEstimator.shallowSizeOfInstance(Entry.class) + pages.ramBytesUsed();
+        }
+    }
+
+    /**
+     * Build the key for running {@code plan} against the {@code searchContexts} or {@code null} if the results can't be cached.
+     */
+    @Nullable
+    Key key(PhysicalPlan plan, Configuration configuration, List<SearchContext> searchContexts, ThreadContext threadContext)
+        throws IOException {
+        if (cacheable(plan, configuration, threadContext) == false) {
+            return null;
+        }
+        List<ShardKey> shards = new ArrayList<>(searchContexts.size());
+        for (SearchContext context : searchContexts) {
+            IndexReader.CacheHelper cacheHelper = context.searcher().getIndexReader().getReaderCacheHelper();
+            if (cacheHelper == null) {
+                return null;
+            }
+            shards.add(
+                new ShardKey(
+                    context.indexShard().shardId(),
+                    cacheHelper.getKey(),
+                    context.getSearchExecutionContext().mappingCacheKey(),
+                    context.request().getAliasFilter()
+                )
+            );
+        }
+        return key(plan, configuration, shards);
+    }
+
+    static Key key(PhysicalPlan plan, Configuration configuration, List<ShardKey> shards) throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            PlanStreamOutput planOut = PlanStreamOutput.canonical(out, configuration);
+            planOut.writeNamedWriteable(plan);
+            return new Key(out.bytes(), configuration.zoneId(), configuration.locale(), shards);
+        }
+    }
+
+    /**
+     * Whether the results of running {@code plan} only depend on the plan and the shards it runs against.
+     */
+    static boolean cacheable(PhysicalPlan plan, Configuration configuration, ThreadContext threadContext) {
+        if (configuration.profile() || configuration.tables().isEmpty() == false) {
+            return false;
+        }
+        IndicesAccessControl accessControl = threadContext.getTransient(AuthorizationServiceField.INDICES_PERMISSIONS_KEY);
+        if (accessControl != null
+            && accessControl.getFieldAndDocumentLevelSecurityUsage() != IndicesAccessControl.DlsFlsUsage.NONE) {
+            return false;
+        }
+        return plan.anyMatch(
+            p -> notCacheable(p) || (p instanceof FragmentExec f && f.fragment().anyMatch(DataNodeResultCache::notCacheable))
+        ) == false;
+    }
+
+    private static boolean notCacheable(QueryPlan<?> plan) {
+        // the key doesn't cover the lookup and enrich indices
+        if (plan instanceof EnrichExec || plan instanceof LookupJoinExec || plan instanceof Enrich || plan instanceof LookupJoin) {
+            return true;
+        }
+        return plan.expressions().stream().anyMatch(e -> e.anyMatch(Now.class::isInstance));
+    }
+
+    @Nullable
+    Entry get(Key key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Send the pages of a cached {@link Entry} to {@code sink}.
+     */
+    void replay(Entry entry, BlockFactory blockFactory, ExchangeSink sink) throws IOException {
+        try (
+            StreamInput in = new BlockStreamInput(
+                new NamedWriteableAwareStreamInput(entry.pages().streamInput(), REGISTRY),
+                blockFactory
+            )
+        ) {
+            for (int i = 0; i < entry.pageCount(); i++) {
+                sink.addPage(new Page(in));
+            }
+        }
+    }
+
+    /**
+     * Start recording the pages sent to the sinks built by the returned {@link Recorder}.
+     */
+    Recorder recorder(Key key, List<SearchContext> searchContexts) {
+        List<IndexReader.CacheHelper> readers = new ArrayList<>(searchContexts.size());
+        List<SearchExecutionContext> executionContexts = new ArrayList<>(searchContexts.size());
+        for (SearchContext context : searchContexts) {
+            readers.add(context.searcher().getIndexReader().getReaderCacheHelper());
+            executionContexts.add(context.getSearchExecutionContext());
+        }
+        return recorder(key, readers, executionContexts);
+    }
+
+    Recorder recorder(Key key, List<IndexReader.CacheHelper> readers, List<SearchExecutionContext> executionContexts) {
+        return new Recorder(key, readers, executionContexts);
+    }
+
+    private void put(Key key, Entry entry, List<IndexReader.CacheHelper> readers) {
+        cache.put(key, entry);
+        for (IndexReader.CacheHelper reader : readers) {
+            keysByReader.computeIfAbsent(reader.getKey(), readerKey -> {
+                reader.addClosedListener(this::onReaderClosed);
+                return ConcurrentCollections.newConcurrentSet();
+            }).add(key);
+        }
+    }
+
+    private void onReaderClosed(IndexReader.CacheKey readerKey) {
+        Set<Key> keys = keysByReader.remove(readerKey);
+        if (keys != null) {
+            for (Key key : keys) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * Forget an evicted, replaced or invalidated entry so the readers it was built from don't keep its key alive.
+     */
+    private void untrack(Key key) {
+        for (ShardKey shard : key.shards()) {
+            if (shard.reader() != null) {
+                Set<Key> keys = keysByReader.get(shard.reader());
+                if (keys != null) {
+                    keys.remove(key);
+                }
+            }
+        }
+    }
+
+    int count() {
+        return cache.count();
+    }
+
+    /**
+     * The number of keys tracked for the readers of the cached entries.
+     */
+    int trackedKeyCount() {
+        return keysByReader.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Serializes the pages on their way to the exchange. Pages that can't be read back on their own, like ones containing
+     * doc ids, and batches that grow too large stop the recording.
+     */
+    final class Recorder {
+        private final Key key;
+        private final List<IndexReader.CacheHelper> readers;
+        private List<SearchExecutionContext> executionContexts;
+        private BytesStreamOutput out = new BytesStreamOutput();
+        private int pageCount;
+        private int finishedSinks;
+
+        private Recorder(Key key, List<IndexReader.CacheHelper> readers, List<SearchExecutionContext> executionContexts) {
+            this.key = key;
+            this.readers = readers;
+            this.executionContexts = executionContexts;
+        }
+
+        Supplier<ExchangeSink> wrap(Supplier<ExchangeSink> sinkSupplier) {
+            return () -> new RecordingSink(sinkSupplier.get());
+        }
+
+        private synchronized void record(Page page) {
+            if (out == null) {
+                return;
+            }
+            for (int b = 0; b < page.getBlockCount(); b++) {
+                Block block = page.getBlock(b);
+                if (block.elementType() == ElementType.DOC) {
+                    out = null;
+                    return;
+                }
+            }
+            try {
+                page.writeTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pageCount++;
+            if (out.size() > maxEntrySize) {
+                out = null;
+            }
+        }
+
+        /**
+         * Check that planning the batch didn't use anything non-deterministic. Called when a sink finishes, so after planning
+         * and while the drivers still hold the search contexts.
+         */
+        private synchronized void onSinkFinished() {
+            finishedSinks++;
+            if (executionContexts == null) {
+                return;
+            }
+            for (SearchExecutionContext context : executionContexts) {
+                if (context.isCacheable() == false) {
+                    out = null;
+                    executionContexts = null;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Store the recorded pages if the batch produced all of its output and could be cached. Doesn't touch the
+         * search contexts, which are released by then.
+         */
+        synchronized void complete(boolean truncated) {
+            executionContexts = null;
+            if (out == null || truncated || finishedSinks == 0) {
+                return;
+            }
+            put(key, new Entry(pageCount, out.bytes()), readers);
+            out = null;
+        }
+
+        private class RecordingSink implements ExchangeSink {
+            private final ExchangeSink delegate;
+
+            RecordingSink(ExchangeSink delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void addPage(Page page) {
+                record(page);
+                delegate.addPage(page);
+            }
+
+            @Override
+            public void finish() {
+                onSinkFinished();
+                delegate.finish();
+            }
+
+            @Override
+            public boolean isFinished() {
+                return delegate.isFinished();
+            }
+
+            @Override
+            public void addCompletionListener(ActionListener<Void> listener) {
+                delegate.addCompletionListener(listener);
+            }
+
+            @Override
+            public IsBlockedResult waitForWriting() {
+                return delegate.waitForWriting();
+            }
+        }
+    }
+}
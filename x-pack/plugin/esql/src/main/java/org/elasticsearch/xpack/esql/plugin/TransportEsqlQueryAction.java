@@ -44,7 +44,9 @@ import org.elasticsearch.xpack.esql.action.EsqlQueryAction;
 import org.elasticsearch.xpack.esql.action.EsqlQueryRequest;
 import org.elasticsearch.xpack.esql.action.EsqlQueryResponse;
 import org.elasticsearch.xpack.esql.action.EsqlQueryTask;
+import org.elasticsearch.xpack.esql.action.EsqlResponseStream;
 import org.elasticsearch.xpack.esql.core.async.AsyncTaskManagementService;
+import org.elasticsearch.xpack.esql.core.expression.Attribute;
 import org.elasticsearch.xpack.esql.core.expression.FoldContext;
 import org.elasticsearch.xpack.esql.enrich.AbstractLookupService;
 import org.elasticsearch.xpack.esql.enrich.EnrichLookupService;
@@ -240,15 +242,22 @@ public class TransportEsqlQueryAction extends HandledTransportAction<EsqlQueryRe
         // sync query uses CancellableTask which does not have EsqlExecutionInfo, so create one
         EsqlExecutionInfo executionInfo = getOrCreateExecutionInfo(task, request);
         FoldContext foldCtx = configuration.newFoldContext();
-        PlanRunner planRunner = (plan, resultListener) -> computeService.execute(
-            sessionId,
-            (CancellableTask) task,
-            plan,
-            configuration,
-            foldCtx,
-            executionInfo,
-            resultListener
-        );
+        EsqlResponseStream responseStream = request.responseStream();
+        PlanRunner planRunner = (plan, resultListener) -> {
+            if (responseStream != null) {
+                responseStream.columns(columnInfos(plan.output()));
+            }
+            computeService.execute(
+                sessionId,
+                (CancellableTask) task,
+                plan,
+                configuration,
+                foldCtx,
+                executionInfo,
+                responseStream,
+                resultListener
+            );
+        };
         planExecutor.esql(
             request,
             sessionId,
@@ -332,8 +341,12 @@ public class TransportEsqlQueryAction extends HandledTransportAction<EsqlQueryRe
         return new EsqlExecutionInfo(clusterAlias -> remoteClusterService.isSkipUnavailable(clusterAlias), request.includeCCSMetadata());
     }
 
+    private static List<ColumnInfoImpl> columnInfos(List<Attribute> schema) {
+        return schema.stream().map(c -> new ColumnInfoImpl(c.name(), c.dataType().outputType())).toList();
+    }
+
     private EsqlQueryResponse toResponse(Task task, EsqlQueryRequest request, Configuration configuration, Result result) {
-        List<ColumnInfoImpl> columns = result.schema().stream().map(c -> new ColumnInfoImpl(c.name(), c.dataType().outputType())).toList();
+        List<ColumnInfoImpl> columns = columnInfos(result.schema());
         EsqlQueryResponse.Profile profile = configuration.profile() ? new EsqlQueryResponse.Profile(result.profiles()) : null;
         threadPool.getThreadContext().addResponseHeader(AsyncExecutionId.ASYNC_EXECUTION_IS_RUNNING_HEADER, "?0");
         if (task instanceof EsqlQueryTask asyncTask && request.keepOnCompletion()) {
@@ -223,6 +223,11 @@ public class EsqlSession {
 
         // TODO: merge into one method
         if (subplans.size() > 0) {
+            if (request.responseStream() != null) {
+                // the subplans' results feed into the main plan so they can't be streamed to the client
+                listener.onFailure(new IllegalArgumentException("INLINESTATS can't be used with a streaming response"));
+                return;
+            }
             // code-path to execute subplans
             executeSubPlan(new ArrayList<>(), physicalPlan, iterator, executionInfo, runner, listener);
         } else {
@@ -0,0 +1,210 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.esql.action;
+
+import org.elasticsearch.action.support.SubscribableListener;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.MockBigArrays;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.operator.OutputOperator;
+import org.elasticsearch.rest.ChunkedRestResponseBodyPart;
+import org.elasticsearch.rest.RestResponse;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.rest.FakeRestChannel;
+import org.elasticsearch.test.rest.FakeRestRequest;
+import org.elasticsearch.transport.BytesRefRecycler;
+import org.elasticsearch.transport.Transports;
+import org.elasticsearch.xcontent.XContentType;
+import org.junit.After;
+import org.junit.Before;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.startsWith;
+
+public class EsqlResponseStreamTests extends ESTestCase {
+    private final MockBigArrays.LimitedBreaker breaker = new MockBigArrays.LimitedBreaker("esql-test-breaker", ByteSizeValue.ofGb(1));
+    private final BlockFactory blockFactory = BlockFactory.getInstance(breaker, BigArrays.NON_RECYCLING_INSTANCE);
+
+    @Before
+    public void setFakeThreadName() {
+        // the response body is encoded on the test thread, rename it to satisfy the checks that we're on a transport thread
+        Thread.currentThread().setName(Transports.TEST_MOCK_TRANSPORT_THREAD_PREFIX + Thread.currentThread().getName());
+    }
+
+    @After
+    public void resetThreadName() {
+        final var threadName = Thread.currentThread().getName();
+        assertThat(threadName, startsWith(Transports.TEST_MOCK_TRANSPORT_THREAD_PREFIX));
+        Thread.currentThread().setName(threadName.substring(Transports.TEST_MOCK_TRANSPORT_THREAD_PREFIX.length()));
+    }
+
+    public void testStreamedBody() throws IOException {
+        FakeRestChannel channel = new FakeRestChannel(new FakeRestRequest(), true, 1);
+        EsqlResponseStream stream = new EsqlResponseStream(channel);
+        stream.columns(List.of(new ColumnInfoImpl("a", "long")));
+        Client client = new Client();
+        int pageCount = between(1, EsqlResponseStream.MAX_PAGES_IN_FLIGHT * 2);
+        List<List<Object>> expected = new ArrayList<>();
+        for (int p = 0; p < pageCount; p++) {
+            int positions = between(1, 10);
+            stream.accept(new Page(blockFactory.newConstantLongBlockWith(p, positions)));
+            for (int i = 0; i < positions; i++) {
+                expected.add(List.of(p));
+            }
+            if (randomBoolean()) {
+                client.read(channel);
+            }
+        }
+        EsqlQueryResponse queryResponse = emptyResponse();
+        stream.completionListener().onResponse(queryResponse);
+        client.read(channel);
+        assertTrue(client.finished());
+
+        Map<String, Object> body = client.body();
+        assertThat(body.get("columns"), equalTo(List.of(Map.of("name", "a", "type", "long"))));
+        assertThat(body.get("values"), equalTo(expected));
+        assertFalse(queryResponse.hasReferences());
+        assertThat(breaker.getUsed(), equalTo(0L));
+    }
+
+    public void testBlocksDriverWhileClientIsBehind() throws IOException {
+        FakeRestChannel channel = new FakeRestChannel(new FakeRestRequest(), true, 1);
+        EsqlResponseStream stream = new EsqlResponseStream(channel);
+        stream.columns(List.of(new ColumnInfoImpl("a", "long")));
+        OutputOperator output = new OutputOperator(List.of("a"), Function.identity(), stream);
+        int rows = 0;
+        for (int p = 0; p < EsqlResponseStream.MAX_PAGES_IN_FLIGHT; p++) {
+            assertTrue(output.isBlocked().listener().isDone());
+            int positions = between(1, 10);
+            output.addInput(new Page(blockFactory.newConstantLongBlockWith(p, positions)));
+            rows += positions;
+        }
+        // the client hasn't read anything yet so the driver has to wait, holding on to the pages
+        SubscribableListener<Void> blocked = output.isBlocked().listener();
+        assertFalse(blocked.isDone());
+        assertThat(breaker.getUsed(), greaterThan(0L));
+
+        Client client = new Client();
+        client.read(channel);
+        assertTrue(blocked.isDone());
+        assertTrue(output.isBlocked().listener().isDone());
+        assertThat(breaker.getUsed(), equalTo(0L));
+
+        output.finish();
+        stream.completionListener().onResponse(emptyResponse());
+        client.read(channel);
+        assertTrue(client.finished());
+        assertThat((List<?>) client.body().get("values"), hasSize(rows));
+    }
+
+    public void testFailureAfterFirstChunk() throws IOException {
+        FakeRestChannel channel = new FakeRestChannel(new FakeRestRequest(), true, 1);
+        EsqlResponseStream stream = new EsqlResponseStream(channel);
+        stream.columns(List.of(new ColumnInfoImpl("a", "long")));
+        Client client = new Client();
+        stream.accept(new Page(blockFactory.newConstantLongBlockWith(1, 1)));
+        client.read(channel);
+        assertFalse(client.finished());
+
+        stream.completionListener().onFailure(new IllegalArgumentException("simulated"));
+        client.read(channel);
+        assertTrue(client.finished());
+        // the response was already started with a 200 so the error is reported in the body
+        assertThat(channel.capturedResponse().status().getStatus(), equalTo(200));
+        Map<String, Object> body = client.body();
+        assertThat(body.get("values"), equalTo(List.of(List.of(1))));
+        assertThat(body.get("status"), equalTo(400));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> error = (Map<String, Object>) body.get("error");
+        assertThat(error.get("type"), equalTo("illegal_argument_exception"));
+        assertThat(error.get("reason"), equalTo("simulated"));
+        assertThat(breaker.getUsed(), equalTo(0L));
+    }
+
+    public void testFailureBeforeFirstChunk() {
+        FakeRestChannel channel = new FakeRestChannel(new FakeRestRequest(), true, 1);
+        EsqlResponseStream stream = new EsqlResponseStream(channel);
+        stream.completionListener().onFailure(new IllegalArgumentException("simulated"));
+        assertThat(channel.errors().get(), equalTo(1));
+        assertThat(channel.capturedResponse().status().getStatus(), equalTo(400));
+    }
+
+    private static EsqlQueryResponse emptyResponse() {
+        return new EsqlQueryResponse(
+            List.of(new ColumnInfoImpl("a", "long")),
+            List.of(),
+            null,
+            false,
+            false,
+            new EsqlExecutionInfo(false)
+        );
+    }
+
+    /**
+     * Reads the response body like the HTTP layer does, as far as it's available.
+     */
+    private static class Client {
+        private final BytesStreamOutput out = new BytesStreamOutput();
+        private RestResponse response;
+        private ChunkedRestResponseBodyPart part;
+        private SubscribableListener<ChunkedRestResponseBodyPart> nextPart;
+        private boolean finished;
+
+        void read(FakeRestChannel channel) throws IOException {
+            if (response == null) {
+                response = channel.capturedResponse();
+                assertThat(response, notNullValue());
+                part = response.chunkedContent();
+            }
+            while (finished == false) {
+                if (part == null) {
+                    if (nextPart.isDone() == false) {
+                        return; // paused until more is written
+                    }
+                    part = nextPart.result();
+                    nextPart = null;
+                }
+                while (part.isPartComplete() == false) {
+                    try (ReleasableBytesReference chunk = part.encodeChunk(between(1, 1024), BytesRefRecycler.NON_RECYCLING_INSTANCE)) {
+                        chunk.writeTo(out);
+                    }
+                }
+                if (part.isLastPart()) {
+                    finished = true;
+                    response.close();
+                } else {
+                    nextPart = new SubscribableListener<>();
+                    part.getNextPart(nextPart);
+                    part = null;
+                }
+            }
+        }
+
+        boolean finished() {
+            return finished;
+        }
+
+        Map<String, Object> body() {
+            return XContentHelper.convertToMap(out.bytes(), false, XContentType.JSON).v2();
+        }
+    }
+}
@@ -101,6 +101,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 
 //@TestLogging(value = "org.elasticsearch.xpack.esql:TRACE,org.elasticsearch.compute:TRACE", reason = "debug")
@@ -303,6 +304,43 @@ public class LocalPhysicalPlanOptimizerTests extends MapperServiceTestCase {
         assertThat(plan.anyMatch(EsQueryExec.class::isInstance), is(true));
     }
 
+    /**
+     * Expects
+     * LimitExec[1000[INTEGER]]
+     * \_AggregateExec[[],[MIN(salary{f}#8) AS m],FINAL,null]
+     *   \_ExchangeExec[[min{r}#15, seen{r}#16],true]
+     *     \_EsStatsQueryExec[test], stats[Stat[name=salary, type=MIN, query=null]]], query[][$$m$min{r}#17, $$m$seen{r}#18], limit[],
+     */
+    public void testMinPushedToSource() {
+        var plan = plannerOptimizer.plan("from test | stats m = min(salary)");
+        var stat = queryStatsFor(plan);
+        assertThat(stat.type(), is(StatsType.MIN));
+        assertThat(stat.name(), is("salary"));
+        assertThat(stat.query(), is(nullValue()));
+    }
+
+    public void testMaxWithFilterPushedToSource() {
+        var plan = plannerOptimizer.plan("from test | stats m = max(emp_no) where salary > 1000");
+        var stat = queryStatsFor(plan);
+        assertThat(stat.type(), is(StatsType.MAX));
+        assertThat(stat.name(), is("emp_no"));
+        assertThat(stat.query(), is(notNullValue()));
+    }
+
+    // only numbers whose points and doc values are plain longs are read from Lucene
+    public void testMinOfKeywordNotPushedToSource() {
+        var plan = plannerOptimizer.plan("from test | stats m = min(first_name)");
+        assertThat(plan.anyMatch(EsStatsQueryExec.class::isInstance), is(false));
+    }
+
+    // grouped stats are computed by the hash aggregation rather than read from Lucene
+    public void testGroupedMinNotPushedToSource() {
+        var plan = plannerOptimizer.plan("from test | stats m = min(salary) by first_name");
+        assertThat(plan.anyMatch(EsStatsQueryExec.class::isInstance), is(false));
+        plan = plannerOptimizer.plan("from test | stats m = max(salary) by b = bucket(emp_no, 10)");
+        assertThat(plan.anyMatch(EsStatsQueryExec.class::isInstance), is(false));
+    }
+
     public void testCountPushdownForSvAndMvFields() throws IOException {
         String properties = EsqlTestUtils.loadUtf8TextFile("/mapping-basic.json");
         String mapping = "{\"mappings\": " + properties + "}";
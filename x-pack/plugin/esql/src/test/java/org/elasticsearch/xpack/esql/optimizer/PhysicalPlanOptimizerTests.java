@@ -1178,6 +1178,102 @@ public class PhysicalPlanOptimizerTests extends ESTestCase {
         assertThat(source.estimatedRowSize(), equalTo(Integer.BYTES * 2));
     }
 
+    /**
+     * TopNExec[[Order[x{r}#4,ASC,LAST]],1[INTEGER]]
+     * \_ExchangeExec[]
+     *   \_ProjectExec[[_meta_field{f}#12, emp_no{f}#6, first_name{f}#7, !gender, languages{f}#9, last_name{f}#10, salary{f}#11, name
+     * {r}#3, x{r}#4]]
+     *     \_FieldExtractExec[_meta_field{f}#12, emp_no{f}#6, !gender, languages{f}#9]
+     *       \_EvalExec[[CONCAT(first_name{f}#7,last_name{f}#10) AS name]]
+     *         \_FieldExtractExec[first_name{f}#7, last_name{f}#10]
+     *           \_TopNExec[[Order[x{r}#4,ASC,LAST]],1[INTEGER]]
+     *             \_EvalExec[[salary{f}#11 * 2[INTEGER] AS x]]
+     *               \_FieldExtractExec[salary{f}#11]
+     *                 \_EsQueryExec[test], query[][_doc{f}#13], limit[], sort[]
+     */
+    public void testEvalNotNeededBySortRunsAfterTopN() {
+        var optimized = optimizedPlan(physicalPlan("""
+            from test
+            | eval name = concat(first_name, last_name), x = salary * 2
+            | sort x
+            | limit 1
+            """));
+        var topN = as(optimized, TopNExec.class);
+        var exchange = asRemoteExchange(topN.child());
+        var project = as(exchange.child(), ProjectExec.class);
+        var restExtract = as(project.child(), FieldExtractExec.class);
+        var evalAfter = as(restExtract.child(), EvalExec.class);
+        assertThat(names(evalAfter.fields()), contains("name"));
+        var lateExtract = as(evalAfter.child(), FieldExtractExec.class);
+        assertThat(names(lateExtract.attributesToExtract()), contains("first_name", "last_name"));
+        var topNLocal = as(lateExtract.child(), TopNExec.class);
+        var evalBefore = as(topNLocal.child(), EvalExec.class);
+        assertThat(names(evalBefore.fields()), contains("x"));
+        var extract = as(evalBefore.child(), FieldExtractExec.class);
+        assertThat(names(extract.attributesToExtract()), contains("salary"));
+        source(extract.child());
+    }
+
+    /**
+     * TopNExec[[Order[b{r}#5,ASC,LAST]],1[INTEGER]]
+     * \_ExchangeExec[]
+     *   \_ProjectExec[[_meta_field{f}#14, emp_no{f}#8, first_name{f}#9, !gender, languages{f}#11, last_name{f}#12, salary{f}#13, a{r}#4,
+     *  b{r}#5, name{r}#6, c{r}#7]]
+     *     \_FieldExtractExec[_meta_field{f}#14, emp_no{f}#8, !gender]
+     *       \_EvalExec[[CONCAT(first_name{f}#9,last_name{f}#12) AS name, b{r}#5 + languages{f}#11 AS c]]
+     *         \_FieldExtractExec[first_name{f}#9, last_name{f}#12, languages{f}#11]
+     *           \_TopNExec[[Order[b{r}#5,ASC,LAST]],1[INTEGER]]
+     *             \_EvalExec[[salary{f}#13 * 2[INTEGER] AS a, a{r}#4 + 1[INTEGER] AS b]]
+     *               \_FieldExtractExec[salary{f}#13]
+     *                 \_EsQueryExec[test], query[][_doc{f}#15], limit[], sort[]
+     */
+    public void testEvalChainNeededBySortStaysBeforeTopN() {
+        var optimized = optimizedPlan(physicalPlan("""
+            from test
+            | eval a = salary * 2, b = a + 1, name = concat(first_name, last_name), c = b + languages
+            | sort b
+            | limit 1
+            """));
+        var topN = as(optimized, TopNExec.class);
+        var exchange = asRemoteExchange(topN.child());
+        var project = as(exchange.child(), ProjectExec.class);
+        var restExtract = as(project.child(), FieldExtractExec.class);
+        var evalAfter = as(restExtract.child(), EvalExec.class);
+        // c uses b, which the sort computes anyway
+        assertThat(names(evalAfter.fields()), contains("name", "c"));
+        var lateExtract = as(evalAfter.child(), FieldExtractExec.class);
+        assertThat(names(lateExtract.attributesToExtract()), containsInAnyOrder("first_name", "last_name", "languages"));
+        var topNLocal = as(lateExtract.child(), TopNExec.class);
+        // the sort only references b, but b needs a
+        var evalBefore = as(topNLocal.child(), EvalExec.class);
+        assertThat(names(evalBefore.fields()), contains("a", "b"));
+        var extract = as(evalBefore.child(), FieldExtractExec.class);
+        assertThat(names(extract.attributesToExtract()), contains("salary"));
+        source(extract.child());
+    }
+
+    /**
+     * The sort needs every alias of the eval, so there is nothing to move.
+     */
+    public void testEvalChainFullyNeededBySortStaysBeforeTopN() {
+        var optimized = optimizedPlan(physicalPlan("""
+            from test
+            | eval a = salary * 2, b = a + languages
+            | sort b
+            | limit 1
+            """));
+        var topN = as(optimized, TopNExec.class);
+        var exchange = asRemoteExchange(topN.child());
+        var project = as(exchange.child(), ProjectExec.class);
+        var restExtract = as(project.child(), FieldExtractExec.class);
+        var topNLocal = as(restExtract.child(), TopNExec.class);
+        var evalBefore = as(topNLocal.child(), EvalExec.class);
+        assertThat(names(evalBefore.fields()), contains("a", "b"));
+        var extract = as(evalBefore.child(), FieldExtractExec.class);
+        assertThat(names(extract.attributesToExtract()), containsInAnyOrder("salary", "languages"));
+        source(extract.child());
+    }
+
     public void testProjectAfterTopN() throws Exception {
         var optimized = optimizedPlan(physicalPlan("""
             from test
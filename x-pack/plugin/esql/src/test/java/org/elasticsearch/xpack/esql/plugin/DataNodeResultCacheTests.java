@@ -0,0 +1,317 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.esql.plugin;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.DocVector;
+import org.elasticsearch.compute.data.LongBlock;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.operator.IsBlockedResult;
+import org.elasticsearch.compute.operator.Operator;
+import org.elasticsearch.compute.operator.exchange.ExchangeSink;
+import org.elasticsearch.compute.test.TestBlockFactory;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.internal.AliasFilter;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.esql.core.expression.Alias;
+import org.elasticsearch.xpack.esql.core.expression.Literal;
+import org.elasticsearch.xpack.esql.core.expression.ReferenceAttribute;
+import org.elasticsearch.xpack.esql.core.tree.Source;
+import org.elasticsearch.xpack.esql.core.type.DataType;
+import org.elasticsearch.xpack.esql.expression.function.scalar.date.Now;
+import org.elasticsearch.xpack.esql.plan.logical.Enrich;
+import org.elasticsearch.xpack.esql.plan.logical.local.LocalSupplier;
+import org.elasticsearch.xpack.esql.plan.physical.EnrichExec;
+import org.elasticsearch.xpack.esql.plan.physical.EvalExec;
+import org.elasticsearch.xpack.esql.plan.physical.LimitExec;
+import org.elasticsearch.xpack.esql.plan.physical.LocalSourceExec;
+import org.elasticsearch.xpack.esql.plan.physical.LookupJoinExec;
+import org.elasticsearch.xpack.esql.plan.physical.PhysicalPlan;
+
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.elasticsearch.xpack.esql.EsqlTestUtils.TEST_CFG;
+import static org.elasticsearch.xpack.esql.EsqlTestUtils.referenceAttribute;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class DataNodeResultCacheTests extends ESTestCase {
+    private final BlockFactory blockFactory = TestBlockFactory.getNonBreakingInstance();
+
+    public void testKeyIgnoresNameIds() throws IOException {
+        List<DataNodeResultCache.ShardKey> shards = List.of(shardKey(0));
+        DataNodeResultCache.Key key = DataNodeResultCache.key(plan(10), TEST_CFG, shards);
+        // the same plan built again has different NameIds
+        assertThat(DataNodeResultCache.key(plan(10), TEST_CFG, shards), equalTo(key));
+        assertThat(DataNodeResultCache.key(plan(20), TEST_CFG, shards), not(equalTo(key)));
+        assertThat(DataNodeResultCache.key(plan(10), TEST_CFG, List.of(shardKey(1))), not(equalTo(key)));
+        assertThat(DataNodeResultCache.key(plan(10), TEST_CFG, List.of()), not(equalTo(key)));
+    }
+
+    public void testNotCacheable() {
+        ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+        assertTrue(DataNodeResultCache.cacheable(plan(10), TEST_CFG, threadContext));
+
+        ReferenceAttribute field = referenceAttribute("a", DataType.KEYWORD);
+        LocalSourceExec source = new LocalSourceExec(Source.EMPTY, List.of(field), LocalSupplier.EMPTY);
+        PhysicalPlan now = new EvalExec(Source.EMPTY, source, List.of(new Alias(Source.EMPTY, "now", new Now(Source.EMPTY, TEST_CFG))));
+        assertFalse(DataNodeResultCache.cacheable(now, TEST_CFG, threadContext));
+
+        // the enrich and lookup indices aren't part of the key
+        PhysicalPlan enrich = new EnrichExec(
+            Source.EMPTY,
+            source,
+            Enrich.Mode.ANY,
+            "match",
+            field,
+            "policy",
+            "field",
+            Map.of("", "enrich-index"),
+            List.of()
+        );
+        assertFalse(DataNodeResultCache.cacheable(enrich, TEST_CFG, threadContext));
+        ReferenceAttribute lookupField = referenceAttribute("a", DataType.KEYWORD);
+        PhysicalPlan lookup = new LookupJoinExec(
+            Source.EMPTY,
+            source,
+            new LocalSourceExec(Source.EMPTY, List.of(lookupField), LocalSupplier.EMPTY),
+            List.of(field),
+            List.of(lookupField),
+            List.of()
+        );
+        assertFalse(DataNodeResultCache.cacheable(lookup, TEST_CFG, threadContext));
+    }
+
+    public void testRecordAndReplay() throws IOException {
+        DataNodeResultCache cache = new DataNodeResultCache(Settings.EMPTY);
+        DataNodeResultCache.Key key = key("plan");
+        DataNodeResultCache.Recorder recorder = cache.recorder(key, List.of(), List.of());
+        CollectingSink downstream = new CollectingSink();
+        ExchangeSink sink = recorder.wrap(() -> downstream).get();
+        int pageCount = between(1, 10);
+        for (int p = 0; p < pageCount; p++) {
+            sink.addPage(new Page(blockFactory.newConstantLongBlockWith(p, between(1, 100))));
+        }
+        sink.finish();
+        recorder.complete(false);
+        assertThat(cache.count(), equalTo(1));
+
+        DataNodeResultCache.Entry entry = cache.get(key("plan"));
+        assertThat(entry, notNullValue());
+        CollectingSink replayed = new CollectingSink();
+        cache.replay(entry, blockFactory, replayed);
+        assertThat(replayed.pages, hasSize(pageCount));
+        for (int p = 0; p < pageCount; p++) {
+            assertThat(replayed.pages.get(p), equalTo(downstream.pages.get(p)));
+        }
+        assertThat(cache.get(key("other plan")), nullValue());
+        downstream.close();
+        replayed.close();
+    }
+
+    public void testInvalidatedWhenReaderCloses() throws IOException {
+        DataNodeResultCache cache = new DataNodeResultCache(Settings.EMPTY);
+        try (Directory dir = newDirectory(); IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig())) {
+            writer.addDocument(new Document());
+            DirectoryReader reader = DirectoryReader.open(writer);
+            IndexReader.CacheHelper cacheHelper = reader.getReaderCacheHelper();
+            DataNodeResultCache.Key key = new DataNodeResultCache.Key(
+                new BytesArray("plan"),
+                ZoneOffset.UTC,
+                Locale.ROOT,
+                List.of(new DataNodeResultCache.ShardKey(new ShardId("index", "_na_", 0), cacheHelper.getKey(), null, AliasFilter.EMPTY))
+            );
+            record(cache, cache.recorder(key, List.of(cacheHelper), List.of()));
+            assertThat(cache.get(key), notNullValue());
+            assertThat(cache.trackedKeyCount(), equalTo(1));
+
+            reader.close();
+            assertThat(cache.get(key), nullValue());
+            assertThat(cache.count(), equalTo(0));
+            assertThat(cache.trackedKeyCount(), equalTo(0));
+        }
+    }
+
+    public void testOneClosedListenerPerReader() throws IOException {
+        DataNodeResultCache cache = new DataNodeResultCache(
+            Settings.builder().put(DataNodeResultCache.CACHE_SIZE_SETTING.getKey(), "4kb").build()
+        );
+        try (Directory dir = newDirectory(); IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig())) {
+            writer.addDocument(new Document());
+            DirectoryReader reader = DirectoryReader.open(writer);
+            CountingCacheHelper cacheHelper = new CountingCacheHelper(reader.getReaderCacheHelper());
+            List<DataNodeResultCache.ShardKey> shards = List.of(
+                new DataNodeResultCache.ShardKey(new ShardId("index", "_na_", 0), cacheHelper.getKey(), null, AliasFilter.EMPTY)
+            );
+            int entries = between(200, 300);
+            for (int i = 0; i < entries; i++) {
+                DataNodeResultCache.Key key = new DataNodeResultCache.Key(
+                    new BytesArray(String.format(Locale.ROOT, "plan %03d", i)),
+                    ZoneOffset.UTC,
+                    Locale.ROOT,
+                    shards
+                );
+                record(cache, cache.recorder(key, List.of(cacheHelper), List.of()));
+                if (randomBoolean()) {
+                    // replacing an entry doesn't track its key twice
+                    record(cache, cache.recorder(key, List.of(cacheHelper), List.of()));
+                }
+            }
+            // evicted entries are forgotten, only the cached ones are tracked for the reader
+            assertThat(cache.count(), lessThan(entries));
+            assertThat(cache.count(), greaterThan(0));
+            assertThat(cache.trackedKeyCount(), equalTo(cache.count()));
+            assertThat(cacheHelper.listeners, equalTo(1));
+
+            reader.close();
+            assertThat(cache.count(), equalTo(0));
+            assertThat(cache.trackedKeyCount(), equalTo(0));
+        }
+    }
+
+    public void testTruncatedNotCached() {
+        DataNodeResultCache cache = new DataNodeResultCache(Settings.EMPTY);
+        DataNodeResultCache.Recorder recorder = cache.recorder(key("plan"), List.of(), List.of());
+        CollectingSink downstream = new CollectingSink();
+        ExchangeSink sink = recorder.wrap(() -> downstream).get();
+        sink.addPage(new Page(blockFactory.newConstantLongBlockWith(1, 10)));
+        sink.finish();
+        recorder.complete(true);
+        assertThat(cache.count(), equalTo(0));
+        downstream.close();
+    }
+
+    public void testDocsNotCached() {
+        DataNodeResultCache cache = new DataNodeResultCache(Settings.EMPTY);
+        DataNodeResultCache.Recorder recorder = cache.recorder(key("plan"), List.of(), List.of());
+        CollectingSink downstream = new CollectingSink();
+        DocVector docs = new DocVector(
+            blockFactory.newConstantIntVector(0, 1),
+            blockFactory.newConstantIntVector(0, 1),
+            blockFactory.newConstantIntVector(0, 1),
+            true
+        );
+        ExchangeSink sink = recorder.wrap(() -> downstream).get();
+        sink.addPage(new Page(docs.asBlock()));
+        sink.finish();
+        recorder.complete(false);
+        assertThat(cache.count(), equalTo(0));
+        downstream.close();
+    }
+
+    public void testTooLargeNotCached() {
+        DataNodeResultCache cache = new DataNodeResultCache(Settings.EMPTY);
+        DataNodeResultCache.Recorder recorder = cache.recorder(key("plan"), List.of(), List.of());
+        CollectingSink downstream = new CollectingSink();
+        ExchangeSink sink = recorder.wrap(() -> downstream).get();
+        int positions = (int) (DataNodeResultCache.MAX_ENTRY_SIZE / Long.BYTES) + 1;
+        try (LongBlock.Builder builder = blockFactory.newLongBlockBuilder(positions)) {
+            for (int i = 0; i < positions; i++) {
+                builder.appendLong(randomLong());
+            }
+            sink.addPage(new Page(builder.build()));
+        }
+        sink.finish();
+        recorder.complete(false);
+        assertThat(cache.count(), equalTo(0));
+        downstream.close();
+    }
+
+    private void record(DataNodeResultCache cache, DataNodeResultCache.Recorder recorder) {
+        CollectingSink downstream = new CollectingSink();
+        ExchangeSink sink = recorder.wrap(() -> downstream).get();
+        sink.addPage(new Page(blockFactory.newConstantLongBlockWith(1, 10)));
+        sink.finish();
+        recorder.complete(false);
+        downstream.close();
+    }
+
+    private static PhysicalPlan plan(int limit) {
+        ReferenceAttribute field = referenceAttribute("a", DataType.LONG);
+        LocalSourceExec source = new LocalSourceExec(Source.EMPTY, List.of(field), LocalSupplier.EMPTY);
+        EvalExec eval = new EvalExec(Source.EMPTY, source, List.of(new Alias(Source.EMPTY, "b", field)));
+        return new LimitExec(Source.EMPTY, eval, new Literal(Source.EMPTY, limit, DataType.INTEGER));
+    }
+
+    private static DataNodeResultCache.ShardKey shardKey(int shard) {
+        return new DataNodeResultCache.ShardKey(new ShardId("index", "_na_", shard), null, null, AliasFilter.EMPTY);
+    }
+
+    private static DataNodeResultCache.Key key(String plan) {
+        return new DataNodeResultCache.Key(new BytesArray(plan), ZoneOffset.UTC, Locale.ROOT, List.of());
+    }
+
+    private static class CountingCacheHelper implements IndexReader.CacheHelper {
+        private final IndexReader.CacheHelper delegate;
+        private int listeners;
+
+        CountingCacheHelper(IndexReader.CacheHelper delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public IndexReader.CacheKey getKey() {
+            return delegate.getKey();
+        }
+
+        @Override
+        public void addClosedListener(IndexReader.ClosedListener listener) {
+            listeners++;
+            delegate.addClosedListener(listener);
+        }
+    }
+
+    private static class CollectingSink implements ExchangeSink {
+        final List<Page> pages = new ArrayList<>();
+
+        @Override
+        public void addPage(Page page) {
+            pages.add(page);
+        }
+
+        @Override
+        public void finish() {}
+
+        @Override
+        public boolean isFinished() {
+            return false;
+        }
+
+        @Override
+        public void addCompletionListener(ActionListener<Void> listener) {}
+
+        @Override
+        public IsBlockedResult waitForWriting() {
+            return Operator.NOT_BLOCKED;
+        }
+
+        void close() {
+            pages.forEach(p -> Releasables.close(p::releaseBlocks));
+        }
+    }
+}
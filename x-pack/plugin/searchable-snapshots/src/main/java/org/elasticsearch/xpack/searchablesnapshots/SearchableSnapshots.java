@@ -102,6 +102,7 @@ import org.elasticsearch.xpack.searchablesnapshots.cache.common.CacheKey;
 import org.elasticsearch.xpack.searchablesnapshots.cache.full.CacheService;
 import org.elasticsearch.xpack.searchablesnapshots.cache.full.PersistentCache;
 import org.elasticsearch.xpack.searchablesnapshots.cache.shared.FrozenCacheInfoService;
+import org.elasticsearch.xpack.searchablesnapshots.cache.shared.FrozenCachePrefetcher;
 import org.elasticsearch.xpack.searchablesnapshots.recovery.SearchableSnapshotRecoveryState;
 import org.elasticsearch.xpack.searchablesnapshots.rest.RestClearSearchableSnapshotsCacheAction;
 import org.elasticsearch.xpack.searchablesnapshots.rest.RestMountSearchableSnapshotAction;
@@ -251,6 +252,7 @@ public class SearchableSnapshots extends Plugin implements IndexStorePlugin, Eng
     private final SetOnce<BlobStoreCacheService> blobStoreCacheService = new SetOnce<>();
     private final SetOnce<CacheService> cacheService = new SetOnce<>();
     private final SetOnce<SharedBlobCacheService<CacheKey>> frozenCacheService = new SetOnce<>();
+    private final SetOnce<FrozenCachePrefetcher> frozenCachePrefetcher = new SetOnce<>();
     private final SetOnce<ThreadPool> threadPool = new SetOnce<>();
     private final SetOnce<FailShardsOnInvalidLicenseClusterListener> failShardsListener = new SetOnce<>();
     private final SetOnce<SearchableSnapshotAllocator> allocator = new SetOnce<>();
@@ -304,6 +306,8 @@ public class SearchableSnapshots extends Plugin implements IndexStorePlugin, Eng
             CacheService.SNAPSHOT_CACHE_SYNC_INTERVAL_SETTING,
             CacheService.SNAPSHOT_CACHE_MAX_FILES_TO_SYNC_AT_ONCE_SETTING,
             CacheService.SNAPSHOT_CACHE_SYNC_SHUTDOWN_TIMEOUT,
+            FrozenCachePrefetcher.PREFETCH_MAX_REGIONS_SETTING,
+            FrozenCachePrefetcher.PREFETCH_MIN_ACCURACY_SETTING,
             BlobStoreCacheMaintenanceService.SNAPSHOT_SNAPSHOT_CLEANUP_INTERVAL_SETTING,
             BlobStoreCacheMaintenanceService.SNAPSHOT_SNAPSHOT_CLEANUP_KEEP_ALIVE_SETTING,
             BlobStoreCacheMaintenanceService.SNAPSHOT_SNAPSHOT_CLEANUP_BATCH_SIZE_SETTING,
@@ -330,9 +334,20 @@ public class SearchableSnapshots extends Plugin implements IndexStorePlugin, Eng
                 settings,
                 threadPool,
                 threadPool.executor(SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME),
-                new BlobCacheMetrics(services.telemetryProvider().getMeterRegistry())
+                new BlobCacheMetrics(services.telemetryProvider().getMeterRegistry()),
+                System::nanoTime,
+                CacheKey::new,
+                (out, cacheKey) -> cacheKey.writeTo(out)
             );
             this.frozenCacheService.set(sharedBlobCacheService);
+            this.frozenCachePrefetcher.set(
+                new FrozenCachePrefetcher(
+                    settings,
+                    sharedBlobCacheService,
+                    threadPool.executor(SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME),
+                    services.telemetryProvider().getMeterRegistry()
+                )
+            );
             components.add(cacheService);
             final BlobStoreCacheService blobStoreCacheService = new BlobStoreCacheService(client, SNAPSHOT_BLOB_CACHE_INDEX);
             this.blobStoreCacheService.set(blobStoreCacheService);
@@ -429,7 +444,8 @@ public class SearchableSnapshots extends Plugin implements IndexStorePlugin, Eng
                 System::nanoTime,
                 threadPool,
                 blobCache,
-                frozenCacheService.get()
+                frozenCacheService.get(),
+                frozenCachePrefetcher.get()
             );
         });
     }
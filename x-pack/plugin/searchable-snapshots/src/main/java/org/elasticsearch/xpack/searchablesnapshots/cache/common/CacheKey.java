@@ -7,11 +7,15 @@
 
 package org.elasticsearch.xpack.searchablesnapshots.cache.common;
 
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.index.shard.ShardId;
 
+import java.io.IOException;
 import java.util.Objects;
 
-public record CacheKey(String snapshotUUID, String snapshotIndexName, ShardId shardId, String fileName) {
+public record CacheKey(String snapshotUUID, String snapshotIndexName, ShardId shardId, String fileName) implements Writeable {
 
     public CacheKey(String snapshotUUID, String snapshotIndexName, ShardId shardId, String fileName) {
         this.snapshotUUID = Objects.requireNonNull(snapshotUUID);
@@ -19,4 +23,16 @@ public record CacheKey(String snapshotUUID, String snapshotIndexName, ShardId sh
         this.shardId = Objects.requireNonNull(shardId);
         this.fileName = Objects.requireNonNull(fileName);
     }
+
+    public CacheKey(StreamInput in) throws IOException {
+        this(in.readString(), in.readString(), new ShardId(in), in.readString());
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeString(snapshotUUID);
+        out.writeString(snapshotIndexName);
+        shardId.writeTo(out);
+        out.writeString(fileName);
+    }
 }
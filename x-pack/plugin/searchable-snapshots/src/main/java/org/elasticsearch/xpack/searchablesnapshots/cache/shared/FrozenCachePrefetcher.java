@@ -0,0 +1,388 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.searchablesnapshots.cache.shared;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.blobcache.shared.SharedBlobCacheService;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.store.LuceneFilesExtensions;
+import org.elasticsearch.telemetry.metric.LongCounter;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
+import org.elasticsearch.xpack.searchablesnapshots.cache.common.CacheKey;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+import static org.elasticsearch.core.Strings.format;
+
+/**
+ * Fetches regions of the files of partially mounted searchable snapshots into the shared cache before they are read.
+ * <p>
+ * Lucene reads some types of files, like terms dictionaries or doc values, in a rather predictable way: a read that misses the shared
+ * cache is often followed by reads of the next regions of the same file, and each of these misses is a round-trip to the blob store that
+ * the query waits for. When a read misses the cache, this prefetcher fetches the next regions of the file in the background, in parallel
+ * with the region that was missed.
+ * <p>
+ * Whether prefetching pays off is learned for each {@link LuceneFilesExtensions type of file}: the prefetcher keeps track of how many of
+ * the regions it fetched were read afterwards and stops prefetching for the types of files for which too few were. It still prefetches a
+ * single region from time to time for these types of files so that it notices if the way they are read changes.
+ */
+public class FrozenCachePrefetcher {
+
+    private static final Logger logger = LogManager.getLogger(FrozenCachePrefetcher.class);
+
+    /**
+     * The maximum number of regions of a file to prefetch ahead of the reads of the file. Prefetching is disabled if set to 0.
+     */
+    public static final Setting<Integer> PREFETCH_MAX_REGIONS_SETTING = Setting.intSetting(
+        "xpack.searchable.snapshot.shared_cache.prefetch.max_regions",
+        0,                            // default
+        0,                            // min
+        16,                           // max
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * The minimum ratio of prefetched regions that must have been read afterwards for a type of file to keep on being prefetched.
+     */
+    public static final Setting<Double> PREFETCH_MIN_ACCURACY_SETTING = Setting.doubleSetting(
+        "xpack.searchable.snapshot.shared_cache.prefetch.min_accuracy",
+        0.5d,                         // default
+        0.0d,                         // min
+        1.0d,                         // max
+        Setting.Property.NodeScope
+    );
+
+    public static final String FILE_EXTENSION_ATTRIBUTE_KEY = "file_extension";
+
+    // number of prefetched regions of a type of file below which a single region is prefetched at a time, while its accuracy is learned
+    static final int MIN_SAMPLES = 32;
+
+    // number of prefetched regions of a type of file above which its past prefetches count half as much, so that the accuracy adapts
+    static final int MAX_SAMPLES = 1024;
+
+    // when the accuracy of a type of file is too low, only one in this many reads that could trigger prefetching prefetches a region
+    static final int PROBE_INTERVAL = 16;
+
+    // number of regions of a file prefetched after a fetched region that was not read yet, after which it is not expected to be read
+    static final int STALE_PREFETCHES = 64;
+
+    private final SharedBlobCacheService<CacheKey> sharedBlobCacheService;
+    private final Executor fetchExecutor;
+    private final int maxRegions;
+    private final double minAccuracy;
+    private final Map<LuceneFilesExtensions, ExtensionStats> extensionStats;
+    private final LongCounter issuedCounter;
+    private final LongCounter usedCounter;
+
+    public FrozenCachePrefetcher(
+        Settings settings,
+        SharedBlobCacheService<CacheKey> sharedBlobCacheService,
+        Executor fetchExecutor,
+        MeterRegistry meterRegistry
+    ) {
+        this.sharedBlobCacheService = sharedBlobCacheService;
+        this.fetchExecutor = fetchExecutor;
+        this.maxRegions = PREFETCH_MAX_REGIONS_SETTING.get(settings);
+        this.minAccuracy = PREFETCH_MIN_ACCURACY_SETTING.get(settings);
+        final Map<LuceneFilesExtensions, ExtensionStats> extensionStats = new EnumMap<>(LuceneFilesExtensions.class);
+        for (LuceneFilesExtensions extension : LuceneFilesExtensions.values()) {
+            extensionStats.put(extension, new ExtensionStats(extension));
+        }
+        this.extensionStats = extensionStats;
+        this.issuedCounter = meterRegistry.registerLongCounter(
+            "es.searchable_snapshots.prefetch.issued.total",
+            "The number of regions that were fetched in the shared cache before being read",
+            "regions"
+        );
+        this.usedCounter = meterRegistry.registerLongCounter(
+            "es.searchable_snapshots.prefetch.used.total",
+            "The number of regions that were fetched in the shared cache before being read and that were read afterwards",
+            "regions"
+        );
+    }
+
+    public boolean isEnabled() {
+        return maxRegions > 0;
+    }
+
+    /**
+     * @return the object that tracks the prefetches of the given file, or {@code null} if the file should not be prefetched
+     */
+    @Nullable
+    public FilePrefetches newFilePrefetches(String fileName, long fileLength) {
+        if (isEnabled() == false) {
+            return null;
+        }
+        final LuceneFilesExtensions extension = LuceneFilesExtensions.fromFile(fileName);
+        if (extension == null || fileLength <= sharedBlobCacheService.getRegionSize()) {
+            return null;
+        }
+        return new FilePrefetches(extensionStats.get(extension), fileLength);
+    }
+
+    /**
+     * @return the number of regions that were prefetched and the number of those that were read afterwards for the given type of file
+     */
+    public PrefetchStats stats(LuceneFilesExtensions extension) {
+        return extensionStats.get(extension).stats();
+    }
+
+    /**
+     * @param issued the number of regions that were fetched in the shared cache before being read
+     * @param used   the number of these regions that were read afterwards
+     */
+    public record PrefetchStats(long issued, long used) {
+
+        public double accuracy() {
+            return issued == 0L ? 0.0d : (double) used / issued;
+        }
+    }
+
+    private final class ExtensionStats {
+
+        private final Map<String, Object> attributes;
+
+        // the recent prefetches, used to compute the number of regions to prefetch
+        private long recentIssued;
+        private long recentUsed;
+        private long decisions;
+
+        private long totalIssued;
+        private long totalUsed;
+
+        ExtensionStats(LuceneFilesExtensions extension) {
+            this.attributes = Map.of(FILE_EXTENSION_ATTRIBUTE_KEY, extension.getExtension());
+        }
+
+        synchronized int regionsToPrefetch() {
+            if (recentIssued < MIN_SAMPLES) {
+                return 1;
+            }
+            if (recentUsed >= minAccuracy * recentIssued) {
+                return maxRegions;
+            }
+            return decisions++ % PROBE_INTERVAL == 0L ? 1 : 0;
+        }
+
+        void onIssued() {
+            synchronized (this) {
+                totalIssued += 1L;
+                recentIssued += 1L;
+                if (recentIssued > MAX_SAMPLES) {
+                    recentIssued /= 2L;
+                    recentUsed /= 2L;
+                }
+            }
+            issuedCounter.incrementBy(1L, attributes);
+        }
+
+        void onUsed() {
+            synchronized (this) {
+                totalUsed += 1L;
+                recentUsed = Math.min(recentUsed + 1L, recentIssued);
+            }
+            usedCounter.incrementBy(1L, attributes);
+        }
+
+        synchronized PrefetchStats stats() {
+            return new PrefetchStats(totalIssued, totalUsed);
+        }
+    }
+
+    private enum PrefetchState {
+        /**
+         * The region is being fetched and was not read yet
+         */
+        Fetching,
+        /**
+         * The region is being fetched and was read already
+         */
+        FetchingAndRead,
+        /**
+         * The region was fetched and was not read yet
+         */
+        Fetched
+    }
+
+    /**
+     * @param state    the state of the prefetch of the region
+     * @param sequence the number of regions of the file that were prefetched before this one, used to age out prefetched regions
+     */
+    private record Prefetch(PrefetchState state, long sequence) {
+
+        Prefetch withState(PrefetchState newState) {
+            return new Prefetch(newState, sequence);
+        }
+    }
+
+    /**
+     * Tracks the regions of a file that were prefetched, and whether they were read afterwards. An instance is shared by an
+     * {@link org.apache.lucene.store.IndexInput} and all its clones and slices.
+     */
+    public final class FilePrefetches {
+
+        private final ExtensionStats extensionStats;
+        private final long fileLength;
+        private final int lastRegion;
+
+        // looked up on every read served from the shared cache while not empty, so state changes are atomic updates of the map
+        private final Map<Integer, Prefetch> prefetches = ConcurrentCollections.newConcurrentMap();
+        private final AtomicLong sequence = new AtomicLong();
+
+        FilePrefetches(ExtensionStats extensionStats, long fileLength) {
+            this.extensionStats = extensionStats;
+            this.fileLength = fileLength;
+            this.lastRegion = getRegion(fileLength - 1L);
+        }
+
+        /**
+         * @return whether some prefetched regions of the file were not read yet, in which case reads served from the shared cache must
+         *         be reported to {@link #onCacheHit}
+         */
+        public boolean hasPendingPrefetches() {
+            return prefetches.isEmpty() == false;
+        }
+
+        /**
+         * Called on the reads of the file that were served from the shared cache while {@link #hasPendingPrefetches()}. Prefetches the
+         * regions that follow the read if it is the first read of a prefetched region.
+         *
+         * @param cacheKey      the key of the file in the shared cache
+         * @param position      the position of the read in the file
+         * @param writerFactory creates the writer that fetches the data of the region of the file starting at a given position
+         */
+        public void onCacheHit(CacheKey cacheKey, long position, LongFunction<SharedBlobCacheService.RangeMissingHandler> writerFactory) {
+            final int region = getRegion(position);
+            if (onRead(region)) {
+                prefetchAfter(cacheKey, region, writerFactory);
+            }
+        }
+
+        /**
+         * Called on every read of the file that missed the shared cache, before the missing data are fetched. Prefetches the regions
+         * that follow the read.
+         *
+         * @param cacheKey      the key of the file in the shared cache
+         * @param position      the position of the read in the file
+         * @param length        the length of the read
+         * @param writerFactory creates the writer that fetches the data of the region of the file starting at a given position
+         */
+        public void onCacheMiss(
+            CacheKey cacheKey,
+            long position,
+            int length,
+            LongFunction<SharedBlobCacheService.RangeMissingHandler> writerFactory
+        ) {
+            final int firstRegion = getRegion(position);
+            final int endRegion = getRegion(position + Math.max(length, 1) - 1L);
+            if (hasPendingPrefetches()) {
+                for (int region = firstRegion; region <= endRegion; region++) {
+                    onRead(region);
+                }
+            }
+            prefetchAfter(cacheKey, endRegion, writerFactory);
+        }
+
+        private void prefetchAfter(CacheKey cacheKey, int region, LongFunction<SharedBlobCacheService.RangeMissingHandler> writerFactory) {
+            final int regionsToPrefetch = Math.min(extensionStats.regionsToPrefetch(), lastRegion - region);
+            for (int i = 1; i <= regionsToPrefetch; i++) {
+                if (sharedBlobCacheService.maybeFreeRegion() == false) {
+                    // the cache is full of regions that are in use, don't make it worse by fetching regions that may not be read
+                    logger.trace("no free regions in the shared cache, skipping prefetching after region [{}] of [{}]", region, cacheKey);
+                    return;
+                }
+                prefetch(cacheKey, region + i, writerFactory);
+            }
+        }
+
+        private void prefetch(CacheKey cacheKey, int region, LongFunction<SharedBlobCacheService.RangeMissingHandler> writerFactory) {
+            if (prefetches.putIfAbsent(region, new Prefetch(PrefetchState.Fetching, sequence.getAndIncrement())) != null) {
+                return;
+            }
+            sharedBlobCacheService.maybeFetchRegion(
+                cacheKey,
+                region,
+                fileLength,
+                writerFactory.apply((long) region * sharedBlobCacheService.getRegionSize()),
+                fetchExecutor,
+                ActionListener.wrap(fetched -> onFetched(region, fetched), e -> {
+                    logger.debug(() -> format("failed to prefetch region [%d] of [%s]", region, cacheKey), e);
+                    onFetched(region, false);
+                })
+            );
+        }
+
+        private void onFetched(int region, boolean fetched) {
+            final boolean used;
+            while (true) {
+                final Prefetch prefetch = prefetches.get(region);
+                assert prefetch != null && prefetch.state() != PrefetchState.Fetched : prefetch;
+                if (fetched && prefetch.state() == PrefetchState.Fetching) {
+                    if (prefetches.replace(region, prefetch, prefetch.withState(PrefetchState.Fetched))) {
+                        used = false;
+                        break;
+                    }
+                } else if (prefetches.remove(region, prefetch)) {
+                    used = fetched;
+                    break;
+                }
+            }
+            if (fetched) {
+                extensionStats.onIssued();
+                removeStalePrefetches();
+            }
+            if (used) {
+                extensionStats.onUsed();
+            }
+        }
+
+        /**
+         * Stops tracking the fetched regions that were not read while many other regions of the file were prefetched, which are unlikely
+         * to be read soon and would otherwise cause every read of the file served from the shared cache to be reported forever.
+         */
+        private void removeStalePrefetches() {
+            final long minSequence = sequence.get() - STALE_PREFETCHES;
+            if (minSequence > 0L) {
+                prefetches.values().removeIf(p -> p.state() == PrefetchState.Fetched && p.sequence() < minSequence);
+            }
+        }
+
+        /**
+         * @return whether this is the first read of a region that was prefetched
+         */
+        private boolean onRead(int region) {
+            while (true) {
+                final Prefetch prefetch = prefetches.get(region);
+                if (prefetch == null || prefetch.state() == PrefetchState.FetchingAndRead) {
+                    return false;
+                }
+                if (prefetch.state() == PrefetchState.Fetching) {
+                    if (prefetches.replace(region, prefetch, prefetch.withState(PrefetchState.FetchingAndRead))) {
+                        return true;
+                    }
+                } else if (prefetches.remove(region, prefetch)) {
+                    extensionStats.onUsed();
+                    return true;
+                }
+            }
+        }
+
+        private int getRegion(long position) {
+            return (int) (position / sharedBlobCacheService.getRegionSize());
+        }
+    }
+}
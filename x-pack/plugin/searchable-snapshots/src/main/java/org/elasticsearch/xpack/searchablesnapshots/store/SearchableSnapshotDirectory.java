@@ -50,6 +50,7 @@ import org.elasticsearch.xpack.searchablesnapshots.cache.blob.CachedBlob;
 import org.elasticsearch.xpack.searchablesnapshots.cache.common.CacheFile;
 import org.elasticsearch.xpack.searchablesnapshots.cache.common.CacheKey;
 import org.elasticsearch.xpack.searchablesnapshots.cache.full.CacheService;
+import org.elasticsearch.xpack.searchablesnapshots.cache.shared.FrozenCachePrefetcher;
 import org.elasticsearch.xpack.searchablesnapshots.recovery.SearchableSnapshotRecoveryState;
 import org.elasticsearch.xpack.searchablesnapshots.store.input.CachedBlobContainerIndexInput;
 import org.elasticsearch.xpack.searchablesnapshots.store.input.ChecksumBlobContainerIndexInput;
@@ -125,6 +126,8 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
     private final AtomicBoolean closed;
     private final boolean partial;
     private final SharedBlobCacheService<CacheKey> sharedBlobCacheService;
+    @Nullable
+    private final FrozenCachePrefetcher frozenCachePrefetcher;
     private final ByteSizeValue blobStoreCacheMaxLength;
 
     // volatile fields are updated once under `this` lock, all together, iff loaded is not true.
@@ -147,6 +150,42 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
         ShardPath shardPath,
         ThreadPool threadPool,
         SharedBlobCacheService<CacheKey> sharedBlobCacheService
+    ) {
+        this(
+            blobContainer,
+            snapshot,
+            blobStoreCacheService,
+            repository,
+            snapshotId,
+            indexId,
+            shardId,
+            indexSettings,
+            currentTimeNanosSupplier,
+            cacheService,
+            cacheDir,
+            shardPath,
+            threadPool,
+            sharedBlobCacheService,
+            null
+        );
+    }
+
+    public SearchableSnapshotDirectory(
+        Supplier<BlobContainer> blobContainer,
+        Supplier<BlobStoreIndexShardSnapshot> snapshot,
+        BlobStoreCacheService blobStoreCacheService,
+        String repository,
+        SnapshotId snapshotId,
+        IndexId indexId,
+        ShardId shardId,
+        Settings indexSettings,
+        LongSupplier currentTimeNanosSupplier,
+        CacheService cacheService,
+        Path cacheDir,
+        ShardPath shardPath,
+        ThreadPool threadPool,
+        SharedBlobCacheService<CacheKey> sharedBlobCacheService,
+        @Nullable FrozenCachePrefetcher frozenCachePrefetcher
     ) {
         super(new SingleInstanceLockFactory());
         this.snapshotSupplier = Objects.requireNonNull(snapshot);
@@ -171,6 +210,7 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
         this.threadPool = threadPool;
         this.loaded = false;
         this.sharedBlobCacheService = sharedBlobCacheService;
+        this.frozenCachePrefetcher = frozenCachePrefetcher;
         assert invariant();
     }
 
@@ -551,7 +591,8 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
         LongSupplier currentTimeNanosSupplier,
         ThreadPool threadPool,
         BlobStoreCacheService blobStoreCacheService,
-        SharedBlobCacheService<CacheKey> sharedBlobCacheService
+        SharedBlobCacheService<CacheKey> sharedBlobCacheService,
+        @Nullable FrozenCachePrefetcher frozenCachePrefetcher
     ) throws IOException {
 
         if (SNAPSHOT_REPOSITORY_NAME_SETTING.exists(indexSettings.getSettings()) == false
@@ -627,7 +668,8 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
                 cacheDir,
                 shardPath,
                 threadPool,
-                sharedBlobCacheService
+                sharedBlobCacheService,
+                frozenCachePrefetcher
             )
         );
     }
@@ -672,4 +714,13 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
     public SharedBlobCacheService<CacheKey>.CacheFile getFrozenCacheFile(String fileName, long length) {
         return sharedBlobCacheService.getCacheFile(createCacheKey(fileName), length);
     }
+
+    public long getFrozenCacheCoalescingMaxGap() {
+        return sharedBlobCacheService.getCoalescingMaxGap();
+    }
+
+    @Nullable
+    public FrozenCachePrefetcher.FilePrefetches newFrozenCachePrefetches(String fileName, long length) {
+        return frozenCachePrefetcher != null ? frozenCachePrefetcher.newFilePrefetches(fileName, length) : null;
+    }
 }
@@ -24,7 +24,6 @@ import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.stream.IntStream;
 
 import static org.elasticsearch.blobcache.BlobCacheUtils.readSafe;
 import static org.elasticsearch.blobcache.BlobCacheUtils.toIntBytes;
@@ -150,9 +149,8 @@ public class CachedBlobContainerIndexInput extends MetadataCachingIndexInput {
         if (fileInfo.numberOfParts() == 1) {
             partRange = ByteRange.of(0, fileInfo.length());
         } else {
-            long rangeSize = fileInfo.partSize().getBytes();
-            long rangeStart = (IntStream.range(0, part).mapToLong(fileInfo::partBytes).sum() / rangeSize) * rangeSize;
-            partRange = ByteRange.of(rangeStart, Math.min(rangeStart + rangeSize, fileInfo.length()));
+            long rangeStart = fileInfo.partStart(part);
+            partRange = ByteRange.of(rangeStart, rangeStart + fileInfo.partBytes(part));
         }
         assert assertRangeIsAlignedWithPart(partRange);
 
@@ -236,9 +234,9 @@ public class CachedBlobContainerIndexInput extends MetadataCachingIndexInput {
             assert range.start() == 0L : "start of range [" + range.start() + "] is not aligned with zero";
             assert range.end() == length : "end of range [" + range.end() + "] is not aligned with file length [" + length + ']';
         } else {
-            final long length = fileInfo.partSize().getBytes();
-            assert range.start() % length == 0L : "start of range [" + range.start() + "] is not aligned with part start";
-            assert range.end() % length == 0L || (range.end() == fileInfo.length())
+            assert range.start() == fileInfo.partStart(fileInfo.partForPosition(range.start()))
+                : "start of range [" + range.start() + "] is not aligned with part start";
+            assert range.end() == fileInfo.length() || range.end() == fileInfo.partStart(fileInfo.partForPosition(range.end()))
                 : "end of range [" + range.end() + "] is not aligned with part end or with file length";
         }
         return true;
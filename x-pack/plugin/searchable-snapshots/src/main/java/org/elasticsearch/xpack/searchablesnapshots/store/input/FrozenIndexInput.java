@@ -15,17 +15,31 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.blobcache.BlobCacheUtils;
 import org.elasticsearch.blobcache.common.ByteBufferReference;
 import org.elasticsearch.blobcache.common.ByteRange;
+import org.elasticsearch.blobcache.common.SparseFileTracker;
 import org.elasticsearch.blobcache.shared.SharedBlobCacheService;
 import org.elasticsearch.blobcache.shared.SharedBytes;
+import org.elasticsearch.common.io.Streams;
+import org.elasticsearch.common.io.stream.CountingFilterInputStream;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots;
 import org.elasticsearch.xpack.searchablesnapshots.cache.common.CacheKey;
+import org.elasticsearch.xpack.searchablesnapshots.cache.shared.FrozenCachePrefetcher;
 import org.elasticsearch.xpack.searchablesnapshots.store.IndexInputStats;
 import org.elasticsearch.xpack.searchablesnapshots.store.SearchableSnapshotDirectory;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
 
 public final class FrozenIndexInput extends MetadataCachingIndexInput {
 
@@ -33,6 +47,12 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
 
     private final SharedBlobCacheService<CacheKey>.CacheFile cacheFile;
 
+    @Nullable // if the file is not prefetched
+    private final FrozenCachePrefetcher.FilePrefetches prefetches;
+
+    // the coalesced reads of the file from the blob store that are in progress, shared by an instance and all its clones and slices
+    private final Set<CoalescedInputStreamFactory> coalescedReads;
+
     public FrozenIndexInput(
         String name,
         SearchableSnapshotDirectory directory,
@@ -53,6 +73,8 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
             fileInfo.length(),
             new CacheFileReference(directory, fileInfo.physicalName(), fileInfo.length()),
             directory.getFrozenCacheFile(name, fileInfo.length()),
+            directory.newFrozenCachePrefetches(name, fileInfo.length()),
+            ConcurrentCollections.newConcurrentSet(),
             rangeSize,
             recoveryRangeSize,
             directory.getBlobCacheByteRange(name, fileInfo.length()),
@@ -72,6 +94,8 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
         long length,
         CacheFileReference cacheFileReference,
         SharedBlobCacheService<CacheKey>.CacheFile cacheFile,
+        @Nullable FrozenCachePrefetcher.FilePrefetches prefetches,
+        Set<CoalescedInputStreamFactory> coalescedReads,
         int defaultRangeSize,
         int recoveryRangeSize,
         ByteRange headerBlobCacheByteRange,
@@ -94,6 +118,8 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
             footerBlobCacheByteRange
         );
         this.cacheFile = cacheFile.copy();
+        this.prefetches = prefetches;
+        this.coalescedReads = coalescedReads;
     }
 
     /**
@@ -102,6 +128,8 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
     private FrozenIndexInput(FrozenIndexInput input) {
         super(input);
         this.cacheFile = input.cacheFile.copy();
+        this.prefetches = input.prefetches;
+        this.coalescedReads = input.coalescedReads;
     }
 
     @Override
@@ -111,6 +139,9 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
         if (cacheFile.tryRead(b, position)) {
             // fast-path succeeded, increment stats and return
             stats.addCachedBytesRead(length);
+            if (prefetches != null && prefetches.hasPendingPrefetches()) {
+                prefetches.onCacheHit(cacheFile.getCacheKey(), position, this::blobStoreWriter);
+            }
             return;
         }
         readWithoutBlobCacheSlow(b, position, length);
@@ -133,6 +164,9 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
             assert rangeToWrite.start() <= position && position + length <= rangeToWrite.end()
                 : "[" + position + "-" + (position + length) + "] vs " + rangeToWrite;
             final ByteRange rangeToRead = ByteRange.of(position, position + length);
+            if (prefetches != null) {
+                prefetches.onCacheMiss(cacheFile.getCacheKey(), position, length, this::blobStoreWriter);
+            }
 
             final int bytesRead = cacheFile.populateAndRead(rangeToWrite, rangeToRead, (channel, pos, relativePos, len) -> {
                 logger.trace(
@@ -147,38 +181,7 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
                 final int read = SharedBytes.readCacheFile(channel, pos, relativePos, len, byteBufferReference);
                 stats.addCachedBytesRead(read);
                 return read;
-            },
-                (channel, channelPos, streamFactory, relativePos, len, progressUpdater, completionListener) -> ActionListener.completeWith(
-                    completionListener,
-                    () -> {
-                        assert streamFactory == null : streamFactory;
-                        final long startTimeNanos = stats.currentTimeNanos();
-                        try (InputStream input = openInputStreamFromBlobStore(rangeToWrite.start() + relativePos, len)) {
-                            assert ThreadPool.assertCurrentThreadPool(SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME);
-                            logger.trace(
-                                "{}: writing channel {} pos {} length {} (details: {})",
-                                fileInfo.physicalName(),
-                                channelPos,
-                                relativePos,
-                                len,
-                                cacheFile
-                            );
-                            SharedBytes.copyToCacheFileAligned(
-                                channel,
-                                input,
-                                channelPos,
-                                relativePos,
-                                len,
-                                progressUpdater,
-                                writeBuffer.get().clear()
-                            );
-                            final long endTimeNanos = stats.currentTimeNanos();
-                            stats.addCachedBytesWritten(len, endTimeNanos - startTimeNanos);
-                            return null;
-                        }
-                    }
-                )
-            );
+            }, blobStoreWriter(rangeToWrite.start()));
             assert bytesRead == length : bytesRead + " vs " + length;
             byteBufferReference.finish(bytesRead);
         } finally {
@@ -186,6 +189,260 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
         }
     }
 
+    /**
+     * @return a writer that fills the shared cache with the data of the file read from the blob store, for a range of the file that
+     *         starts at the given position
+     */
+    private SharedBlobCacheService.RangeMissingHandler blobStoreWriter(long rangeStart) {
+        return new SharedBlobCacheService.RangeMissingHandler() {
+            @Override
+            public SharedBlobCacheService.SourceInputStreamFactory sharedInputStreamFactory(List<SparseFileTracker.Gap> gaps) {
+                return coalescedInputStreamFactory(rangeStart, gaps);
+            }
+
+            @Override
+            public void fillCacheRange(
+                SharedBytes.IO channel,
+                int channelPos,
+                @Nullable SharedBlobCacheService.SourceInputStreamFactory streamFactory,
+                int relativePos,
+                int len,
+                IntConsumer progressUpdater,
+                ActionListener<Void> completionListener
+            ) {
+                if (streamFactory == null) {
+                    final GapFill gapFill = new GapFill(
+                        channel,
+                        channelPos,
+                        rangeStart,
+                        relativePos,
+                        len,
+                        progressUpdater,
+                        completionListener
+                    );
+                    for (CoalescedInputStreamFactory coalescedRead : coalescedReads) {
+                        if (coalescedRead.tryJoin(gapFill)) {
+                            return;
+                        }
+                    }
+                    gapFill.fillWithOwnRequest();
+                } else {
+                    ActionListener.run(
+                        completionListener,
+                        l -> streamFactory.create(
+                            relativePos,
+                            l.map(input -> {
+                                writeCacheFile(channel, channelPos, input, relativePos, len, progressUpdater);
+                                return null;
+                            })
+                        )
+                    );
+                }
+            }
+        };
+    }
+
+    private void writeCacheFile(SharedBytes.IO channel, int channelPos, InputStream input, int relativePos, int len, IntConsumer progress)
+        throws IOException {
+        assert ThreadPool.assertCurrentThreadPool(SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME);
+        logger.trace(
+            "{}: writing channel {} pos {} length {} (details: {})",
+            fileInfo.physicalName(),
+            channelPos,
+            relativePos,
+            len,
+            cacheFile
+        );
+        final long startTimeNanos = stats.currentTimeNanos();
+        SharedBytes.copyToCacheFileAligned(channel, input, channelPos, relativePos, len, progress, writeBuffer.get().clear());
+        final long endTimeNanos = stats.currentTimeNanos();
+        stats.addCachedBytesWritten(len, endTimeNanos - startTimeNanos);
+    }
+
+    /**
+     * A range of the file that is missing in the shared cache and that a thread is about to fill.
+     */
+    private final class GapFill {
+
+        private final SharedBytes.IO channel;
+        private final int channelPos;
+        private final long rangeStart;
+        private final int relativePos;
+        private final int length;
+        private final IntConsumer progressUpdater;
+        private final ActionListener<Void> listener;
+
+        GapFill(
+            SharedBytes.IO channel,
+            int channelPos,
+            long rangeStart,
+            int relativePos,
+            int length,
+            IntConsumer progressUpdater,
+            ActionListener<Void> listener
+        ) {
+            this.channel = channel;
+            this.channelPos = channelPos;
+            this.rangeStart = rangeStart;
+            this.relativePos = relativePos;
+            this.length = length;
+            this.progressUpdater = progressUpdater;
+            this.listener = listener;
+        }
+
+        long start() {
+            return rangeStart + relativePos;
+        }
+
+        long end() {
+            return start() + length;
+        }
+
+        void fill(InputStream input) throws IOException {
+            writeCacheFile(channel, channelPos, input, relativePos, length, progressUpdater);
+        }
+
+        void fillWithOwnRequest() {
+            ActionListener.completeWith(listener, () -> {
+                try (InputStream input = openInputStreamFromBlobStore(start(), length)) {
+                    fill(input);
+                    return null;
+                }
+            });
+        }
+    }
+
+    /**
+     * @return a factory that reads all the given gaps of a region from a single range of the blob store, or {@code null} if the gaps
+     *         are too far apart to be coalesced and should be read with one request each
+     */
+    @Nullable
+    private SharedBlobCacheService.SourceInputStreamFactory coalescedInputStreamFactory(long rangeStart, List<SparseFileTracker.Gap> gaps) {
+        final long maxGap = directory.getFrozenCacheCoalescingMaxGap();
+        if (maxGap <= 0L || gaps.size() < 2) {
+            return null;
+        }
+        for (int i = 1; i < gaps.size(); i++) {
+            if (gaps.get(i).start() - gaps.get(i - 1).end() > maxGap) {
+                return null;
+            }
+        }
+        return new CoalescedInputStreamFactory(rangeStart, gaps);
+    }
+
+    /**
+     * Reads the gaps of a region from a single stream opened at the start of the first gap, skipping over the bytes between the gaps.
+     * The gaps are filled in order by a single thread, each one asking for a stream positioned at its start.
+     * <p>
+     * The ranges between the gaps are usually being fetched by other threads. A thread that has not started fetching such a range yet
+     * joins this read instead of sending its own request if the stream has not gone past the range: the thread that fills the gaps then
+     * also fills the range from the stream. If the stream fails in the middle of a range, only this range fails and the stream is
+     * opened again for the next ones.
+     */
+    private class CoalescedInputStreamFactory implements SharedBlobCacheService.SourceInputStreamFactory {
+
+        private final long rangeStart;
+        private final List<SparseFileTracker.Gap> gaps;
+
+        // the ranges filled by other threads that joined this read, by position in the file, guarded by this
+        private final NavigableMap<Long, GapFill> joinedFills = new TreeMap<>();
+        // the position in the file of the region that the gaps belong to, set when the first gap is filled, guarded by this
+        private long regionStart = -1L;
+        // the position in the file before which ranges can no longer join this read, guarded by this
+        private long joinableFrom;
+        private int nextGap;
+        private boolean closed;
+
+        // only accessed by the thread filling the gaps
+        private CountingFilterInputStream input;
+        private long inputStart;
+
+        CoalescedInputStreamFactory(long rangeStart, List<SparseFileTracker.Gap> gaps) {
+            this.rangeStart = rangeStart;
+            this.gaps = gaps;
+        }
+
+        @Override
+        public void create(int relativePos, ActionListener<InputStream> listener) throws IOException {
+            final long position = rangeStart + relativePos;
+            final long previousGapEnd;
+            final long end;
+            final List<GapFill> fills;
+            synchronized (this) {
+                assert closed == false;
+                if (regionStart < 0L) {
+                    regionStart = position - gaps.get(0).start();
+                    coalescedReads.add(this);
+                }
+                final int gap = nextGap++;
+                assert regionStart + gaps.get(gap).start() == position : regionStart + " + " + gaps.get(gap) + " vs " + position;
+                previousGapEnd = gap > 0 ? regionStart + gaps.get(gap - 1).end() : position;
+                end = regionStart + gaps.get(gaps.size() - 1).end();
+                joinableFrom = regionStart + gaps.get(gap).end();
+                final Map<Long, GapFill> joinedBefore = joinedFills.headMap(position, false);
+                fills = List.copyOf(joinedBefore.values());
+                joinedBefore.clear();
+            }
+            if (input != null && inputStart + input.getBytesRead() < previousGapEnd) {
+                // the previous gap failed in the middle of the stream, which may be unusable: open it again
+                closeInput();
+            }
+            for (GapFill fill : fills) {
+                try {
+                    fill.fill(positionedAt(fill.start(), end));
+                } catch (Exception e) {
+                    // the stream may be unusable, open it again for the next ranges
+                    closeInput();
+                    fill.listener.onFailure(e);
+                    continue;
+                }
+                fill.listener.onResponse(null);
+            }
+            listener.onResponse(positionedAt(position, end));
+        }
+
+        /**
+         * Adds the given range to the ranges filled from this read, if this read has not gone past the range yet.
+         */
+        synchronized boolean tryJoin(GapFill fill) {
+            if (closed || regionStart < 0L || fill.start() < joinableFrom || regionStart + gaps.get(gaps.size() - 1).end() < fill.end()) {
+                return false;
+            }
+            joinedFills.put(fill.start(), fill);
+            return true;
+        }
+
+        private InputStream positionedAt(long position, long end) throws IOException {
+            if (input == null) {
+                input = new CountingFilterInputStream(openInputStreamFromBlobStore(position, end - position));
+                inputStart = position;
+            }
+            final long current = inputStart + input.getBytesRead();
+            assert current <= position : current + " > " + position;
+            input.skipNBytes(position - current);
+            return Streams.noCloseStream(input);
+        }
+
+        private void closeInput() {
+            IOUtils.closeWhileHandlingException(input);
+            input = null;
+        }
+
+        @Override
+        public void close() {
+            final List<GapFill> fills;
+            synchronized (this) {
+                closed = true;
+                fills = List.copyOf(joinedFills.values());
+                joinedFills.clear();
+            }
+            coalescedReads.remove(this);
+            closeInput();
+            // ranges that joined this read but were not reached, because the gap that follows them was not filled
+            fills.forEach(GapFill::fillWithOwnRequest);
+        }
+    }
+
     @Override
     protected MetadataCachingIndexInput doSlice(
         String sliceName,
@@ -206,6 +463,8 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
             sliceLength,
             cacheFileReference,
             cacheFile,
+            prefetches,
+            coalescedReads,
             defaultRangeSize,
             recoveryRangeSize,
             sliceHeaderByteRange,
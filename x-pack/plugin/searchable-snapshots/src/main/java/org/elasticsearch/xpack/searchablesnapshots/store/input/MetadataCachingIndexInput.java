@@ -525,7 +525,7 @@ public abstract class MetadataCachingIndexInput extends BlobCacheBufferedIndexIn
             assert position + readLength <= fileInfo.length()
                 : "cannot read [" + position + "-" + (position + readLength) + "] from [" + fileInfo + "]";
             stats.addBlobStoreBytesRequested(readLength);
-            return directory.blobContainer().readBlob(OperationPurpose.SNAPSHOT_DATA, fileInfo.name(), position, readLength);
+            return directory.blobContainer().readBlob(OperationPurpose.SNAPSHOT_DATA, fileInfo.partName(0), position, readLength);
         }
         return openInputStreamMultipleParts(position, readLength);
     }
@@ -564,7 +564,7 @@ public abstract class MetadataCachingIndexInput extends BlobCacheBufferedIndexIn
      */
     private int getPartNumberForPosition(long position) {
         ensureValidPosition(position);
-        final int part = fileInfo.numberOfParts() == 1 ? 0 : Math.toIntExact(position / fileInfo.partSize().getBytes());
+        final int part = fileInfo.partForPosition(position);
         assert part <= fileInfo.numberOfParts() : "part number [" + part + "] exceeds number of parts: " + fileInfo.numberOfParts();
         assert part >= 0 : "part number [" + part + "] is negative";
         return part;
@@ -576,8 +576,9 @@ public abstract class MetadataCachingIndexInput extends BlobCacheBufferedIndexIn
      */
     private long getRelativePositionInPart(long position) {
         ensureValidPosition(position);
-        final long pos = position % fileInfo.partSize().getBytes();
-        assert pos < fileInfo.partBytes(getPartNumberForPosition(pos)) : "position in part [" + pos + "] exceeds part's length";
+        final int part = getPartNumberForPosition(position);
+        final long pos = position - fileInfo.partStart(part);
+        assert pos < fileInfo.partBytes(part) : "position in part [" + pos + "] exceeds part's length";
         assert pos >= 0L : "position in part [" + pos + "] is negative";
         return pos;
     }
@@ -13,6 +13,7 @@ import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.EqualsHashCodeTestUtils;
 
+import java.io.IOException;
 import java.util.Locale;
 
 public class CacheKeyTests extends ESTestCase {
@@ -21,6 +22,11 @@ public class CacheKeyTests extends ESTestCase {
         EqualsHashCodeTestUtils.checkEqualsAndHashCode(createInstance(), this::copy, this::mutate);
     }
 
+    public void testSerialization() throws IOException {
+        final CacheKey cacheKey = createInstance();
+        assertEquals(cacheKey, copyWriteable(cacheKey, writableRegistry(), CacheKey::new));
+    }
+
     private String randomSnapshotUUID() {
         return UUIDs.randomBase64UUID(random());
     }
@@ -0,0 +1,104 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.xpack.searchablesnapshots.cache.shared;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.blobcache.BlobCacheMetrics;
+import org.elasticsearch.blobcache.shared.SharedBlobCacheService;
+import org.elasticsearch.blobcache.shared.SharedBytes;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.DeterministicTaskQueue;
+import org.elasticsearch.env.NodeEnvironment;
+import org.elasticsearch.env.TestEnvironment;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.store.LuceneFilesExtensions;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.xpack.searchablesnapshots.cache.common.CacheKey;
+
+import java.io.IOException;
+
+import static org.elasticsearch.node.Node.NODE_NAME_SETTING;
+import static org.hamcrest.Matchers.equalTo;
+
+public class FrozenCachePrefetcherTests extends ESTestCase {
+
+    private static final SharedBlobCacheService.RangeMissingHandler WRITER = (
+        channel,
+        channelPos,
+        streamFactory,
+        relativePos,
+        length,
+        progressUpdater,
+        completionListener) -> ActionListener.completeWith(completionListener, () -> {
+            progressUpdater.accept(length);
+            return null;
+        });
+
+    public void testStopsPrefetchingInaccurateFileTypes() throws IOException {
+        final int regionSize = SharedBytes.PAGE_SIZE;
+        final int probes = between(1, 4);
+        final int numRegions = FrozenCachePrefetcher.MIN_SAMPLES + probes + 8;
+        final Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes((long) numRegions * regionSize))
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize))
+            .put(SharedBlobCacheService.SHARED_CACHE_RANGE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize))
+            .put(FrozenCachePrefetcher.PREFETCH_MAX_REGIONS_SETTING.getKey(), between(1, 16))
+            .put("path.home", createTempDir())
+            .build();
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        try (
+            NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+            SharedBlobCacheService<CacheKey> cacheService = new SharedBlobCacheService<>(
+                environment,
+                settings,
+                taskQueue.getThreadPool(),
+                taskQueue.getThreadPool().executor(ThreadPool.Names.GENERIC),
+                BlobCacheMetrics.NOOP
+            )
+        ) {
+            final FrozenCachePrefetcher prefetcher = new FrozenCachePrefetcher(
+                settings,
+                cacheService,
+                taskQueue.getThreadPool().executor(ThreadPool.Names.GENERIC),
+                MeterRegistry.NOOP
+            );
+            final ShardId shardId = new ShardId("_index", "_uuid", 0);
+            final long fileLength = 2L * regionSize;
+            int files = 0;
+
+            // each file misses the cache on its first region, the next region is prefetched and never read
+            for (int i = 0; i < FrozenCachePrefetcher.MIN_SAMPLES; i++) {
+                missFirstRegion(prefetcher, new CacheKey("_snapshot", "_index", shardId, "_" + files++ + ".tim"), fileLength);
+                taskQueue.runAllTasks();
+            }
+            assertThat(prefetcher.stats(LuceneFilesExtensions.TIM).issued(), equalTo((long) FrozenCachePrefetcher.MIN_SAMPLES));
+            assertThat(prefetcher.stats(LuceneFilesExtensions.TIM).used(), equalTo(0L));
+
+            // none of the prefetched regions were read, so only one in PROBE_INTERVAL misses prefetches a region now
+            for (int i = 0; i < probes * FrozenCachePrefetcher.PROBE_INTERVAL; i++) {
+                missFirstRegion(prefetcher, new CacheKey("_snapshot", "_index", shardId, "_" + files++ + ".tim"), fileLength);
+                taskQueue.runAllTasks();
+            }
+            assertThat(prefetcher.stats(LuceneFilesExtensions.TIM).issued(), equalTo((long) FrozenCachePrefetcher.MIN_SAMPLES + probes));
+
+            // other types of files are not affected
+            missFirstRegion(prefetcher, new CacheKey("_snapshot", "_index", shardId, "_" + files + ".dvd"), fileLength);
+            taskQueue.runAllTasks();
+            assertThat(prefetcher.stats(LuceneFilesExtensions.DVD).issued(), equalTo(1L));
+        }
+    }
+
+    private static void missFirstRegion(FrozenCachePrefetcher prefetcher, CacheKey cacheKey, long fileLength) {
+        final FrozenCachePrefetcher.FilePrefetches filePrefetches = prefetcher.newFilePrefetches(cacheKey.fileName(), fileLength);
+        filePrefetches.onCacheMiss(cacheKey, 0L, 1, position -> WRITER);
+    }
+}
@@ -9,12 +9,19 @@ package org.elasticsearch.xpack.searchablesnapshots.store.input;
 
 import org.apache.lucene.store.IndexInput;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRunnable;
+import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.blobcache.BlobCacheMetrics;
 import org.elasticsearch.blobcache.shared.SharedBlobCacheService;
 import org.elasticsearch.blobcache.shared.SharedBytes;
+import org.elasticsearch.common.blobstore.BlobContainer;
+import org.elasticsearch.common.blobstore.OperationPurpose;
+import org.elasticsearch.common.blobstore.support.FilterBlobContainer;
+import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.lucene.store.ByteArrayIndexInput;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.env.NodeEnvironment;
@@ -25,21 +32,35 @@ import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.ShardPath;
 import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
 import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo;
+import org.elasticsearch.index.store.LuceneFilesExtensions;
 import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.indices.recovery.RecoveryState;
 import org.elasticsearch.repositories.IndexId;
 import org.elasticsearch.snapshots.SearchableSnapshotsSettings;
 import org.elasticsearch.snapshots.SnapshotId;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
 import org.elasticsearch.xpack.searchablesnapshots.AbstractSearchableSnapshotsTestCase;
 import org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots;
 import org.elasticsearch.xpack.searchablesnapshots.cache.common.CacheKey;
 import org.elasticsearch.xpack.searchablesnapshots.cache.common.TestUtils;
 import org.elasticsearch.xpack.searchablesnapshots.cache.full.CacheService;
+import org.elasticsearch.xpack.searchablesnapshots.cache.shared.FrozenCachePrefetcher;
+import org.elasticsearch.xpack.searchablesnapshots.recovery.SearchableSnapshotRecoveryState;
+import org.elasticsearch.xpack.searchablesnapshots.store.IndexInputStats;
 import org.elasticsearch.xpack.searchablesnapshots.store.SearchableSnapshotDirectory;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 
 import static org.elasticsearch.core.IOUtils.WINDOWS;
 import static org.elasticsearch.xpack.searchablesnapshots.cache.full.CacheService.resolveSnapshotCache;
@@ -122,7 +143,8 @@ public class FrozenIndexInputTests extends AbstractSearchableSnapshotsTestCase {
                 snapshotId,
                 fileData,
                 shardPath,
-                cacheDir
+                cacheDir,
+                null
             )
         ) {
             cacheService.start();
@@ -151,6 +173,432 @@ public class FrozenIndexInputTests extends AbstractSearchableSnapshotsTestCase {
         }
     }
 
+    public void testSequentialReadsPrefetchNextRegions() throws Exception {
+        final int regionSize = SharedBytes.PAGE_SIZE;
+        final int numRegions = randomIntBetween(4, 8);
+        final String fileName = "_0." + LuceneFilesExtensions.DVD.getExtension();
+        final Tuple<String, byte[]> bytes = randomChecksumBytes(randomByteArrayOfLength(numRegions * regionSize - 16));
+
+        final byte[] fileData = bytes.v2();
+        assertEquals(numRegions * regionSize, fileData.length);
+        final FileInfo fileInfo = new FileInfo(
+            randomAlphaOfLength(10),
+            new StoreFileMetadata(fileName, fileData.length, bytes.v1(), IndexVersion.current().luceneVersion().toString()),
+            ByteSizeValue.ofBytes(fileData.length)
+        );
+
+        final Settings settings = Settings.builder()
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize))
+            .put(SharedBlobCacheService.SHARED_CACHE_RANGE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize))
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(2L * numRegions * regionSize))
+            .put(FrozenCachePrefetcher.PREFETCH_MAX_REGIONS_SETTING.getKey(), randomIntBetween(1, 4))
+            .put("path.home", createTempDir())
+            .build();
+        final Environment environment = TestEnvironment.newEnvironment(settings);
+        for (Path path : environment.dataFiles()) {
+            Files.createDirectories(path);
+        }
+        SnapshotId snapshotId = new SnapshotId("_name", "_uuid");
+        final Path shardDir = randomShardPath(SHARD_ID);
+        final ShardPath shardPath = new ShardPath(false, shardDir, shardDir, SHARD_ID);
+        final Path cacheDir = Files.createDirectories(resolveSnapshotCache(shardDir).resolve(snapshotId.getUUID()));
+        try (
+            NodeEnvironment nodeEnvironment = new NodeEnvironment(settings, environment);
+            SharedBlobCacheService<CacheKey> sharedBlobCacheService = new SharedBlobCacheService<>(
+                nodeEnvironment,
+                settings,
+                threadPool,
+                threadPool.executor(SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME),
+                BlobCacheMetrics.NOOP
+            );
+            CacheService cacheService = randomCacheService()
+        ) {
+            final FrozenCachePrefetcher prefetcher = new FrozenCachePrefetcher(
+                settings,
+                sharedBlobCacheService,
+                threadPool.executor(SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME),
+                MeterRegistry.NOOP
+            );
+            try (
+                TestSearchableSnapshotDirectory directory = new TestSearchableSnapshotDirectory(
+                    sharedBlobCacheService,
+                    cacheService,
+                    fileInfo,
+                    snapshotId,
+                    fileData,
+                    shardPath,
+                    cacheDir,
+                    prefetcher
+                )
+            ) {
+                cacheService.start();
+                directory.loadSnapshot(createRecoveryState(true), () -> false, ActionListener.noop());
+
+                try (IndexInput indexInput = directory.openInput(fileName, randomIOContext())) {
+                    assertThat(indexInput, instanceOf(FrozenIndexInput.class));
+                    // skip the first region, which holds the header of the file that is read from the blob store cache index
+                    indexInput.seek(regionSize);
+                    final byte[] result = new byte[fileData.length - regionSize];
+                    int pos = 0;
+                    while (pos < result.length) {
+                        final int len = Math.min(randomIntBetween(1, regionSize), result.length - pos);
+                        indexInput.readBytes(result, pos, len);
+                        pos += len;
+                    }
+                    assertArrayEquals(Arrays.copyOfRange(fileData, regionSize, fileData.length), result);
+                }
+
+                // the first region that is read misses the cache, all the next ones are prefetched
+                assertBusy(() -> {
+                    final FrozenCachePrefetcher.PrefetchStats stats = prefetcher.stats(LuceneFilesExtensions.DVD);
+                    assertThat(stats.issued(), equalTo((long) numRegions - 2));
+                    assertThat(stats.used(), equalTo(stats.issued()));
+                });
+            }
+        }
+    }
+
+    public void testCoalescedReads() throws Exception {
+        final int regionSize = 4 * SharedBytes.PAGE_SIZE;
+        final String fileName = "_0." + LuceneFilesExtensions.DVD.getExtension();
+        final Tuple<String, byte[]> bytes = randomChecksumBytes(randomByteArrayOfLength(2 * regionSize - 16));
+
+        final byte[] fileData = bytes.v2();
+        final FileInfo fileInfo = new FileInfo(
+            randomAlphaOfLength(10),
+            new StoreFileMetadata(fileName, fileData.length, bytes.v1(), IndexVersion.current().luceneVersion().toString()),
+            ByteSizeValue.ofBytes(fileData.length)
+        );
+
+        final boolean coalescing = randomBoolean();
+        final Settings settings = Settings.builder()
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize))
+            .put(SharedBlobCacheService.SHARED_CACHE_RANGE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize))
+            .put(SharedBlobCacheService.SHARED_CACHE_RECOVERY_RANGE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(SharedBytes.PAGE_SIZE))
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(4L * regionSize))
+            .put(
+                SharedBlobCacheService.SHARED_CACHE_COALESCING_MAX_GAP_SETTING.getKey(),
+                coalescing ? ByteSizeValue.ofBytes(randomLongBetween(SharedBytes.PAGE_SIZE, regionSize)) : ByteSizeValue.ZERO
+            )
+            .put("path.home", createTempDir())
+            .build();
+        final Environment environment = TestEnvironment.newEnvironment(settings);
+        for (Path path : environment.dataFiles()) {
+            Files.createDirectories(path);
+        }
+        SnapshotId snapshotId = new SnapshotId("_name", "_uuid");
+        final Path shardDir = randomShardPath(SHARD_ID);
+        final ShardPath shardPath = new ShardPath(false, shardDir, shardDir, SHARD_ID);
+        final Path cacheDir = Files.createDirectories(resolveSnapshotCache(shardDir).resolve(snapshotId.getUUID()));
+        try (
+            NodeEnvironment nodeEnvironment = new NodeEnvironment(settings, environment);
+            SharedBlobCacheService<CacheKey> sharedBlobCacheService = new SharedBlobCacheService<>(
+                nodeEnvironment,
+                settings,
+                threadPool,
+                threadPool.executor(SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME),
+                BlobCacheMetrics.NOOP
+            );
+            CacheService cacheService = randomCacheService();
+            TestSearchableSnapshotDirectory directory = new TestSearchableSnapshotDirectory(
+                sharedBlobCacheService,
+                cacheService,
+                fileInfo,
+                snapshotId,
+                fileData,
+                shardPath,
+                cacheDir,
+                null
+            )
+        ) {
+            cacheService.start();
+            final SearchableSnapshotRecoveryState recoveryState = createRecoveryState(false);
+            directory.loadSnapshot(recoveryState, () -> false, ActionListener.noop());
+
+            try (IndexInput indexInput = directory.openInput(fileName, randomIOContext())) {
+                assertThat(indexInput, instanceOf(FrozenIndexInput.class));
+                final IndexInputStats stats = directory.getStats().get(fileName);
+
+                // while the recovery is not finalized, reads fetch a single page: fetch the first and third pages of the second region
+                for (int page : new int[] { 0, 2 }) {
+                    indexInput.seek(regionSize + page * SharedBytes.PAGE_SIZE);
+                    assertThat(indexInput.readByte(), equalTo(fileData[regionSize + page * SharedBytes.PAGE_SIZE]));
+                }
+                assertThat(stats.getBlobStoreBytesRequested().count(), equalTo(2L));
+
+                // once it is finalized, reads fetch a whole region: the second and fourth pages are missing
+                recoveryState.setStage(RecoveryState.Stage.FINALIZE);
+                indexInput.seek(regionSize + SharedBytes.PAGE_SIZE);
+                final byte[] result = new byte[3 * SharedBytes.PAGE_SIZE];
+                indexInput.readBytes(result, 0, result.length);
+                assertArrayEquals(Arrays.copyOfRange(fileData, regionSize + SharedBytes.PAGE_SIZE, fileData.length), result);
+
+                if (coalescing) {
+                    assertThat(stats.getBlobStoreBytesRequested().count(), equalTo(3L));
+                    assertThat(stats.getBlobStoreBytesRequested().total(), equalTo(5L * SharedBytes.PAGE_SIZE));
+                } else {
+                    assertThat(stats.getBlobStoreBytesRequested().count(), equalTo(4L));
+                    assertThat(stats.getBlobStoreBytesRequested().total(), equalTo(4L * SharedBytes.PAGE_SIZE));
+                }
+            }
+        }
+    }
+
+    public void testCoalescedReadJoinedByOtherThreads() throws Exception {
+        final int regionSize = 4 * SharedBytes.PAGE_SIZE;
+        final String fileName = "_0." + LuceneFilesExtensions.DVD.getExtension();
+        final Tuple<String, byte[]> bytes = randomChecksumBytes(randomByteArrayOfLength(2 * regionSize - 16));
+
+        final byte[] fileData = bytes.v2();
+        final FileInfo fileInfo = new FileInfo(
+            randomAlphaOfLength(10),
+            new StoreFileMetadata(fileName, fileData.length, bytes.v1(), IndexVersion.current().luceneVersion().toString()),
+            ByteSizeValue.ofBytes(fileData.length)
+        );
+
+        final Settings settings = Settings.builder()
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize))
+            .put(SharedBlobCacheService.SHARED_CACHE_RANGE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize))
+            .put(SharedBlobCacheService.SHARED_CACHE_RECOVERY_RANGE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(SharedBytes.PAGE_SIZE))
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(4L * regionSize))
+            .put(SharedBlobCacheService.SHARED_CACHE_COALESCING_MAX_GAP_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize))
+            .put("path.home", createTempDir())
+            .build();
+        final Environment environment = TestEnvironment.newEnvironment(settings);
+        for (Path path : environment.dataFiles()) {
+            Files.createDirectories(path);
+        }
+        SnapshotId snapshotId = new SnapshotId("_name", "_uuid");
+        final Path shardDir = randomShardPath(SHARD_ID);
+        final ShardPath shardPath = new ShardPath(false, shardDir, shardDir, SHARD_ID);
+        final Path cacheDir = Files.createDirectories(resolveSnapshotCache(shardDir).resolve(snapshotId.getUUID()));
+
+        // the tasks that fill the cache are held back while holdTasks is set
+        final Executor fetchExecutor = threadPool.executor(SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME);
+        final AtomicBoolean holdTasks = new AtomicBoolean();
+        final List<Runnable> heldTasks = new CopyOnWriteArrayList<>();
+        final Executor executor = task -> {
+            if (holdTasks.get()) {
+                heldTasks.add(task);
+            } else {
+                fetchExecutor.execute(task);
+            }
+        };
+        // the read of the whole second region blocks until released
+        final CountDownLatch coalescedReadStarted = new CountDownLatch(1);
+        final CountDownLatch releaseCoalescedRead = new CountDownLatch(1);
+        final BlobContainer blobContainer = interceptingBlobContainer(fileInfo, fileData, (position, input) -> {
+            if (position != regionSize) {
+                return input;
+            }
+            return new FilterInputStream(input) {
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    coalescedReadStarted.countDown();
+                    safeAwait(releaseCoalescedRead);
+                    return super.read(b, off, len);
+                }
+            };
+        });
+        try (
+            NodeEnvironment nodeEnvironment = new NodeEnvironment(settings, environment);
+            SharedBlobCacheService<CacheKey> sharedBlobCacheService = new SharedBlobCacheService<>(
+                nodeEnvironment,
+                settings,
+                threadPool,
+                executor,
+                BlobCacheMetrics.NOOP
+            );
+            CacheService cacheService = randomCacheService();
+            TestSearchableSnapshotDirectory directory = new TestSearchableSnapshotDirectory(
+                sharedBlobCacheService,
+                cacheService,
+                fileInfo,
+                snapshotId,
+                blobContainer,
+                shardPath,
+                cacheDir,
+                null
+            )
+        ) {
+            cacheService.start();
+            final SearchableSnapshotRecoveryState recoveryState = createRecoveryState(false);
+            directory.loadSnapshot(recoveryState, () -> false, ActionListener.noop());
+
+            try (IndexInput indexInput = directory.openInput(fileName, randomIOContext())) {
+                assertThat(indexInput, instanceOf(FrozenIndexInput.class));
+                final IndexInputStats stats = directory.getStats().get(fileName);
+
+                // while the recovery is not finalized, reads fetch a single page: the second page of the second region is pending
+                holdTasks.set(true);
+                final IndexInput singlePageInput = indexInput.clone();
+                final PlainActionFuture<Byte> singlePageRead = new PlainActionFuture<>();
+                threadPool.generic().execute(ActionRunnable.supply(singlePageRead, () -> {
+                    singlePageInput.seek(regionSize + SharedBytes.PAGE_SIZE);
+                    return singlePageInput.readByte();
+                }));
+                assertBusy(() -> assertThat(heldTasks.size(), equalTo(1)));
+                holdTasks.set(false);
+
+                // once it is finalized, reads fetch a whole region: the first, third and fourth pages are read with a single request
+                recoveryState.setStage(RecoveryState.Stage.FINALIZE);
+                final IndexInput regionInput = indexInput.clone();
+                final PlainActionFuture<byte[]> regionRead = new PlainActionFuture<>();
+                threadPool.generic().execute(ActionRunnable.supply(regionRead, () -> {
+                    regionInput.seek(regionSize);
+                    final byte[] result = new byte[3 * SharedBytes.PAGE_SIZE];
+                    regionInput.readBytes(result, 0, result.length);
+                    return result;
+                }));
+                safeAwait(coalescedReadStarted);
+
+                // the second page is filled from the in-flight coalesced read rather than with its own request
+                final PlainActionFuture<Void> heldTaskDone = new PlainActionFuture<>();
+                fetchExecutor.execute(ActionRunnable.run(heldTaskDone, heldTasks.get(0)::run));
+                safeGet(heldTaskDone);
+                assertFalse(singlePageRead.isDone());
+                releaseCoalescedRead.countDown();
+
+                assertThat(safeGet(singlePageRead), equalTo(fileData[regionSize + SharedBytes.PAGE_SIZE]));
+                assertArrayEquals(Arrays.copyOfRange(fileData, regionSize, regionSize + 3 * SharedBytes.PAGE_SIZE), safeGet(regionRead));
+                assertThat(stats.getBlobStoreBytesRequested().count(), equalTo(1L));
+                assertThat(stats.getBlobStoreBytesRequested().total(), equalTo((long) regionSize));
+            }
+        }
+    }
+
+    public void testCoalescedReadFailingInTheMiddleOfAGap() throws Exception {
+        final int regionSize = 4 * SharedBytes.PAGE_SIZE;
+        final String fileName = "_0." + LuceneFilesExtensions.DVD.getExtension();
+        final Tuple<String, byte[]> bytes = randomChecksumBytes(randomByteArrayOfLength(2 * regionSize - 16));
+
+        final byte[] fileData = bytes.v2();
+        final FileInfo fileInfo = new FileInfo(
+            randomAlphaOfLength(10),
+            new StoreFileMetadata(fileName, fileData.length, bytes.v1(), IndexVersion.current().luceneVersion().toString()),
+            ByteSizeValue.ofBytes(fileData.length)
+        );
+
+        final Settings settings = Settings.builder()
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize))
+            .put(SharedBlobCacheService.SHARED_CACHE_RANGE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize))
+            .put(SharedBlobCacheService.SHARED_CACHE_RECOVERY_RANGE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(SharedBytes.PAGE_SIZE))
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(4L * regionSize))
+            .put(SharedBlobCacheService.SHARED_CACHE_COALESCING_MAX_GAP_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize))
+            .put("path.home", createTempDir())
+            .build();
+        final Environment environment = TestEnvironment.newEnvironment(settings);
+        for (Path path : environment.dataFiles()) {
+            Files.createDirectories(path);
+        }
+        SnapshotId snapshotId = new SnapshotId("_name", "_uuid");
+        final Path shardDir = randomShardPath(SHARD_ID);
+        final ShardPath shardPath = new ShardPath(false, shardDir, shardDir, SHARD_ID);
+        final Path cacheDir = Files.createDirectories(resolveSnapshotCache(shardDir).resolve(snapshotId.getUUID()));
+
+        // the first read of the second and fourth pages of the second region fails in the middle of the second page
+        final AtomicBoolean failCoalescedRead = new AtomicBoolean(true);
+        final int failAfter = between(0, SharedBytes.PAGE_SIZE - 1);
+        final BlobContainer blobContainer = interceptingBlobContainer(fileInfo, fileData, (position, input) -> {
+            if (position != regionSize + SharedBytes.PAGE_SIZE || failCoalescedRead.getAndSet(false) == false) {
+                return input;
+            }
+            return new FilterInputStream(Streams.limitStream(input, failAfter)) {
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    final int read = super.read(b, off, len);
+                    if (read == -1) {
+                        throw new IOException("simulated");
+                    }
+                    return read;
+                }
+
+                @Override
+                public long skip(long n) throws IOException {
+                    throw new IOException("simulated");
+                }
+            };
+        });
+        try (
+            NodeEnvironment nodeEnvironment = new NodeEnvironment(settings, environment);
+            SharedBlobCacheService<CacheKey> sharedBlobCacheService = new SharedBlobCacheService<>(
+                nodeEnvironment,
+                settings,
+                threadPool,
+                threadPool.executor(SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME),
+                BlobCacheMetrics.NOOP
+            );
+            CacheService cacheService = randomCacheService();
+            TestSearchableSnapshotDirectory directory = new TestSearchableSnapshotDirectory(
+                sharedBlobCacheService,
+                cacheService,
+                fileInfo,
+                snapshotId,
+                blobContainer,
+                shardPath,
+                cacheDir,
+                null
+            )
+        ) {
+            cacheService.start();
+            final SearchableSnapshotRecoveryState recoveryState = createRecoveryState(false);
+            directory.loadSnapshot(recoveryState, () -> false, ActionListener.noop());
+
+            try (IndexInput indexInput = directory.openInput(fileName, randomIOContext())) {
+                assertThat(indexInput, instanceOf(FrozenIndexInput.class));
+                final IndexInputStats stats = directory.getStats().get(fileName);
+
+                // while the recovery is not finalized, reads fetch a single page: fetch the first and third pages of the second region
+                for (int page : new int[] { 0, 2 }) {
+                    indexInput.seek(regionSize + page * SharedBytes.PAGE_SIZE);
+                    assertThat(indexInput.readByte(), equalTo(fileData[regionSize + page * SharedBytes.PAGE_SIZE]));
+                }
+                assertThat(stats.getBlobStoreBytesRequested().count(), equalTo(2L));
+
+                // once it is finalized, reads fetch a whole region: the second and fourth pages are read with a single request, that fails
+                recoveryState.setStage(RecoveryState.Stage.FINALIZE);
+                indexInput.seek(regionSize + SharedBytes.PAGE_SIZE);
+                final byte[] result = new byte[3 * SharedBytes.PAGE_SIZE];
+                expectThrows(IOException.class, () -> indexInput.readBytes(result, 0, result.length));
+
+                // the fourth page is still filled, with a new request
+                assertBusy(() -> assertThat(stats.getBlobStoreBytesRequested().count(), equalTo(4L)));
+                indexInput.seek(regionSize + 3 * SharedBytes.PAGE_SIZE);
+                final byte[] fourthPage = new byte[SharedBytes.PAGE_SIZE];
+                indexInput.readBytes(fourthPage, 0, fourthPage.length);
+                assertArrayEquals(Arrays.copyOfRange(fileData, regionSize + 3 * SharedBytes.PAGE_SIZE, fileData.length), fourthPage);
+                assertThat(stats.getBlobStoreBytesRequested().count(), equalTo(4L));
+
+                // the second page is fetched again by the next read
+                indexInput.seek(regionSize + SharedBytes.PAGE_SIZE);
+                indexInput.readBytes(result, 0, result.length);
+                assertArrayEquals(Arrays.copyOfRange(fileData, regionSize + SharedBytes.PAGE_SIZE, fileData.length), result);
+                assertThat(stats.getBlobStoreBytesRequested().count(), equalTo(5L));
+            }
+        }
+    }
+
+    /**
+     * @return a container of the single blob of the given file, whose streams are passed to the given function with their position
+     */
+    private static BlobContainer interceptingBlobContainer(
+        FileInfo fileInfo,
+        byte[] fileData,
+        BiFunction<Long, InputStream, InputStream> interceptor
+    ) {
+        return new FilterBlobContainer(TestUtils.singleBlobContainer(fileInfo.partName(0), fileData)) {
+            @Override
+            protected BlobContainer wrapChild(BlobContainer child) {
+                throw new AssertionError("unexpected child container");
+            }
+
+            @Override
+            public InputStream readBlob(OperationPurpose purpose, String blobName, long position, long length) throws IOException {
+                return interceptor.apply(position, super.readBlob(purpose, blobName, position, length));
+            }
+        };
+    }
+
     private class TestSearchableSnapshotDirectory extends SearchableSnapshotDirectory {
 
         TestSearchableSnapshotDirectory(
@@ -160,10 +608,33 @@ public class FrozenIndexInputTests extends AbstractSearchableSnapshotsTestCase {
             SnapshotId snapshotId,
             byte[] fileData,
             ShardPath shardPath,
-            Path cacheDir
+            Path cacheDir,
+            @Nullable FrozenCachePrefetcher prefetcher
+        ) {
+            this(
+                service,
+                cacheService,
+                fileInfo,
+                snapshotId,
+                TestUtils.singleBlobContainer(fileInfo.partName(0), fileData),
+                shardPath,
+                cacheDir,
+                prefetcher
+            );
+        }
+
+        TestSearchableSnapshotDirectory(
+            SharedBlobCacheService<CacheKey> service,
+            CacheService cacheService,
+            FileInfo fileInfo,
+            SnapshotId snapshotId,
+            BlobContainer blobContainer,
+            ShardPath shardPath,
+            Path cacheDir,
+            @Nullable FrozenCachePrefetcher prefetcher
         ) {
             super(
-                () -> TestUtils.singleBlobContainer(fileInfo.partName(0), fileData),
+                () -> blobContainer,
                 () -> new BlobStoreIndexShardSnapshot("_snapshot_id", List.of(fileInfo), 0L, 0L, 0, 0L),
                 new TestUtils.SimpleBlobStoreCacheService(),
                 "_repository",
@@ -179,7 +650,8 @@ public class FrozenIndexInputTests extends AbstractSearchableSnapshotsTestCase {
                 cacheDir,
                 shardPath,
                 threadPool,
-                service
+                service,
+                prefetcher
             );
         }
     }
@@ -390,34 +390,38 @@ public class SecurityNetty4Transport extends Netty4Transport {
             }
 
             if (tcpKeepAlive != null) {
+                final boolean epoll = SharedGroupFactory.usesEpoll(bootstrap.config().group());
+                final ChannelOption<Integer> keepIdleOption = tcpKeepIdleOption(epoll);
+                final ChannelOption<Integer> keepIntervalOption = tcpKeepIntervalOption(epoll);
+                final ChannelOption<Integer> keepCountOption = tcpKeepCountOption(epoll);
                 bootstrap.option(ChannelOption.SO_KEEPALIVE, tcpKeepAlive);
                 if (tcpKeepAlive) {
                     // Note that Netty logs a warning if it can't set the option
                     if (tcpKeepIdle != null) {
                         if (tcpKeepIdle >= 0) {
-                            bootstrap.option(OPTION_TCP_KEEP_IDLE, tcpKeepIdle);
+                            bootstrap.option(keepIdleOption, tcpKeepIdle);
                         } else {
-                            bootstrap.option(OPTION_TCP_KEEP_IDLE, null);
+                            bootstrap.option(keepIdleOption, null);
                         }
                     }
                     if (tcpKeepInterval != null) {
                         if (tcpKeepInterval >= 0) {
-                            bootstrap.option(OPTION_TCP_KEEP_INTERVAL, tcpKeepInterval);
+                            bootstrap.option(keepIntervalOption, tcpKeepInterval);
                         } else {
-                            bootstrap.option(OPTION_TCP_KEEP_INTERVAL, null);
+                            bootstrap.option(keepIntervalOption, null);
                         }
                     }
                     if (tcpKeepCount != null) {
                         if (tcpKeepCount >= 0) {
-                            bootstrap.option(OPTION_TCP_KEEP_COUNT, tcpKeepCount);
+                            bootstrap.option(keepCountOption, tcpKeepCount);
                         } else {
-                            bootstrap.option(OPTION_TCP_KEEP_COUNT, null);
+                            bootstrap.option(keepCountOption, null);
                         }
                     }
                 } else {
-                    bootstrap.option(OPTION_TCP_KEEP_IDLE, null);
-                    bootstrap.option(OPTION_TCP_KEEP_INTERVAL, null);
-                    bootstrap.option(OPTION_TCP_KEEP_COUNT, null);
+                    bootstrap.option(keepIdleOption, null);
+                    bootstrap.option(keepIntervalOption, null);
+                    bootstrap.option(keepCountOption, null);
                 }
             }
 